@@ -0,0 +1,36 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.util.AESUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AESUtil round trip cost on a card-number sized payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AesBenchmark {
+
+    private final String plain = "4111111111111111";
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        encrypted = AESUtil.encrypt(plain);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return AESUtil.encrypt(plain);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return AESUtil.decrypt(encrypted);
+    }
+}
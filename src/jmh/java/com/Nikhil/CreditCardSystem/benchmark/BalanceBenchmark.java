@@ -0,0 +1,73 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.Entity.Customer;
+import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.repo.CustomerRepository;
+import com.Nikhil.CreditCardSystem.service.CreditCardService;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CreditCardService.debitCard / creditCard end to end against an embedded H2 database.
+ * Daily counters are reset before every iteration so the limits never trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceBenchmark {
+
+    private static final long AMOUNT = 1; // one paisa
+
+    private ConfigurableApplicationContext context;
+    private CreditCardService cardService;
+    private JdbcTemplate jdbcTemplate;
+    private Long customerId;
+    private String cardNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedApp.start();
+        cardService = context.getBean(CreditCardService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Customer customer = new Customer();
+        customer.setUsername("bench");
+        customer.setName("Bench User");
+        customer.setRole("USER");
+        customerId = context.getBean(CustomerRepository.class).save(customer).getId();
+
+        // createCard walks Customer.creditCards, which needs an open session outside a web request
+        ResponseEntity<ResponseStructure<CreditCardDto>> created = context.getBean(TransactionTemplate.class)
+                .execute(status -> cardService.createCard(customerId, 40000, "VISA", true));
+        cardNumber = ((CreditCardDto) created.getBody().getData()).getCardNumber();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetDailyCounters() {
+        jdbcTemplate.update("UPDATE credit_card SET daily_debited_minor = 0, daily_credited_minor = 0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object debit() {
+        return cardService.debitCard(customerId, cardNumber, AMOUNT);
+    }
+
+    @Benchmark
+    public Object credit() {
+        return cardService.creditCard(customerId, cardNumber, AMOUNT);
+    }
+}
@@ -0,0 +1,71 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.service.CardNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing a card number as the credit_card table grows: the block / permutation based
+ * CardNumberGenerator versus the previous random number + existsByCardNumber loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardNumberBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int existingCards;
+
+    private ConfigurableApplicationContext context;
+    private CardNumberGenerator generator;
+    private CreditCardRepository creditCardRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedApp.start();
+        generator = context.getBean(CardNumberGenerator.class);
+        creditCardRepository = context.getBean(CreditCardRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < existingCards; i++) {
+            rows.add(new Object[]{String.valueOf(1_0000_0000_0000_000L + (long) i * 8_999_999_999L + random.nextInt(1000))});
+            if (rows.size() == 10_000 || i == existingCards - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO credit_card (card_number, card_type, is_active, total_balance_minor, "
+                        + "daily_debited_minor, daily_credited_minor) VALUES (?, 'VISA', TRUE, 0, 0, 0)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generator() {
+        return generator.next("VISA");
+    }
+
+    @Benchmark
+    public String randomWithExistsCheck() {
+        String cardNumber;
+        do {
+            cardNumber = String.valueOf(1_0000_0000_0000_000L + ThreadLocalRandom.current().nextLong(9_0000_0000_0000_000L));
+        } while (creditCardRepository.existsByCardNumber(cardNumber));
+        return cardNumber;
+    }
+}
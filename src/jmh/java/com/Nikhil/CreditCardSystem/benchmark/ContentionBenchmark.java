@@ -0,0 +1,103 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.Entity.Customer;
+import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.repo.CustomerRepository;
+import com.Nikhil.CreditCardSystem.service.CreditCardService;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debits and credits against ONE card from 1, 8 and 64 concurrent writers, for each
+ * creditcard.ledger.concurrency mode. Optimistic attempts that give up are counted as operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentionBenchmark {
+
+    private static final long AMOUNT = 1; // one paisa
+
+    @Param({"OPTIMISTIC", "PESSIMISTIC", "ATOMIC"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private CreditCardService cardService;
+    private JdbcTemplate jdbcTemplate;
+    private Long customerId;
+    private String cardNumber;
+
+    @State(Scope.Thread)
+    public static class Writer {
+        boolean debitNext = true;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Pool as large as the writer count, so the card row is the only point of contention
+        context = EmbeddedApp.start("creditcard.ledger.concurrency=" + mode,
+                "spring.datasource.hikari.maximum-pool-size=64");
+        cardService = context.getBean(CreditCardService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Customer customer = new Customer();
+        customer.setUsername("contention");
+        customer.setName("Contention User");
+        customer.setRole("USER");
+        customerId = context.getBean(CustomerRepository.class).save(customer).getId();
+
+        ResponseEntity<ResponseStructure<CreditCardDto>> created = context.getBean(TransactionTemplate.class)
+                .execute(status -> cardService.createCard(customerId, 40000, "VISA", true));
+        cardNumber = ((CreditCardDto) created.getBody().getData()).getCardNumber();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetDailyCounters() {
+        jdbcTemplate.update("UPDATE credit_card SET daily_debited_minor = 0, daily_credited_minor = 0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object writers1(Writer writer) {
+        return move(writer);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object writers8(Writer writer) {
+        return move(writer);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object writers64(Writer writer) {
+        return move(writer);
+    }
+
+    private Object move(Writer writer) {
+        boolean debit = writer.debitNext;
+        writer.debitNext = !debit;
+        try {
+            return debit
+                    ? cardService.debitCard(customerId, cardNumber, AMOUNT)
+                    : cardService.creditCard(customerId, cardNumber, AMOUNT);
+        } catch (ConflictException ex) {
+            return ex;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.Entity.Customer;
+import com.Nikhil.CreditCardSystem.Entity.Transaction;
+import com.Nikhil.CreditCardSystem.dto.CustomerDto;
+import com.Nikhil.CreditCardSystem.dto.TransactionDto;
+import com.Nikhil.CreditCardSystem.service.CustomerService;
+import com.Nikhil.CreditCardSystem.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping over large in-memory collections (no DB involved).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private final CustomerService customerService = new CustomerService();
+    private final TransactionService transactionService = new TransactionService();
+
+    private List<Customer> customers;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        customers = new ArrayList<>(size);
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Customer customer = new Customer();
+            customer.setId((long) i);
+            customer.setUsername("user" + i);
+            customer.setName("User " + i);
+            customer.setEmail("user" + i + "@example.com");
+            customer.setPhoneNumber("90000" + i);
+            for (int c = 0; c < 3; c++) {
+                CreditCard card = new CreditCard();
+                card.setCardNumber(String.valueOf(4_000_0000_0000_0000L + i * 3L + c));
+                card.setCardHolderName(customer.getName());
+                card.setCardType("VISA");
+                card.setTotalBalance(1000 + c);
+                card.setIssueDate(LocalDate.now());
+                card.setExpiryDate(LocalDate.now().plusYears(10));
+                card.setCustomer(customer);
+                customer.getCreditCards().add(card);
+            }
+            customers.add(customer);
+
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i);
+            transaction.setAmount(i);
+            transaction.setTransactionType(i % 2 == 0 ? "DEBIT" : "CREDIT");
+            transaction.setCardType("VISA");
+            transaction.setDescription("Debited ₹" + i);
+            transaction.setDateTime(LocalDateTime.now());
+            transaction.setCreditCard(customer.getCreditCards().get(0));
+            transactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public List<CustomerDto> customerToDto() {
+        return customers.stream().map(customerService::toDto).toList();
+    }
+
+    @Benchmark
+    public List<TransactionDto> transactionToDto() {
+        return transactions.stream().map(transactionService::toDto).toList();
+    }
+}
@@ -0,0 +1,63 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.CreditCardSystemApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots the application against an in-memory H2 database for benchmarks that need the full
+ * service / repository stack; {@link #startServer} also starts Tomcat on a random port.
+ */
+final class EmbeddedApp {
+
+    private EmbeddedApp() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return start(WebApplicationType.NONE, extraProperties);
+    }
+
+    // Port: context.getEnvironment().getProperty("local.server.port")
+    static ConfigurableApplicationContext startServer(String... extraProperties) {
+        String[] properties = new String[extraProperties.length + 1];
+        properties[0] = "server.port=0";
+        System.arraycopy(extraProperties, 0, properties, 1, extraProperties.length);
+        return start(WebApplicationType.SERVLET, properties);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, String... extraProperties) {
+        String[] base = {
+                "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "logging.level.root=OFF",
+                "logging.level.com.Nikhil=OFF",
+                "logging.level.org.hibernate.SQL=OFF",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+                "logging.file.name=",
+                // Benchmarks hammer one card; the risk stage has its own benchmark (RiskStageBenchmark)
+                "creditcard.risk.enabled=false"
+        };
+        // Passed as command line arguments so they override application.properties; extras replace base entries
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String property : base) {
+            properties.put(property.substring(0, property.indexOf('=')), property);
+        }
+        for (String property : extraProperties) {
+            properties.put(property.substring(0, property.indexOf('=')), property);
+        }
+        String[] args = properties.values().stream().map(property -> "--" + property).toArray(String[]::new);
+
+        return new SpringApplicationBuilder(CreditCardSystemApplication.class)
+                .web(type)
+                .run(args);
+    }
+}
@@ -0,0 +1,50 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.Entity.Customer;
+import com.Nikhil.CreditCardSystem.model.UserPrincipal;
+import com.Nikhil.CreditCardSystem.service.JWTService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue / parse / validate cost of JWTService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JWTService jwtService;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JWTService();
+        Customer customer = new Customer();
+        customer.setUsername("bench");
+        customer.setPassword("secret");
+        customer.setRole("USER");
+        principal = new UserPrincipal(customer);
+        token = jwtService.generateToken("bench", "USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("bench", "USER");
+    }
+
+    @Benchmark
+    public String extractUserName() {
+        return jwtService.extractUserName(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, principal);
+    }
+}
@@ -0,0 +1,217 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.Entity.Customer;
+import com.Nikhil.CreditCardSystem.config.VirtualThreadPinningMonitor;
+import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.repo.CustomerRepository;
+import com.Nikhil.CreditCardSystem.service.CreditCardService;
+import com.Nikhil.CreditCardSystem.service.JWTService;
+import com.Nikhil.CreditCardSystem.util.Money;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP load test of the debit / credit endpoints: Tomcat on platform threads against Tomcat on
+ * virtual threads (spring.threads.virtual.enabled), same DB pool and bulkhead.
+ *
+ * For each mode the app is started on a random port (embedded H2, same JVM) and seeded with
+ * one customer owning CARDS cards. `clients` closed-loop clients (async HttpClient, each sending
+ * its next request when the previous one is answered) alternate ₹0.01 debits and credits on
+ * random cards for `seconds`; the first WARMUP_SECONDS are not counted. Prints requests/s,
+ * p50 / p99 latency and the status mix (503 = turned away by the DB bulkhead).
+ *
+ * Usage: mvn -Pbenchmarks,java21 test-compile exec:exec@loadtest [-Dloadtest.clients=10000]
+ *        [-Dloadtest.seconds=30] [-Dloadtest.modes=platform,virtual]
+ * The virtual mode needs a Java 21 runtime and is skipped on older ones. Raise the open file
+ * limit (ulimit -n) above 2 x clients: client and server sockets share this process.
+ */
+public class LoadTest {
+
+    private static final int CARDS = 1000;
+    private static final int WARMUP_SECONDS = 5;
+    private static final String USERNAME = "load-test";
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String[] modes = (args.length > 2 ? args[2] : "platform,virtual").split(",");
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            boolean virtual = "virtual".equals(mode.trim());
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.println("Skipping virtual threads: running on Java " + Runtime.version().feature());
+                continue;
+            }
+            results.add(run(virtual, clients, seconds));
+        }
+
+        System.out.printf("%n%-9s %8s %10s %9s %9s %9s %7s %7s %7s%n",
+                "mode", "clients", "req/s", "p50 ms", "p99 ms", "2xx", "503", "errors", "pinned");
+        for (Result result : results) {
+            System.out.printf("%-9s %8d %10.0f %9d %9d %9d %7d %7d %7d%n", result.mode, clients, result.throughput,
+                    result.p50Ms, result.p99Ms, result.ok, result.busy, result.errors, result.pinned);
+        }
+    }
+
+    private static Result run(boolean virtual, int clients, int seconds) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        ConfigurableApplicationContext context = EmbeddedApp.startServer(
+                "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "spring.threads.virtual.enabled=" + virtual,
+                "server.tomcat.max-connections=" + (clients + 1000),
+                "server.tomcat.accept-count=" + clients);
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            Seed seed = seed(context);
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            System.out.printf("%s threads: %d clients for %d s against port %d%n", mode, clients, seconds, port);
+            Run run = new Run(http, "http://localhost:" + port + "/api/creditcards/", seed, clients, seconds);
+            run.execute();
+
+            VirtualThreadPinningMonitor monitor = context.getBeanProvider(VirtualThreadPinningMonitor.class).getIfAvailable();
+            return run.result(mode, monitor == null ? 0 : monitor.getPinnedCount());
+        } finally {
+            clientExecutor.shutdownNow();
+            context.close();
+        }
+    }
+
+    private static Seed seed(ConfigurableApplicationContext context) {
+        Customer customer = new Customer();
+        customer.setUsername(USERNAME);
+        customer.setName("Load Test");
+        customer.setRole("USER");
+        Long customerId = context.getBean(CustomerRepository.class).save(customer).getId();
+
+        CreditCardService cards = context.getBean(CreditCardService.class);
+        TransactionTemplate transactions = context.getBean(TransactionTemplate.class);
+        String[] cardNumbers = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            CreditCardDto card = (CreditCardDto) transactions.execute(status ->
+                    cards.createCard(customerId, Money.ofMajor(1_00_000), "VISA", true)).getBody().getData();
+            cardNumbers[i] = card.getCardNumber();
+        }
+        String token = context.getBean(JWTService.class).generateToken(USERNAME, "USER");
+        return new Seed(customerId, cardNumbers, "Bearer " + token);
+    }
+
+    private record Seed(Long customerId, String[] cardNumbers, String authorization) {
+    }
+
+    private record Result(String mode, double throughput, long p50Ms, long p99Ms, long ok, long busy, long errors,
+                          long pinned) {
+    }
+
+    private static final class Run {
+        private static final int MAX_LATENCY_MS = 120_000;
+
+        private final HttpClient http;
+        private final String baseUrl;
+        private final Seed seed;
+        private final int clients;
+        private final long measureFrom;
+        private final long deadline;
+        private final CountDownLatch finished;
+
+        // Latency histogram with 1 ms buckets, measured window only
+        private final AtomicLongArray latencies = new AtomicLongArray(MAX_LATENCY_MS + 1);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder busy = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        Run(HttpClient http, String baseUrl, Seed seed, int clients, int seconds) {
+            this.http = http;
+            this.baseUrl = baseUrl;
+            this.seed = seed;
+            this.clients = clients;
+            long now = System.nanoTime();
+            int warmup = Math.min(WARMUP_SECONDS, seconds / 3);
+            this.measureFrom = now + TimeUnit.SECONDS.toNanos(warmup);
+            this.deadline = now + TimeUnit.SECONDS.toNanos(seconds);
+            this.finished = new CountDownLatch(clients);
+        }
+
+        void execute() throws InterruptedException {
+            for (int client = 0; client < clients; client++) {
+                send(client, 0);
+            }
+            finished.await();
+        }
+
+        private void send(int client, long sequence) {
+            long start = System.nanoTime();
+            if (start >= deadline) {
+                finished.countDown();
+                return;
+            }
+            String cardNumber = seed.cardNumbers[ThreadLocalRandom.current().nextInt(seed.cardNumbers.length)];
+            String operation = (client + sequence) % 2 == 0 ? "debit" : "credit";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + operation + "?customerId=" + seed.customerId
+                            + "&cardNumber=" + cardNumber + "&amount=0.01"))
+                    .header("Authorization", seed.authorization)
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (start >= measureFrom) {
+                    record(start, response, error);
+                }
+                send(client, sequence + 1);
+            });
+        }
+
+        private void record(long start, HttpResponse<Void> response, Throwable error) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            latencies.incrementAndGet((int) Math.min(millis, MAX_LATENCY_MS));
+            if (error != null) {
+                errors.increment();
+            } else if (response.statusCode() / 100 == 2) {
+                ok.increment();
+            } else if (response.statusCode() == 503) {
+                busy.increment();
+            } else {
+                errors.increment();
+            }
+        }
+
+        Result result(String mode, long pinned) {
+            long total = ok.sum() + busy.sum() + errors.sum();
+            double window = (deadline - measureFrom) / 1e9;
+            return new Result(mode, total / window, percentile(total, 0.50), percentile(total, 0.99),
+                    ok.sum(), busy.sum(), errors.sum(), pinned);
+        }
+
+        private long percentile(long total, double fraction) {
+            long rank = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int millis = 0; millis <= MAX_LATENCY_MS; millis++) {
+                seen += latencies.get(millis);
+                if (seen >= rank && rank > 0) {
+                    return millis;
+                }
+            }
+            return MAX_LATENCY_MS;
+        }
+    }
+}
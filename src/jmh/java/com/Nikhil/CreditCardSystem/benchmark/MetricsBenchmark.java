@@ -0,0 +1,56 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.metrics.MethodMetricsAspect;
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the service call timers: the same no-op logAction called directly and through the
+ * proxy with {@link MethodMetricsAspect} recording into a Prometheus registry. The difference is
+ * what every timed service call pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private UserActionLogService direct;
+    private UserActionLogService timed;
+
+    @Setup
+    public void setUp() {
+        direct = new UserActionLogService(null) {
+            @Override
+            public void logAction(String username, String action, String status) {
+            }
+        };
+        AspectJProxyFactory factory = new AspectJProxyFactory(direct);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MethodMetricsAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)));
+        timed = factory.getProxy();
+    }
+
+    @Benchmark
+    public void direct() {
+        direct.logAction("bench", "action", "SUCCESS");
+    }
+
+    @Benchmark
+    public void timed() {
+        timed.logAction("bench", "action", "SUCCESS");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void timed8Threads() {
+        timed();
+    }
+}
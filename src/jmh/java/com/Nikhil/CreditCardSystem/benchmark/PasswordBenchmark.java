@@ -0,0 +1,31 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login cost: BCryptPasswordEncoder(12) as configured in SecurityConfig / CustomerService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordBenchmark {
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        hash = encoder.encode("password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("password", hash);
+    }
+}
@@ -0,0 +1,66 @@
+package com.Nikhil.CreditCardSystem.benchmark;
+
+import com.Nikhil.CreditCardSystem.risk.RiskDecision;
+import com.Nikhil.CreditCardSystem.risk.VelocityRiskStage;
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the risk stage adds to a debit: assess + record on a random card out of 1M active cards
+ * (4 cards per customer). SampleTime reports the p99 next to the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RiskStageBenchmark {
+
+    @Param({"1000000"})
+    private int activeCards;
+
+    private VelocityRiskStage riskStage;
+    private String[] cardNumbers;
+
+    @Setup
+    public void setUp() {
+        // Audit records of flagged / declined debits are dropped here; the real service only enqueues them
+        UserActionLogService auditLog = new UserActionLogService(null) {
+            @Override
+            public void logAction(String username, String action, String status) {
+            }
+        };
+        riskStage = new VelocityRiskStage(auditLog, true,
+                "card-burst=CARD.COUNT.1m>5:DECLINE;card-hourly-amount=CARD.AMOUNT.1h>50000:FLAG;"
+                        + "customer-daily-count=CUSTOMER.COUNT.24h>100:FLAG");
+        cardNumbers = new String[activeCards];
+        for (int i = 0; i < activeCards; i++) {
+            cardNumbers[i] = String.valueOf(4111110000000000L + i);
+            riskStage.record(customerOf(i), cardNumbers[i], 100_00);
+        }
+    }
+
+    @Benchmark
+    public RiskDecision assessAndRecord() {
+        int card = ThreadLocalRandom.current().nextInt(activeCards);
+        RiskDecision decision = riskStage.assess(customerOf(card), cardNumbers[card], 250_00);
+        if (!decision.declined()) {
+            riskStage.record(customerOf(card), cardNumbers[card], 250_00);
+        }
+        return decision;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RiskDecision assessAndRecord8Threads() {
+        return assessAndRecord();
+    }
+
+    private static Long customerOf(int card) {
+        return (long) (card / 4);
+    }
+}
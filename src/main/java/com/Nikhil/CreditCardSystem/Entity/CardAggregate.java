@@ -0,0 +1,30 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running debit / credit totals of a card, maintained with every balance movement
+ * (amounts in minor units). Rebuilt from the transaction table by TransactionSummaryService.
+ */
+@Entity
+@Table(name = "card_aggregates")
+@Data
+public class CardAggregate {
+
+    @Id
+    private Long cardId;
+
+    @Column(name = "debit_total_minor", nullable = false)
+    private long debitTotal;
+    @Column(nullable = false)
+    private long debitCount;
+    @Column(name = "credit_total_minor", nullable = false)
+    private long creditTotal;
+    @Column(nullable = false)
+    private long creditCount;
+
+    private LocalDateTime lastActivityAt;
+}
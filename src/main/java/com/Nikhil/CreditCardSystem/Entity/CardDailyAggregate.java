@@ -0,0 +1,45 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Debit / credit totals of a card for one day (the date of the transaction timestamps),
+ * amounts in minor units.
+ */
+@Entity
+@Table(name = "card_daily_aggregates")
+@IdClass(CardDailyAggregate.Key.class)
+@Data
+public class CardDailyAggregate {
+
+    @Id
+    private Long cardId;
+    @Id
+    private LocalDate activityDate;
+
+    @Column(name = "debit_total_minor", nullable = false)
+    private long debitTotal;
+    @Column(nullable = false)
+    private long debitCount;
+    @Column(name = "credit_total_minor", nullable = false)
+    private long creditTotal;
+    @Column(nullable = false)
+    private long creditCount;
+
+    private LocalDateTime lastActivityAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long cardId;
+        private LocalDate activityDate;
+    }
+}
@@ -0,0 +1,44 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One event of a card's append-only stream (see ledger.CardEventStore). Never updated or deleted;
+ * card_id is not a foreign key, so the stream outlives the card.
+ */
+@Entity
+@Table(name = "card_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_card_events_card_sequence", columnNames = {"card_id", "sequence_no"}))
+@Data
+public class CardEvent {
+
+    public static final String CARD_ISSUED = "CardIssued";
+    public static final String DEBITED = "Debited";
+    public static final String CREDITED = "Credited";
+    public static final String CARD_UPDATED = "CardUpdated";
+    public static final String CARD_DELETED = "CardDeleted";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "card_id", nullable = false)
+    private Long cardId;
+
+    @Column(name = "sequence_no", nullable = false)
+    private long sequenceNo;        // 1, 2, 3 ... within the card
+
+    @Column(nullable = false, length = 20)
+    private String eventType;
+
+    @Column(name = "amount_minor", nullable = false)
+    private long amount;            // signed change to the balance; the opening balance for CardIssued
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    private String details;
+}
@@ -0,0 +1,31 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-card exceptions to the card type's policy, in minor units (paise).
+ * A null limit falls back to the policy.
+ */
+@Entity
+@Table(name = "card_limit_overrides")
+@Data
+public class CardLimitOverride {
+
+    @Id
+    private Long cardId;
+
+    @Column(name = "max_withdrawal_limit_minor")
+    private Long maxWithdrawalLimit;
+    @Column(name = "daily_debit_limit_minor")
+    private Long dailyDebitLimit;
+    @Column(name = "daily_credit_limit_minor")
+    private Long dailyCreditLimit;
+    @Column(name = "max_credit_limit_minor")
+    private Long maxCreditLimit;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Limits for every card of a card type, in minor units (paise).
+ * The DEFAULT row applies to card types without a policy of their own.
+ */
+@Entity
+@Table(name = "card_limit_policies")
+@Data
+public class CardLimitPolicy {
+
+    public static final String DEFAULT_TYPE = "DEFAULT";
+
+    @Id
+    @Column(length = 30)
+    private String cardType;        // upper-case card type, or DEFAULT
+
+    @Column(name = "max_withdrawal_limit_minor", nullable = false)
+    private long maxWithdrawalLimit;
+    @Column(name = "daily_debit_limit_minor", nullable = false)
+    private long dailyDebitLimit;
+    @Column(name = "daily_credit_limit_minor", nullable = false)
+    private long dailyCreditLimit;
+    @Column(name = "max_credit_limit_minor", nullable = false)
+    private long maxCreditLimit;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Next unallocated account sequence per BIN. Nodes reserve blocks of sequences from it,
+ * so issuing a card number needs no DB lookup.
+ */
+@Entity
+@Table(name = "card_number_sequences")
+@Data
+public class CardNumberSequence {
+
+    @Id
+    @Column(length = 8)
+    private String bin;
+
+    private long nextValue;
+}
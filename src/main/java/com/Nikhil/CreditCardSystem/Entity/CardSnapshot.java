@@ -0,0 +1,42 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of a card after the first sequenceNo events of its stream. takenAt is the latest
+ * occurredAt among those events, so it never decreases along the stream.
+ */
+@Entity
+@Table(name = "card_snapshots",
+        indexes = @Index(name = "idx_card_snapshots_card_time", columnList = "card_id, taken_at, sequence_no"))
+@IdClass(CardSnapshot.Key.class)
+@Data
+public class CardSnapshot {
+
+    @Id
+    @Column(name = "card_id")
+    private Long cardId;
+    @Id
+    @Column(name = "sequence_no")
+    private long sequenceNo;
+
+    @Column(name = "balance_minor", nullable = false)
+    private long balance;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long cardId;
+        private long sequenceNo;
+    }
+}
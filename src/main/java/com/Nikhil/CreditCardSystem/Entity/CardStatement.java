@@ -0,0 +1,49 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Monthly statement of a card: balances and totals of the month, amounts in minor units.
+ * The statement lines are the card's transactions of that month, read from the transaction table.
+ */
+@Entity
+@Table(name = "card_statements")
+@IdClass(CardStatement.Key.class)
+@Data
+public class CardStatement {
+
+    @Id
+    private Long cardId;
+    @Id
+    @Column(length = 7)
+    private String statementMonth; // yyyy-MM
+
+    @Column(name = "opening_balance_minor", nullable = false)
+    private long openingBalance;
+    @Column(name = "debit_total_minor", nullable = false)
+    private long debitTotal;
+    @Column(nullable = false)
+    private long debitCount;
+    @Column(name = "credit_total_minor", nullable = false)
+    private long creditTotal;
+    @Column(nullable = false)
+    private long creditCount;
+    @Column(name = "closing_balance_minor", nullable = false)
+    private long closingBalance;
+
+    private LocalDateTime generatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long cardId;
+        private String statementMonth;
+    }
+}
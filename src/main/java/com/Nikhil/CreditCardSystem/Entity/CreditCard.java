@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_credit_card_customer", columnList = "customer_id"))
 @Data
 @NoArgsConstructor
 public class CreditCard {
@@ -32,14 +33,20 @@ public class CreditCard {
 
     private boolean isActive = true; // card enabled by default
 
-    private double totalBalance;
-    private double dailyDebitedAmount = 0;
-    private double dailyCreditedAmount = 0;
+    // Money columns hold minor units (paise), see util.Money
+    @Column(name = "total_balance_minor", nullable = false, columnDefinition = "bigint default 0")
+    private long totalBalance;
+    @Column(name = "daily_debited_minor", nullable = false, columnDefinition = "bigint default 0")
+    private long dailyDebitedAmount = 0;
+    @Column(name = "daily_credited_minor", nullable = false, columnDefinition = "bigint default 0")
+    private long dailyCreditedAmount = 0;
+    private LocalDate dailyResetDate; // business day the daily counters belong to
 
-    private final double MAX_WITHDRAWAL_LIMIT = 50000;
-    private final double DAILY_DEBIT_LIMIT = 20000;
-    private final double DAILY_CREDIT_LIMIT = 50000;
-    private final double MAX_CREDIT_LIMIT = 50000;
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version; // optimistic locking of balance updates
+
+    // Limits come from the card type's policy and per-card overrides, see ledger.LimitPolicyEngine
 
     @ManyToOne
     @JoinColumn(name = "customer_id")
@@ -10,6 +10,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        // Keyset pagination of /api/customers/all
+        @Index(name = "idx_customer_name", columnList = "name, id"),
+        @Index(name = "idx_customer_username", columnList = "username, id")
+})
 @Data
 @NoArgsConstructor
 public class Customer {
@@ -0,0 +1,34 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a debit / credit request sent with an Idempotency-Key header.
+ * A row is inserted (without response) when the request starts and completed once it succeeded,
+ * so the primary key also guards against two instances executing the same key.
+ */
+@Entity
+@Table(name = "idempotency_records")
+@Data
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 200)
+    private String fingerprint;     // operation | customerId | cardNumber | amount
+
+    private Integer httpStatus;     // null while the request is still executing
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;    // serialized ResponseStructure
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,25 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a transaction journal has been projected into the DB; replay after a restart starts here.
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+@Data
+public class JournalCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String name;            // journal name
+
+    @Column(nullable = false)
+    private long position;          // journal offset of the first record not yet projected
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A card or customer change waiting to be published by the outbox relay (see outbox.OutboxRelay).
+ * Written in the transaction that makes the change and deleted once every sink has it. Within an
+ * aggregate, ids follow commit order: card messages are written under the card row lock.
+ */
+@Entity
+@Table(name = "outbox_messages",
+        indexes = @Index(name = "idx_outbox_messages_aggregate", columnList = "aggregate_type, aggregate_id, id"))
+@Data
+public class OutboxMessage {
+
+    public static final String CARD = "CARD";
+    public static final String CUSTOMER = "CUSTOMER";
+
+    public static final String CUSTOMER_REGISTERED = "CustomerRegistered";
+    public static final String CUSTOMER_UPDATED = "CustomerUpdated";
+    public static final String CUSTOMER_DELETED = "CustomerDeleted";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private String aggregateType;   // CARD | CUSTOMER
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 30)
+    private String eventType;       // a CardEvent type, or CustomerRegistered / CustomerUpdated / CustomerDeleted
+
+    @Column(nullable = false, length = 4000)
+    private String payload;         // JSON
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,25 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide lease for background jobs: only the node holding an unexpired lease runs the job.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+public class SchedulerLease {
+
+    @Id
+    @Column(length = 100)
+    private String name;            // job name
+
+    @Column(nullable = false, length = 200)
+    private String owner;           // node currently holding the lease
+
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+}
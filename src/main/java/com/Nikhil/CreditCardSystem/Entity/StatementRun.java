@@ -0,0 +1,40 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the statement job for one month. Completed card-id chunks are checkpointed in
+ * statement_run_chunks, so a failed or interrupted run resumes where it stopped.
+ */
+@Entity
+@Table(name = "statement_runs")
+@Data
+public class StatementRun {
+
+    public enum Status { RUNNING, FAILED, COMPLETED }
+
+    @Id
+    @Column(length = 7)
+    private String statementMonth; // yyyy-MM
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private int chunkSize;       // fixed for the month, so checkpoints stay aligned across restarts
+
+    private long totalChunks;
+    private long completedChunks;
+    private long cardsProcessed;
+    private double cardsPerSecond; // of the last execution
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,37 @@
+package com.Nikhil.CreditCardSystem.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one card-id chunk of a statement run, written in the same transaction as the
+ * chunk's statements.
+ */
+@Entity
+@Table(name = "statement_run_chunks")
+@IdClass(StatementRunChunk.Key.class)
+@Data
+public class StatementRunChunk {
+
+    @Id
+    @Column(length = 7)
+    private String statementMonth;
+    @Id
+    private Long chunkStart;
+
+    private int cardCount;
+    private LocalDateTime completedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String statementMonth;
+        private Long chunkStart;
+    }
+}
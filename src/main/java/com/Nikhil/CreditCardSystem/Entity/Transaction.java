@@ -8,6 +8,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // Seek pagination per card, newest first
+        @Index(name = "idx_transaction_card_time", columnList = "card_id, date_time, id"),
+        @Index(name = "idx_transaction_card_type_time", columnList = "card_id, transaction_type, date_time, id")
+})
 @Data
 @NoArgsConstructor
 public class Transaction {
@@ -16,7 +21,8 @@ public class Transaction {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private double amount;
+    @Column(name = "amount_minor", nullable = false, columnDefinition = "bigint default 0")
+    private long amount; // minor units (paise)
     private String transactionType; // e.g. "DEBIT" or "CREDIT"
     private String cardType;
     private String description;
@@ -1,13 +1,16 @@
 package com.Nikhil.CreditCardSystem.config;
 
 import com.Nikhil.CreditCardSystem.service.JWTService;
+import com.Nikhil.CreditCardSystem.service.JwtTokenCache;
 import com.Nikhil.CreditCardSystem.service.MyUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,11 +21,15 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
+@Conditional(NotReactiveCondition.class)
 public class JwtFilter extends OncePerRequestFilter{
 
     @Autowired
     private JWTService jwtservice;
 
+    @Autowired
+    private JwtTokenCache tokenCache;
+
     @Autowired
     ApplicationContext context;
 
@@ -34,17 +41,29 @@ public class JwtFilter extends OncePerRequestFilter{
 
         String authHeader = request.getHeader("Authorization");
         String token  = null;
-        String username = null;
         if(authHeader != null && authHeader.startsWith("Bearer "))
         {
             token = authHeader.substring(7);
-            username = jwtservice.extractUserName(token);
-            String role = jwtservice.extractRole(token);
         }
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null)
+        if(token != null && SecurityContextHolder.getContext().getAuthentication() == null)
         {
-            UserDetails userDetails = context.getBean(MyUserDetailsService.class).loadUserByUsername(username);
-            if(jwtservice.validateToken(token,userDetails))
+            // Already verified token: no signature check, no DB lookup
+            UserDetails userDetails = tokenCache.get(token);
+            if(userDetails == null)
+            {
+                // Parse and verify once, then reuse the claims
+                Claims claims = jwtservice.parseClaims(token);
+                userDetails = context.getBean(MyUserDetailsService.class).loadUserByUsername(claims.getSubject());
+                if(jwtservice.validateToken(claims,userDetails))
+                {
+                    tokenCache.put(token, userDetails, claims.getExpiration());
+                }
+                else
+                {
+                    userDetails = null;
+                }
+            }
+            if(userDetails != null)
             {
                 UsernamePasswordAuthenticationToken authtoken =
                         new UsernamePasswordAuthenticationToken(userDetails,null,userDetails.getAuthorities());
@@ -0,0 +1,82 @@
+package com.Nikhil.CreditCardSystem.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off migration of the money columns from double rupees to bigint paise.
+ *
+ * ddl-auto=update adds the new *_minor columns (default 0) but never drops the old ones, so on
+ * startup every legacy column that still exists is copied over (rounded to the nearest paisa) and
+ * dropped, in one transaction. The per-card limit columns, now served by card_limit_policies, are
+ * dropped as well. Once the legacy columns are gone this is a single metadata query.
+ * Depends on the EntityManagerFactory so it runs after Hibernate has updated the schema.
+ *
+ * Until it has run, the *_minor columns of migrated rows hold 0. Beans that read or write money
+ * columns while the context starts (in @PostConstruct, before any request) must therefore declare
+ * {@code @DependsOn("moneyColumnsMigration")}; anything on ApplicationReadyEvent runs after it anyway.
+ */
+@Component
+public class MoneyColumnsMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoneyColumnsMigration.class);
+
+    private static final List<Column> COLUMNS = List.of(
+            new Column("credit_card", "total_balance", "total_balance_minor"),
+            new Column("credit_card", "daily_debited_amount", "daily_debited_minor"),
+            new Column("credit_card", "daily_credited_amount", "daily_credited_minor"),
+            new Column("transaction", "amount", "amount_minor"));
+
+    // Per-card limit columns replaced by card_limit_policies (they only ever held the constants)
+    private static final List<String> DROPPED_CARD_COLUMNS = List.of(
+            "max_withdrawal_limit", "daily_debit_limit", "daily_credit_limit", "max_credit_limit",
+            "max_withdrawal_limit_minor", "daily_debit_limit_minor", "daily_credit_limit_minor", "max_credit_limit_minor");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public MoneyColumnsMigration(EntityManagerFactory entityManagerFactory,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void migrate() {
+        List<Column> legacy = COLUMNS.stream().filter(column -> exists(column.table(), column.legacy())).toList();
+        List<String> dropped = DROPPED_CARD_COLUMNS.stream().filter(column -> exists("credit_card", column)).toList();
+        if (legacy.isEmpty() && dropped.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Column column : legacy) {
+                int rows = jdbcTemplate.update("UPDATE " + column.table() + " SET " + column.target()
+                        + " = ROUND(" + column.legacy() + " * 100) WHERE " + column.legacy() + " IS NOT NULL");
+                jdbcTemplate.execute("ALTER TABLE " + column.table() + " DROP COLUMN " + column.legacy());
+                LOGGER.info("Migrated {}.{} to {} ({} rows)", column.table(), column.legacy(), column.target(), rows);
+            }
+            for (String column : dropped) {
+                jdbcTemplate.execute("ALTER TABLE credit_card DROP COLUMN " + column);
+                LOGGER.info("Dropped credit_card.{}", column);
+            }
+        });
+    }
+
+    private boolean exists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE LOWER(table_name) = ? AND LOWER(column_name) = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private record Column(String table, String legacy, String target) {
+    }
+}
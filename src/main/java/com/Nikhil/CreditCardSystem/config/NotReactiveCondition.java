@@ -0,0 +1,19 @@
+package com.Nikhil.CreditCardSystem.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+
+/**
+ * Matches servlet and non-web contexts (benchmarks boot the services without a web server and
+ * still need the AuthenticationManager), but not the reactive stack, which has its own security.
+ */
+class NotReactiveCondition extends NoneNestedConditions {
+
+    NotReactiveCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class OnReactive {
+    }
+}
@@ -3,6 +3,7 @@ package com.Nikhil.CreditCardSystem.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -19,6 +20,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
+@Conditional(NotReactiveCondition.class)
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
@@ -46,6 +48,8 @@ public class SecurityConfig {
                                 "/favicon.ico",
                                 "/webjars/**" )
                         .permitAll()
+                        .requestMatchers("/actuator/health").permitAll()                        // ✅ load balancer probe
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")                      // ✅ metrics / prometheus scrape
                         .requestMatchers("/api/creditcards/**").hasAnyRole("USER", "ADMIN")    // ✅ only ADMIN
                         .requestMatchers("/api/customers/**" ).hasRole("USER") // ✅ both
                         .anyRequest().authenticated())
@@ -1,8 +1,14 @@
 package com.Nikhil.CreditCardSystem.controller;
 
 
+import com.Nikhil.CreditCardSystem.dto.CardBalanceDto;
+import com.Nikhil.CreditCardSystem.dto.CardOperationRequest;
+import com.Nikhil.CreditCardSystem.dto.CardOperationResult;
 import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.service.CardBatchService;
 import com.Nikhil.CreditCardSystem.service.CreditCardService;
+import com.Nikhil.CreditCardSystem.service.IdempotencyService;
+import com.Nikhil.CreditCardSystem.util.Money;
 import com.Nikhil.CreditCardSystem.util.ResponseStructure;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,20 +17,31 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/creditcards")
 public class CreditCardController {
 
     @Autowired
     private CreditCardService cardService;
 
+    @Autowired
+    private CardBatchService batchService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(CreditCardController.class);
 
 
@@ -35,7 +52,7 @@ public class CreditCardController {
      * Description: Creates a new credit card linked to a specific customer with an initial balance.
      * Request Parameters:
      *      - customerId (Long): ID of the customer
-     *      - balance (double): Initial balance of the card
+     *      - balance (decimal, at most 2 places): Initial balance of the card
      * Response: Returns the created CreditCardDto object.
      */
 
@@ -53,12 +70,12 @@ public class CreditCardController {
     @PostMapping
     public ResponseEntity<ResponseStructure<CreditCardDto>> createCreditCard(
             @Parameter(description = "ID of the customer to whom the credit card belongs") @RequestParam Long customerId,
-            @Parameter(description = "Initial balance for the credit card") @RequestParam double balance,
+            @Parameter(description = "Initial balance for the credit card") @RequestParam BigDecimal balance,
             @Parameter(description = "Type of the credit card (e.g., VISA, MasterCard)") @RequestParam String type,
             @Parameter(description = "Indicates whether the card is active or not") @RequestParam boolean isactive) {
 
         LOGGER.info("Creating credit card for customerId: {}, balance: {}, type: {}, isActive: {}", customerId, balance, type, isactive);
-        return cardService.createCard(customerId, balance, type, isactive);
+        return cardService.createCard(customerId, Money.fromMajor(balance), type, isactive);
     }
 
     /**
@@ -119,6 +136,41 @@ public class CreditCardController {
     }
 
 
+    /**
+     * 🕓 API: Get the balance of a credit card as of a point in time
+     *
+     * Endpoint: GET /api/creditcards/{cardId}/balance?asOf={dateTime}
+     * Description: Replays the card's event stream from the latest snapshot taken at or before asOf,
+     *              so the cost does not grow with the card's history. Works for deleted cards too.
+     * Path Variable: cardId (Long)
+     * Request Parameters:
+     *      - asOf (ISO date-time, optional): defaults to now
+     * Response: Returns CardBalanceDto.
+     */
+
+    // 🕓 GET BALANCE AS OF A POINT IN TIME
+    @Operation(
+            summary = "Get credit card balance as of a point in time",
+            description = "Returns the balance of a credit card at the given time, replayed from its event history."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Card balance fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "Card not found or not yet issued at that time"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/{cardId}/balance")
+    public ResponseEntity<ResponseStructure<CardBalanceDto>> getBalanceAsOf(
+            @Parameter(description = "Unique ID of the credit card") @PathVariable Long cardId,
+            @Parameter(description = "Point in time (ISO date-time), defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+
+        LocalDateTime at = asOf == null ? LocalDateTime.now() : asOf;
+        LOGGER.info("Fetching balance of cardId: {} as of {}", cardId, at);
+        return cardService.getBalanceAsOf(cardId, at);
+    }
+
+
     /**
      * ✏️ API: Update credit card details (whole card, not just balance)
      *
@@ -188,7 +240,9 @@ public class CreditCardController {
      * Request Parameters:
      *      - customerId (Long)
      *      - cardNumber (String)
-     *      - amount (double)
+     *      - amount (decimal, at most 2 places)
+     * Header: Idempotency-Key (optional) - a retry with the same key returns the stored response
+     *         instead of applying the amount again
      * Response: Returns updated CreditCardDto with new balance.
      */
 
@@ -208,10 +262,14 @@ public class CreditCardController {
     public ResponseEntity<ResponseStructure<CreditCardDto>> debitCreditCard(
             @Parameter(description = "ID of the customer performing the transaction") @RequestParam Long customerId,
             @Parameter(description = "Credit card number from which to debit the amount") @RequestParam String cardNumber,
-            @Parameter(description = "Amount to be debited") @RequestParam double amount) {
+            @Parameter(description = "Amount to be debited, in rupees (at most 2 decimals)") @RequestParam BigDecimal amount,
+            @Parameter(description = "Client generated key to make retries safe")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         LOGGER.info("Debiting ₹{} from cardNumber: {}, for customerId: {}", amount, cardNumber, customerId);
-        return cardService.debitCard(customerId, cardNumber, amount);
+        long minor = Money.fromMajor(amount);
+        return idempotencyService.execute(idempotencyKey, "DEBIT|" + customerId + "|" + cardNumber + "|" + minor,
+                () -> cardService.debitCard(customerId, cardNumber, minor));
     }
 
 
@@ -223,7 +281,9 @@ public class CreditCardController {
      * Request Parameters:
      *      - customerId (Long)
      *      - cardNumber (String)
-     *      - amount (double)
+     *      - amount (decimal, at most 2 places)
+     * Header: Idempotency-Key (optional) - a retry with the same key returns the stored response
+     *         instead of applying the amount again
      * Response: Returns updated CreditCardDto with new balance.
      */
 
@@ -243,9 +303,44 @@ public class CreditCardController {
     public ResponseEntity<ResponseStructure<CreditCardDto>> creditCreditCard(
             @Parameter(description = "ID of the customer performing the transaction") @RequestParam Long customerId,
             @Parameter(description = "Credit card number to which the amount will be credited") @RequestParam String cardNumber,
-            @Parameter(description = "Amount to be credited") @RequestParam double amount) {
+            @Parameter(description = "Amount to be credited, in rupees (at most 2 decimals)") @RequestParam BigDecimal amount,
+            @Parameter(description = "Client generated key to make retries safe")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         LOGGER.info("Crediting ₹{} to cardNumber: {}, for customerId: {}", amount, cardNumber, customerId);
-        return cardService.creditCard(customerId, cardNumber, amount);
+        long minor = Money.fromMajor(amount);
+        return idempotencyService.execute(idempotencyKey, "CREDIT|" + customerId + "|" + cardNumber + "|" + minor,
+                () -> cardService.creditCard(customerId, cardNumber, minor));
+    }
+
+
+    /**
+     * 📦 API: Apply a batch of debit / credit instructions
+     *
+     * Endpoint: POST /api/creditcards/batch
+     * Description: Applies many debits and credits in one request. Instructions for the same card
+     *              are applied in order inside one DB transaction, with the same limit checks as
+     *              the single-item endpoints.
+     * Request Body: List of CardOperationRequest (customerId, cardNumber, amount, type = DEBIT / CREDIT)
+     * Response: Returns one CardOperationResult per instruction, in request order.
+     */
+
+    // 📦 BATCH DEBIT / CREDIT
+    @Operation(
+            summary = "Apply a batch of debit and credit operations",
+            description = "Applies many debit/credit instructions at once and returns a per-item success or failure result."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/batch")
+    public ResponseEntity<ResponseStructure<List<CardOperationResult>>> applyBatch(
+            @RequestBody List<CardOperationRequest> operations) {
+
+        LOGGER.info("Received batch of {} card operations", operations == null ? 0 : operations.size());
+        return batchService.process(operations);
     }
 }
@@ -2,6 +2,7 @@ package com.Nikhil.CreditCardSystem.controller;
 
 import com.Nikhil.CreditCardSystem.Entity.Customer;
 import com.Nikhil.CreditCardSystem.dto.CustomerDto;
+import com.Nikhil.CreditCardSystem.dto.CustomerPageDto;
 import com.Nikhil.CreditCardSystem.service.CustomerService;
 import com.Nikhil.CreditCardSystem.util.ResponseStructure;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +21,7 @@ import java.security.Principal;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/customers")
 public class CustomerController {
 
@@ -30,24 +33,36 @@ public class CustomerController {
     /**
      * 📋 API: Fetch all customers
      *
-     * Endpoint: GET /api/customers
-     * Description: Retrieves a list of all registered customers in the system.
-     * Response: Returns a list of CustomerDto objects.
+     * Endpoint: GET /api/customers/all?sort=&direction=&cursor=&size=
+     * Description: Retrieves registered customers with their cards, one page at a time
+     *              (keyset pagination on the sort key and id).
+     * Request Parameters (optional):
+     *      - sort (String): id (default), name or username
+     *      - direction (String): asc (default) or desc
+     *      - cursor (String): nextCursor returned by the previous page
+     *      - size (int): page size, default 50, max 500
+     * Response: CustomerPageDto (customers, hasMore, nextCursor).
      */
 
     // 📋 FETCH ALL CUSTOMERS
     @Operation(
             summary = "Fetch all customers",
-            description = "Retrieves a list of all registered customers in the system."
+            description = "Retrieves registered customers with their cards, sorted and cursor-paginated."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Customers fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid sort, cursor or page size"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/all")
-    public ResponseEntity<ResponseStructure<List<CustomerDto>>> fetchAllCustomers(Principal principal) {
+    public ResponseEntity<ResponseStructure<CustomerPageDto>> fetchAllCustomers(
+            Principal principal,
+            @Parameter(description = "Sort key: id, name or username") @RequestParam(required = false) String sort,
+            @Parameter(description = "Sort direction: asc or desc") @RequestParam(required = false) String direction,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 500)") @RequestParam(required = false) Integer size) {
         LOGGER.info("Fetching all customers");
-        return customerService.getAllCustomers(principal);
+        return customerService.getAllCustomers(principal, sort, direction, cursor, size);
     }
 
 
@@ -0,0 +1,172 @@
+package com.Nikhil.CreditCardSystem.controller;
+
+import com.Nikhil.CreditCardSystem.dto.CardLimitsDto;
+import com.Nikhil.CreditCardSystem.service.LimitPolicyService;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/limits")
+public class LimitPolicyController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LimitPolicyController.class);
+
+    private final LimitPolicyService limitPolicyService;
+
+    public LimitPolicyController(LimitPolicyService limitPolicyService) {
+        this.limitPolicyService = limitPolicyService;
+    }
+
+    /**
+     * 📄 API: List card limit policies
+     *
+     * Endpoint: GET /api/limits/policies
+     * Description: Returns the limits of every card type; DEFAULT applies to card types without a policy.
+     * Response: List of CardLimitsDto (amounts in rupees).
+     */
+
+    // ✅ 1️⃣ List policies
+    @Operation(summary = "List card limit policies", description = "Limits per card type, DEFAULT being the fallback.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Policies fetched successfully")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/policies")
+    public ResponseEntity<ResponseStructure<List<CardLimitsDto>>> listPolicies() {
+        return ok("Card limit policies fetched successfully", limitPolicyService.listPolicies());
+    }
+
+    /**
+     * 📄 API: Create or replace the policy of a card type
+     *
+     * Endpoint: PUT /api/limits/policies/{cardType}
+     * Request Body: CardLimitsDto with all four limits (rupees).
+     * Response: The saved policy; it applies to the next debit / credit of every card of that type.
+     */
+
+    // ✅ 2️⃣ Save policy
+    @Operation(summary = "Create or replace a card type's limit policy")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Policy saved"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid limits")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/policies/{cardType}")
+    public ResponseEntity<ResponseStructure<CardLimitsDto>> savePolicy(
+            @Parameter(description = "Card type, or DEFAULT", example = "VISA") @PathVariable String cardType,
+            @RequestBody CardLimitsDto request) {
+        LOGGER.info("Saving card limit policy for {}", cardType);
+        return ok("Card limit policy saved successfully", limitPolicyService.savePolicy(cardType, request));
+    }
+
+    /**
+     * 📄 API: Delete the policy of a card type
+     *
+     * Endpoint: DELETE /api/limits/policies/{cardType}
+     * Description: Cards of that type fall back to the DEFAULT policy, which itself cannot be deleted.
+     */
+
+    // ✅ 3️⃣ Delete policy
+    @Operation(summary = "Delete a card type's limit policy")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Policy deleted"),
+            @ApiResponse(responseCode = "400", description = "DEFAULT policy cannot be deleted"),
+            @ApiResponse(responseCode = "404", description = "Policy not found")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/policies/{cardType}")
+    public ResponseEntity<ResponseStructure<String>> deletePolicy(@PathVariable String cardType) {
+        LOGGER.info("Deleting card limit policy for {}", cardType);
+        limitPolicyService.deletePolicy(cardType);
+        return ok("Card limit policy deleted successfully", cardType);
+    }
+
+    /**
+     * 📄 API: Effective limits of a card
+     *
+     * Endpoint: GET /api/limits/cards/{cardNumber}
+     * Response: The card type's policy with the card's override applied.
+     */
+
+    // ✅ 4️⃣ Card limits
+    @Operation(summary = "Get the effective limits of a card")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Limits fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cards/{cardNumber}")
+    public ResponseEntity<ResponseStructure<CardLimitsDto>> getCardLimits(@PathVariable String cardNumber) {
+        return ok("Card limits fetched successfully", limitPolicyService.getCardLimits(cardNumber));
+    }
+
+    /**
+     * 📄 API: Override limits for one card
+     *
+     * Endpoint: PUT /api/limits/cards/{cardNumber}
+     * Request Body: CardLimitsDto; limits left out keep the card type's value.
+     * Response: The card's effective limits after the change.
+     */
+
+    // ✅ 5️⃣ Save override
+    @Operation(summary = "Create or replace a card's limit override")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Override saved"),
+            @ApiResponse(responseCode = "400", description = "Invalid limits"),
+            @ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/cards/{cardNumber}")
+    public ResponseEntity<ResponseStructure<CardLimitsDto>> saveOverride(@PathVariable String cardNumber,
+                                                                         @RequestBody CardLimitsDto request) {
+        LOGGER.info("Saving card limit override for card {}", cardNumber);
+        return ok("Card limit override saved successfully", limitPolicyService.saveOverride(cardNumber, request));
+    }
+
+    /**
+     * 📄 API: Remove a card's override
+     *
+     * Endpoint: DELETE /api/limits/cards/{cardNumber}
+     * Description: The card goes back to its card type's policy.
+     */
+
+    // ✅ 6️⃣ Delete override
+    @Operation(summary = "Delete a card's limit override")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Override deleted"),
+            @ApiResponse(responseCode = "404", description = "Card or override not found")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/cards/{cardNumber}")
+    public ResponseEntity<ResponseStructure<String>> deleteOverride(@PathVariable String cardNumber) {
+        LOGGER.info("Deleting card limit override for card {}", cardNumber);
+        limitPolicyService.deleteOverride(cardNumber);
+        return ok("Card limit override deleted successfully", cardNumber);
+    }
+
+    private static <T> ResponseEntity<ResponseStructure<T>> ok(String message, T data) {
+        ResponseStructure<T> structure = new ResponseStructure<>();
+        structure.setMessage(message);
+        structure.setHttpstatus("SUCCESS");
+        structure.setData(data);
+        return ResponseEntity.ok(structure);
+    }
+}
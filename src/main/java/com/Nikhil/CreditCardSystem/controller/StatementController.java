@@ -0,0 +1,137 @@
+package com.Nikhil.CreditCardSystem.controller;
+
+import com.Nikhil.CreditCardSystem.Entity.StatementRun;
+import com.Nikhil.CreditCardSystem.dto.StatementDto;
+import com.Nikhil.CreditCardSystem.service.StatementService;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/statements")
+public class StatementController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementController.class);
+
+    private final StatementService statementService;
+
+    public StatementController(StatementService statementService) {
+        this.statementService = statementService;
+    }
+
+    /**
+     * 📄 API: List the statements of a credit card
+     *
+     * Endpoint: GET /api/statements/card/{cardId}
+     * Description: Opening / closing balance and totals of every generated month, newest first.
+     * Response: List of StatementDto without transactions (amounts in rupees).
+     */
+
+    // ✅ 1️⃣ Card statements
+    @Operation(summary = "List the monthly statements of a credit card")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statements fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "Credit card not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/card/{cardId}")
+    public ResponseEntity<ResponseStructure<List<StatementDto>>> getStatements(
+            @Parameter(description = "Credit card ID", example = "101") @PathVariable Long cardId) {
+        List<StatementDto> statements = statementService.getStatements(cardId);
+        return respond(HttpStatus.OK, "Found " + statements.size() + " statement(s) for card ID: " + cardId, statements);
+    }
+
+    /**
+     * 📄 API: Get one monthly statement
+     *
+     * Endpoint: GET /api/statements/card/{cardId}/{month}
+     * Path Variables:
+     *      - cardId (Long): ID of the credit card
+     *      - month (String): statement month, yyyy-MM
+     * Response: StatementDto with every transaction of the month, oldest first.
+     */
+
+    // ✅ 2️⃣ Card statement of a month
+    @Operation(summary = "Get a card's statement for one month",
+            description = "Opening balance, every transaction of the month, totals and closing balance.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statement fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid month"),
+            @ApiResponse(responseCode = "404", description = "Card or statement not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/card/{cardId}/{month}")
+    public ResponseEntity<ResponseStructure<StatementDto>> getStatement(
+            @Parameter(description = "Credit card ID", example = "101") @PathVariable Long cardId,
+            @Parameter(description = "Statement month", example = "2025-09") @PathVariable String month) {
+        return respond(HttpStatus.OK, "Statement fetched for card ID: " + cardId,
+                statementService.getStatement(cardId, month));
+    }
+
+    /**
+     * 🔁 API: Generate the statements of a month
+     *
+     * Endpoint: POST /api/statements/runs/{month}
+     * Description: Starts (or resumes from its checkpoints) the statement run of an ended month in
+     *              the background. The run also starts by itself every night for the previous month.
+     * Response: 202 with the month; poll GET /api/statements/runs/{month} for progress.
+     */
+
+    // ✅ 3️⃣ Start statement run
+    @Operation(summary = "Start or resume the statement run of a month")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Run started"),
+            @ApiResponse(responseCode = "400", description = "Invalid month, or month not ended yet"),
+            @ApiResponse(responseCode = "409", description = "A run is already in progress")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/runs/{month}")
+    public ResponseEntity<ResponseStructure<String>> startRun(
+            @Parameter(description = "Statement month", example = "2025-09") @PathVariable String month) {
+        LOGGER.info("Starting statement run for {}", month);
+        return respond(HttpStatus.ACCEPTED, "Statement run started", statementService.startRun(month));
+    }
+
+    /**
+     * 📄 API: Progress of a statement run
+     *
+     * Endpoint: GET /api/statements/runs/{month}
+     * Response: StatementRun (status, chunks done / total, cards processed, cards per second).
+     */
+
+    // ✅ 4️⃣ Statement run status
+    @Operation(summary = "Get the progress of a month's statement run")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Run fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "No run for that month")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/runs/{month}")
+    public ResponseEntity<ResponseStructure<StatementRun>> getRun(@PathVariable String month) {
+        return respond(HttpStatus.OK, "Statement run fetched successfully", statementService.getRun(month));
+    }
+
+    private static <T> ResponseEntity<ResponseStructure<T>> respond(HttpStatus status, String message, T data) {
+        ResponseStructure<T> structure = new ResponseStructure<>();
+        structure.setMessage(message);
+        structure.setHttpstatus("SUCCESS");
+        structure.setData(data);
+        return ResponseEntity.status(status).body(structure);
+    }
+}
@@ -4,10 +4,14 @@ package com.Nikhil.CreditCardSystem.controller;
 import com.Nikhil.CreditCardSystem.Entity.CreditCard;
 import com.Nikhil.CreditCardSystem.Entity.Customer;
 import com.Nikhil.CreditCardSystem.dto.TransactionDto;
+import com.Nikhil.CreditCardSystem.dto.TransactionPageDto;
+import com.Nikhil.CreditCardSystem.dto.TransactionSummaryDto;
 import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
 import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
 import com.Nikhil.CreditCardSystem.repo.CustomerRepository;
+import com.Nikhil.CreditCardSystem.service.TransactionExportService;
 import com.Nikhil.CreditCardSystem.service.TransactionService;
+import com.Nikhil.CreditCardSystem.service.TransactionSummaryService;
 import com.Nikhil.CreditCardSystem.service.UserActionLogService;
 import com.Nikhil.CreditCardSystem.util.ResponseStructure;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,18 +21,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/transactions")
 public class TransactionController {
     @Autowired
@@ -39,72 +53,62 @@ public class TransactionController {
     private final CustomerRepository customerRepository;
     private final CreditCardRepository creditCardRepository;
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionSummaryService transactionSummaryService;
 
     public TransactionController(CustomerRepository customerRepository,
                                  CreditCardRepository creditCardRepository,
-                                 TransactionService transactionService) {
+                                 TransactionService transactionService,
+                                 TransactionExportService transactionExportService,
+                                 TransactionSummaryService transactionSummaryService) {
         this.customerRepository = customerRepository;
         this.creditCardRepository = creditCardRepository;
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.transactionSummaryService = transactionSummaryService;
     }
 
     /**
      * 📄 API: Get all transactions for a specific user (across all their credit cards)
      *
-     * Endpoint: GET /api/transactions/user/{userId}
-     * Description: Retrieves all transactions made by a user across all their credit cards.
+     * Endpoint: GET /api/transactions/user/{userId}?from=&to=&cursor=&size=
+     * Description: Retrieves transactions made by a user across all their credit cards, newest first,
+     *              one page at a time (keyset pagination on dateTime, id).
      * Path Variable:
      *      - userId (Long): ID of the user
-     * Response: List of TransactionDto objects.
+     * Request Parameters (optional):
+     *      - from / to (ISO date-time): date range, from inclusive, to exclusive
+     *      - cursor (String): nextCursor returned by the previous page
+     *      - size (int): page size, default 50, max 500
+     * Response: TransactionPageDto (transactions, hasMore, nextCursor).
      */
 
     // ✅ 1️⃣ Get all transactions for a user
     @Operation(
             summary = "Get all transactions for a specific user",
-            description = "Retrieves all transactions made by a user across all their credit cards."
+            description = "Retrieves transactions made by a user across all their credit cards, newest first, with cursor pagination."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Transactions fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ResponseStructure<List<TransactionDto>>> getAllTransactionsByUser(
+    public ResponseEntity<ResponseStructure<TransactionPageDto>> getAllTransactionsByUser(
             @Parameter(description = "User ID for which to fetch transactions", example = "1")
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            @Parameter(description = "Only transactions at or after this date-time (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only transactions before this date-time (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 500)")
+            @RequestParam(required = false) Integer size) {
 
         LOGGER.info("Fetching all transactions for user ID: {}", userId);
-
-        ResponseStructure<List<TransactionDto>> response = new ResponseStructure<>();
-        try {
-            Customer customer = customerRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            List<TransactionDto> transactionDtos = customer.getCreditCards().stream()
-                    .flatMap(card -> card.getTransactions().stream())
-                    .map(transactionService::toDto)
-                    .collect(Collectors.toList());
-
-            String message = transactionDtos.isEmpty()
-                    ? "No transactions found for user ID: " + userId
-                    : "Found " + transactionDtos.size() + " transactions for user ID: " + userId;
-
-            response.setMessage(message);
-            response.setHttpstatus("SUCCESS");
-            response.setData(transactionDtos);
-
-            // Use username from fetched customer entity
-            userActionLogService.logAction(customer.getName(), "Fetch all transactions for userId " + userId, "SUCCESS");
-
-        } catch (Exception e) {
-            // Attempt to log failed action with userId as fallback
-            String username = customerRepository.findById(userId)
-                    .map(Customer::getName)
-                    .orElse("Unknown");
-            userActionLogService.logAction(username, "Fetch all transactions for userId " + userId, "FAILED");
-            throw e;
-        }
-
-        return ResponseEntity.ok(response);
+        return fetchUserTransactions(userId, null, "", from, to, cursor, size);
     }
 
     /**
@@ -166,113 +170,282 @@ public class TransactionController {
     /**
      * 📄 API: Get all CREDIT transactions for a specific user (across all their credit cards)
      *
-     * Endpoint: GET /api/transactions/user/{userId}/credits
-     * Description: Retrieves all credit transactions made by a user across all their credit cards.
+     * Endpoint: GET /api/transactions/user/{userId}/credits?from=&to=&cursor=&size=
+     * Description: Retrieves credit transactions made by a user across all their credit cards,
+     *              filtered and paginated in the database.
      * Path Variable:
      *      - userId (Long): ID of the user
-     * Response: List of TransactionDto objects filtered by type "CREDIT".
+     * Response: TransactionPageDto filtered by type "CREDIT".
      */
 
     // ✅ 3️⃣ Get all CREDIT transactions for a user
     @Operation(
             summary = "Get all CREDIT transactions for a user",
-            description = "Retrieves all credit transactions made by a user across all their credit cards."
+            description = "Retrieves credit transactions made by a user across all their credit cards, newest first, with cursor pagination."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Credit transactions fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/user/{userId}/credits")
-    public ResponseEntity<ResponseStructure<List<TransactionDto>>> getAllCreditTransactionsByUser(
+    public ResponseEntity<ResponseStructure<TransactionPageDto>> getAllCreditTransactionsByUser(
             @Parameter(description = "User ID for fetching credit transactions", example = "1")
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            @Parameter(description = "Only transactions at or after this date-time (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only transactions before this date-time (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 500)")
+            @RequestParam(required = false) Integer size) {
 
         LOGGER.info("Fetching all CREDIT transactions for user ID: {}", userId);
-        ResponseStructure<List<TransactionDto>> response = new ResponseStructure<>();
-        try {
-            Customer customer = customerRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-            List<TransactionDto> creditTransactions = customer.getCreditCards().stream()
-                    .flatMap(card -> card.getTransactions().stream())
-                    .filter(txn -> "CREDIT".equalsIgnoreCase(txn.getTransactionType()))
-                    .map(transactionService::toDto)
-                    .collect(Collectors.toList());
-
-            String message = creditTransactions.isEmpty()
-                    ? "No credit transactions found for user ID: " + userId
-                    : "Found " + creditTransactions.size() + " credit transactions for user ID: " + userId;
-
-            response.setMessage(message);
-            response.setHttpstatus("SUCCESS");
-            response.setData(creditTransactions);
-
-            userActionLogService.logAction(customer.getName(), "Fetch CREDIT transactions for userId " + userId, "SUCCESS");
-
-        } catch (Exception e) {
-            String username = customerRepository.findById(userId)
-                    .map(Customer::getName)
-                    .orElse("Unknown");
-            userActionLogService.logAction(username, "Fetch CREDIT transactions for userId " + userId, "FAILED");
-            throw e;
-        }
-
-        return ResponseEntity.ok(response);
+        return fetchUserTransactions(userId, "CREDIT", "credit ", from, to, cursor, size);
     }
 
     /**
      * 📄 API: Get all DEBIT transactions for a specific user (across all their credit cards)
      *
-     * Endpoint: GET /api/transactions/user/{userId}/debits
-     * Description: Retrieves all debit transactions made by a user across all their credit cards.
+     * Endpoint: GET /api/transactions/user/{userId}/debits?from=&to=&cursor=&size=
+     * Description: Retrieves debit transactions made by a user across all their credit cards,
+     *              filtered and paginated in the database.
      * Path Variable:
      *      - userId (Long): ID of the user
-     * Response: List of TransactionDto objects filtered by type "DEBIT".
+     * Response: TransactionPageDto filtered by type "DEBIT".
      */
 
     // ✅ 4️⃣ Get all DEBIT transactions for a user
     @Operation(
             summary = "Get all DEBIT transactions for a user",
-            description = "Retrieves all debit transactions made by a user across all their credit cards."
+            description = "Retrieves debit transactions made by a user across all their credit cards, newest first, with cursor pagination."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Debit transactions fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/user/{userId}/debits")
-    public ResponseEntity<ResponseStructure<List<TransactionDto>>> getAllDebitTransactionsByUser(
+    public ResponseEntity<ResponseStructure<TransactionPageDto>> getAllDebitTransactionsByUser(
             @Parameter(description = "User ID for fetching debit transactions", example = "1")
-            @PathVariable Long userId) {
+            @PathVariable Long userId,
+            @Parameter(description = "Only transactions at or after this date-time (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only transactions before this date-time (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 500)")
+            @RequestParam(required = false) Integer size) {
 
         LOGGER.info("Fetching all DEBIT transactions for user ID: {}", userId);
-        ResponseStructure<List<TransactionDto>> response = new ResponseStructure<>();
+        return fetchUserTransactions(userId, "DEBIT", "debit ", from, to, cursor, size);
+    }
+
+    /**
+     * 📦 API: Export the full transaction history of a user
+     *
+     * Endpoint: GET /api/transactions/user/{userId}/export?format=ndjson|csv&gzip=true|false
+     * Description: Streams every transaction of the user, oldest first, straight from a DB cursor.
+     *              Nothing is collected in memory, so the history can be of any length.
+     * Path Variable:
+     *      - userId (Long): ID of the user
+     * Request Parameters (optional):
+     *      - format (String): ndjson (default) or csv
+     *      - gzip (boolean): gzip-compress the stream (Content-Encoding: gzip)
+     * Response: application/x-ndjson or text/csv attachment.
+     */
+
+    // ✅ 5️⃣ Export all transactions for a user
+    @Operation(
+            summary = "Export all transactions of a user",
+            description = "Streams the full transaction history of a user as NDJSON or CSV, optionally gzip-compressed."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export stream started"),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionsByUser(
+            @Parameter(description = "User ID whose transactions are exported", example = "1")
+            @PathVariable Long userId,
+            @Parameter(description = "Output format: ndjson or csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Gzip-compress the response")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        LOGGER.info("Exporting transactions for user ID: {} as {} (gzip={})", userId, format, gzip);
+        String action = "Export transactions for userId " + userId;
+        String username = "Unknown";
         try {
+            TransactionExportService.Format exportFormat = TransactionExportService.Format.parse(format);
             Customer customer = customerRepository.findById(userId)
                     .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            username = customer.getName();
 
-            List<TransactionDto> debitTransactions = customer.getCreditCards().stream()
-                    .flatMap(card -> card.getTransactions().stream())
-                    .filter(txn -> "DEBIT".equalsIgnoreCase(txn.getTransactionType()))
-                    .map(transactionService::toDto)
-                    .collect(Collectors.toList());
+            StreamingResponseBody body = transactionExportService.export(userId, exportFormat, gzip);
+            userActionLogService.logAction(username, action, "SUCCESS");
+
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"transactions-" + userId + "." + exportFormat.getExtension() + "\"");
+            if (gzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return builder.body(body);
+
+        } catch (Exception e) {
+            userActionLogService.logAction(username, action, "FAILED");
+            throw e;
+        }
+    }
+
+    /**
+     * 📊 API: Transaction summary of a credit card
+     *
+     * Endpoint: GET /api/transactions/summary/card/{cardId}
+     * Description: Debit / credit totals, counts and last activity of the card, read from the
+     *              precomputed aggregates (no scan of the transaction history).
+     * Response: TransactionSummaryDto (amounts in rupees).
+     */
+
+    // ✅ 6️⃣ Card summary
+    @Operation(summary = "Get the transaction summary of a credit card",
+            description = "Running debit/credit totals, counts and last activity of the card.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Summary fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "Credit card not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/summary/card/{cardId}")
+    public ResponseEntity<ResponseStructure<TransactionSummaryDto>> getCardSummary(
+            @Parameter(description = "Credit card ID", example = "101") @PathVariable Long cardId) {
+        return summaryResponse("Transaction summary fetched for card ID: " + cardId,
+                transactionSummaryService.getCardSummary(cardId));
+    }
+
+    /**
+     * 📊 API: Transaction summary of a user
+     *
+     * Endpoint: GET /api/transactions/summary/user/{userId}
+     * Description: Totals across all cards of the user, with the summary of each card.
+     * Response: TransactionSummaryDto with cards filled in.
+     */
+
+    // ✅ 7️⃣ User summary
+    @Operation(summary = "Get the transaction summary of a user",
+            description = "Debit/credit totals across all credit cards of the user, and per card.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Summary fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/summary/user/{userId}")
+    public ResponseEntity<ResponseStructure<TransactionSummaryDto>> getUserSummary(
+            @Parameter(description = "User ID", example = "1") @PathVariable Long userId) {
+        return summaryResponse("Transaction summary fetched for user ID: " + userId,
+                transactionSummaryService.getCustomerSummary(userId));
+    }
+
+    /**
+     * 📊 API: Daily transaction totals of a credit card
+     *
+     * Endpoint: GET /api/transactions/summary/card/{cardId}/daily?from=&to=
+     * Request Parameters:
+     *      - from / to (ISO date): both inclusive, at most 366 days apart
+     * Response: One TransactionSummaryDto per day with activity, oldest first.
+     */
+
+    // ✅ 8️⃣ Card daily summary
+    @Operation(summary = "Get the daily transaction totals of a credit card")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Daily totals fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "404", description = "Credit card not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/summary/card/{cardId}/daily")
+    public ResponseEntity<ResponseStructure<List<TransactionSummaryDto>>> getCardDailySummary(
+            @Parameter(description = "Credit card ID", example = "101") @PathVariable Long cardId,
+            @Parameter(description = "First day (ISO date)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO date)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<TransactionSummaryDto> days = transactionSummaryService.getDailySummary(cardId, from, to);
+        return summaryResponse("Found " + days.size() + " day(s) with transactions for card ID: " + cardId, days);
+    }
+
+    /**
+     * 🔁 API: Rebuild the transaction aggregates
+     *
+     * Endpoint: POST /api/transactions/summary/rebuild
+     * Description: Recomputes every card and daily aggregate from the transaction table, in
+     *              parallel card-id chunks. Only one rebuild runs at a time across instances.
+     */
+
+    // ✅ 9️⃣ Rebuild aggregates
+    @Operation(summary = "Rebuild the transaction aggregates from the transaction history")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Aggregates rebuilt"),
+            @ApiResponse(responseCode = "409", description = "A rebuild is already running")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<ResponseStructure<Long>> rebuildSummaries() {
+        LOGGER.info("Rebuilding transaction aggregates");
+        String action = "Rebuild transaction aggregates";
+        try {
+            long chunks = transactionSummaryService.rebuild();
+            userActionLogService.logAction("ADMIN", action, "SUCCESS");
+            return summaryResponse("Transaction aggregates rebuilt in " + chunks + " chunk(s)", chunks);
+        } catch (Exception e) {
+            userActionLogService.logAction("ADMIN", action, "FAILED");
+            throw e;
+        }
+    }
+
+    private static <T> ResponseEntity<ResponseStructure<T>> summaryResponse(String message, T data) {
+        ResponseStructure<T> response = new ResponseStructure<>();
+        response.setMessage(message);
+        response.setHttpstatus("SUCCESS");
+        response.setData(data);
+        return ResponseEntity.ok(response);
+    }
+
+    // Shared by the user endpoints: filtering and paging happen in SQL, never over the full history
+    private ResponseEntity<ResponseStructure<TransactionPageDto>> fetchUserTransactions(
+            Long userId, String type, String label, LocalDateTime from, LocalDateTime to, String cursor, Integer size) {
+
+        String action = type == null
+                ? "Fetch all transactions for userId " + userId
+                : "Fetch " + type + " transactions for userId " + userId;
+        ResponseStructure<TransactionPageDto> response = new ResponseStructure<>();
+        String username = "Unknown";
+        try {
+            Customer customer = customerRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            username = customer.getName();
+
+            TransactionPageDto page = transactionService.findPageForCustomer(userId, type, from, to, cursor, size);
 
-            String message = debitTransactions.isEmpty()
-                    ? "No debit transactions found for user ID: " + userId
-                    : "Found " + debitTransactions.size() + " debit transactions for user ID: " + userId;
+            String message = page.getSize() == 0
+                    ? "No " + label + "transactions found for user ID: " + userId
+                    : "Found " + page.getSize() + " " + label + "transactions for user ID: " + userId;
 
             response.setMessage(message);
             response.setHttpstatus("SUCCESS");
-            response.setData(debitTransactions);
+            response.setData(page);
 
-            userActionLogService.logAction(customer.getName(), "Fetch DEBIT transactions for userId " + userId, "SUCCESS");
+            userActionLogService.logAction(username, action, "SUCCESS");
 
         } catch (Exception e) {
-            String username = customerRepository.findById(userId)
-                    .map(Customer::getName)
-                    .orElse("Unknown");
-            userActionLogService.logAction(username, "Fetch DEBIT transactions for userId " + userId, "FAILED");
+            userActionLogService.logAction(username, action, "FAILED");
             throw e;
         }
 
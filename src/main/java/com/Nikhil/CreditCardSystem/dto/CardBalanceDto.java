@@ -0,0 +1,22 @@
+package com.Nikhil.CreditCardSystem.dto;
+
+import com.Nikhil.CreditCardSystem.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Balance of a card as of a point in time, replayed from its event stream.
+ */
+@Data
+public class CardBalanceDto {
+    private Long cardId;
+    private LocalDateTime asOf;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long balance;
+    private long sequenceNo;            // events of the stream applied
+    private String lastEventType;
+    private LocalDateTime lastEventAt;
+    private boolean deleted;
+}
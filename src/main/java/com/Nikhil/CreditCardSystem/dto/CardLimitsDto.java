@@ -0,0 +1,27 @@
+package com.Nikhil.CreditCardSystem.dto;
+
+import com.Nikhil.CreditCardSystem.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+
+/**
+ * Card limits in rupees. For a per-card override, a missing limit keeps the card type's value.
+ */
+@Data
+public class CardLimitsDto {
+    private String cardType;
+    private String cardNumber;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Long maxWithdrawalLimit;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Long dailyDebitLimit;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Long dailyCreditLimit;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private Long maxCreditLimit;
+}
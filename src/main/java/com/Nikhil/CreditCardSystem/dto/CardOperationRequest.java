@@ -0,0 +1,14 @@
+package com.Nikhil.CreditCardSystem.dto;
+
+import com.Nikhil.CreditCardSystem.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Data;
+
+@Data
+public class CardOperationRequest {
+    private Long customerId;
+    private String cardNumber;
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;            // minor units, sent as rupees e.g. 1500.25
+    private String type; // "DEBIT" or "CREDIT"
+}
@@ -0,0 +1,18 @@
+package com.Nikhil.CreditCardSystem.dto;
+
+import com.Nikhil.CreditCardSystem.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+
+@Data
+public class CardOperationResult {
+    private int index;              // position of the instruction in the request
+    private String cardNumber;
+    private String type;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long amount;            // minor units, rendered as rupees
+    private String status;          // SUCCESS / FAILED
+    private String message;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private Long balanceAfter;      // card balance after this instruction, when it succeeded
+}
@@ -1,5 +1,8 @@
 package com.Nikhil.CreditCardSystem.dto;
 
+import com.Nikhil.CreditCardSystem.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -7,7 +10,9 @@ import java.time.LocalDate;
 @Data
 public class CreditCardDto {
     private String cardNumber;
-    private double totalBalance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long totalBalance; // minor units, rendered as rupees
     private String cardHolderName;
     private String cardType;
     private boolean isActive;
@@ -0,0 +1,13 @@
+package com.Nikhil.CreditCardSystem.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CustomerPageDto {
+    private List<CustomerDto> customers;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor; // pass back as ?cursor= (same sort and direction) to fetch the next page
+}
@@ -0,0 +1,30 @@
+package com.Nikhil.CreditCardSystem.dto;
+
+import com.Nikhil.CreditCardSystem.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Monthly statement of a card; transactions are only filled in for a single statement.
+ */
+@Data
+public class StatementDto {
+    private Long cardId;
+    private String cardNumber;
+    private String statementMonth;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long openingBalance;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long debitTotal;
+    private long debitCount;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long creditTotal;
+    private long creditCount;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long closingBalance;
+    private LocalDateTime generatedAt;
+    private List<TransactionDto> transactions;
+}
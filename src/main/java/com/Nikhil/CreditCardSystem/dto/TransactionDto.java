@@ -1,5 +1,8 @@
 package com.Nikhil.CreditCardSystem.dto;
 
+import com.Nikhil.CreditCardSystem.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -7,7 +10,9 @@ import java.time.LocalDateTime;
 @Data
 public class TransactionDto {
     private Long id;
-    private double amount;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount; // minor units, rendered as rupees
     private String transactionType;
     private String cardType;
     private String description;
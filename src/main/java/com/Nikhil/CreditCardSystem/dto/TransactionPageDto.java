@@ -0,0 +1,13 @@
+package com.Nikhil.CreditCardSystem.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TransactionPageDto {
+    private List<TransactionDto> transactions;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor; // pass back as ?cursor= to fetch the next page
+}
@@ -0,0 +1,27 @@
+package com.Nikhil.CreditCardSystem.dto;
+
+import com.Nikhil.CreditCardSystem.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Debit / credit totals of a card, a card-day (activityDate set) or a customer (cards set).
+ */
+@Data
+public class TransactionSummaryDto {
+    private Long customerId;
+    private Long cardId;
+    private LocalDate activityDate;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long debitTotal;
+    private long debitCount;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    private long creditTotal;
+    private long creditCount;
+    private LocalDateTime lastActivityAt;
+    private List<TransactionSummaryDto> cards;
+}
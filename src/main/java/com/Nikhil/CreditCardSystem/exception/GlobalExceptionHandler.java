@@ -2,12 +2,17 @@ package com.Nikhil.CreditCardSystem.exception;
 
 import com.Nikhil.CreditCardSystem.service.UserActionLogService;
 import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -15,8 +20,10 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
 import java.nio.file.AccessDeniedException;
+import java.sql.SQLTransientConnectionException;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
     @Autowired
@@ -46,6 +53,27 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(structure);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ResponseStructure<String>> handleConflict(ConflictException ex) {
+        LOGGER.warn("Conflict: {}", ex.getMessage());
+        ResponseStructure<String> structure = new ResponseStructure<>();
+        structure.setMessage("Conflict");
+        structure.setHttpstatus("ERROR");
+        structure.setData(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(structure);
+    }
+
+    // ✅ A card changed by another request between our read and our write (@Version mismatch)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ResponseStructure<String>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        LOGGER.warn("Concurrent update: {}", ex.getMessage());
+        ResponseStructure<String> structure = new ResponseStructure<>();
+        structure.setMessage("Conflict");
+        structure.setHttpstatus("ERROR");
+        structure.setData("The record was changed by another request, please retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(structure);
+    }
+
 
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ResponseStructure<String>> handleAccessDenied(AccessDeniedException ex) {
@@ -116,6 +144,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(structure);
     }
 
+    // Handles malformed request bodies, e.g. an amount that is not a valid decimal (400)
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ResponseStructure<String>> handleUnreadableBody(HttpMessageNotReadableException ex, HttpServletRequest request) {
+        userActionLogService.logAction(
+                "UNKNOWN_USER",
+                "Unreadable request body on URL: " + request.getRequestURI(),
+                "FAILED"
+        );
+
+        String errorMessage = "Malformed JSON request body";
+        if (ex.getMostSpecificCause() instanceof InvalidFormatException invalid) {
+            errorMessage = invalid.getPath().isEmpty()
+                    ? invalid.getOriginalMessage()
+                    : invalid.getPath().get(invalid.getPath().size() - 1).getFieldName() + ": " + invalid.getOriginalMessage();
+        }
+
+        ResponseStructure<String> structure = new ResponseStructure<>();
+        structure.setMessage("Validation error: " + errorMessage);
+        structure.setHttpstatus("FAILED");
+        structure.setData("Invalid request body on URL: " + request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(structure);
+    }
+
 
 
 
@@ -123,6 +175,16 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseStructure<String>> handleAllExceptions(Exception ex, HttpServletRequest request) {
+        // ✅ No DB connection available (bulkhead full / pool timeout): 503 so clients back off and retry
+        if (isDatabaseBusy(ex)) {
+            LOGGER.warn("Database busy on URL {}: {}", request.getRequestURI(), ex.getMessage());
+            ResponseStructure<String> structure = new ResponseStructure<>();
+            structure.setMessage("Service busy, please retry");
+            structure.setHttpstatus("FAILED");
+            structure.setData("The database is at capacity.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(structure);
+        }
+
         userActionLogService.logAction(
                 "UNKNOWN_USER",
                 "Error on URL: " + request.getRequestURI() + " - " + ex.getMessage(),
@@ -136,5 +198,13 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(structure);
     }
-}
 
+    private static boolean isDatabaseBusy(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+
+/**
+ * Debit / credit business rules shared by every balance path (JPA, hot ledger, batch API),
+ * so the limits are enforced identically wherever a movement is applied.
+ * All amounts are minor units (see util.Money).
+ */
+public final class BalanceRules {
+
+    private BalanceRules() {
+    }
+
+    public static void checkDebit(long totalBalance, long dailyDebitedAmount, long amount,
+                                  long maxWithdrawalLimit, long dailyDebitLimit) {
+        if (amount > totalBalance) {
+            throw new ValidationException("Insufficient balance");
+        }
+        if (amount > maxWithdrawalLimit) {
+            throw new ValidationException("Max withdrawal limit exceeded");
+        }
+        if (amount > dailyDebitLimit - dailyDebitedAmount) { // no overflow for any amount
+            throw new ValidationException("Daily debit limit exceeded");
+        }
+    }
+
+    public static void checkCredit(long dailyCreditedAmount, long amount,
+                                   long maxCreditLimit, long dailyCreditLimit) {
+        if (amount > maxCreditLimit) {
+            throw new ValidationException("Amount exceeds max credit limit");
+        }
+        if (amount > dailyCreditLimit - dailyCreditedAmount) {
+            throw new ValidationException("Daily credit limit exceeded");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The business day daily debit / credit counters belong to.
+ *
+ * Every card stores the day its counters were last reset; a card whose day is older than
+ * today (in the configured zone) has its counters treated as zero on first access. This keeps
+ * limits correct even if the scheduled bulk reset has not run yet.
+ */
+@Component
+public class BusinessDay {
+
+    private final ZoneId zone;
+    private final LongAdder lazyResets = new LongAdder();
+
+    public BusinessDay(@Value("${creditcard.daily-reset.zone:Asia/Kolkata}") String zone) {
+        this.zone = ZoneId.of(zone);
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    // ✅ Lazy per-card reset: zero the counters if they belong to an earlier day
+    public boolean rollOver(CreditCard card) {
+        LocalDate today = today();
+        if (card.getDailyResetDate() != null && !card.getDailyResetDate().isBefore(today)) {
+            return false;
+        }
+        card.setDailyDebitedAmount(0);
+        card.setDailyCreditedAmount(0);
+        card.setDailyResetDate(today);
+        lazyResets.increment();
+        return true;
+    }
+
+    void countLazyReset() {
+        lazyResets.increment();
+    }
+
+    public long getLazyResetCount() {
+        return lazyResets.sum();
+    }
+}
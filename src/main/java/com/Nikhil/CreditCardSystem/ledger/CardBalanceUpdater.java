@@ -0,0 +1,221 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.Entity.Transaction;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.repo.AggregateJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.repo.LedgerJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.LedgerJdbcRepository.CardBalanceRow;
+import com.Nikhil.CreditCardSystem.repo.TransactionRepository;
+import com.Nikhil.CreditCardSystem.util.Money;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies a debit / credit to a card row and records the transaction (with its aggregates and card event) in one DB transaction,
+ * using the configured concurrency strategy:
+ *      - OPTIMISTIC  : read, check, write guarded by CreditCard.version; retried with jittered backoff
+ *      - PESSIMISTIC : SELECT ... FOR UPDATE, then check and write
+ *      - ATOMIC      : one conditional UPDATE that checks balance and limits and writes together
+ *
+ * All three enforce the same rules as {@link BalanceRules} with the limits from {@link LimitPolicyEngine};
+ * rejected movements report the same messages.
+ */
+@Component
+public class CardBalanceUpdater {
+
+    public enum Mode { OPTIMISTIC, PESSIMISTIC, ATOMIC }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CardBalanceUpdater.class);
+
+    private final CreditCardRepository creditCardRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final AggregateJdbcRepository aggregateJdbcRepository;
+    private final CardEventJdbcRepository cardEventJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BusinessDay businessDay;
+    private final LimitPolicyEngine limitPolicyEngine;
+    private final EntityManager entityManager;
+
+    @Value("${creditcard.ledger.concurrency:PESSIMISTIC}")
+    private Mode mode;
+
+    @Value("${creditcard.ledger.optimistic.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${creditcard.ledger.optimistic.backoff-ms:5}")
+    private long backoffMs;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public CardBalanceUpdater(CreditCardRepository creditCardRepository,
+                              TransactionRepository transactionRepository,
+                              LedgerJdbcRepository ledgerJdbcRepository,
+                              AggregateJdbcRepository aggregateJdbcRepository,
+                              CardEventJdbcRepository cardEventJdbcRepository,
+                              TransactionTemplate transactionTemplate,
+                              BusinessDay businessDay,
+                              LimitPolicyEngine limitPolicyEngine,
+                              EntityManager entityManager) {
+        this.creditCardRepository = creditCardRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.aggregateJdbcRepository = aggregateJdbcRepository;
+        this.cardEventJdbcRepository = cardEventJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.businessDay = businessDay;
+        this.limitPolicyEngine = limitPolicyEngine;
+        this.entityManager = entityManager;
+    }
+
+    public Result debit(Long customerId, String cardNumber, long amount) {
+        return apply(customerId, cardNumber, amount, true);
+    }
+
+    public Result credit(Long customerId, String cardNumber, long amount) {
+        return apply(customerId, cardNumber, amount, false);
+    }
+
+    private Result apply(Long customerId, String cardNumber, long amount, boolean debit) {
+        return switch (mode) {
+            case OPTIMISTIC -> applyOptimistic(customerId, cardNumber, amount, debit);
+            case PESSIMISTIC -> transactionTemplate.execute(status -> {
+                CreditCard card = creditCardRepository.findForUpdate(cardNumber, customerId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Card not found for customer"));
+                return checkAndApply(card, amount, debit);
+            });
+            case ATOMIC -> transactionTemplate.execute(status -> applyAtomic(customerId, cardNumber, amount, debit));
+        };
+    }
+
+    // ✅ Optimistic: version check on commit, retry with jittered exponential backoff
+    private Result applyOptimistic(Long customerId, String cardNumber, long amount, boolean debit) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    CreditCard card = creditCardRepository.findByCardNumberAndCustomerId(cardNumber, customerId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Card not found for customer"));
+                    return checkAndApply(card, amount, debit);
+                });
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    conflicts.increment();
+                    LOGGER.warn("Giving up on card {} after {} optimistic lock conflicts", cardNumber, attempt);
+                    throw new ConflictException("Card is being updated concurrently, please retry");
+                }
+                retries.increment();
+                // Inclusive bound, so backoff-ms=0 means retry immediately
+                sleepQuietly(ThreadLocalRandom.current().nextLong((backoffMs << (attempt - 1)) + 1));
+            }
+        }
+    }
+
+    private Result checkAndApply(CreditCard card, long amount, boolean debit) {
+        businessDay.rollOver(card);
+        CardLimits limits = limitPolicyEngine.limitsFor(card.getId(), card.getCardType());
+        if (debit) {
+            BalanceRules.checkDebit(card.getTotalBalance(), card.getDailyDebitedAmount(), amount,
+                    limits.maxWithdrawalLimit(), limits.dailyDebitLimit());
+            card.setTotalBalance(card.getTotalBalance() - amount);
+            card.setDailyDebitedAmount(card.getDailyDebitedAmount() + amount);
+        } else {
+            BalanceRules.checkCredit(card.getDailyCreditedAmount(), amount,
+                    limits.maxCreditLimit(), limits.dailyCreditLimit());
+            card.setTotalBalance(card.getTotalBalance() + amount);
+            card.setDailyCreditedAmount(card.getDailyCreditedAmount() + amount);
+        }
+        // Managed card is flushed by dirty checking; saving it would cascade over its whole history
+        return record(card, amount, debit);
+    }
+
+    // ✅ Atomic: the WHERE clause is the business rule, so check and write cannot interleave.
+    // The card is read once for its limits; the UPDATE itself returns the new balance.
+    private Result applyAtomic(Long customerId, String cardNumber, long amount, boolean debit) {
+        LocalDate today = businessDay.today();
+        CreditCard card = creditCardRepository.findByCardNumberAndCustomerId(cardNumber, customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found for customer"));
+        CardLimits limits = limitPolicyEngine.limitsFor(card.getId(), card.getCardType());
+        Optional<CardBalanceRow> updated = debit
+                ? ledgerJdbcRepository.debitIfAllowed(card.getId(), amount, today, limits)
+                : ledgerJdbcRepository.creditIfAllowed(card.getId(), amount, today, limits);
+
+        if (updated.isEmpty()) {
+            // Rejected: reload the row and re-run the rules on it to report why (without touching the entity)
+            entityManager.refresh(card);
+            boolean sameDay = today.equals(card.getDailyResetDate());
+            if (debit) {
+                BalanceRules.checkDebit(card.getTotalBalance(), sameDay ? card.getDailyDebitedAmount() : 0, amount,
+                        limits.maxWithdrawalLimit(), limits.dailyDebitLimit());
+            } else {
+                BalanceRules.checkCredit(sameDay ? card.getDailyCreditedAmount() : 0, amount,
+                        limits.maxCreditLimit(), limits.dailyCreditLimit());
+            }
+            // The row changed between the UPDATE and the read; let the client retry
+            throw new ConflictException("Card is being updated concurrently, please retry");
+        }
+        // Detached, so the returned state is not written back (and version-checked) on flush
+        entityManager.detach(card);
+        CardBalanceRow row = updated.get();
+        card.setTotalBalance(row.totalBalance());
+        card.setDailyDebitedAmount(row.dailyDebitedAmount());
+        card.setDailyCreditedAmount(row.dailyCreditedAmount());
+        card.setDailyResetDate(row.dailyResetDate());
+        return record(card, amount, debit);
+    }
+
+    private Result record(CreditCard card, long amount, boolean debit) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setTransactionType(debit ? "DEBIT" : "CREDIT");
+        transaction.setCardType(card.getCardType());
+        transaction.setDescription((debit ? "Debited ₹" : "Credited ₹") + Money.format(amount));
+        transaction.setCreditCard(card);
+        transactionRepository.save(transaction);
+        List<LedgerEntry> entries = List.of(new LedgerEntry(card.getId(), transaction.getTransactionType(),
+                amount, card.getCardType(), transaction.getDescription(), transaction.getDateTime()));
+        aggregateJdbcRepository.apply(entries);
+        // Card row written (and locked, for OPTIMISTIC) before its event is appended
+        creditCardRepository.flush();
+        cardEventJdbcRepository.appendMovements(entries);
+        return new Result(card, card.getCustomer().getName());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    public record Result(CreditCard card, String customerName) {
+    }
+}
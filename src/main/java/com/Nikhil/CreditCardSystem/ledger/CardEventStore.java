@@ -0,0 +1,149 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.Entity.CardEvent;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository.EventRow;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository.SnapshotRow;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-sourced history of every card.
+ *
+ * card_events holds one append-only stream per card: CardIssued (opening balance), Debited /
+ * Credited (signed amount), CardUpdated and CardDeleted. Every balance path appends to it in the
+ * DB transaction that changes the card (see CardEventJdbcRepository), and every
+ * creditcard.events.snapshot-every events the balance reached goes to card_snapshots. The state of
+ * a card at any time is then one snapshot read by index plus at most snapshot-every events,
+ * whatever the length of its history; credit_card and transaction stay the read model the balance
+ * rules run against.
+ *
+ * Cards issued before the event log get their stream built from their transaction rows once, at
+ * startup, before the hot ledger or any request can append to them.
+ */
+@Component
+@DependsOn("moneyColumnsMigration")    // the backfill reads balances and amounts from the *_minor columns
+public class CardEventStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CardEventStore.class);
+
+    private final CardEventJdbcRepository eventRepository;
+    private final CreditCardRepository creditCardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${creditcard.events.backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    public CardEventStore(CardEventJdbcRepository eventRepository,
+                          CreditCardRepository creditCardRepository,
+                          JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate) {
+        this.eventRepository = eventRepository;
+        this.creditCardRepository = creditCardRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // First start after the event log was introduced: a stream for every existing card
+    @PostConstruct
+    void backfillOnStart() {
+        if (eventRepository.anyCardWithoutStream()) {
+            backfill();
+        }
+    }
+
+    /**
+     * Builds the stream of every card that has none, in card-id chunks of one transaction each.
+     * Each chunk locks its card rows first, so balance updates on those cards wait for it. Returns
+     * the number of streams built.
+     */
+    public long backfill() {
+        long start = System.nanoTime();
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM credit_card");
+        Number minId = (Number) range.get("min_id");
+        Number maxId = (Number) range.get("max_id");
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+        long built = 0;
+        for (long from = minId.longValue(); from <= maxId.longValue(); from += chunkSize) {
+            long first = from;
+            long last = from + chunkSize - 1;
+            built += transactionTemplate.execute(status -> {
+                List<Long> cardIds = eventRepository.lockCardsWithoutStream(first, last);
+                eventRepository.backfill(cardIds);
+                return (long) cardIds.size();
+            });
+        }
+        LOGGER.info("Built event streams of {} card(s) from their transactions in {} ms", built,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return built;
+    }
+
+    /**
+     * State of a card as of the given time: the latest snapshot taken at or before it, then the
+     * events after that snapshot in sequence order, up to the first one that happened later.
+     */
+    public CardHistoryState stateAt(Long cardId, LocalDateTime asOf) {
+        if (eventRepository.head(cardId) == 0) {
+            // No stream: an unknown card (streams of existing cards are built at startup)
+            if (!creditCardRepository.existsById(cardId)) {
+                throw new ResourceNotFoundException("Card not found");
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    eventRepository.backfill(eventRepository.lockCardsWithoutStream(cardId, cardId)));
+        }
+
+        SnapshotRow snapshot = eventRepository.snapshotAt(cardId, asOf);
+        long fromSequence = snapshot == null ? 1 : snapshot.sequenceNo();
+        Long nextSnapshot = eventRepository.nextSnapshot(cardId, snapshot == null ? 0 : snapshot.sequenceNo());
+        List<EventRow> events = eventRepository.events(cardId, fromSequence,
+                nextSnapshot == null ? Long.MAX_VALUE : nextSnapshot);
+
+        long balance = snapshot == null ? 0 : snapshot.balance();
+        EventRow last = null;
+        int replayed = 0;
+        for (EventRow event : events) {
+            if (snapshot != null && event.sequenceNo() == snapshot.sequenceNo()) {
+                last = event;                    // already in the snapshot balance
+                continue;
+            }
+            if (event.occurredAt().isAfter(asOf)) {
+                break;
+            }
+            balance += event.amount();
+            last = event;
+            replayed++;
+        }
+        if (last == null) {
+            throw new ResourceNotFoundException("Card had not been issued at " + asOf);
+        }
+        return new CardHistoryState(cardId, asOf, balance, last.sequenceNo(), last.eventType(), last.occurredAt(),
+                CardEvent.CARD_DELETED.equals(last.eventType()), snapshot == null ? 0 : snapshot.sequenceNo(), replayed);
+    }
+
+    public record CardHistoryState(Long cardId,
+                                   LocalDateTime asOf,
+                                   long balance,
+                                   long sequenceNo,
+                                   String lastEventType,
+                                   LocalDateTime lastEventAt,
+                                   boolean deleted,
+                                   long snapshotSequenceNo,
+                                   int replayedEvents) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.Entity.CardLimitOverride;
+import com.Nikhil.CreditCardSystem.Entity.CardLimitPolicy;
+
+/**
+ * Effective limits of a card, in minor units (paise).
+ */
+public record CardLimits(long maxWithdrawalLimit, long dailyDebitLimit, long dailyCreditLimit, long maxCreditLimit) {
+
+    public static CardLimits of(CardLimitPolicy policy) {
+        return new CardLimits(policy.getMaxWithdrawalLimit(), policy.getDailyDebitLimit(),
+                policy.getDailyCreditLimit(), policy.getMaxCreditLimit());
+    }
+
+    // Limits left null in the override keep the policy value
+    CardLimits with(CardLimitOverride override) {
+        return new CardLimits(
+                override.getMaxWithdrawalLimit() != null ? override.getMaxWithdrawalLimit() : maxWithdrawalLimit,
+                override.getDailyDebitLimit() != null ? override.getDailyDebitLimit() : dailyDebitLimit,
+                override.getDailyCreditLimit() != null ? override.getDailyCreditLimit() : dailyCreditLimit,
+                override.getMaxCreditLimit() != null ? override.getMaxCreditLimit() : maxCreditLimit);
+    }
+}
@@ -0,0 +1,657 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.Entity.JournalCheckpoint;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.repo.AggregateJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.repo.JournalCheckpointRepository;
+import com.Nikhil.CreditCardSystem.repo.LedgerJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.LedgerJdbcRepository.CardBalanceRow;
+import com.Nikhil.CreditCardSystem.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Optional "hot ledger" mode for debitCard / creditCard.
+ *
+ * Each card's balance and daily counters live in memory as an immutable {@link Balance}
+ * swapped with compare-and-set, so concurrent debits never lose updates and the request path
+ * does no DB round trip once the card is loaded. Movements are queued and persisted
+ * write-behind: a flusher thread writes the latest balance of every touched card and the
+ * queued transaction rows in one DB transaction per batch.
+ *
+ * State is (re)built from the DB: cards are loaded on first access, or eagerly at startup when
+ * preload is enabled. The queue is drained on shutdown, so a clean restart loses nothing.
+ *
+ * A card row changed or deleted outside the ledger goes through {@link #evict(Long, Supplier)} /
+ * {@link #remove(Long, Supplier)}: posts to the card wait while its movements are flushed and the
+ * change runs, then the card is retired from memory. Posts that raced it load the changed row, or
+ * find no card after a delete.
+ *
+ * With the journal enabled (creditcard.ledger.journal.enabled) a movement is acknowledged only once
+ * it is in the {@link TransactionJournal}, and the flusher becomes its projector: each batch moves
+ * the journal checkpoint in the same DB transaction as the rows it writes, and balances are taken
+ * from the journaled records rather than live memory, so the DB always matches the journal up to
+ * the checkpoint. At startup everything after the checkpoint is replayed into the DB before the
+ * first card is loaded, so a crash loses no acknowledged movement.
+ *
+ * Hot mode is single-node only. The balances held here are the source of truth until flushed,
+ * and nothing tells another instance about them: a second node with hot mode on would check
+ * limits against its own copy of the card and overwrite this node's balances on flush. Enable it
+ * on exactly one instance, with every debit / credit routed to it.
+ */
+@Component
+// Journal recovery writes balances to the *_minor columns, so legacy columns must have been migrated first;
+// streams of existing cards are built before any movement is replayed or posted
+@DependsOn({"moneyColumnsMigration", "cardEventStore"})
+public class HotLedger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotLedger.class);
+
+    private static final String JOURNAL_NAME = "hot-ledger";
+
+    private final CreditCardRepository creditCardRepository;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final AggregateJdbcRepository aggregateJdbcRepository;
+    private final CardEventJdbcRepository cardEventJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BusinessDay businessDay;
+    private final LimitPolicyEngine limitPolicyEngine;
+    private final TransactionJournal journal;
+    private final JournalCheckpointRepository checkpointRepository;
+
+    @Value("${creditcard.ledger.hot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${creditcard.ledger.hot.preload:false}")
+    private boolean preload;
+
+    @Value("${creditcard.ledger.hot.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${creditcard.ledger.hot.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${creditcard.ledger.hot.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private final ConcurrentHashMap<Long, CardState> cardsById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CardState> cardsByNumber = new ConcurrentHashMap<>();
+    // Ids of cards deleted through remove(); a state loaded just before the delete committed can't post
+    private final Set<Long> deletedCardIds = ConcurrentHashMap.newKeySet();
+
+    private BlockingQueue<Movement> pending;
+    private final List<Movement> inFlight = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Journal mode: journal order, state order and queue order must agree, so posting is serialized
+    private final ReentrantLock postLock = new ReentrantLock();
+    private boolean journaled;
+    private Thread flusher;
+    private volatile boolean running;
+
+    // Metrics
+    private final LongAdder droppedCount = new LongAdder();
+
+    public HotLedger(CreditCardRepository creditCardRepository,
+                     LedgerJdbcRepository ledgerJdbcRepository,
+                     AggregateJdbcRepository aggregateJdbcRepository,
+                     CardEventJdbcRepository cardEventJdbcRepository,
+                     TransactionTemplate transactionTemplate,
+                     BusinessDay businessDay,
+                     LimitPolicyEngine limitPolicyEngine,
+                     TransactionJournal journal,
+                     JournalCheckpointRepository checkpointRepository) {
+        this.creditCardRepository = creditCardRepository;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.aggregateJdbcRepository = aggregateJdbcRepository;
+        this.cardEventJdbcRepository = cardEventJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.businessDay = businessDay;
+        this.limitPolicyEngine = limitPolicyEngine;
+        this.journal = journal;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            if (journal.isEnabled()) {
+                LOGGER.warn("creditcard.ledger.journal.enabled has no effect without creditcard.ledger.hot.enabled");
+            }
+            return;
+        }
+        pending = new ArrayBlockingQueue<>(queueCapacity);
+        journaled = journal.isEnabled();
+        if (journaled) {
+            recoverJournal();
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "hot-ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        LOGGER.info("Hot ledger enabled (batchSize={}, flushIntervalMs={}, journal={})", batchSize, flushIntervalMs, journaled);
+    }
+
+    // ✅ Recovery: project whatever the journal holds past the checkpoint, before any card is loaded
+    private void recoverJournal() {
+        long checkpoint = checkpointRepository.findById(JOURNAL_NAME)
+                .map(JournalCheckpoint::getPosition)
+                .orElseGet(() -> {
+                    JournalCheckpoint created = new JournalCheckpoint();
+                    created.setName(JOURNAL_NAME);
+                    created.setPosition(0);
+                    created.setUpdatedAt(LocalDateTime.now());
+                    checkpointRepository.save(created);
+                    return 0L;
+                });
+        journal.recover(checkpoint, batchSize, this::projectReplayed);
+    }
+
+    private void projectReplayed(List<TransactionJournal.Record> records) {
+        Map<Long, String> cardTypes = new HashMap<>();
+        creditCardRepository.findAllById(records.stream().map(TransactionJournal.Record::cardId).distinct().toList())
+                .forEach(card -> cardTypes.put(card.getId(), card.getCardType()));
+        List<Movement> movements = new ArrayList<>(records.size());
+        for (TransactionJournal.Record record : records) {
+            if (!cardTypes.containsKey(record.cardId())) {
+                LOGGER.warn("Skipping journaled {} of card {}: card no longer exists", record.transactionType(), record.cardId());
+                continue;
+            }
+            LedgerEntry entry = new LedgerEntry(record.cardId(), record.transactionType(), record.amount(),
+                    cardTypes.get(record.cardId()), description(record.transactionType(), record.amount()), record.dateTime());
+            movements.add(new Movement(entry, null, record.after(), record.end()));
+        }
+        long checkpoint = records.get(records.size() - 1).end();
+        write(movements, checkpoint);
+        LOGGER.info("Replayed {} journaled movement(s) up to position {}", movements.size(), checkpoint);
+    }
+
+    // ✅ Recovery: rebuild in-memory state from the DB
+    @EventListener(ApplicationReadyEvent.class)
+    void preloadCards() {
+        if (!enabled || !preload) {
+            return;
+        }
+        long start = System.nanoTime();
+        int pageNumber = 0;
+        Page<CreditCard> page;
+        do {
+            page = creditCardRepository.findAll(PageRequest.of(pageNumber++, 1000));
+            page.forEach(card -> register(CardState.of(card)));
+        } while (page.hasNext());
+        LOGGER.info("Hot ledger preloaded {} cards in {} ms", cardsById.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Posting debit(Long customerId, String cardNumber, long amount) {
+        return debit(customerId, cardNumber, amount, true);
+    }
+
+    public Posting credit(Long customerId, String cardNumber, long amount) {
+        return credit(customerId, cardNumber, amount, true);
+    }
+
+    // ✅ Debit: check limits and swap the balance atomically. With durable = false the caller must
+    // call awaitDurable() before acknowledging (lets a batch share one journal fsync).
+    public Posting debit(Long customerId, String cardNumber, long amount, boolean durable) {
+        while (true) {
+            CardState card = resolve(customerId, cardNumber);
+            CardLimits limits = limitPolicyEngine.limitsFor(card.cardId, card.cardType);
+            LocalDate today = businessDay.today();
+            Posting posting = post(card, "DEBIT", amount, durable, current -> {
+                Balance base = rollOver(current, today);
+                BalanceRules.checkDebit(base.totalBalance(), base.dailyDebitedAmount(), amount,
+                        limits.maxWithdrawalLimit(), limits.dailyDebitLimit());
+                return new Balance(base.totalBalance() - amount,
+                        base.dailyDebitedAmount() + amount,
+                        base.dailyCreditedAmount(),
+                        today);
+            });
+            if (posting != null) {
+                return posting;
+            }
+        }
+    }
+
+    // ✅ Credit: check limits and swap the balance atomically
+    public Posting credit(Long customerId, String cardNumber, long amount, boolean durable) {
+        while (true) {
+            CardState card = resolve(customerId, cardNumber);
+            CardLimits limits = limitPolicyEngine.limitsFor(card.cardId, card.cardType);
+            LocalDate today = businessDay.today();
+            Posting posting = post(card, "CREDIT", amount, durable, current -> {
+                Balance base = rollOver(current, today);
+                BalanceRules.checkCredit(base.dailyCreditedAmount(), amount,
+                        limits.maxCreditLimit(), limits.dailyCreditLimit());
+                return new Balance(base.totalBalance() + amount,
+                        base.dailyDebitedAmount(),
+                        base.dailyCreditedAmount() + amount,
+                        today);
+            });
+            if (posting != null) {
+                return posting;
+            }
+        }
+    }
+
+    // Returns null when the card was retired meanwhile; the caller resolves it again. The read lock
+    // lets posts to a card run side by side but not while the card is being retired.
+    private Posting post(CardState card, String type, long amount, boolean durable, UnaryOperator<Balance> movement) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LedgerEntry entry = new LedgerEntry(card.cardId, type, amount, card.cardType, description(type, amount), now);
+        Balance next;
+        long position = -1;
+        card.lock.readLock().lock();
+        try {
+            if (!isLive(card)) {
+                return null;
+            }
+            if (!journaled) {
+                Balance current;
+                do {
+                    current = card.balance.get();
+                    next = movement.apply(current);
+                } while (!card.balance.compareAndSet(current, next));
+                enqueue(new Movement(entry, card, next, -1));
+                return new Posting(card, next);
+            }
+
+            // Journal first: if the append fails the balance is left untouched
+            postLock.lock();
+            try {
+                next = movement.apply(card.balance.get());
+                position = journal.append(card.cardId, type, amount, now, next);
+                card.balance.set(next);
+                enqueue(new Movement(entry, card, next, position));
+            } finally {
+                postLock.unlock();
+            }
+        } finally {
+            card.lock.readLock().unlock();
+        }
+        if (durable) {
+            journal.awaitDurable(position);
+        }
+        return new Posting(card, next);
+    }
+
+    // Still the card's registered state, and the card not deleted
+    private boolean isLive(CardState card) {
+        return !card.retired
+                && cardsById.get(card.cardId) == card
+                && !deletedCardIds.contains(card.cardId);
+    }
+
+    // Waits until every movement posted so far is in the journal on disk (no-op without the journal)
+    public void awaitDurable() {
+        if (journaled) {
+            journal.awaitDurable(journal.getWrittenPosition());
+        }
+    }
+
+    private static String description(String type, long amount) {
+        return ("DEBIT".equals(type) ? "Debited ₹" : "Credited ₹") + Money.format(amount);
+    }
+
+    // ✅ Daily counters from an earlier business day count as zero
+    private Balance rollOver(Balance balance, LocalDate today) {
+        if (balance.dailyResetDate() != null && !balance.dailyResetDate().isBefore(today)) {
+            return balance;
+        }
+        businessDay.countLazyReset();
+        return new Balance(balance.totalBalance(), 0, 0, today);
+    }
+
+    /**
+     * Current in-memory balance of a card, or null when the card is not held by the ledger.
+     */
+    public Balance peek(Long cardId) {
+        if (!enabled || cardId == null) {
+            return null;
+        }
+        CardState card = cardsById.get(cardId);
+        return card == null ? null : card.balance.get();
+    }
+
+    /**
+     * Runs a change of the card row made outside the ledger (the change opens its own transaction)
+     * and returns its result. Pending movements are flushed first and posts to the card wait until
+     * the change is done; then the card is dropped from memory, so the next post loads the changed row.
+     */
+    public <T> T evict(Long cardId, Supplier<T> change) {
+        if (!enabled || cardId == null) {
+            return change.get();
+        }
+        return retire(() -> holdCard(cardId), change, false);
+    }
+
+    /**
+     * Like evict, for a change that deletes the card: posts that waited, and all later ones, get
+     * "Card not found" instead of a movement that could never be written.
+     */
+    public <T> T remove(Long cardId, Supplier<T> delete) {
+        if (!enabled || cardId == null) {
+            return delete.get();
+        }
+        return retire(() -> holdCard(cardId), delete, true);
+    }
+
+    // remove() for every card of a customer
+    public void removeCustomer(Long customerId, Runnable delete) {
+        if (!enabled || customerId == null) {
+            delete.run();
+            return;
+        }
+        retire(() -> creditCardRepository.findAllByCustomerId(customerId).stream()
+                .map(entity -> register(CardState.of(entity)))
+                .toList(), () -> {
+            delete.run();
+            return null;
+        }, true);
+    }
+
+    // The card's state, loaded if needed so concurrent posts meet the same lock
+    private List<CardState> holdCard(Long cardId) {
+        CardState card = cardsById.get(cardId);
+        if (card != null) {
+            return List.of(card);
+        }
+        return creditCardRepository.findById(cardId)
+                .map(entity -> List.of(register(CardState.of(entity))))
+                .orElse(List.of());
+    }
+
+    // ✅ Write-lock the cards (in id order), flush, run the change, then retire them
+    private <T> T retire(Supplier<List<CardState>> cardsToHold, Supplier<T> change, boolean deleted) {
+        while (true) {
+            List<CardState> cards = cardsToHold.get().stream()
+                    .sorted(Comparator.comparing(CardState::getCardId))
+                    .toList();
+            cards.forEach(card -> card.lock.writeLock().lock());
+            try {
+                // Retired by a concurrent evict while we were waiting: pick up the current states
+                if (cards.stream().anyMatch(card -> card.retired)) {
+                    continue;
+                }
+                flushNow();
+                T result = change.get();
+                for (CardState card : cards) {
+                    if (deleted) {
+                        deletedCardIds.add(card.cardId);
+                    }
+                    card.retired = true;
+                    cardsById.remove(card.cardId, card);
+                    cardsByNumber.remove(card.cardNumber, card);
+                }
+                return result;
+            } finally {
+                cards.forEach(card -> card.lock.writeLock().unlock());
+            }
+        }
+    }
+
+    private CardState resolve(Long customerId, String cardNumber) {
+        CardState card = cardsByNumber.get(cardNumber);
+        if (card == null || card.retired) {
+            CreditCard entity = creditCardRepository.findByCardNumberAndCustomerId(cardNumber, customerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found for customer"));
+            if (deletedCardIds.contains(entity.getId())) {
+                throw new ResourceNotFoundException("Card not found for customer");
+            }
+            card = register(CardState.of(entity));
+        }
+        if (!Objects.equals(card.customerId, customerId)) {
+            throw new ResourceNotFoundException("Card not found for customer");
+        }
+        return card;
+    }
+
+    private CardState register(CardState card) {
+        CardState existing = cardsById.putIfAbsent(card.cardId, card);
+        if (existing != null) {
+            return existing;
+        }
+        cardsByNumber.put(card.cardNumber, card);
+        return card;
+    }
+
+    private void enqueue(Movement movement) {
+        try {
+            pending.put(movement);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing ledger entry", e);
+        }
+    }
+
+    // ✅ Write-behind flusher
+    private void runFlusher() {
+        while (running || !pending.isEmpty()) {
+            try {
+                Movement first = pending.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    flushLock.lock();
+                    try {
+                        inFlight.add(first);
+                        writeInFlight();
+                    } finally {
+                        flushLock.unlock();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            } catch (Throwable t) {
+                LOGGER.error("Hot ledger flush failed, retrying: {}", t.getMessage());
+                sleepQuietly(flushIntervalMs);
+            }
+        }
+    }
+
+    public void flushNow() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            writeInFlight();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Must hold flushLock. Entries stay in inFlight until their batch is committed.
+    private void writeInFlight() {
+        do {
+            pending.drainTo(inFlight, batchSize - inFlight.size());
+            if (inFlight.isEmpty()) {
+                return;
+            }
+            long checkpoint = inFlight.get(inFlight.size() - 1).journalEnd();
+            try {
+                write(inFlight, checkpoint);
+            } catch (DataIntegrityViolationException ex) {
+                // A card deleted behind the ledger's back (another node, a cascade) would fail the batch forever
+                if (!dropMissingCards()) {
+                    throw ex;
+                }
+                write(inFlight, checkpoint);
+            }
+            inFlight.clear();
+        } while (!pending.isEmpty());
+    }
+
+    // Drops the in-flight movements whose card row is gone; true when any was dropped
+    private boolean dropMissingCards() {
+        Set<Long> cardIds = inFlight.stream().map(movement -> movement.entry().cardId()).collect(Collectors.toSet());
+        Set<Long> existing = creditCardRepository.findCardTypes(cardIds).stream()
+                .map(row -> (Long) row[0])
+                .collect(Collectors.toSet());
+        return inFlight.removeIf(movement -> !existing.contains(movement.entry().cardId()) && drop(movement));
+    }
+
+    private boolean drop(Movement movement) {
+        LedgerEntry entry = movement.entry();
+        LOGGER.error("Dropping {} of {} for card {}: card no longer exists", entry.transactionType(),
+                Money.format(entry.amount()), entry.cardId());
+        droppedCount.increment();
+        return true;
+    }
+
+    // ✅ One DB transaction per batch: balances, transaction rows, aggregates, card events (and the journal checkpoint)
+    private void write(List<Movement> movements, long checkpoint) {
+        Map<Long, CardBalanceRow> balances = new LinkedHashMap<>();
+        List<LedgerEntry> entries = new ArrayList<>(movements.size());
+        for (Movement movement : movements) {
+            LedgerEntry entry = movement.entry();
+            if (deletedCardIds.contains(entry.cardId()) && drop(movement)) {
+                continue;
+            }
+            entries.add(entry);
+            // Journaled: the state after the card's last movement in this batch. Otherwise the live
+            // state, which may be ahead; the movements behind it follow in a later batch.
+            Balance balance = journaled || movement.card() == null ? movement.after() : movement.card().balance.get();
+            balances.put(entry.cardId(), new CardBalanceRow(entry.cardId(), balance.totalBalance(),
+                    balance.dailyDebitedAmount(), balance.dailyCreditedAmount(), balance.dailyResetDate()));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            ledgerJdbcRepository.updateBalances(new ArrayList<>(balances.values()));
+            ledgerJdbcRepository.insertTransactions(entries);
+            aggregateJdbcRepository.apply(entries);
+            cardEventJdbcRepository.appendMovements(entries);
+            if (checkpoint >= 0) {
+                checkpointRepository.advance(JOURNAL_NAME, checkpoint, LocalDateTime.now());
+            }
+        });
+        if (checkpoint >= 0) {
+            journal.release(checkpoint);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushNow();
+        if (journaled) {
+            journal.close();
+        }
+        LOGGER.info("Hot ledger drained");
+    }
+
+    public int getPendingCount() {
+        return enabled ? pending.size() : 0;
+    }
+
+    public int getCardCount() {
+        return cardsById.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public record Balance(long totalBalance, long dailyDebitedAmount, long dailyCreditedAmount,
+                          LocalDate dailyResetDate) {
+    }
+
+    public record Posting(CardState card, Balance balance) {
+    }
+
+    // A queued movement with the card state it produced; card is null for replayed movements and
+    // journalEnd is -1 without the journal
+    private record Movement(LedgerEntry entry, CardState card, Balance after, long journalEnd) {
+    }
+
+    @Getter
+    public static final class CardState {
+        private final Long cardId;
+        private final Long customerId;
+        private final String customerName;
+        private final String cardNumber;
+        private final String cardHolderName;
+        private final String cardType;
+        private final boolean active;
+        private final LocalDate issueDate;
+        private final LocalDate expiryDate;
+        private final AtomicReference<Balance> balance;
+        @Getter(AccessLevel.NONE)
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        @Getter(AccessLevel.NONE)
+        private volatile boolean retired;     // set under the write lock once the card left memory
+
+        private CardState(CreditCard card) {
+            this.cardId = card.getId();
+            this.customerId = card.getCustomer().getId();
+            this.customerName = card.getCustomer().getName();
+            this.cardNumber = card.getCardNumber();
+            this.cardHolderName = card.getCardHolderName();
+            this.cardType = card.getCardType();
+            this.active = card.isActive();
+            this.issueDate = card.getIssueDate();
+            this.expiryDate = card.getExpiryDate();
+            this.balance = new AtomicReference<>(new Balance(card.getTotalBalance(),
+                    card.getDailyDebitedAmount(), card.getDailyCreditedAmount(), card.getDailyResetDate()));
+        }
+
+        static CardState of(CreditCard card) {
+            return new CardState(card);
+        }
+    }
+}
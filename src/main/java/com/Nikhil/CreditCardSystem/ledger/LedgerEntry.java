@@ -0,0 +1,14 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import java.time.LocalDateTime;
+
+/**
+ * A balance movement waiting to be written to the transaction table.
+ */
+public record LedgerEntry(Long cardId,
+                          String transactionType,
+                          long amount,
+                          String cardType,
+                          String description,
+                          LocalDateTime dateTime) {
+}
@@ -0,0 +1,179 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.Entity.CardLimitOverride;
+import com.Nikhil.CreditCardSystem.Entity.CardLimitPolicy;
+import com.Nikhil.CreditCardSystem.repo.CardLimitOverrideRepository;
+import com.Nikhil.CreditCardSystem.repo.CardLimitPolicyRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.util.Money;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves the debit / credit limits of a card: its card type's policy (or the DEFAULT policy),
+ * with any per-card override applied on top.
+ *
+ * Policies and overrides are loaded into an immutable {@link Snapshot} that is replaced as a
+ * whole, so the balance path reads one volatile field and never queries. The snapshot is rebuilt
+ * right after a change made through this node, and every refresh interval when the tables were
+ * changed by another node.
+ */
+@Component
+public class LimitPolicyEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LimitPolicyEngine.class);
+
+    private final CardLimitPolicyRepository policyRepository;
+    private final CardLimitOverrideRepository overrideRepository;
+    private final CreditCardRepository creditCardRepository;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @Value("${creditcard.limits.default.max-withdrawal:50000}")
+    private String defaultMaxWithdrawal;
+
+    @Value("${creditcard.limits.default.daily-debit:20000}")
+    private String defaultDailyDebit;
+
+    @Value("${creditcard.limits.default.daily-credit:50000}")
+    private String defaultDailyCredit;
+
+    @Value("${creditcard.limits.default.max-credit:50000}")
+    private String defaultMaxCredit;
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong reloads = new AtomicLong();
+
+    public LimitPolicyEngine(CardLimitPolicyRepository policyRepository,
+                             CardLimitOverrideRepository overrideRepository,
+                             CreditCardRepository creditCardRepository) {
+        this.policyRepository = policyRepository;
+        this.overrideRepository = overrideRepository;
+        this.creditCardRepository = creditCardRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        // ✅ First start: seed the DEFAULT policy from the properties
+        if (!policyRepository.existsById(CardLimitPolicy.DEFAULT_TYPE)) {
+            CardLimitPolicy policy = new CardLimitPolicy();
+            policy.setCardType(CardLimitPolicy.DEFAULT_TYPE);
+            policy.setMaxWithdrawalLimit(Money.parse(defaultMaxWithdrawal));
+            policy.setDailyDebitLimit(Money.parse(defaultDailyDebit));
+            policy.setDailyCreditLimit(Money.parse(defaultDailyCredit));
+            policy.setMaxCreditLimit(Money.parse(defaultMaxCredit));
+            policy.setUpdatedAt(LocalDateTime.now());
+            policyRepository.save(policy);
+            LOGGER.info("Seeded DEFAULT card limit policy");
+        }
+        reload();
+    }
+
+    // ✅ Request path: two map lookups on the current snapshot
+    public CardLimits limitsFor(Long cardId, String cardType) {
+        Snapshot current = snapshot;
+        CardLimits limits = cardId == null ? null : current.overrides().get(cardId);
+        if (limits != null) {
+            return limits;
+        }
+        return current.policyFor(cardType);
+    }
+
+    @Scheduled(fixedDelayString = "${creditcard.limits.refresh-ms:30000}",
+            initialDelayString = "${creditcard.limits.refresh-ms:30000}")
+    public void refreshIfChanged() {
+        try {
+            if (!currentStamp().equals(snapshot.stamp())) {
+                reload();
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Card limit refresh failed, keeping the current snapshot: {}", ex.getMessage());
+        }
+    }
+
+    public void reload() {
+        reloadLock.lock();
+        try {
+            String stamp = currentStamp();
+            Map<String, CardLimits> policies = new HashMap<>();
+            for (CardLimitPolicy policy : policyRepository.findAll()) {
+                policies.put(policy.getCardType(), CardLimits.of(policy));
+            }
+            CardLimits defaults = policies.get(CardLimitPolicy.DEFAULT_TYPE);
+            if (defaults == null) {
+                throw new IllegalStateException("No " + CardLimitPolicy.DEFAULT_TYPE + " card limit policy");
+            }
+
+            // Overrides are stored resolved, so a lookup needs no merge; they need the card type
+            Map<Long, CardLimitOverride> rawOverrides = new HashMap<>();
+            overrideRepository.findAll().forEach(override -> rawOverrides.put(override.getCardId(), override));
+            Map<Long, String> cardTypes = rawOverrides.isEmpty() ? Map.of() : overrideCardTypes(rawOverrides);
+            Map<Long, CardLimits> overrides = new HashMap<>();
+            rawOverrides.forEach((cardId, override) -> {
+                CardLimits base = policies.getOrDefault(normalize(cardTypes.get(cardId)), defaults);
+                overrides.put(cardId, base.with(override));
+            });
+
+            snapshot = new Snapshot(Map.copyOf(policies), defaults, Map.copyOf(overrides), stamp);
+            reloads.incrementAndGet();
+            LOGGER.info("Card limits loaded: {} policies, {} card overrides", policies.size(), overrides.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Map<Long, String> overrideCardTypes(Map<Long, CardLimitOverride> overrides) {
+        Map<Long, String> types = new HashMap<>();
+        for (Object[] row : creditCardRepository.findCardTypes(overrides.keySet())) {
+            types.put((Long) row[0], (String) row[1]);
+        }
+        return types;
+    }
+
+    private String currentStamp() {
+        return policyRepository.count() + "|" + policyRepository.lastUpdatedAt() + "|"
+                + overrideRepository.count() + "|" + overrideRepository.lastUpdatedAt();
+    }
+
+    public static String normalize(String cardType) {
+        return cardType == null ? null : cardType.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public int getPolicyCount() {
+        return snapshot.policies().size();
+    }
+
+    public int getOverrideCount() {
+        return snapshot.overrides().size();
+    }
+
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    private record Snapshot(Map<String, CardLimits> policies, CardLimits defaults,
+                            Map<Long, CardLimits> overrides, String stamp) {
+
+        CardLimits policyFor(String cardType) {
+            if (cardType == null) {
+                return defaults;
+            }
+            CardLimits limits = policies.get(cardType);
+            if (limits == null) {
+                limits = policies.get(normalize(cardType));
+            }
+            return Objects.requireNonNullElse(limits, defaults);
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal of hot ledger movements (creditcard.ledger.journal.*).
+ *
+ * Records are fixed 64 byte slots in pre-allocated segment files (journal-NNNNNNNNNN.seg):
+ *      0  int   CRC32C of bytes 4..63
+ *      4  byte  type (1 = DEBIT, 2 = CREDIT; 0 = empty slot)
+ *      8  long  card id
+ *      16 long  amount (minor units)
+ *      24 long  timestamp (epoch microseconds, UTC)
+ *      32 long  balance after the movement, then daily debited, daily credited, reset day (epoch day)
+ * A position is a byte offset over all segments, so it orders records and identifies them.
+ *
+ * Durability follows the fsync policy:
+ *      - GROUP    : append() callers wait in awaitDurable() until their record is forced to disk;
+ *                   concurrent callers share one force (group commit)
+ *      - INTERVAL : a background thread forces every fsync-interval-ms and nobody waits. Written
+ *                   records survive a process crash (they are in the OS page cache), the last
+ *                   interval can be lost on a power failure.
+ *
+ * The journal does not know what has been projected: the owner passes its checkpoint to recover()
+ * and release(), which drop segments that are fully behind it.
+ */
+@Component
+public class TransactionJournal {
+
+    public enum FsyncPolicy { GROUP, INTERVAL }
+
+    static final int RECORD_SIZE = 64;
+
+    private static final byte DEBIT = 1;
+    private static final byte CREDIT = 2;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final byte[] ZEROS = new byte[RECORD_SIZE];
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionJournal.class);
+
+    @Value("${creditcard.ledger.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${creditcard.ledger.journal.directory:data/journal}")
+    private String directory;
+
+    @Value("${creditcard.ledger.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${creditcard.ledger.journal.fsync:GROUP}")
+    private FsyncPolicy fsync;
+
+    @Value("${creditcard.ledger.journal.fsync-interval-ms:10}")
+    private long fsyncIntervalMs;
+
+    private Path dir;
+    private long segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    // Append side, guarded by appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private Segment active;
+    private CompletableFuture<Segment> spare;
+    private long writePosition;
+
+    // Sync side: one forcing thread at a time, the others wait for it. A lock and condition rather
+    // than a monitor, so a virtual thread waiting for the fsync does not pin its carrier.
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private boolean syncing;
+    private volatile long written;
+    private volatile long durable;
+    private volatile long released;
+
+    private ExecutorService preallocator;
+    private Thread intervalSyncer;
+    private volatile boolean open;
+
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder forces = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the journal and hands every record from {@code checkpoint} on to {@code projector}, in
+     * order and in batches of at most {@code batchSize}; each batch must be projected (and the
+     * checkpoint moved past it) before the call returns. Anything after the last valid record is
+     * an unacknowledged, torn write and is wiped. Returns the position the next append goes to.
+     */
+    public long recover(long checkpoint, int batchSize, Consumer<List<Record>> projector) {
+        segmentSize = (long) segmentSizeMb * 1024 * 1024;
+        if (segmentSizeMb <= 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("creditcard.ledger.journal.segment-size-mb must be between 1 and 2047");
+        }
+        try {
+            dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            long firstIndex = checkpoint / segmentSize;
+            for (long index : listSegmentIndexes()) {
+                if (index < firstIndex) {
+                    Files.deleteIfExists(segmentPath(index));   // fully projected
+                } else {
+                    segments.put(index, Segment.map(segmentPath(index), index, segmentSize, false));
+                }
+            }
+
+            long position = checkpoint;
+            int replayed = 0;
+            List<Record> batch = new ArrayList<>(batchSize);
+            ByteBuffer slot = ByteBuffer.allocate(RECORD_SIZE);
+            for (Segment segment = segments.get(firstIndex); segment != null; segment = segments.get(segment.index + 1)) {
+                Record record = null;
+                while (position < segment.end(segmentSize) && (record = read(segment, position, slot)) != null) {
+                    batch.add(record);
+                    position += RECORD_SIZE;
+                    if (batch.size() == batchSize) {
+                        projector.accept(batch);
+                        replayed += batch.size();
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (record == null) {
+                    break;
+                }
+            }
+            if (!batch.isEmpty()) {
+                projector.accept(batch);
+                replayed += batch.size();
+            }
+
+            // Everything after the last valid record was never acknowledged
+            long activeIndex = position / segmentSize;
+            for (Segment segment : segments.tailMap(activeIndex, false).values()) {
+                segments.remove(segment.index);
+                Files.deleteIfExists(segment.path);
+            }
+            active = segments.get(activeIndex);
+            if (active == null) {
+                active = Segment.map(segmentPath(activeIndex), activeIndex, segmentSize, true);
+                segments.put(activeIndex, active);
+            }
+            wipeFrom(active, position);
+
+            writePosition = position;
+            written = position;
+            durable = position;
+            released = checkpoint;
+            preallocator = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-preallocator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            prepareSpare();
+            open = true;
+            if (fsync == FsyncPolicy.INTERVAL) {
+                intervalSyncer = new Thread(this::runIntervalSync, "journal-syncer");
+                intervalSyncer.setDaemon(true);
+                intervalSyncer.start();
+            }
+            release(position);      // the projector has moved the checkpoint past everything replayed
+            LOGGER.info("Transaction journal opened in {} (fsync={}, checkpoint={}, replayed={}, next={})",
+                    dir.toAbsolutePath(), fsync, checkpoint, replayed, position);
+            return position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transaction journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Writes one record and returns the position right after it (pass it to awaitDurable). Not
+     * durable yet when this returns.
+     */
+    public long append(Long cardId, String transactionType, long amount, LocalDateTime dateTime,
+                       HotLedger.Balance after) {
+        appendLock.lock();
+        try {
+            if (!open) {
+                throw new IllegalStateException("Transaction journal is closed");
+            }
+            if (writePosition == active.end(segmentSize)) {
+                roll();
+            }
+            // Bytes 5..7 are padding and stay zero
+            scratch.put(4, "DEBIT".equals(transactionType) ? DEBIT : CREDIT)
+                    .putLong(8, cardId)
+                    .putLong(16, amount)
+                    .putLong(24, toMicros(dateTime))
+                    .putLong(32, after.totalBalance())
+                    .putLong(40, after.dailyDebitedAmount())
+                    .putLong(48, after.dailyCreditedAmount())
+                    .putLong(56, after.dailyResetDate() == null ? Long.MIN_VALUE : after.dailyResetDate().toEpochDay());
+            crc.reset();
+            crc.update(scratch.array(), 4, RECORD_SIZE - 4);
+            scratch.putInt(0, (int) crc.getValue());
+            active.buffer.put(active.offset(writePosition, segmentSize), scratch.array(), 0, RECORD_SIZE);
+
+            writePosition += RECORD_SIZE;
+            written = writePosition;
+            appends.increment();
+            return writePosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // ✅ Group commit: the first waiter forces everything written so far, later ones ride along
+    public void awaitDurable(long position) {
+        if (fsync != FsyncPolicy.GROUP) {
+            return;
+        }
+        while (durable < position) {
+            syncLock.lock();
+            try {
+                if (durable >= position) {
+                    return;
+                }
+                if (syncing) {
+                    syncDone.await();
+                    continue;
+                }
+                syncing = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the journal", e);
+            } finally {
+                syncLock.unlock();
+            }
+            forceUpTo(written);
+        }
+    }
+
+    // Caller has set syncing; clears it and wakes the waiters
+    private void forceUpTo(long target) {
+        long from = durable;
+        boolean done = false;
+        try {
+            for (long position = from; position < target; ) {
+                long index = position / segmentSize;
+                Segment segment = segments.get(index);
+                long end = Math.min(target, segment.end(segmentSize));
+                segment.buffer.force(segment.offset(position, segmentSize), (int) (end - position));
+                position = end;
+            }
+            if (target > from) {
+                forces.increment();
+            }
+            done = true;
+        } finally {
+            syncLock.lock();
+            try {
+                if (done && target > durable) {
+                    durable = target;
+                }
+                syncing = false;
+                syncDone.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    private void runIntervalSync() {
+        while (open) {
+            try {
+                Thread.sleep(fsyncIntervalMs);
+                sync();
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            } catch (RuntimeException e) {
+                LOGGER.error("Journal fsync failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Forces everything written so far, whatever the policy
+    private void sync() {
+        syncLock.lock();
+        try {
+            while (syncing) {
+                syncDone.await();
+            }
+            syncing = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            syncLock.unlock();
+        }
+        forceUpTo(written);
+    }
+
+    /**
+     * Deletes the segments that lie entirely before {@code checkpoint}; call once the records up
+     * to there are safely projected.
+     */
+    public void release(long checkpoint) {
+        if (!open || checkpoint <= released) {
+            return;
+        }
+        released = checkpoint;
+        long limit = Math.min(checkpoint, durable);
+        for (Map.Entry<Long, Segment> entry : segments.headMap(limit / segmentSize, false).entrySet()) {
+            Segment segment = entry.getValue();
+            if (segment != active && segments.remove(entry.getKey(), segment)) {
+                try {
+                    Files.deleteIfExists(segment.path);
+                } catch (IOException e) {
+                    LOGGER.warn("Could not delete journal segment {}: {}", segment.path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Must hold appendLock. The next segment is allocated in the background, so this rarely waits.
+    private void roll() {
+        Segment next = spare.join();
+        segments.put(next.index, next);
+        active = next;
+        prepareSpare();
+    }
+
+    private void prepareSpare() {
+        long index = active.index + 1;
+        spare = CompletableFuture.supplyAsync(() -> {
+            try {
+                return Segment.map(segmentPath(index), index, segmentSize, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot allocate journal segment " + index, e);
+            }
+        }, preallocator);
+    }
+
+    public void close() {
+        if (!open) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            open = false;
+        } finally {
+            appendLock.unlock();
+        }
+        if (intervalSyncer != null) {
+            intervalSyncer.interrupt();
+        }
+        sync();
+        preallocator.shutdown();
+        try {
+            preallocator.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("Transaction journal closed at position {}", durable);
+    }
+
+    private Record read(Segment segment, long position, ByteBuffer slot) {
+        slot.clear();
+        segment.buffer.get(segment.offset(position, segmentSize), slot.array(), 0, RECORD_SIZE);
+        byte type = slot.get(4);
+        if (type != DEBIT && type != CREDIT) {
+            return null;
+        }
+        CRC32C check = new CRC32C();
+        check.update(slot.array(), 4, RECORD_SIZE - 4);
+        if ((int) check.getValue() != slot.getInt(0)) {
+            return null;
+        }
+        long resetDay = slot.getLong(56);
+        HotLedger.Balance after = new HotLedger.Balance(slot.getLong(32), slot.getLong(40), slot.getLong(48),
+                resetDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(resetDay));
+        return new Record(position, slot.getLong(8), type == DEBIT ? "DEBIT" : "CREDIT", slot.getLong(16),
+                fromMicros(slot.getLong(24)), after);
+    }
+
+    // Clears leftovers of torn writes so they can never be read back as records
+    private void wipeFrom(Segment segment, long position) {
+        for (int offset = segment.offset(position, segmentSize); offset < segmentSize; offset += RECORD_SIZE) {
+            if (segment.buffer.get(offset + 4) != 0) {
+                segment.buffer.put(offset, ZEROS, 0, RECORD_SIZE);
+            }
+        }
+        segment.buffer.force();
+    }
+
+    private List<Long> listSegmentIndexes() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                indexes.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        indexes.sort(null);
+        return indexes;
+    }
+
+    private Path segmentPath(long index) {
+        return dir.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    public long getWrittenPosition() {
+        return open ? written : 0;
+    }
+
+    public long getUnreleasedBytes() {
+        return open ? written - released : 0;
+    }
+
+    public long getAppendCount() {
+        return appends.sum();
+    }
+
+    public long getForceCount() {
+        return forces.sum();
+    }
+
+    /**
+     * A journaled movement; {@code position} is where it starts.
+     */
+    public record Record(long position, Long cardId, String transactionType, long amount,
+                         LocalDateTime dateTime, HotLedger.Balance after) {
+
+        public long end() {
+            return position + RECORD_SIZE;
+        }
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long index, Path path, MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        // New segments are zero-filled on disk up front, so writes through the mapping never hit a full disk
+        static Segment map(Path path, long index, long size, boolean create) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                long from = create ? 0 : channel.size();
+                if (from < size) {
+                    ByteBuffer zeros = ByteBuffer.allocateDirect(1024 * 1024);
+                    for (long offset = from; offset < size; offset += zeros.capacity()) {
+                        zeros.clear().limit((int) Math.min(zeros.capacity(), size - offset));
+                        channel.write(zeros, offset);
+                    }
+                    channel.force(true);
+                }
+                return new Segment(index, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        long end(long segmentSize) {
+            return (index + 1) * segmentSize;
+        }
+
+        int offset(long position, long segmentSize) {
+            return (int) (position - index * segmentSize);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.Nikhil.CreditCardSystem.metrics;
+
+import com.Nikhil.CreditCardSystem.ledger.BusinessDay;
+import com.Nikhil.CreditCardSystem.ledger.CardBalanceUpdater;
+import com.Nikhil.CreditCardSystem.ledger.HotLedger;
+import com.Nikhil.CreditCardSystem.ledger.LimitPolicyEngine;
+import com.Nikhil.CreditCardSystem.ledger.TransactionJournal;
+import com.Nikhil.CreditCardSystem.outbox.OutboxRelay;
+import com.Nikhil.CreditCardSystem.repo.OutboxJdbcRepository;
+import com.Nikhil.CreditCardSystem.risk.VelocityRiskStage;
+import com.Nikhil.CreditCardSystem.service.CardNumberGenerator;
+import com.Nikhil.CreditCardSystem.service.DailyLimitResetService;
+import com.Nikhil.CreditCardSystem.service.IdempotencyService;
+import com.Nikhil.CreditCardSystem.service.JwtTokenCache;
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import com.Nikhil.CreditCardSystem.sql.QueryObserver;
+import com.Nikhil.CreditCardSystem.statement.StatementEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the counters the components already keep (audit pipeline, risk stage, idempotency,
+ * limits, ledger, card numbers, JWT cache, daily reset, statements, slow-query log, outbox) as gauges and
+ * function counters. Nothing is recorded on the hot paths; values are read when the registry is
+ * scraped.
+ */
+@Component
+public class ComponentMetrics implements MeterBinder {
+
+    private final UserActionLogService auditLog;
+    private final VelocityRiskStage riskStage;
+    private final IdempotencyService idempotencyService;
+    private final LimitPolicyEngine limitPolicyEngine;
+    private final CardBalanceUpdater balanceUpdater;
+    private final BusinessDay businessDay;
+    private final HotLedger hotLedger;
+    private final TransactionJournal transactionJournal;
+    private final CardNumberGenerator cardNumberGenerator;
+    private final JwtTokenCache jwtTokenCache;
+    private final DailyLimitResetService dailyLimitResetService;
+    private final StatementEngine statementEngine;
+    private final QueryObserver queryObserver;
+    private final OutboxJdbcRepository outboxRepository;
+    private final OutboxRelay outboxRelay;
+
+    public ComponentMetrics(UserActionLogService auditLog,
+                            VelocityRiskStage riskStage,
+                            IdempotencyService idempotencyService,
+                            LimitPolicyEngine limitPolicyEngine,
+                            CardBalanceUpdater balanceUpdater,
+                            BusinessDay businessDay,
+                            HotLedger hotLedger,
+                            TransactionJournal transactionJournal,
+                            CardNumberGenerator cardNumberGenerator,
+                            JwtTokenCache jwtTokenCache,
+                            DailyLimitResetService dailyLimitResetService,
+                            StatementEngine statementEngine,
+                            QueryObserver queryObserver,
+                            OutboxJdbcRepository outboxRepository,
+                            OutboxRelay outboxRelay) {
+        this.auditLog = auditLog;
+        this.riskStage = riskStage;
+        this.idempotencyService = idempotencyService;
+        this.limitPolicyEngine = limitPolicyEngine;
+        this.balanceUpdater = balanceUpdater;
+        this.businessDay = businessDay;
+        this.hotLedger = hotLedger;
+        this.transactionJournal = transactionJournal;
+        this.cardNumberGenerator = cardNumberGenerator;
+        this.jwtTokenCache = jwtTokenCache;
+        this.dailyLimitResetService = dailyLimitResetService;
+        this.statementEngine = statementEngine;
+        this.queryObserver = queryObserver;
+        this.outboxRepository = outboxRepository;
+        this.outboxRelay = outboxRelay;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // ✅ Audit log pipeline
+        gauge(registry, "creditcard.audit.queue.depth", auditLog, UserActionLogService::getQueueDepth);
+        counter(registry, "creditcard.audit.records", "result", "flushed", auditLog, UserActionLogService::getFlushedCount);
+        counter(registry, "creditcard.audit.records", "result", "dropped", auditLog, UserActionLogService::getDroppedCount);
+        counter(registry, "creditcard.audit.records", "result", "spilled", auditLog, UserActionLogService::getSpilledCount);
+        TimeGauge.builder("creditcard.audit.flush.last", auditLog, TimeUnit.NANOSECONDS, UserActionLogService::getLastFlushNanos)
+                .register(registry);
+        TimeGauge.builder("creditcard.audit.flush.max", auditLog, TimeUnit.NANOSECONDS, UserActionLogService::getMaxFlushNanos)
+                .register(registry);
+
+        // ✅ Risk stage
+        counter(registry, "creditcard.risk.decisions", "decision", "APPROVE", riskStage, VelocityRiskStage::getApprovedCount);
+        counter(registry, "creditcard.risk.decisions", "decision", "FLAG", riskStage, VelocityRiskStage::getFlaggedCount);
+        counter(registry, "creditcard.risk.decisions", "decision", "DECLINE", riskStage, VelocityRiskStage::getDeclinedCount);
+        gauge(registry, "creditcard.risk.tracked", "scope", "card", riskStage, VelocityRiskStage::getTrackedCardCount);
+        gauge(registry, "creditcard.risk.tracked", "scope", "customer", riskStage, VelocityRiskStage::getTrackedCustomerCount);
+
+        // ✅ Idempotency keys
+        counter(registry, "creditcard.idempotency.requests", "result", "executed", idempotencyService, IdempotencyService::getExecutedCount);
+        counter(registry, "creditcard.idempotency.requests", "result", "replayed", idempotencyService, IdempotencyService::getReplayedCount);
+        counter(registry, "creditcard.idempotency.requests", "result", "coalesced", idempotencyService, IdempotencyService::getCoalescedCount);
+        gauge(registry, "creditcard.idempotency.entries", "state", "cached", idempotencyService, IdempotencyService::getCachedCount);
+        gauge(registry, "creditcard.idempotency.entries", "state", "in_flight", idempotencyService, IdempotencyService::getInFlightCount);
+
+        // ✅ Limits and balance updates
+        gauge(registry, "creditcard.limits.policies", limitPolicyEngine, LimitPolicyEngine::getPolicyCount);
+        gauge(registry, "creditcard.limits.overrides", limitPolicyEngine, LimitPolicyEngine::getOverrideCount);
+        counter(registry, "creditcard.limits.reloads", limitPolicyEngine, LimitPolicyEngine::getReloadCount);
+        counter(registry, "creditcard.ledger.retries", balanceUpdater, CardBalanceUpdater::getRetryCount);
+        counter(registry, "creditcard.ledger.conflicts", balanceUpdater, CardBalanceUpdater::getConflictCount);
+        counter(registry, "creditcard.ledger.lazy.resets", businessDay, BusinessDay::getLazyResetCount);
+        gauge(registry, "creditcard.ledger.hot.pending", hotLedger, HotLedger::getPendingCount);
+        gauge(registry, "creditcard.ledger.hot.cards", hotLedger, HotLedger::getCardCount);
+        gauge(registry, "creditcard.ledger.hot.dropped", hotLedger, HotLedger::getDroppedCount);
+        counter(registry, "creditcard.ledger.journal.appends", transactionJournal, TransactionJournal::getAppendCount);
+        counter(registry, "creditcard.ledger.journal.fsyncs", transactionJournal, TransactionJournal::getForceCount);
+        gauge(registry, "creditcard.ledger.journal.unprojected.bytes", transactionJournal, TransactionJournal::getUnreleasedBytes);
+
+        // ✅ Card numbers and JWT cache
+        counter(registry, "creditcard.cards.issued", cardNumberGenerator, CardNumberGenerator::getIssuedCount);
+        counter(registry, "creditcard.cards.number.blocks", cardNumberGenerator, CardNumberGenerator::getBlocksReserved);
+        gauge(registry, "creditcard.jwt.cache.size", jwtTokenCache, JwtTokenCache::getSize);
+        counter(registry, "creditcard.jwt.cache.requests", "result", "hit", jwtTokenCache, JwtTokenCache::getHitCount);
+        counter(registry, "creditcard.jwt.cache.requests", "result", "miss", jwtTokenCache, JwtTokenCache::getMissCount);
+
+        // ✅ Daily limit reset
+        counter(registry, "creditcard.daily.reset.runs", "result", "run", dailyLimitResetService, DailyLimitResetService::getRunCount);
+        counter(registry, "creditcard.daily.reset.runs", "result", "skipped", dailyLimitResetService, DailyLimitResetService::getSkippedRunCount);
+        gauge(registry, "creditcard.daily.reset.last.rows", dailyLimitResetService, DailyLimitResetService::getLastRowsReset);
+        TimeGauge.builder("creditcard.daily.reset.last.duration", dailyLimitResetService, TimeUnit.MILLISECONDS,
+                DailyLimitResetService::getLastDurationMs).register(registry);
+
+        // ✅ Monthly statements
+        counter(registry, "creditcard.statements.runs", statementEngine, StatementEngine::getRunCount);
+        counter(registry, "creditcard.statements.cards", statementEngine, StatementEngine::getCardsGenerated);
+        counter(registry, "creditcard.statements.chunks", statementEngine, StatementEngine::getChunksGenerated);
+        gauge(registry, "creditcard.statements.running", statementEngine, engine -> engine.isRunning() ? 1 : 0);
+        gauge(registry, "creditcard.statements.last.cards.per.second", statementEngine, StatementEngine::getLastCardsPerSecond);
+        TimeGauge.builder("creditcard.statements.last.duration", statementEngine, TimeUnit.MILLISECONDS,
+                StatementEngine::getLastDurationMs).register(registry);
+
+        // ✅ SQL statements logged as slow / sampled
+        counter(registry, "creditcard.sql.logged", "reason", "slow", queryObserver, QueryObserver::getSlowLoggedCount);
+        counter(registry, "creditcard.sql.logged", "reason", "sampled", queryObserver, QueryObserver::getSampledLoggedCount);
+
+        // ✅ Outbox (end-to-end lag histogram: creditcard.outbox.lag); backlog age is read from the DB
+        counter(registry, "creditcard.outbox.messages", "result", "written", outboxRepository, OutboxJdbcRepository::getWrittenCount);
+        counter(registry, "creditcard.outbox.messages", "result", "published", outboxRelay, OutboxRelay::getPublishedCount);
+        counter(registry, "creditcard.outbox.messages", "result", "deferred", outboxRelay, OutboxRelay::getDeferredCount);
+        counter(registry, "creditcard.outbox.batches", outboxRelay, OutboxRelay::getBatchCount);
+        counter(registry, "creditcard.outbox.failures", outboxRelay, OutboxRelay::getFailureCount);
+        TimeGauge.builder("creditcard.outbox.backlog.age", outboxRelay, TimeUnit.MILLISECONDS, OutboxRelay::getOldestPendingAgeMs)
+                .register(registry);
+        TimeGauge.builder("creditcard.outbox.last.lag", outboxRelay, TimeUnit.MILLISECONDS, OutboxRelay::getLastLagMs)
+                .register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, String tag, String tagValue, T source,
+                                  ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).tag(tag, tagValue).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, String tag, String tagValue, T source,
+                                    ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).tag(tag, tagValue).register(registry);
+    }
+}
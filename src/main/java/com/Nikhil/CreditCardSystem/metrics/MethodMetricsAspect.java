@@ -0,0 +1,119 @@
+package com.Nikhil.CreditCardSystem.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Call timers for the public methods of the core services and of the JDBC repositories.
+ *
+ * creditcard.service{service, method, outcome}: outcome is SUCCESS or the simple name of the
+ * exception thrown (ValidationException, ResourceNotFoundException, ...).
+ *
+ * JDBC repositories are timed as spring.data.repository.invocations{repository, method, state,
+ * exception}, the timer Spring Boot already records for the Spring Data JPA repositories, so every
+ * repository call ends up in one metric.
+ *
+ * Timers are resolved once per method and outcome and kept here: a call costs two nanoTime reads
+ * and a map lookup on top of the proxy, no tag building or registry lookup.
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+    public static final String SERVICE_TIMER = "creditcard.service";
+    public static final String REPOSITORY_TIMER = "spring.data.repository.invocations";
+
+    private final MeterRegistry registry;
+    private final Map<Method, MethodTimers> serviceTimers = new ConcurrentHashMap<>();
+    private final Map<Method, MethodTimers> repositoryTimers = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // UserActionLogService: only logAction, its getters are read by ComponentMetrics on every scrape
+    @Pointcut("execution(public * com.Nikhil.CreditCardSystem.service.CreditCardService.*(..))"
+            + " || execution(public * com.Nikhil.CreditCardSystem.service.CustomerService.*(..))"
+            + " || execution(public * com.Nikhil.CreditCardSystem.service.JWTService.*(..))"
+            + " || execution(public * com.Nikhil.CreditCardSystem.service.UserActionLogService.logAction(..))")
+    void serviceMethods() {
+    }
+
+    // Concrete classes only: Spring Data repository proxies are timed by Spring Boot itself
+    @Pointcut("within(com.Nikhil.CreditCardSystem.repo..*) && execution(public * *(..))")
+    void jdbcRepositoryMethods() {
+    }
+
+    @Around("serviceMethods()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, serviceTimers, true);
+    }
+
+    @Around("jdbcRepositoryMethods()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, repositoryTimers, false);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, Map<Method, MethodTimers> timers, boolean service) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(method, key -> new MethodTimers(key, service));
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            methodTimers.failure(ex.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    private final class MethodTimers {
+        private final String owner;
+        private final String method;
+        private final boolean service;
+        private final Timer success;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        MethodTimers(Method method, boolean service) {
+            this.owner = method.getDeclaringClass().getSimpleName();
+            this.method = method.getName();
+            this.service = service;
+            this.success = service ? serviceTimer("SUCCESS") : repositoryTimer("SUCCESS", "None");
+        }
+
+        Timer failure(Class<?> exception) {
+            return failures.computeIfAbsent(exception, type -> service
+                    ? serviceTimer(type.getSimpleName())
+                    : repositoryTimer("ERROR", type.getSimpleName()));
+        }
+
+        private Timer serviceTimer(String outcome) {
+            return Timer.builder(SERVICE_TIMER)
+                    .description("Service method calls")
+                    .tags("service", owner, "method", method, "outcome", outcome)
+                    .register(registry);
+        }
+
+        private Timer repositoryTimer(String state, String exception) {
+            return Timer.builder(REPOSITORY_TIMER)
+                    .description("Duration of repository invocations")
+                    .tags("repository", owner, "method", method, "state", state, "exception", exception)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.Nikhil.CreditCardSystem.metrics;
+
+import com.Nikhil.CreditCardSystem.util.Money;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Histogram of successful debit / credit amounts in rupees:
+ * creditcard.transaction.amount{type=DEBIT|CREDIT}, with fixed buckets so Prometheus can
+ * aggregate them across instances.
+ */
+@Component
+public class TransactionMetrics {
+
+    private static final double[] BUCKETS = {100, 500, 1_000, 5_000, 10_000, 20_000, 50_000, 100_000, 500_000};
+
+    private final DistributionSummary debits;
+    private final DistributionSummary credits;
+
+    public TransactionMetrics(MeterRegistry registry) {
+        this.debits = amounts(registry, "DEBIT");
+        this.credits = amounts(registry, "CREDIT");
+    }
+
+    private static DistributionSummary amounts(MeterRegistry registry, String type) {
+        return DistributionSummary.builder("creditcard.transaction.amount")
+                .description("Amounts of successful debits and credits")
+                .baseUnit("rupees")
+                .tag("type", type)
+                .serviceLevelObjectives(BUCKETS)
+                .register(registry);
+    }
+
+    // ✅ amount in minor units (paise)
+    public void record(String transactionType, long amount) {
+        ("DEBIT".equals(transactionType) ? debits : credits).record((double) amount / Money.MINOR_PER_MAJOR);
+    }
+}
@@ -0,0 +1,115 @@
+package com.Nikhil.CreditCardSystem.outbox;
+
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sink "broker": an in-memory stand-in for a message broker, for development and tests.
+ *
+ * One topic per aggregate type ("card", "customer") with creditcard.outbox.broker.partitions
+ * partitions; the aggregate id picks the partition, so the messages of a card stay in order.
+ * Each partition is a log of at most creditcard.outbox.broker.retention messages that consumers
+ * read by offset, like they would a Kafka partition; older messages are dropped.
+ */
+@Component
+public class EmbeddedBrokerSink implements OutboxSink {
+
+    @Value("${creditcard.outbox.broker.partitions:8}")
+    private int partitions;
+
+    @Value("${creditcard.outbox.broker.retention:10000}")
+    private int retention;
+
+    private final Map<String, Partition[]> topics = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "broker";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            Partition[] topic = topics.computeIfAbsent(topicOf(message.getAggregateType()), name -> newTopic());
+            topic[partitionOf(message.getAggregateId())].append(message);
+        }
+    }
+
+    // ✅ Up to max messages of a partition from the given offset (an expired offset starts at the oldest kept)
+    public List<BrokerRecord> poll(String topic, int partition, long fromOffset, int max) {
+        Partition[] partitionsOfTopic = topics.get(topic);
+        if (partitionsOfTopic == null) {
+            return List.of();
+        }
+        return partitionsOfTopic[partition].read(fromOffset, max);
+    }
+
+    // Offset the next message of the partition will get
+    public long endOffset(String topic, int partition) {
+        Partition[] partitionsOfTopic = topics.get(topic);
+        return partitionsOfTopic == null ? 0 : partitionsOfTopic[partition].endOffset();
+    }
+
+    public int partitionOf(Long aggregateId) {
+        return (int) Math.floorMod(aggregateId, (long) partitions);
+    }
+
+    public static String topicOf(String aggregateType) {
+        return aggregateType.toLowerCase(Locale.ROOT);
+    }
+
+    public int getPartitionCount() {
+        return partitions;
+    }
+
+    private Partition[] newTopic() {
+        Partition[] topic = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            topic[i] = new Partition();
+        }
+        return topic;
+    }
+
+    public record BrokerRecord(long offset, OutboxMessage message) {
+    }
+
+    private final class Partition {
+
+        private final ArrayDeque<OutboxMessage> log = new ArrayDeque<>();
+        private long startOffset;       // offset of the oldest message kept
+
+        synchronized void append(OutboxMessage message) {
+            log.addLast(message);
+            if (log.size() > retention) {
+                log.removeFirst();
+                startOffset++;
+            }
+        }
+
+        synchronized List<BrokerRecord> read(long fromOffset, int max) {
+            long offset = Math.max(fromOffset, startOffset);
+            List<BrokerRecord> records = new ArrayList<>(Math.min(max, log.size()));
+            Iterator<OutboxMessage> iterator = log.iterator();
+            for (long skip = offset - startOffset; skip > 0 && iterator.hasNext(); skip--) {
+                iterator.next();
+            }
+            while (iterator.hasNext() && records.size() < max) {
+                records.add(new BrokerRecord(offset++, iterator.next()));
+            }
+            return records;
+        }
+
+        synchronized long endOffset() {
+            return startOffset + log.size();
+        }
+    }
+}
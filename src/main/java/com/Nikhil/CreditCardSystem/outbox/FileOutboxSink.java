@@ -0,0 +1,84 @@
+package com.Nikhil.CreditCardSystem.outbox;
+
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink "file": appends each message as one JSON line to creditcard.outbox.file.path, for local
+ * consumers that tail the file. The file is opened on the first batch; with fsync=true every batch
+ * is forced to disk before the relay deletes it from the outbox.
+ */
+@Component
+public class FileOutboxSink implements OutboxSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileOutboxSink.class);
+
+    @Value("${creditcard.outbox.file.path:data/outbox/messages.jsonl}")
+    private String path;
+
+    @Value("${creditcard.outbox.file.fsync:false}")
+    private boolean fsync;
+
+    private FileChannel channel;
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) throws IOException {
+        if (channel == null) {
+            Path file = Paths.get(path);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            LOGGER.info("Outbox file sink writing to {}", file.toAbsolutePath());
+        }
+        StringBuilder lines = new StringBuilder(messages.size() * 256);
+        for (OutboxMessage message : messages) {
+            // Types and timestamps need no escaping; the payload is already JSON
+            lines.append("{\"id\":").append(message.getId())
+                    .append(",\"aggregateType\":\"").append(message.getAggregateType())
+                    .append("\",\"aggregateId\":").append(message.getAggregateId())
+                    .append(",\"eventType\":\"").append(message.getEventType())
+                    .append("\",\"createdAt\":\"").append(message.getCreatedAt())
+                    .append("\",\"payload\":").append(message.getPayload())
+                    .append("}\n");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close outbox file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.Nikhil.CreditCardSystem.outbox;
+
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sink "bus": hands every message to the OutboxListener beans and to listeners subscribed at
+ * runtime. A listener that throws fails the batch, which is then retried for all of them.
+ */
+@Component
+public class OutboxEventBus implements OutboxSink {
+
+    private final List<OutboxListener> listeners = new CopyOnWriteArrayList<>();
+
+    public OutboxEventBus(ObjectProvider<OutboxListener> listenerBeans) {
+        listenerBeans.orderedStream().forEach(listeners::add);
+    }
+
+    @Override
+    public String name() {
+        return "bus";
+    }
+
+    public void subscribe(OutboxListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(OutboxListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            for (OutboxListener listener : listeners) {
+                listener.onMessage(message);
+            }
+        }
+    }
+
+    public int getListenerCount() {
+        return listeners.size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.Nikhil.CreditCardSystem.outbox;
+
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+
+/**
+ * In-process consumer of outbox messages (see OutboxEventBus): declare a bean implementing it, or
+ * subscribe one at runtime. Called on a relay thread, in order per card and per customer; a message
+ * can be delivered again after a failure, so handling must be idempotent.
+ */
+@FunctionalInterface
+public interface OutboxListener {
+
+    void onMessage(OutboxMessage message);
+}
@@ -0,0 +1,247 @@
+package com.Nikhil.CreditCardSystem.outbox;
+
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+import com.Nikhil.CreditCardSystem.repo.OutboxJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes outbox_messages to the configured sinks.
+ *
+ * Each relay thread repeatedly, in one DB transaction: locks the oldest batch-size messages that no
+ * other relay holds (FOR UPDATE SKIP LOCKED), hands them to every sink in id order, and deletes them.
+ * Relays on all nodes share the backlog this way. A card or customer whose older message is still
+ * held by another relay is left for the next round, so each one's messages reach the sinks in the
+ * order they were written. A failing sink rolls the batch back and it is retried after
+ * retry-backoff-ms: delivery is at least once.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxJdbcRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSink> availableSinks;
+    private final Timer lag;
+
+    @Value("${creditcard.outbox.sinks:bus}")
+    private List<String> sinkNames;
+
+    @Value("${creditcard.outbox.relay.threads:1}")
+    private int threads;
+
+    @Value("${creditcard.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${creditcard.outbox.relay.poll-interval-ms:100}")
+    private long pollIntervalMs;
+
+    @Value("${creditcard.outbox.relay.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${creditcard.outbox.relay.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private List<OutboxSink> sinks = List.of();
+    private final List<Thread> relays = new ArrayList<>();
+    private volatile boolean running;
+
+    // Metrics
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder deferredCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private volatile long lastLagMs;
+
+    public OutboxRelay(OutboxJdbcRepository outboxRepository,
+                       TransactionTemplate transactionTemplate,
+                       List<OutboxSink> availableSinks,
+                       MeterRegistry registry) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.availableSinks = availableSinks;
+        this.lag = Timer.builder("creditcard.outbox.lag")
+                .description("Time from a change being written to the outbox until it is published")
+                .serviceLevelObjectives(Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+                        Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!outboxRepository.isEnabled()) {
+            return;
+        }
+        Map<String, OutboxSink> byName = new LinkedHashMap<>();
+        availableSinks.forEach(sink -> byName.put(sink.name(), sink));
+        List<OutboxSink> selected = new ArrayList<>();
+        for (String name : sinkNames) {
+            OutboxSink sink = byName.get(name.trim());
+            if (sink == null) {
+                throw new IllegalStateException("Unknown outbox sink '" + name.trim() + "', expected one of " + byName.keySet());
+            }
+            selected.add(sink);
+        }
+        sinks = List.copyOf(selected);
+        running = true;
+        for (int i = 0; i < threads; i++) {
+            Thread relay = new Thread(this::runRelay, "outbox-relay-" + i);
+            relay.setDaemon(true);
+            relay.start();
+            relays.add(relay);
+        }
+        LOGGER.info("Outbox relay started (sinks={}, threads={}, batchSize={}, pollIntervalMs={})",
+                sinkNames, threads, batchSize, pollIntervalMs);
+    }
+
+    // ✅ Relay loop: back to back while batches come full, otherwise one poll interval apart
+    private void runRelay() {
+        while (running) {
+            long pause = pollIntervalMs;
+            try {
+                if (relayOnce() == batchSize) {
+                    pause = 0;
+                }
+            } catch (RuntimeException ex) {
+                failureCount.increment();
+                LOGGER.warn("Outbox batch not published, retrying in {} ms: {}", retryBackoffMs, ex.getMessage());
+                pause = retryBackoffMs;
+            }
+            if (pause > 0) {
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // ✅ One batch; returns the number of messages published
+    int relayOnce() {
+        List<OutboxMessage> published = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = outboxRepository.lockBatch(batchSize);
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            List<OutboxMessage> ready = inOrder(batch);
+            if (ready.isEmpty()) {
+                return ready;
+            }
+            for (OutboxSink sink : sinks) {
+                try {
+                    sink.publish(ready);
+                } catch (Exception ex) {
+                    throw new IllegalStateException("sink " + sink.name() + " failed: " + ex.getMessage(), ex);
+                }
+            }
+            outboxRepository.delete(ready.stream().map(OutboxMessage::getId).toList());
+            return ready;
+        });
+        if (published == null || published.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long maxLagMs = 0;
+        for (OutboxMessage message : published) {
+            long lagMs = Math.max(0, Duration.between(message.getCreatedAt(), now).toMillis());
+            lag.record(lagMs, TimeUnit.MILLISECONDS);
+            maxLagMs = Math.max(maxLagMs, lagMs);
+        }
+        lastLagMs = maxLagMs;
+        publishedCount.add(published.size());
+        batchCount.increment();
+        return published.size();
+    }
+
+    // Leaves out the cards / customers that have an older message held by another relay
+    private List<OutboxMessage> inOrder(List<OutboxMessage> batch) {
+        Map<String, Map<Long, Long>> firstInBatch = new HashMap<>();
+        for (OutboxMessage message : batch) {
+            firstInBatch.computeIfAbsent(message.getAggregateType(), type -> new HashMap<>())
+                    .putIfAbsent(message.getAggregateId(), message.getId());
+        }
+        Set<String> waiting = new HashSet<>();
+        for (Map.Entry<String, Map<Long, Long>> type : firstInBatch.entrySet()) {
+            Map<Long, Long> firstPending = outboxRepository.firstPending(type.getKey(), type.getValue().keySet());
+            type.getValue().forEach((aggregateId, first) -> {
+                if (firstPending.getOrDefault(aggregateId, first) < first) {
+                    waiting.add(type.getKey() + ":" + aggregateId);
+                }
+            });
+        }
+        if (waiting.isEmpty()) {
+            return batch;
+        }
+        List<OutboxMessage> ready = batch.stream()
+                .filter(message -> !waiting.contains(message.getAggregateType() + ":" + message.getAggregateId()))
+                .toList();
+        deferredCount.add(batch.size() - ready.size());
+        return ready;
+    }
+
+    // ✅ Stop the relays; messages not yet published stay in the outbox for the next start
+    @PreDestroy
+    void stop() {
+        running = false;
+        for (Thread relay : relays) {
+            try {
+                relay.join(shutdownTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getDeferredCount() {
+        return deferredCount.sum();
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    // Age of the oldest unpublished message (0 when the outbox is empty); read from the DB
+    public double getOldestPendingAgeMs() {
+        try {
+            LocalDateTime oldest = outboxRepository.oldestCreatedAt();
+            return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+        } catch (RuntimeException ex) {
+            return Double.NaN;
+        }
+    }
+}
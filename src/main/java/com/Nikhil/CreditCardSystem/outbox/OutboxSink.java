@@ -0,0 +1,18 @@
+package com.Nikhil.CreditCardSystem.outbox;
+
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * A destination of the outbox relay, enabled by name in creditcard.outbox.sinks. publish() gets the
+ * messages of one batch in id order, so in order per card and per customer, and returns once they
+ * are delivered. Relay threads may call it concurrently. An exception leaves the whole batch in the
+ * outbox to be retried, so delivery is at least once.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
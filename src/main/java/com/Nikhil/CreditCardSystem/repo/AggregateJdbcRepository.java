@@ -0,0 +1,188 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.ledger.LedgerEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set-based maintenance of card_aggregates / card_daily_aggregates.
+ *
+ * apply() must run in the transaction that writes the movements, so totals and transaction rows
+ * commit together. Movements are folded per card and per card-day first; each touched row is then
+ * one batched UPDATE, plus an INSERT the first time a card (or day) is seen.
+ */
+@Repository
+public class AggregateJdbcRepository {
+
+    private static final String TOTALS_SET =
+            "debit_total_minor = debit_total_minor + ?, debit_count = debit_count + ?, "
+                    + "credit_total_minor = credit_total_minor + ?, credit_count = credit_count + ?, "
+                    + "last_activity_at = CASE WHEN last_activity_at IS NULL OR last_activity_at < ? THEN ? ELSE last_activity_at END ";
+
+    private static final String UPDATE_CARD_SQL =
+            "UPDATE card_aggregates SET " + TOTALS_SET + "WHERE card_id = ?";
+
+    private static final String INSERT_CARD_SQL =
+            "INSERT INTO card_aggregates (debit_total_minor, debit_count, credit_total_minor, credit_count, "
+                    + "last_activity_at, card_id) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String UPDATE_DAY_SQL =
+            "UPDATE card_daily_aggregates SET " + TOTALS_SET + "WHERE card_id = ? AND activity_date = ?";
+
+    private static final String INSERT_DAY_SQL =
+            "INSERT INTO card_daily_aggregates (debit_total_minor, debit_count, credit_total_minor, credit_count, "
+                    + "last_activity_at, card_id, activity_date) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String TOTALS_SELECT =
+            "SUM(CASE WHEN transaction_type = 'DEBIT' THEN amount_minor ELSE 0 END), "
+                    + "SUM(CASE WHEN transaction_type = 'DEBIT' THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN transaction_type = 'CREDIT' THEN amount_minor ELSE 0 END), "
+                    + "SUM(CASE WHEN transaction_type = 'CREDIT' THEN 1 ELSE 0 END), "
+                    + "MAX(date_time) ";
+
+    private static final String REBUILD_CARDS_SQL =
+            "INSERT INTO card_aggregates (card_id, debit_total_minor, debit_count, credit_total_minor, credit_count, "
+                    + "last_activity_at) SELECT card_id, " + TOTALS_SELECT
+                    + "FROM transaction WHERE card_id BETWEEN ? AND ? GROUP BY card_id";
+
+    private static final String REBUILD_DAYS_SQL =
+            "INSERT INTO card_daily_aggregates (card_id, activity_date, debit_total_minor, debit_count, "
+                    + "credit_total_minor, credit_count, last_activity_at) SELECT card_id, CAST(date_time AS DATE), "
+                    + TOTALS_SELECT
+                    + "FROM transaction WHERE card_id BETWEEN ? AND ? GROUP BY card_id, CAST(date_time AS DATE)";
+
+    private static final Comparator<DayKey> DAY_ORDER =
+            Comparator.comparing(DayKey::cardId).thenComparing(DayKey::day);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AggregateJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ✅ Add movements to the totals (sorted keys, so concurrent writers lock rows in the same order)
+    public void apply(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Long, Totals> cards = new TreeMap<>();
+        Map<DayKey, Totals> days = new TreeMap<>(DAY_ORDER);
+        for (LedgerEntry entry : entries) {
+            cards.computeIfAbsent(entry.cardId(), id -> new Totals()).add(entry);
+            days.computeIfAbsent(new DayKey(entry.cardId(), entry.dateTime().toLocalDate()), key -> new Totals()).add(entry);
+        }
+
+        List<Map.Entry<Long, Totals>> cardRows = new ArrayList<>(cards.entrySet());
+        upsert(UPDATE_CARD_SQL, INSERT_CARD_SQL, cardRows, (ps, row, index) -> ps.setLong(index, row.getKey()));
+
+        List<Map.Entry<DayKey, Totals>> dayRows = new ArrayList<>(days.entrySet());
+        upsert(UPDATE_DAY_SQL, INSERT_DAY_SQL, dayRows, (ps, row, index) -> {
+            ps.setLong(index, row.getKey().cardId());
+            ps.setDate(index + 1, Date.valueOf(row.getKey().day()));
+        });
+    }
+
+    // ✅ Recompute the totals of a card id range from the transaction table
+    public void rebuild(long fromCardId, long toCardId) {
+        jdbcTemplate.update("DELETE FROM card_aggregates WHERE card_id BETWEEN ? AND ?", fromCardId, toCardId);
+        jdbcTemplate.update("DELETE FROM card_daily_aggregates WHERE card_id BETWEEN ? AND ?", fromCardId, toCardId);
+        jdbcTemplate.update(REBUILD_CARDS_SQL, fromCardId, toCardId);
+        jdbcTemplate.update(REBUILD_DAYS_SQL, fromCardId, toCardId);
+    }
+
+    public void deleteForCard(Long cardId) {
+        jdbcTemplate.update("DELETE FROM card_aggregates WHERE card_id = ?", cardId);
+        jdbcTemplate.update("DELETE FROM card_daily_aggregates WHERE card_id = ?", cardId);
+    }
+
+    public void deleteForCustomer(Long customerId) {
+        String cards = "(SELECT id FROM credit_card WHERE customer_id = ?)";
+        jdbcTemplate.update("DELETE FROM card_aggregates WHERE card_id IN " + cards, customerId);
+        jdbcTemplate.update("DELETE FROM card_daily_aggregates WHERE card_id IN " + cards, customerId);
+    }
+
+    private <K> void upsert(String updateSql, String insertSql, List<Map.Entry<K, Totals>> rows, KeySetter<K> keySetter) {
+        int[][] updated = jdbcTemplate.batchUpdate(updateSql, rows, rows.size(), (ps, row) -> {
+            Totals totals = row.getValue();
+            Timestamp last = Timestamp.valueOf(totals.lastActivityAt);
+            ps.setLong(1, totals.debitTotal);
+            ps.setLong(2, totals.debitCount);
+            ps.setLong(3, totals.creditTotal);
+            ps.setLong(4, totals.creditCount);
+            ps.setTimestamp(5, last);
+            ps.setTimestamp(6, last);
+            keySetter.set(ps, row, 7);
+        });
+        List<Map.Entry<K, Totals>> missing = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[0][i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        // One statement per new row: batched inserts are rewritten by the driver and lose their update counts
+        List<Map.Entry<K, Totals>> lost = new ArrayList<>();
+        for (Map.Entry<K, Totals> row : missing) {
+            Totals totals = row.getValue();
+            int inserted = jdbcTemplate.update(insertSql, ps -> {
+                ps.setLong(1, totals.debitTotal);
+                ps.setLong(2, totals.debitCount);
+                ps.setLong(3, totals.creditTotal);
+                ps.setLong(4, totals.creditCount);
+                ps.setTimestamp(5, Timestamp.valueOf(totals.lastActivityAt));
+                keySetter.set(ps, row, 6);
+            });
+            // Another transaction created the row in between: add to it instead
+            if (inserted == 0) {
+                lost.add(row);
+            }
+        }
+        if (!lost.isEmpty()) {
+            upsert(updateSql, insertSql, lost, keySetter);
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeySetter<K> {
+        void set(PreparedStatement ps, Map.Entry<K, Totals> row, int index) throws SQLException;
+    }
+
+    private record DayKey(Long cardId, LocalDate day) {
+    }
+
+    private static final class Totals {
+        private long debitTotal;
+        private long debitCount;
+        private long creditTotal;
+        private long creditCount;
+        private LocalDateTime lastActivityAt;
+
+        void add(LedgerEntry entry) {
+            if ("DEBIT".equals(entry.transactionType())) {
+                debitTotal += entry.amount();
+                debitCount++;
+            } else {
+                creditTotal += entry.amount();
+                creditCount++;
+            }
+            if (lastActivityAt == null || entry.dateTime().isAfter(lastActivityAt)) {
+                lastActivityAt = entry.dateTime();
+            }
+        }
+    }
+}
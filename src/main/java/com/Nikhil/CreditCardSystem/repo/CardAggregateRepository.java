@@ -0,0 +1,16 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.CardAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CardAggregateRepository extends JpaRepository<CardAggregate, Long> {
+
+    @Query("SELECT a FROM CardAggregate a WHERE a.cardId IN (SELECT c.id FROM CreditCard c WHERE c.customer.id = :customerId)")
+    List<CardAggregate> findByCustomerId(@Param("customerId") Long customerId);
+}
@@ -0,0 +1,14 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.CardDailyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CardDailyAggregateRepository extends JpaRepository<CardDailyAggregate, CardDailyAggregate.Key> {
+
+    List<CardDailyAggregate> findByCardIdAndActivityDateBetweenOrderByActivityDate(Long cardId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,276 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.CardEvent;
+import com.Nikhil.CreditCardSystem.ledger.LedgerEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Appends to the card event streams (card_events) and takes their snapshots (card_snapshots).
+ *
+ * Appends must run in the transaction that changes the card, after the card row is written or
+ * locked, so the next sequence number is the stream head + 1 (the unique card_id / sequence_no key
+ * rejects a writer that did not hold the lock). A card without a stream (issued before the event
+ * log) gets one built from its card row and transaction rows first, so those must already hold the
+ * movements being appended. Every appended event (not the rebuilt history) also goes to the outbox.
+ */
+@Repository
+public class CardEventJdbcRepository {
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO card_events (card_id, sequence_no, event_type, amount_minor, occurred_at, details) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String PREVIOUS_SNAPSHOT_SQL =
+            "SELECT sequence_no, balance_minor, taken_at FROM card_snapshots "
+                    + "WHERE card_id = ? AND sequence_no < ? ORDER BY sequence_no DESC LIMIT 1";
+
+    // Previous snapshot + the events after it; taken_at is kept from going backwards with the clock
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT INTO card_snapshots (card_id, sequence_no, balance_minor, taken_at) "
+                    + "SELECT card_id, MAX(sequence_no), ? + SUM(amount_minor), "
+                    + "CASE WHEN MAX(occurred_at) < CAST(? AS TIMESTAMP) THEN CAST(? AS TIMESTAMP) ELSE MAX(occurred_at) END "
+                    + "FROM card_events WHERE card_id = ? AND sequence_no > ? AND sequence_no <= ? GROUP BY card_id";
+
+    private static final String SIGNED_AMOUNT =
+            "CASE WHEN t.transaction_type = 'DEBIT' THEN -t.amount_minor ELSE t.amount_minor END";
+
+    // Stream of a card from before the event log: opening balance = balance - net of its transactions
+    private static final String BACKFILL_OPENING_SQL =
+            "INSERT INTO card_events (card_id, sequence_no, event_type, amount_minor, occurred_at, details) "
+                    + "SELECT c.id, 1, '" + CardEvent.CARD_ISSUED + "', c.total_balance_minor - COALESCE(SUM(" + SIGNED_AMOUNT + "), 0), "
+                    + "COALESCE(LEAST(CAST(c.issue_date AS TIMESTAMP), MIN(t.date_time)), CAST(c.issue_date AS TIMESTAMP), "
+                    + "MIN(t.date_time), LOCALTIMESTAMP), 'Opening balance rebuilt from transactions' "
+                    + "FROM credit_card c LEFT JOIN transaction t ON t.card_id = c.id "
+                    + "WHERE c.id IN (%s) GROUP BY c.id, c.total_balance_minor, c.issue_date";
+
+    private static final String BACKFILL_MOVEMENTS_SQL =
+            "INSERT INTO card_events (card_id, sequence_no, event_type, amount_minor, occurred_at, details) "
+                    + "SELECT t.card_id, 1 + ROW_NUMBER() OVER (PARTITION BY t.card_id ORDER BY t.date_time, t.id), "
+                    + "CASE WHEN t.transaction_type = 'DEBIT' THEN '" + CardEvent.DEBITED + "' ELSE '" + CardEvent.CREDITED + "' END, "
+                    + SIGNED_AMOUNT + ", t.date_time, t.description FROM transaction t WHERE t.card_id IN (%s)";
+
+    private static final String BACKFILL_SNAPSHOTS_SQL =
+            "INSERT INTO card_snapshots (card_id, sequence_no, balance_minor, taken_at) "
+                    + "SELECT card_id, sequence_no, balance, taken_at FROM ("
+                    + "SELECT card_id, sequence_no, SUM(amount_minor) OVER (PARTITION BY card_id ORDER BY sequence_no) AS balance, "
+                    + "MAX(occurred_at) OVER (PARTITION BY card_id ORDER BY sequence_no) AS taken_at "
+                    + "FROM card_events WHERE card_id IN (%s)) s WHERE MOD(sequence_no, ?) = 0";
+
+    private static final int MAX_IN_LIST = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxJdbcRepository outboxJdbcRepository;
+
+    @Value("${creditcard.events.snapshot-every:100}")
+    private int snapshotEvery;
+
+    public CardEventJdbcRepository(JdbcTemplate jdbcTemplate, OutboxJdbcRepository outboxJdbcRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxJdbcRepository = outboxJdbcRepository;
+    }
+
+    // ✅ Debited / Credited events for written movements, in the order given within each card
+    public void appendMovements(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Long, List<LedgerEntry>> byCard = new TreeMap<>();
+        for (LedgerEntry entry : entries) {
+            byCard.computeIfAbsent(entry.cardId(), id -> new ArrayList<>()).add(entry);
+        }
+        Map<Long, Long> heads = heads(byCard.keySet());
+        List<EventRow> rows = new ArrayList<>(entries.size());
+        List<Long> withoutStream = new ArrayList<>();
+        for (Map.Entry<Long, List<LedgerEntry>> card : byCard.entrySet()) {
+            long sequence = heads.getOrDefault(card.getKey(), 0L);
+            if (sequence == 0) {
+                withoutStream.add(card.getKey());       // built from the transaction rows, these movements included
+                continue;
+            }
+            for (LedgerEntry entry : card.getValue()) {
+                boolean debit = "DEBIT".equals(entry.transactionType());
+                rows.add(new EventRow(entry.cardId(), ++sequence, debit ? CardEvent.DEBITED : CardEvent.CREDITED,
+                        debit ? -entry.amount() : entry.amount(), entry.dateTime(), entry.description()));
+            }
+        }
+        backfill(withoutStream);
+        insert(rows);
+        snapshotCrossed(heads, rows);
+        outboxJdbcRepository.appendCardEvents(rows);
+        if (!withoutStream.isEmpty()) {
+            // The movements just written are the latest transactions, so the tail of the rebuilt stream
+            Map<Long, Long> rebuilt = heads(withoutStream);
+            for (Long cardId : withoutStream) {
+                long head = rebuilt.getOrDefault(cardId, 0L);
+                outboxJdbcRepository.appendCardEvents(events(cardId, head - byCard.get(cardId).size() + 1, head));
+            }
+        }
+    }
+
+    // ✅ One event (CardIssued, CardUpdated, CardDeleted); returns its sequence number
+    public long append(Long cardId, String eventType, long amount, LocalDateTime occurredAt, String details) {
+        long head = heads(List.of(cardId)).getOrDefault(cardId, 0L);
+        if (head == 0 && !CardEvent.CARD_ISSUED.equals(eventType)) {
+            backfill(List.of(cardId));
+            head = heads(List.of(cardId)).getOrDefault(cardId, 0L);
+        }
+        EventRow row = new EventRow(cardId, head + 1, eventType, amount, occurredAt, details);
+        insert(List.of(row));
+        snapshotCrossed(Map.of(cardId, head), List.of(row));
+        outboxJdbcRepository.appendCardEvents(List.of(row));
+        return row.sequenceNo();
+    }
+
+    // ✅ CardDeleted for every card of a customer (locks the card rows first)
+    public void appendDeletedForCustomer(Long customerId, LocalDateTime occurredAt) {
+        List<Long> cardIds = jdbcTemplate.queryForList(
+                "SELECT id FROM credit_card WHERE customer_id = ? ORDER BY id FOR UPDATE", Long.class, customerId);
+        for (Long cardId : cardIds) {
+            append(cardId, CardEvent.CARD_DELETED, 0, occurredAt, null);
+        }
+    }
+
+    /**
+     * Builds the streams of the given cards from their card and transaction rows: an opening
+     * CardIssued, one event per transaction in time order, and the snapshots. The caller holds the
+     * card row locks and has checked that the cards have no stream yet.
+     */
+    public void backfill(List<Long> cardIds) {
+        for (List<Long> chunk : chunks(cardIds)) {
+            String in = placeholders(chunk.size());
+            Object[] ids = chunk.toArray();
+            jdbcTemplate.update(BACKFILL_OPENING_SQL.formatted(in), ids);
+            jdbcTemplate.update(BACKFILL_MOVEMENTS_SQL.formatted(in), ids);
+            Object[] args = new Object[chunk.size() + 1];
+            System.arraycopy(ids, 0, args, 0, ids.length);
+            args[ids.length] = snapshotEvery;
+            jdbcTemplate.update(BACKFILL_SNAPSHOTS_SQL.formatted(in), args);
+        }
+    }
+
+    // Locks the card rows of an id range and returns those that have no stream yet
+    public List<Long> lockCardsWithoutStream(long fromCardId, long toCardId) {
+        jdbcTemplate.queryForList("SELECT id FROM credit_card WHERE id BETWEEN ? AND ? ORDER BY id FOR UPDATE",
+                Long.class, fromCardId, toCardId);
+        return jdbcTemplate.queryForList("SELECT c.id FROM credit_card c WHERE c.id BETWEEN ? AND ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM card_events e WHERE e.card_id = c.id) ORDER BY c.id",
+                Long.class, fromCardId, toCardId);
+    }
+
+    public boolean anyCardWithoutStream() {
+        return !jdbcTemplate.queryForList("SELECT c.id FROM credit_card c "
+                + "WHERE NOT EXISTS (SELECT 1 FROM card_events e WHERE e.card_id = c.id) LIMIT 1", Long.class).isEmpty();
+    }
+
+    public long head(Long cardId) {
+        return heads(List.of(cardId)).getOrDefault(cardId, 0L);
+    }
+
+    // ✅ Latest snapshot whose events all happened at or before the given time (index seek)
+    public SnapshotRow snapshotAt(Long cardId, LocalDateTime asOf) {
+        List<SnapshotRow> rows = jdbcTemplate.query(
+                "SELECT sequence_no, balance_minor FROM card_snapshots WHERE card_id = ? AND taken_at <= ? "
+                        + "ORDER BY taken_at DESC, sequence_no DESC LIMIT 1",
+                (rs, i) -> new SnapshotRow(rs.getLong(1), rs.getLong(2)), cardId, Timestamp.valueOf(asOf));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Sequence number of the first snapshot after the given one, or null
+    public Long nextSnapshot(Long cardId, long afterSequence) {
+        return jdbcTemplate.queryForObject("SELECT MIN(sequence_no) FROM card_snapshots WHERE card_id = ? AND sequence_no > ?",
+                Long.class, cardId, afterSequence);
+    }
+
+    public List<EventRow> events(Long cardId, long fromSequence, long toSequence) {
+        return jdbcTemplate.query("SELECT sequence_no, event_type, amount_minor, occurred_at, details FROM card_events "
+                        + "WHERE card_id = ? AND sequence_no BETWEEN ? AND ? ORDER BY sequence_no",
+                (rs, i) -> new EventRow(cardId, rs.getLong(1), rs.getString(2), rs.getLong(3),
+                        rs.getTimestamp(4).toLocalDateTime(), rs.getString(5)),
+                cardId, fromSequence, toSequence);
+    }
+
+    private Map<Long, Long> heads(Collection<Long> cardIds) {
+        Map<Long, Long> heads = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(cardIds))) {
+            jdbcTemplate.query("SELECT card_id, MAX(sequence_no) FROM card_events WHERE card_id IN ("
+                            + placeholders(chunk.size()) + ") GROUP BY card_id",
+                    rs -> {
+                        heads.put(rs.getLong(1), rs.getLong(2));
+                    }, chunk.toArray());
+        }
+        return heads;
+    }
+
+    private void insert(List<EventRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.cardId());
+            ps.setLong(2, row.sequenceNo());
+            ps.setString(3, row.eventType());
+            ps.setLong(4, row.amount());
+            ps.setTimestamp(5, Timestamp.valueOf(row.occurredAt()));
+            ps.setString(6, row.details());
+        });
+    }
+
+    // ✅ A snapshot at every multiple of snapshot-every the appended rows went through
+    private void snapshotCrossed(Map<Long, Long> heads, List<EventRow> rows) {
+        Map<Long, Long> newHeads = new TreeMap<>();
+        for (EventRow row : rows) {
+            newHeads.merge(row.cardId(), row.sequenceNo(), Math::max);
+        }
+        for (Map.Entry<Long, Long> card : newHeads.entrySet()) {
+            long from = heads.getOrDefault(card.getKey(), 0L);
+            for (long sequence = (from / snapshotEvery + 1) * snapshotEvery; sequence <= card.getValue(); sequence += snapshotEvery) {
+                snapshot(card.getKey(), sequence);
+            }
+        }
+    }
+
+    private void snapshot(Long cardId, long sequence) {
+        List<Object[]> previous = jdbcTemplate.query(PREVIOUS_SNAPSHOT_SQL,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getTimestamp(3)}, cardId, sequence);
+        long fromSequence = previous.isEmpty() ? 0 : (Long) previous.get(0)[0];
+        long balance = previous.isEmpty() ? 0 : (Long) previous.get(0)[1];
+        SqlParameterValue takenAt = new SqlParameterValue(Types.TIMESTAMP, previous.isEmpty() ? null : previous.get(0)[2]);
+        jdbcTemplate.update(INSERT_SNAPSHOT_SQL, balance, takenAt, takenAt, cardId, fromSequence, sequence);
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_IN_LIST) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + MAX_IN_LIST)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record EventRow(Long cardId, long sequenceNo, String eventType, long amount, LocalDateTime occurredAt,
+                           String details) {
+    }
+
+    public record SnapshotRow(long sequenceNo, long balance) {
+    }
+}
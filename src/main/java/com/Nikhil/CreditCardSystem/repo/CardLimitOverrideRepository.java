@@ -0,0 +1,16 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.CardLimitOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CardLimitOverrideRepository extends JpaRepository<CardLimitOverride, Long> {
+
+    // With count(), detects any insert, update or delete since the last refresh
+    @Query("SELECT MAX(o.updatedAt) FROM CardLimitOverride o")
+    LocalDateTime lastUpdatedAt();
+}
@@ -0,0 +1,13 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.CardStatement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CardStatementRepository extends JpaRepository<CardStatement, CardStatement.Key> {
+
+    List<CardStatement> findByCardIdOrderByStatementMonthDesc(Long cardId);
+}
@@ -1,13 +1,31 @@
 package com.Nikhil.CreditCardSystem.repo;
 
 import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CreditCardRepository extends JpaRepository<CreditCard, Long> {
     Optional<CreditCard> findByCardNumberAndCustomerId(String cardNumber, Long customerId);
+    Optional<CreditCard> findByCardNumber(String cardNumber);
+
+    // SELECT ... FOR UPDATE: serializes balance updates on the card row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CreditCard c WHERE c.cardNumber = :cardNumber AND c.customer.id = :customerId")
+    Optional<CreditCard> findForUpdate(@Param("cardNumber") String cardNumber, @Param("customerId") Long customerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CreditCard c WHERE c.id = :id")
+    Optional<CreditCard> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT c.id, c.cardType FROM CreditCard c WHERE c.id IN :ids")
+    List<Object[]> findCardTypes(@Param("ids") Collection<Long> ids);
 
     List<CreditCard> findAllByCustomerId(Long customerId);
     boolean existsByCardNumber(String cardNumber);
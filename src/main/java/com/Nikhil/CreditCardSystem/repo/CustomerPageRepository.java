@@ -0,0 +1,124 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keyset-paged customer listing as DTO projections: one query for a page of customers, one
+ * IN-list query for all their cards. No entities are loaded, so nothing is lazily fetched per row.
+ *
+ * Rows are ordered by (sort key, id); a NULL sort key sorts after all values ascending and
+ * before them descending, which matches PostgreSQL's default index order.
+ */
+@Repository
+public class CustomerPageRepository {
+
+    public enum Sort {
+        ID("c.id"), NAME("c.name"), USERNAME("c.username");
+
+        private final String path;
+
+        Sort(String path) {
+            this.path = path;
+        }
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return ID;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidInputException("Unsupported sort: " + value + " (use id, name or username)");
+            }
+        }
+    }
+
+    private static final String CUSTOMER_SELECT = "select new com.Nikhil.CreditCardSystem.repo.CustomerPageRepository$CustomerRow("
+            + "c.id, c.username, c.name, c.phoneNumber, c.email) from Customer c";
+
+    private static final String CARDS_QUERY = "select new com.Nikhil.CreditCardSystem.repo.CustomerPageRepository$CardRow("
+            + "c.customer.id, c.cardNumber, c.cardHolderName, c.totalBalance, c.cardType, c.isActive, c.issueDate, c.expiryDate) "
+            + "from CreditCard c where c.customer.id in :customerIds order by c.customer.id, c.id";
+
+    private final EntityManager entityManager;
+
+    public CustomerPageRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Up to limit customers after the cursor row (afterId null: first page). For sort ID the key
+     * arguments are ignored.
+     */
+    public List<CustomerRow> findPage(Sort sort, boolean descending, boolean afterKeyNull, String afterKey,
+                                      Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(CUSTOMER_SELECT);
+        String key = sort.path;
+        String cmp = descending ? "<" : ">";
+        if (afterId != null) {
+            if (sort == Sort.ID) {
+                jpql.append(" where c.id ").append(cmp).append(" :afterId");
+            } else if (afterKeyNull) {
+                // Inside the NULL block: the rest of it, then (descending) every non-null key
+                jpql.append(" where (").append(key).append(" is null and c.id ").append(cmp).append(" :afterId)");
+                if (descending) {
+                    jpql.append(" or ").append(key).append(" is not null");
+                }
+            } else {
+                jpql.append(" where (").append(key).append(' ').append(cmp).append(" :afterKey or (")
+                        .append(key).append(" = :afterKey and c.id ").append(cmp).append(" :afterId)");
+                if (!descending) {
+                    jpql.append(" or ").append(key).append(" is null");
+                }
+                jpql.append(')');
+            }
+        }
+        String direction = descending ? " desc" : " asc";
+        jpql.append(" order by ");
+        if (sort != Sort.ID) {
+            jpql.append(key).append(direction).append(descending ? " nulls first, " : " nulls last, ");
+        }
+        jpql.append("c.id").append(direction);
+
+        TypedQuery<CustomerRow> query = entityManager.createQuery(jpql.toString(), CustomerRow.class);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+            if (sort != Sort.ID && !afterKeyNull) {
+                query.setParameter("afterKey", afterKey);
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    public List<CardRow> findCards(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(CARDS_QUERY, CardRow.class)
+                .setParameter("customerIds", customerIds)
+                .getResultList();
+    }
+
+    public record CustomerRow(Long id, String username, String name, String phoneNumber, String email) {
+
+        public String key(Sort sort) {
+            return switch (sort) {
+                case ID -> String.valueOf(id);
+                case NAME -> name;
+                case USERNAME -> username;
+            };
+        }
+    }
+
+    public record CardRow(Long customerId, String cardNumber, String cardHolderName, long totalBalance,
+                          String cardType, boolean active, LocalDate issueDate, LocalDate expiryDate) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain INSERT (not a merge) so a concurrent claim of the same key fails on the primary key
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_records (idempotency_key, fingerprint, created_at) VALUES (:key, :fingerprint, :createdAt)",
+            nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("createdAt") LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.httpStatus = :httpStatus, r.responseBody = :responseBody, r.completedAt = :completedAt " +
+            "WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("httpStatus") int httpStatus,
+                 @Param("responseBody") String responseBody, @Param("completedAt") LocalDateTime completedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key")
+    int release(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,20 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+
+    // Runs in the projector's transaction, so the offset commits together with the projected rows
+    @Modifying
+    @Query("UPDATE JournalCheckpoint c SET c.position = :position, c.updatedAt = :now " +
+            "WHERE c.name = :name AND c.position < :position")
+    int advance(@Param("name") String name, @Param("position") long position, @Param("now") LocalDateTime now);
+}
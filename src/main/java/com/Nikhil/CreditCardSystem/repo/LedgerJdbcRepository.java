@@ -0,0 +1,122 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.ledger.CardLimits;
+import com.Nikhil.CreditCardSystem.ledger.LedgerEntry;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Set-based JDBC writes for the balance path.
+ *
+ * Transaction uses IDENTITY ids, which stops Hibernate from batching inserts, so bulk writers
+ * (write-behind ledger, batch API) go through JdbcTemplate batch statements instead.
+ */
+@Repository
+public class LedgerJdbcRepository {
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transaction (amount_minor, transaction_type, card_type, description, date_time, card_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_BALANCE_SQL =
+            "UPDATE credit_card SET total_balance_minor = ?, daily_debited_minor = ?, daily_credited_minor = ?, "
+                    + "daily_reset_date = ?, version = version + 1 WHERE id = ?";
+
+    // Counters from an earlier business day count as zero, exactly like BusinessDay.rollOver
+    private static final String DEBIT_IF_ALLOWED_SQL =
+            "UPDATE credit_card SET total_balance_minor = total_balance_minor - ?, "
+                    + "daily_debited_minor = (CASE WHEN daily_reset_date = ? THEN daily_debited_minor ELSE 0 END) + ?, "
+                    + "daily_credited_minor = CASE WHEN daily_reset_date = ? THEN daily_credited_minor ELSE 0 END, "
+                    + "daily_reset_date = ?, version = version + 1 "
+                    + "WHERE id = ? AND total_balance_minor >= ? AND ? <= ? "
+                    + "AND ? <= ? - (CASE WHEN daily_reset_date = ? THEN daily_debited_minor ELSE 0 END)";
+
+    private static final String CREDIT_IF_ALLOWED_SQL =
+            "UPDATE credit_card SET total_balance_minor = total_balance_minor + ?, "
+                    + "daily_credited_minor = (CASE WHEN daily_reset_date = ? THEN daily_credited_minor ELSE 0 END) + ?, "
+                    + "daily_debited_minor = CASE WHEN daily_reset_date = ? THEN daily_debited_minor ELSE 0 END, "
+                    + "daily_reset_date = ?, version = version + 1 "
+                    + "WHERE id = ? AND ? <= ? "
+                    + "AND ? <= ? - (CASE WHEN daily_reset_date = ? THEN daily_credited_minor ELSE 0 END)";
+
+    // Returned by the conditional UPDATEs (RETURNING on PostgreSQL): the card's state after the movement
+    private static final String[] BALANCE_COLUMNS =
+            {"total_balance_minor", "daily_debited_minor", "daily_credited_minor", "daily_reset_date"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertTransactions(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.amount());
+            ps.setString(2, entry.transactionType());
+            ps.setString(3, entry.cardType());
+            ps.setString(4, entry.description());
+            ps.setTimestamp(5, Timestamp.valueOf(entry.dateTime()));
+            ps.setLong(6, entry.cardId());
+        });
+    }
+
+    public void updateBalances(List<CardBalanceRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.totalBalance());
+            ps.setLong(2, row.dailyDebitedAmount());
+            ps.setLong(3, row.dailyCreditedAmount());
+            ps.setDate(4, row.dailyResetDate() == null ? null : Date.valueOf(row.dailyResetDate()));
+            ps.setLong(5, row.cardId());
+        });
+    }
+
+    // ✅ Check and apply a debit in one statement; returns the new balance, or empty when a rule fails
+    public Optional<CardBalanceRow> debitIfAllowed(Long cardId, long amount, LocalDate today, CardLimits limits) {
+        Date day = Date.valueOf(today);
+        return updateReturningBalance(DEBIT_IF_ALLOWED_SQL, cardId, amount, day, amount, day, day,
+                cardId, amount, amount, limits.maxWithdrawalLimit(), amount, limits.dailyDebitLimit(), day);
+    }
+
+    public Optional<CardBalanceRow> creditIfAllowed(Long cardId, long amount, LocalDate today, CardLimits limits) {
+        Date day = Date.valueOf(today);
+        return updateReturningBalance(CREDIT_IF_ALLOWED_SQL, cardId, amount, day, amount, day, day,
+                cardId, amount, limits.maxCreditLimit(), amount, limits.dailyCreditLimit(), day);
+    }
+
+    private Optional<CardBalanceRow> updateReturningBalance(String sql, Long cardId, Object... args) {
+        return jdbcTemplate.execute(
+                (Connection connection) -> connection.prepareStatement(sql, BALANCE_COLUMNS),
+                (PreparedStatement ps) -> {
+                    new ArgumentPreparedStatementSetter(args).setValues(ps);
+                    if (ps.executeUpdate() == 0) {
+                        return Optional.empty();
+                    }
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        rs.next();
+                        return Optional.of(new CardBalanceRow(cardId, rs.getLong("total_balance_minor"),
+                                rs.getLong("daily_debited_minor"), rs.getLong("daily_credited_minor"),
+                                rs.getObject("daily_reset_date", LocalDate.class)));
+                    }
+                });
+    }
+
+    public record CardBalanceRow(Long cardId, long totalBalance, long dailyDebitedAmount, long dailyCreditedAmount,
+                                 LocalDate dailyResetDate) {
+    }
+}
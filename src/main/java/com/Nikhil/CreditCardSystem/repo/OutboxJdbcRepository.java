@@ -0,0 +1,166 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository.EventRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes and drains outbox_messages.
+ *
+ * Writers call append* inside the transaction that makes the change, so a message exists exactly
+ * when the change committed. The relay reads the oldest messages with FOR UPDATE SKIP LOCKED, so
+ * any number of relays share the backlog without waiting on each other, and deletes them in the
+ * same transaction once they are published.
+ */
+@Repository
+public class OutboxJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_messages (aggregate_type, aggregate_id, event_type, payload, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String LOCK_BATCH_SQL =
+            "SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at FROM outbox_messages "
+                    + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final int MAX_IN_LIST = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${creditcard.outbox.enabled:true}")
+    private boolean enabled;
+
+    // Metrics
+    private final LongAdder writtenCount = new LongAdder();
+
+    public OutboxJdbcRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // ✅ One CARD message per appended card event
+    public void appendCardEvents(List<EventRow> rows) {
+        if (!enabled || rows.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (EventRow row : rows) {
+            args.add(new Object[]{OutboxMessage.CARD, row.cardId(), row.eventType(),
+                    toJson(cardEventPayload(row.cardId(), row.sequenceNo(), row.eventType(), row.amount(), row.occurredAt(), row.details())),
+                    Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        writtenCount.add(rows.size());
+    }
+
+    public void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL, aggregateType, aggregateId, eventType, toJson(payload), Timestamp.valueOf(LocalDateTime.now()));
+        writtenCount.increment();
+    }
+
+    // Payload of a CARD message; (cardId, sequenceNo) identifies the event for consumers that dedupe
+    public static Map<String, Object> cardEventPayload(Long cardId, long sequenceNo, String eventType, long amount,
+                                                       LocalDateTime occurredAt, String details) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("cardId", cardId);
+        payload.put("sequenceNo", sequenceNo);
+        payload.put("eventType", eventType);
+        payload.put("amountMinor", amount);
+        payload.put("occurredAt", occurredAt);
+        payload.put("details", details);
+        return payload;
+    }
+
+    // ✅ Oldest unpublished messages not locked by another relay; call inside a transaction
+    public List<OutboxMessage> lockBatch(int limit) {
+        return jdbcTemplate.query(LOCK_BATCH_SQL, (rs, i) -> {
+            OutboxMessage message = new OutboxMessage();
+            message.setId(rs.getLong(1));
+            message.setAggregateType(rs.getString(2));
+            message.setAggregateId(rs.getLong(3));
+            message.setEventType(rs.getString(4));
+            message.setPayload(rs.getString(5));
+            message.setCreatedAt(rs.getTimestamp(6).toLocalDateTime());
+            return message;
+        }, limit);
+    }
+
+    // Id of the oldest unpublished message of each given aggregate, locked or not
+    public Map<Long, Long> firstPending(String aggregateType, Collection<Long> aggregateIds) {
+        Map<Long, Long> first = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(aggregateIds))) {
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = aggregateType;
+            System.arraycopy(chunk.toArray(), 0, args, 1, chunk.size());
+            jdbcTemplate.query("SELECT aggregate_id, MIN(id) FROM outbox_messages WHERE aggregate_type = ? AND aggregate_id IN ("
+                    + placeholders(chunk.size()) + ") GROUP BY aggregate_id", rs -> {
+                first.put(rs.getLong(1), rs.getLong(2));
+            }, args);
+        }
+        return first;
+    }
+
+    public void delete(List<Long> ids) {
+        for (List<Long> chunk : chunks(ids)) {
+            jdbcTemplate.update("DELETE FROM outbox_messages WHERE id IN (" + placeholders(chunk.size()) + ")", chunk.toArray());
+        }
+    }
+
+    // Creation time of the oldest unpublished message, or null when the outbox is empty
+    public LocalDateTime oldestCreatedAt() {
+        List<Timestamp> oldest = jdbcTemplate.queryForList(
+                "SELECT created_at FROM outbox_messages ORDER BY id LIMIT 1", Timestamp.class);
+        return oldest.isEmpty() ? null : oldest.get(0).toLocalDateTime();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Outbox payload not serializable: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_IN_LIST) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + MAX_IN_LIST)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
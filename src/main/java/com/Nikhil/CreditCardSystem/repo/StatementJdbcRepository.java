@@ -0,0 +1,113 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.CardStatement;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based reads and writes of the statement job, one card-id chunk at a time.
+ */
+@Repository
+public class StatementJdbcRepository {
+
+    // Cards that existed in the month, with last month's closing balance when there is one
+    private static final String CARDS_SQL =
+            "SELECT c.id, c.total_balance_minor, s.closing_balance_minor FROM credit_card c "
+                    + "LEFT JOIN card_statements s ON s.card_id = c.id AND s.statement_month = ? "
+                    + "WHERE c.id BETWEEN ? AND ? AND (c.issue_date IS NULL OR c.issue_date < ?) ORDER BY c.id";
+
+    private static final String NET_SINCE_SQL =
+            "SELECT card_id, SUM(CASE WHEN transaction_type = 'CREDIT' THEN amount_minor ELSE -amount_minor END) "
+                    + "FROM transaction WHERE card_id BETWEEN ? AND ? AND date_time >= ? GROUP BY card_id";
+
+    private static final String PERIOD_SQL =
+            "SELECT card_id, transaction_type, amount_minor FROM transaction "
+                    + "WHERE card_id BETWEEN ? AND ? AND date_time >= ? AND date_time < ? ORDER BY card_id, date_time, id";
+
+    private static final String INSERT_STATEMENT_SQL =
+            "INSERT INTO card_statements (card_id, statement_month, opening_balance_minor, debit_total_minor, debit_count, "
+                    + "credit_total_minor, credit_count, closing_balance_minor, generated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_CHUNK_SQL =
+            "INSERT INTO statement_run_chunks (statement_month, chunk_start, card_count, completed_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    public StatementJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Same DataSource, so it joins the caller's transaction; the fetch size makes the driver use a cursor
+        this.streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingTemplate.setFetchSize(1000);
+    }
+
+    public List<CardRow> findCards(long fromCardId, long toCardId, String previousMonth, LocalDate issuedBefore) {
+        return jdbcTemplate.query(CARDS_SQL, (rs, rowNum) -> {
+                    long cardId = rs.getLong(1);
+                    long balance = rs.getLong(2);
+                    long previousClosing = rs.getLong(3);
+                    return new CardRow(cardId, balance, rs.wasNull() ? null : previousClosing);
+                },
+                previousMonth, fromCardId, toCardId, Date.valueOf(issuedBefore));
+    }
+
+    // Credits minus debits since the given time, per card with movements
+    public Map<Long, Long> netMovementSince(long fromCardId, long toCardId, LocalDateTime since) {
+        Map<Long, Long> net = new HashMap<>();
+        jdbcTemplate.query(NET_SINCE_SQL, (RowCallbackHandler) rs -> net.put(rs.getLong(1), rs.getLong(2)),
+                fromCardId, toCardId, Timestamp.valueOf(since));
+        return net;
+    }
+
+    // Streams the chunk's transactions of [from, to) ordered by card, then time
+    public void streamPeriod(long fromCardId, long toCardId, LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        streamingTemplate.query(PERIOD_SQL, handler, fromCardId, toCardId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public void insertStatements(List<CardStatement> statements) {
+        jdbcTemplate.batchUpdate(INSERT_STATEMENT_SQL, statements, statements.size(), (ps, statement) -> {
+            ps.setLong(1, statement.getCardId());
+            ps.setString(2, statement.getStatementMonth());
+            ps.setLong(3, statement.getOpeningBalance());
+            ps.setLong(4, statement.getDebitTotal());
+            ps.setLong(5, statement.getDebitCount());
+            ps.setLong(6, statement.getCreditTotal());
+            ps.setLong(7, statement.getCreditCount());
+            ps.setLong(8, statement.getClosingBalance());
+            ps.setTimestamp(9, Timestamp.valueOf(statement.getGeneratedAt()));
+        });
+    }
+
+    public void checkpoint(String month, long chunkStart, int cardCount) {
+        jdbcTemplate.update(INSERT_CHUNK_SQL, month, chunkStart, cardCount, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public Set<Long> completedChunks(String month) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT chunk_start FROM statement_run_chunks WHERE statement_month = ?", Long.class, month));
+    }
+
+    public void deleteForCard(Long cardId) {
+        jdbcTemplate.update("DELETE FROM card_statements WHERE card_id = ?", cardId);
+    }
+
+    public void deleteForCustomer(Long customerId) {
+        jdbcTemplate.update("DELETE FROM card_statements WHERE card_id IN (SELECT id FROM credit_card WHERE customer_id = ?)",
+                customerId);
+    }
+
+    public record CardRow(long cardId, long balance, Long previousClosing) {
+    }
+}
@@ -2,8 +2,33 @@ package com.Nikhil.CreditCardSystem.repo;
 
 
 import com.Nikhil.CreditCardSystem.Entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-}
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
 
+    // Cursor-backed stream for exports: must be consumed inside a (read-only) transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t join fetch t.creditCard c "
+            + "where c.customer.id = :customerId order by t.dateTime asc, t.id asc")
+    Stream<Transaction> streamByCustomerId(@Param("customerId") Long customerId);
+
+    // Statement lines: one card's transactions of a period, oldest first
+    @Query("select t from Transaction t where t.creditCard.id = :cardId "
+            + "and t.dateTime >= :from and t.dateTime < :to order by t.dateTime asc, t.id asc")
+    List<Transaction> findForPeriod(@Param("cardId") Long cardId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,54 @@
+package com.Nikhil.CreditCardSystem.repo;
+
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.Entity.Transaction;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Composable SQL-side filters for transaction queries.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    // Fetch-joins the card (needed for the DTO card number) and filters on its owner
+    @SuppressWarnings("unchecked")
+    public static Specification<Transaction> forCustomer(Long customerId) {
+        return (root, query, cb) -> {
+            Join<Transaction, CreditCard> card = (Join<Transaction, CreditCard>) root.<Transaction, CreditCard>fetch("creditCard");
+            return cb.equal(card.get("customer").get("id"), customerId);
+        };
+    }
+
+    public static Specification<Transaction> ofType(String transactionType) {
+        return (root, query, cb) -> transactionType == null
+                ? null
+                : cb.equal(root.get("transactionType"), transactionType);
+    }
+
+    public static Specification<Transaction> from(LocalDateTime from) {
+        return (root, query, cb) -> from == null
+                ? null
+                : cb.greaterThanOrEqualTo(root.get("dateTime"), from);
+    }
+
+    public static Specification<Transaction> to(LocalDateTime to) {
+        return (root, query, cb) -> to == null
+                ? null
+                : cb.lessThan(root.get("dateTime"), to);
+    }
+
+    // Keyset predicate for "newest first": (dateTime, id) < (cursorTime, cursorId)
+    public static Specification<Transaction> before(LocalDateTime cursorTime, Long cursorId) {
+        return (root, query, cb) -> cursorTime == null
+                ? null
+                : cb.or(
+                        cb.lessThan(root.get("dateTime"), cursorTime),
+                        cb.and(cb.equal(root.get("dateTime"), cursorTime),
+                                cb.lessThan(root.get("id"), cursorId)));
+    }
+}
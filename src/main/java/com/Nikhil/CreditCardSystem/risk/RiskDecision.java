@@ -0,0 +1,17 @@
+package com.Nikhil.CreditCardSystem.risk;
+
+import java.util.List;
+
+/**
+ * Outcome of a risk assessment. Score is the highest rule usage in percent (100 = at a threshold).
+ */
+public record RiskDecision(Action action, int score, List<String> rules) {
+
+    public enum Action { APPROVE, FLAG, DECLINE }
+
+    public static final RiskDecision APPROVED = new RiskDecision(Action.APPROVE, 0, List.of());
+
+    public boolean declined() {
+        return action == Action.DECLINE;
+    }
+}
@@ -0,0 +1,43 @@
+package com.Nikhil.CreditCardSystem.risk;
+
+import com.Nikhil.CreditCardSystem.util.Money;
+
+import java.util.Locale;
+
+/**
+ * A velocity threshold: "name=SCOPE.METRIC.WINDOW>threshold:ACTION", e.g.
+ * "card-burst=CARD.COUNT.1m>5:DECLINE" or "card-hourly=CARD.AMOUNT.1h>50000:FLAG".
+ * AMOUNT thresholds are rupees; the debit being assessed is included in the value.
+ */
+public record RiskRule(String name, Scope scope, Metric metric, VelocityCounters.Window window,
+                       long threshold, RiskDecision.Action action) {
+
+    public enum Scope { CARD, CUSTOMER }
+
+    public enum Metric { COUNT, AMOUNT }
+
+    public static RiskRule parse(String spec) {
+        try {
+            String[] named = spec.trim().split("=", 2);
+            String[] condition = named[1].split(">", 2);
+            String[] target = condition[0].trim().split("\\.");
+            String[] limit = condition[1].split(":", 2);
+            Metric metric = Metric.valueOf(target[1].toUpperCase(Locale.ROOT));
+            long threshold = metric == Metric.AMOUNT ? Money.parse(limit[0].trim()) : Long.parseLong(limit[0].trim());
+            return new RiskRule(named[0].trim(),
+                    Scope.valueOf(target[0].toUpperCase(Locale.ROOT)),
+                    metric,
+                    VelocityCounters.Window.of(target[2]),
+                    threshold,
+                    RiskDecision.Action.valueOf(limit[1].trim().toUpperCase(Locale.ROOT)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid risk rule '" + spec + "'", ex);
+        }
+    }
+
+    // Value of this rule's metric over its window, the debit being assessed included
+    long value(long[] stats, long amount) {
+        int slot = window.ordinal() * 2;
+        return metric == Metric.COUNT ? stats[slot] + 1 : stats[slot + 1] + amount;
+    }
+}
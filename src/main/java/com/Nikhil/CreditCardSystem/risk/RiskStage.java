@@ -0,0 +1,14 @@
+package com.Nikhil.CreditCardSystem.risk;
+
+/**
+ * Scores a debit before it is applied. Implementations must be in-memory and cheap: assess() runs
+ * on every debit, inside the request.
+ */
+public interface RiskStage {
+
+    // ✅ Decision for a debit that is about to be applied
+    RiskDecision assess(Long customerId, String cardNumber, long amount);
+
+    // ✅ Called once the debit has been applied, so it counts towards later decisions
+    void record(Long customerId, String cardNumber, long amount);
+}
@@ -0,0 +1,158 @@
+package com.Nikhil.CreditCardSystem.risk;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Debit count and amount per key over the last minute, hour and day.
+ *
+ * Each key owns one long[] of ring buffers: every window is split into a few buckets, and a
+ * bucket holds (bucket epoch, count) packed into one long plus the amount in the next. Adding
+ * overwrites a bucket whose epoch is stale; reading sums the buckets still inside the window. The
+ * windows therefore slide one bucket at a time (10 s, 10 min, 3 h), which keeps a key at 20
+ * buckets (~340 bytes) so a million active cards fit in memory.
+ *
+ * Updates and reads of a key run under one of a fixed set of striped locks.
+ */
+public final class VelocityCounters<K> {
+
+    public enum Window {
+        ONE_MINUTE("1m", 0, 6, 10_000L),
+        ONE_HOUR("1h", 6, 6, 600_000L),
+        ONE_DAY("24h", 12, 8, 10_800_000L);
+
+        private final String label;
+        private final int offset;
+        private final int buckets;
+        private final long bucketMillis;
+
+        Window(String label, int offset, int buckets, long bucketMillis) {
+            this.label = label;
+            this.offset = offset;
+            this.buckets = buckets;
+            this.bucketMillis = bucketMillis;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Window of(String label) {
+            String value = label.trim().toLowerCase(Locale.ROOT);
+            for (Window window : values()) {
+                if (window.label.equals(value)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown window '" + label + "', expected 1m, 1h or 24h");
+        }
+    }
+
+    // stats[] layout for read(): count and amount per window, in Window order
+    public static final int STATS_LENGTH = Window.values().length * 2;
+
+    private static final int BUCKETS = 20;
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int STRIPES = 256;
+
+    private final ConcurrentHashMap<K, long[]> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public VelocityCounters() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // ✅ Count one debit of amount at time now
+    public void add(K key, long amount, long now) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            long[] data = counters.computeIfAbsent(key, k -> new long[BUCKETS * 2]);
+            for (Window window : Window.values()) {
+                long epoch = now / window.bucketMillis;
+                int slot = (window.offset + (int) (epoch % window.buckets)) * 2;
+                long packed = data[slot];
+                if (packed >>> COUNT_BITS == epoch) {
+                    data[slot] = (epoch << COUNT_BITS) | Math.min((packed & COUNT_MASK) + 1, COUNT_MASK);
+                    data[slot + 1] += amount;
+                } else {
+                    data[slot] = (epoch << COUNT_BITS) | 1;
+                    data[slot + 1] = amount;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ✅ Fills stats with count / amount per window at time now; zeros for an unknown key
+    public void read(K key, long now, long[] stats) {
+        Arrays.fill(stats, 0L);
+        long[] data = counters.get(key);
+        if (data == null) {
+            return;
+        }
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            for (Window window : Window.values()) {
+                long oldest = now / window.bucketMillis - window.buckets;
+                long count = 0;
+                long amount = 0;
+                for (int i = 0; i < window.buckets; i++) {
+                    int slot = (window.offset + i) * 2;
+                    if (data[slot] >>> COUNT_BITS > oldest) {
+                        count += data[slot] & COUNT_MASK;
+                        amount += data[slot + 1];
+                    }
+                }
+                stats[window.ordinal() * 2] = count;
+                stats[window.ordinal() * 2 + 1] = amount;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ✅ Drops keys without a debit in the last day; returns how many were removed
+    public int purge(long now) {
+        long oldest = now / Window.ONE_DAY.bucketMillis - Window.ONE_DAY.buckets;
+        int removed = 0;
+        for (K key : counters.keySet()) {
+            ReentrantLock lock = lockFor(key);
+            lock.lock();
+            try {
+                long[] data = counters.get(key);
+                if (data != null && newestDayEpoch(data) <= oldest) {
+                    counters.remove(key);
+                    removed++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    private static long newestDayEpoch(long[] data) {
+        long newest = 0;
+        for (int i = 0; i < Window.ONE_DAY.buckets; i++) {
+            newest = Math.max(newest, data[(Window.ONE_DAY.offset + i) * 2] >>> COUNT_BITS);
+        }
+        return newest;
+    }
+
+    private ReentrantLock lockFor(K key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,160 @@
+package com.Nikhil.CreditCardSystem.risk;
+
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import com.Nikhil.CreditCardSystem.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Velocity rules over per-card and per-customer debit counters (see {@link VelocityCounters}).
+ *
+ * A debit is declined when a DECLINE rule would be exceeded by it, flagged when only FLAG rules
+ * would; declined and flagged decisions go to the audit log, approvals are only counted. Nothing
+ * here touches the DB, and counters live only in this instance.
+ */
+@Component
+public class VelocityRiskStage implements RiskStage {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VelocityRiskStage.class);
+
+    // Flag only: declining debits is opted into per rule
+    static final String DEFAULT_RULES = "card-burst=CARD.COUNT.1m>5:FLAG;"
+            + "card-hourly-amount=CARD.AMOUNT.1h>50000:FLAG;"
+            + "customer-daily-count=CUSTOMER.COUNT.24h>100:FLAG";
+
+    private final UserActionLogService userActionLogService;
+    private final boolean enabled;
+    private final RiskRule[] cardRules;
+    private final RiskRule[] customerRules;
+
+    private final VelocityCounters<String> cardCounters = new VelocityCounters<>();
+    private final VelocityCounters<Long> customerCounters = new VelocityCounters<>();
+
+    private final LongAdder approved = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+
+    public VelocityRiskStage(UserActionLogService userActionLogService,
+                             @Value("${creditcard.risk.enabled:true}") boolean enabled,
+                             @Value("${creditcard.risk.rules:" + DEFAULT_RULES + "}") String rules) {
+        this.userActionLogService = userActionLogService;
+        this.enabled = enabled;
+        List<RiskRule> card = new ArrayList<>();
+        List<RiskRule> customer = new ArrayList<>();
+        for (String spec : rules.split(";")) {
+            if (spec.isBlank()) {
+                continue;
+            }
+            RiskRule rule = RiskRule.parse(spec);
+            (rule.scope() == RiskRule.Scope.CARD ? card : customer).add(rule);
+        }
+        this.cardRules = card.toArray(new RiskRule[0]);
+        this.customerRules = customer.toArray(new RiskRule[0]);
+        LOGGER.info("Risk stage {} with {} card rule(s) and {} customer rule(s)",
+                enabled ? "enabled" : "disabled", cardRules.length, customerRules.length);
+    }
+
+    @Override
+    public RiskDecision assess(Long customerId, String cardNumber, long amount) {
+        if (!enabled) {
+            return RiskDecision.APPROVED;
+        }
+        long now = System.currentTimeMillis();
+        long[] stats = new long[VelocityCounters.STATS_LENGTH];
+        Evaluation evaluation = new Evaluation();
+        if (cardRules.length > 0) {
+            cardCounters.read(cardNumber, now, stats);
+            evaluation.apply(cardRules, stats, amount);
+        }
+        if (customerRules.length > 0) {
+            customerCounters.read(customerId, now, stats);
+            evaluation.apply(customerRules, stats, amount);
+        }
+
+        if (evaluation.matched == null) {
+            approved.increment();
+            return evaluation.score == 0 ? RiskDecision.APPROVED
+                    : new RiskDecision(RiskDecision.Action.APPROVE, evaluation.score, List.of());
+        }
+        RiskDecision decision = new RiskDecision(evaluation.action, evaluation.score, List.copyOf(evaluation.matched));
+        (decision.declined() ? declined : flagged).increment();
+        LOGGER.warn("Risk {} for debit of ₹{} on card {} (customer {}): score {}, rules {}", decision.action(),
+                Money.format(amount), cardNumber, customerId, decision.score(), decision.rules());
+        userActionLogService.logAction("RISK_ENGINE",
+                "Risk check of debit ₹" + Money.format(amount) + " on Card " + cardNumber
+                        + " (Customer ID " + customerId + "): score " + decision.score() + ", rules " + decision.rules(),
+                decision.declined() ? "DECLINED" : "FLAGGED");
+        return decision;
+    }
+
+    @Override
+    public void record(Long customerId, String cardNumber, long amount) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        cardCounters.add(cardNumber, amount, now);
+        customerCounters.add(customerId, amount, now);
+    }
+
+    // ✅ Forget cards and customers idle for more than a day
+    @Scheduled(fixedDelayString = "${creditcard.risk.purge-interval-ms:600000}")
+    public void purgeIdle() {
+        long now = System.currentTimeMillis();
+        int removed = cardCounters.purge(now) + customerCounters.purge(now);
+        if (removed > 0) {
+            LOGGER.info("Risk counters purged for {} idle card(s)/customer(s)", removed);
+        }
+    }
+
+    public int getTrackedCardCount() {
+        return cardCounters.size();
+    }
+
+    public int getTrackedCustomerCount() {
+        return customerCounters.size();
+    }
+
+    public long getApprovedCount() {
+        return approved.sum();
+    }
+
+    public long getFlaggedCount() {
+        return flagged.sum();
+    }
+
+    public long getDeclinedCount() {
+        return declined.sum();
+    }
+
+    // Running result over the rules; matched stays null (no allocation) while nothing is exceeded
+    private static final class Evaluation {
+        private int score;
+        private RiskDecision.Action action;
+        private List<String> matched;
+
+        void apply(RiskRule[] rules, long[] stats, long amount) {
+            for (RiskRule rule : rules) {
+                long value = rule.value(stats, amount);
+                long percent = rule.threshold() <= 0 ? 1000 : Math.min(1000, value * 100 / rule.threshold());
+                score = (int) Math.max(score, percent);
+                if (value > rule.threshold()) {
+                    if (matched == null) {
+                        matched = new ArrayList<>(2);
+                    }
+                    matched.add(rule.name());
+                    if (action != RiskDecision.Action.DECLINE) {
+                        action = rule.action();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.dto.CustomerDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Size-bounded local caches of card and customer reads: card by id, the cards of a customer, and
+ * customer details (without cards).
+ *
+ * Entries are evicted by every path that changes what they hold (card create / update / delete,
+ * DB debits and credits, customer update / delete), once right away and once more after the
+ * surrounding transaction commits, so a reader that re-cached the pre-commit row in between does
+ * not keep it. Balances of cards held by the hot ledger are overlaid on read, never cached.
+ * Entries also expire after ttl-ms as a backstop for writes from other instances.
+ * Hit / miss / eviction counts are published as the standard cache.* meters (cache=account.*).
+ */
+@Service
+public class AccountCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountCache.class);
+
+    // Cached card view; ownerName is the customer's name, used for the audit log
+    public record CachedCard(Long cardId, Long customerId, String ownerName, CreditCardDto card) {
+    }
+
+    private final boolean enabled;
+    private final Cache<Long, CachedCard> cards;
+    private final Cache<Long, List<CachedCard>> customerCards;
+    private final Cache<Long, CustomerDto> customers;
+
+    public AccountCache(@Value("${creditcard.cache.enabled:true}") boolean enabled,
+                        @Value("${creditcard.cache.cards.max-size:100000}") long maxCards,
+                        @Value("${creditcard.cache.customers.max-size:50000}") long maxCustomers,
+                        @Value("${creditcard.cache.ttl-ms:300000}") long ttlMs) {
+        this.enabled = enabled;
+        Duration ttl = Duration.ofMillis(ttlMs);
+        this.cards = Caffeine.newBuilder().maximumSize(maxCards).expireAfterWrite(ttl).recordStats().build();
+        this.customerCards = Caffeine.newBuilder().maximumSize(maxCustomers).expireAfterWrite(ttl).recordStats().build();
+        this.customers = Caffeine.newBuilder().maximumSize(maxCustomers).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    // Loaders return null for a missing row; nothing is cached then
+    public CachedCard getCard(Long cardId, Function<Long, CachedCard> loader) {
+        return enabled ? cards.get(cardId, loader) : loader.apply(cardId);
+    }
+
+    public List<CachedCard> getCustomerCards(Long customerId, Function<Long, List<CachedCard>> loader) {
+        return enabled ? customerCards.get(customerId, loader) : loader.apply(customerId);
+    }
+
+    public CustomerDto getCustomer(Long customerId, Function<Long, CustomerDto> loader) {
+        return enabled ? customers.get(customerId, loader) : loader.apply(customerId);
+    }
+
+    // ✅ A card changed (balance, details, created or deleted); cardId is null for a new card
+    public void evictCard(Long cardId, Long customerId) {
+        afterCommitToo(() -> {
+            if (cardId != null) {
+                cards.invalidate(cardId);
+            }
+            if (customerId != null) {
+                customerCards.invalidate(customerId);
+            }
+        });
+    }
+
+    // ✅ A customer changed or was deleted, together with everything cached of their cards
+    public void evictCustomer(Long customerId) {
+        if (customerId == null) {
+            return;
+        }
+        afterCommitToo(() -> {
+            customers.invalidate(customerId);
+            customerCards.invalidate(customerId);
+            cards.asMap().values().removeIf(card -> customerId.equals(card.customerId()));
+        });
+    }
+
+    private static void afterCommitToo(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cards, "account.cards");
+        CaffeineCacheMetrics.monitor(registry, customerCards, "account.customer-cards");
+        CaffeineCacheMetrics.monitor(registry, customers, "account.customers");
+    }
+
+    @Scheduled(fixedDelayString = "${creditcard.cache.stats-log-ms:300000}",
+            initialDelayString = "${creditcard.cache.stats-log-ms:300000}")
+    public void logStats() {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Account cache: cards {}, customer cards {}, customers {}",
+                describe(cards), describe(customerCards), describe(customers));
+    }
+
+    private static String describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return String.format("size=%d hitRatio=%.3f evictions=%d", cache.estimatedSize(), stats.hitRate(),
+                stats.evictionCount());
+    }
+
+    public CacheStats getCardStats() {
+        return cards.stats();
+    }
+
+    public CacheStats getCustomerCardsStats() {
+        return customerCards.stats();
+    }
+
+    public CacheStats getCustomerStats() {
+        return customers.stats();
+    }
+
+    public long getCardCount() {
+        return cards.estimatedSize();
+    }
+
+    public long getCustomerCount() {
+        return customers.estimatedSize();
+    }
+}
@@ -0,0 +1,309 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.dto.CardOperationRequest;
+import com.Nikhil.CreditCardSystem.dto.CardOperationResult;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.ledger.BalanceRules;
+import com.Nikhil.CreditCardSystem.ledger.BusinessDay;
+import com.Nikhil.CreditCardSystem.ledger.CardLimits;
+import com.Nikhil.CreditCardSystem.ledger.HotLedger;
+import com.Nikhil.CreditCardSystem.ledger.LedgerEntry;
+import com.Nikhil.CreditCardSystem.ledger.LimitPolicyEngine;
+import com.Nikhil.CreditCardSystem.metrics.TransactionMetrics;
+import com.Nikhil.CreditCardSystem.repo.AggregateJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.repo.LedgerJdbcRepository;
+import com.Nikhil.CreditCardSystem.risk.RiskDecision;
+import com.Nikhil.CreditCardSystem.risk.RiskStage;
+import com.Nikhil.CreditCardSystem.util.Money;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bulk debit / credit for settlement jobs.
+ *
+ * Instructions are grouped by card (keeping their order inside a card) and every group is
+ * applied in one DB transaction: the card is read once, each instruction is checked with the
+ * same {@link BalanceRules} as the single-item endpoints, and all resulting transaction rows are
+ * written with one JDBC batch. A failing instruction only fails itself; the result array has one
+ * entry per instruction, in request order.
+ */
+@Service
+public class CardBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardBatchService.class);
+
+    private final CreditCardRepository creditCardRepository;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final AggregateJdbcRepository aggregateJdbcRepository;
+    private final CardEventJdbcRepository cardEventJdbcRepository;
+    private final HotLedger hotLedger;
+    private final UserActionLogService userActionLogService;
+    private final TransactionTemplate transactionTemplate;
+    private final BusinessDay businessDay;
+    private final LimitPolicyEngine limitPolicyEngine;
+    private final RiskStage riskStage;
+    private final AccountCache accountCache;
+    private final TransactionMetrics transactionMetrics;
+
+    @Value("${creditcard.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    // Bulk debits (settlements, imports) come in bursts the velocity rules would misread; off by default
+    @Value("${creditcard.batch.risk-checks:false}")
+    private boolean riskChecks;
+
+    public CardBatchService(CreditCardRepository creditCardRepository,
+                            LedgerJdbcRepository ledgerJdbcRepository,
+                            AggregateJdbcRepository aggregateJdbcRepository,
+                            CardEventJdbcRepository cardEventJdbcRepository,
+                            HotLedger hotLedger,
+                            UserActionLogService userActionLogService,
+                            TransactionTemplate transactionTemplate,
+                            BusinessDay businessDay,
+                            LimitPolicyEngine limitPolicyEngine,
+                            RiskStage riskStage,
+                            AccountCache accountCache,
+                            TransactionMetrics transactionMetrics) {
+        this.creditCardRepository = creditCardRepository;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.aggregateJdbcRepository = aggregateJdbcRepository;
+        this.cardEventJdbcRepository = cardEventJdbcRepository;
+        this.hotLedger = hotLedger;
+        this.userActionLogService = userActionLogService;
+        this.transactionTemplate = transactionTemplate;
+        this.businessDay = businessDay;
+        this.limitPolicyEngine = limitPolicyEngine;
+        this.riskStage = riskStage;
+        this.accountCache = accountCache;
+        this.transactionMetrics = transactionMetrics;
+    }
+
+    public ResponseEntity<ResponseStructure<List<CardOperationResult>>> process(List<CardOperationRequest> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new InvalidInputException("Batch must contain at least one operation");
+        }
+        if (operations.size() > maxBatchSize) {
+            throw new InvalidInputException("Batch size " + operations.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+
+        logger.info("Processing batch of {} card operations", operations.size());
+        CardOperationResult[] results = new CardOperationResult[operations.size()];
+
+        // ✅ Validate input and group by card, keeping request order within a card
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            CardOperationRequest op = operations.get(i);
+            String error = validate(op);
+            if (error != null) {
+                results[i] = failed(i, op, error);
+                continue;
+            }
+            groups.computeIfAbsent(op.getCustomerId() + ":" + op.getCardNumber(), key -> new ArrayList<>()).add(i);
+        }
+
+        for (List<Integer> group : groups.values()) {
+            if (hotLedger.isEnabled()) {
+                applyToHotLedger(operations, group, results);
+            } else {
+                applyGroup(operations, group, results);
+            }
+        }
+        // ✅ Journal mode: one fsync for the whole batch, before anything is acknowledged
+        hotLedger.awaitDurable();
+
+        long succeeded = 0;
+        for (int i = 0; i < results.length; i++) {
+            if ("SUCCESS".equals(results[i].getStatus())) {
+                succeeded++;
+                transactionMetrics.record(operations.get(i).getType(), operations.get(i).getAmount());
+            }
+        }
+        logger.info("Batch done: {} succeeded, {} failed", succeeded, results.length - succeeded);
+
+        ResponseStructure<List<CardOperationResult>> structure = new ResponseStructure<>();
+        structure.setMessage("Processed " + results.length + " operations: " + succeeded + " succeeded, "
+                + (results.length - succeeded) + " failed");
+        structure.setHttpstatus("SUCCESS");
+        structure.setData(List.of(results));
+        return ResponseEntity.ok(structure);
+    }
+
+    // ✅ One DB transaction per card: single read, in-memory checks, batched inserts
+    private void applyGroup(List<CardOperationRequest> operations, List<Integer> group, CardOperationResult[] results) {
+        CardOperationRequest first = operations.get(group.get(0));
+        String customerName = null;
+        try {
+            customerName = transactionTemplate.execute(status -> {
+                Optional<CreditCard> found = creditCardRepository.findForUpdate(
+                        first.getCardNumber(), first.getCustomerId());
+                if (found.isEmpty()) {
+                    for (int index : group) {
+                        results[index] = failed(index, operations.get(index), "Card not found for customer");
+                    }
+                    return null;
+                }
+                CreditCard card = found.get();
+                businessDay.rollOver(card);
+                CardLimits limits = limitPolicyEngine.limitsFor(card.getId(), card.getCardType());
+                List<LedgerEntry> entries = new ArrayList<>(group.size());
+                for (int index : group) {
+                    CardOperationRequest op = operations.get(index);
+                    long amount = op.getAmount();
+                    try {
+                        if ("DEBIT".equals(op.getType())) {
+                            checkRisk(op);
+                            BalanceRules.checkDebit(card.getTotalBalance(), card.getDailyDebitedAmount(), amount,
+                                    limits.maxWithdrawalLimit(), limits.dailyDebitLimit());
+                            card.setTotalBalance(card.getTotalBalance() - amount);
+                            card.setDailyDebitedAmount(card.getDailyDebitedAmount() + amount);
+                            entries.add(new LedgerEntry(card.getId(), "DEBIT", amount, card.getCardType(),
+                                    "Debited ₹" + Money.format(amount), LocalDateTime.now()));
+                            // Counted right away so later debits of the batch see it (a rollback over-counts)
+                            recordRisk(op);
+                        } else {
+                            BalanceRules.checkCredit(card.getDailyCreditedAmount(), amount,
+                                    limits.maxCreditLimit(), limits.dailyCreditLimit());
+                            card.setTotalBalance(card.getTotalBalance() + amount);
+                            card.setDailyCreditedAmount(card.getDailyCreditedAmount() + amount);
+                            entries.add(new LedgerEntry(card.getId(), "CREDIT", amount, card.getCardType(),
+                                    "Credited ₹" + Money.format(amount), LocalDateTime.now()));
+                        }
+                        results[index] = succeeded(index, op, card.getTotalBalance());
+                    } catch (RuntimeException ex) {
+                        results[index] = failed(index, op, ex.getMessage());
+                    }
+                }
+                ledgerJdbcRepository.insertTransactions(entries);
+                aggregateJdbcRepository.apply(entries);
+                // Card changes are flushed by dirty checking; written before the events are appended
+                creditCardRepository.flush();
+                cardEventJdbcRepository.appendMovements(entries);
+                if (!entries.isEmpty()) {
+                    accountCache.evictCard(card.getId(), card.getCustomer().getId());
+                }
+                return card.getCustomer().getName();
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Batch group for card {} rolled back: {}", first.getCardNumber(), ex.getMessage());
+            for (int index : group) {
+                results[index] = failed(index, operations.get(index), "Rolled back: " + ex.getMessage());
+            }
+        }
+        logGroup(customerName, first, group, results);
+    }
+
+    private void applyToHotLedger(List<CardOperationRequest> operations, List<Integer> group, CardOperationResult[] results) {
+        String customerName = null;
+        for (int index : group) {
+            CardOperationRequest op = operations.get(index);
+            try {
+                HotLedger.Posting posting;
+                if ("DEBIT".equals(op.getType())) {
+                    checkRisk(op);
+                    posting = hotLedger.debit(op.getCustomerId(), op.getCardNumber(), op.getAmount(), false);
+                    recordRisk(op);
+                } else {
+                    posting = hotLedger.credit(op.getCustomerId(), op.getCardNumber(), op.getAmount(), false);
+                }
+                customerName = posting.card().getCustomerName();
+                results[index] = succeeded(index, op, posting.balance().totalBalance());
+            } catch (RuntimeException ex) {
+                results[index] = failed(index, op, ex.getMessage());
+            }
+        }
+        logGroup(customerName, operations.get(group.get(0)), group, results);
+    }
+
+    private void checkRisk(CardOperationRequest op) {
+        if (!riskChecks) {
+            return;
+        }
+        RiskDecision risk = riskStage.assess(op.getCustomerId(), op.getCardNumber(), op.getAmount());
+        if (risk.declined()) {
+            throw new ValidationException("Debit declined by risk checks: " + String.join(", ", risk.rules()));
+        }
+    }
+
+    private void recordRisk(CardOperationRequest op) {
+        if (riskChecks) {
+            riskStage.record(op.getCustomerId(), op.getCardNumber(), op.getAmount());
+        }
+    }
+
+    // One audit record per card group instead of one per instruction
+    private void logGroup(String customerName, CardOperationRequest first, List<Integer> group, CardOperationResult[] results) {
+        int ok = 0;
+        for (int index : group) {
+            if ("SUCCESS".equals(results[index].getStatus())) {
+                ok++;
+            }
+        }
+        userActionLogService.logAction(
+                customerName != null ? customerName : "Unknown",
+                "Batch of " + group.size() + " operations on Card " + first.getCardNumber()
+                        + " (Customer ID " + first.getCustomerId() + "): " + ok + " succeeded",
+                ok == group.size() ? "SUCCESS" : "FAILED: " + (group.size() - ok) + " operation(s) rejected"
+        );
+    }
+
+    private static String validate(CardOperationRequest op) {
+        if (op == null) {
+            return "Operation cannot be null";
+        }
+        if (op.getCustomerId() == null || op.getCustomerId() <= 0) {
+            return "Customer ID must be valid and greater than zero";
+        }
+        if (op.getCardNumber() == null || op.getCardNumber().trim().isEmpty()) {
+            return "Card number cannot be null or empty";
+        }
+        if (op.getAmount() <= 0) {
+            return "Amount must be greater than zero";
+        }
+        if (!"DEBIT".equals(op.getType()) && !"CREDIT".equals(op.getType())) {
+            return "Type must be DEBIT or CREDIT";
+        }
+        return null;
+    }
+
+    private static CardOperationResult succeeded(int index, CardOperationRequest op, long balanceAfter) {
+        CardOperationResult result = result(index, op);
+        result.setStatus("SUCCESS");
+        result.setMessage("DEBIT".equals(op.getType()) ? "Amount debited" : "Amount credited");
+        result.setBalanceAfter(balanceAfter);
+        return result;
+    }
+
+    private static CardOperationResult failed(int index, CardOperationRequest op, String message) {
+        CardOperationResult result = result(index, op);
+        result.setStatus("FAILED");
+        result.setMessage(message);
+        return result;
+    }
+
+    private static CardOperationResult result(int index, CardOperationRequest op) {
+        CardOperationResult result = new CardOperationResult();
+        result.setIndex(index);
+        if (op != null) {
+            result.setCardNumber(op.getCardNumber());
+            result.setType(op.getType());
+            result.setAmount(op.getAmount());
+        }
+        return result;
+    }
+}
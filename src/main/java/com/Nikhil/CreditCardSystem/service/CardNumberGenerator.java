@@ -0,0 +1,186 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.CardNumberSequence;
+import com.Nikhil.CreditCardSystem.repo.CardNumberSequenceRepository;
+import com.Nikhil.CreditCardSystem.util.CardNumbers;
+import com.Nikhil.CreditCardSystem.util.FeistelPermutation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issues unique, Luhn-valid card numbers: BIN of the card type + permuted account number + check digit.
+ *
+ * Each BIN has a sequence in card_number_sequences. A block of sequence values is reserved with
+ * one locked UPDATE and shared by all threads: an atomic cursor hands values out without touching
+ * the DB, and when the block is used up one thread reserves the next under a lock while the others
+ * wait for it. Blocks are not kept per thread, so a virtual thread per request still draws from the
+ * same block. The sequence value is passed through a keyed Feistel permutation of the account number space, so
+ * numbers are unique by construction yet not guessable from their neighbours.
+ *
+ * The permutation key and BIN table must not change once numbers have been issued.
+ */
+@Service
+public class CardNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardNumberGenerator.class);
+
+    private final CardNumberSequenceRepository sequenceRepository;
+    private final TransactionTemplate reserveTransaction;
+    private final Map<String, String> binsByType = new HashMap<>();
+    private final String defaultBin;
+    private final long permutationKey;
+    private final int blockSize;
+
+    private final Map<String, FeistelPermutation> permutations = new ConcurrentHashMap<>();
+    private final Map<String, BinBlocks> blocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong blocksReserved = new AtomicLong();
+
+    public CardNumberGenerator(CardNumberSequenceRepository sequenceRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${creditcard.card-number.bins:VISA=411111,MASTERCARD=510000,RUPAY=652100}") String bins,
+                               @Value("${creditcard.card-number.default-bin:999999}") String defaultBin,
+                               @Value("${creditcard.card-number.permutation-key:7310512977}") long permutationKey,
+                               @Value("${creditcard.card-number.block-size:1000}") int blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        // Reservations commit on their own, whatever transaction the caller is in
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+        this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (String entry : bins.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length == 2) {
+                binsByType.put(parts[0].trim().toUpperCase(Locale.ROOT), checkBin(parts[1].trim()));
+            }
+        }
+        this.defaultBin = checkBin(defaultBin);
+        this.permutationKey = permutationKey;
+        this.blockSize = blockSize;
+    }
+
+    // ✅ Next card number for the card type; DB is only hit when the BIN's block is used up
+    public String next(String cardType) {
+        String bin = binFor(cardType);
+        long account = permutation(bin).permute(nextValue(bin));
+        issued.incrementAndGet();
+        return CardNumbers.compose(bin, account);
+    }
+
+    private long nextValue(String bin) {
+        BinBlocks binBlocks = blocks.computeIfAbsent(bin, key -> new BinBlocks());
+        while (true) {
+            Block block = binBlocks.current;
+            if (block != null) {
+                long value = block.cursor.getAndIncrement();
+                if (value < block.end) {
+                    return value;
+                }
+            }
+            // Used up: the first thread here reserves the next block, the rest take from it
+            binBlocks.refill.lock();
+            try {
+                if (binBlocks.current == block) {
+                    binBlocks.current = reserveBlock(bin);
+                }
+            } finally {
+                binBlocks.refill.unlock();
+            }
+        }
+    }
+
+    public String binFor(String cardType) {
+        if (cardType == null) {
+            return defaultBin;
+        }
+        return binsByType.getOrDefault(cardType.trim().toUpperCase(Locale.ROOT), defaultBin);
+    }
+
+    private FeistelPermutation permutation(String bin) {
+        return permutations.computeIfAbsent(bin,
+                key -> new FeistelPermutation(pow10(CardNumbers.accountDigits(key)), permutationKey));
+    }
+
+    // ✅ Reserve [next, next + blockSize) under a row lock
+    private Block reserveBlock(String bin) {
+        long limit = permutation(bin).getDomain();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Block block = reserveTransaction.execute(status -> {
+                    CardNumberSequence sequence = sequenceRepository.findForUpdate(bin).orElseGet(() -> {
+                        CardNumberSequence created = new CardNumberSequence();
+                        created.setBin(bin);
+                        return created;
+                    });
+                    long start = sequence.getNextValue();
+                    if (start >= limit) {
+                        throw new IllegalStateException("Card number space exhausted for BIN " + bin);
+                    }
+                    long end = Math.min(start + blockSize, limit);
+                    sequence.setNextValue(end);
+                    sequenceRepository.saveAndFlush(sequence);
+                    return new Block(start, end);
+                });
+                blocksReserved.incrementAndGet();
+                logger.info("Reserved card number block [{}, {}) for BIN {}", block.cursor.get(), block.end, bin);
+                return block;
+            } catch (DataIntegrityViolationException ex) {
+                // Another node created the sequence row first; lock it on the next attempt
+                if (attempt >= 3) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private static String checkBin(String bin) {
+        if (!bin.chars().allMatch(Character::isDigit) || bin.length() < 6 || bin.length() > 8) {
+            throw new IllegalArgumentException("BIN must be 6 to 8 digits: " + bin);
+        }
+        return bin;
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    public long getIssuedCount() {
+        return issued.get();
+    }
+
+    public long getBlocksReserved() {
+        return blocksReserved.get();
+    }
+
+    // Values [cursor, end) not yet handed out; the cursor may run past end, those values are not used
+    private static final class Block {
+        private final AtomicLong cursor;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    private static final class BinBlocks {
+        private final ReentrantLock refill = new ReentrantLock();
+        private volatile Block current;
+    }
+}
@@ -1,24 +1,39 @@
 package com.Nikhil.CreditCardSystem.service;
 
+import com.Nikhil.CreditCardSystem.Entity.CardEvent;
 import com.Nikhil.CreditCardSystem.Entity.CreditCard;
 import com.Nikhil.CreditCardSystem.Entity.Customer;
-import com.Nikhil.CreditCardSystem.Entity.Transaction;
+import com.Nikhil.CreditCardSystem.dto.CardBalanceDto;
 import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.dto.CustomerDto;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
 import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
 import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
 import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.ledger.BusinessDay;
+import com.Nikhil.CreditCardSystem.ledger.CardBalanceUpdater;
+import com.Nikhil.CreditCardSystem.ledger.CardEventStore;
+import com.Nikhil.CreditCardSystem.ledger.HotLedger;
+import com.Nikhil.CreditCardSystem.metrics.TransactionMetrics;
+import com.Nikhil.CreditCardSystem.repo.AggregateJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository;
 import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
 import com.Nikhil.CreditCardSystem.repo.CustomerRepository;
+import com.Nikhil.CreditCardSystem.repo.StatementJdbcRepository;
 import com.Nikhil.CreditCardSystem.repo.TransactionRepository;
+import com.Nikhil.CreditCardSystem.risk.RiskDecision;
+import com.Nikhil.CreditCardSystem.risk.RiskStage;
+import com.Nikhil.CreditCardSystem.util.Money;
 import com.Nikhil.CreditCardSystem.util.ResponseStructure;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
 
 
 
@@ -41,6 +56,42 @@ public class CreditCardService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private HotLedger hotLedger;
+
+    @Autowired
+    private BusinessDay businessDay;
+
+    @Autowired
+    private CardBalanceUpdater balanceUpdater;
+
+    @Autowired
+    private CardNumberGenerator cardNumberGenerator;
+
+    @Autowired
+    private RiskStage riskStage;
+
+    @Autowired
+    private AggregateJdbcRepository aggregateJdbcRepository;
+
+    @Autowired
+    private StatementJdbcRepository statementJdbcRepository;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private TransactionMetrics transactionMetrics;
+
+    @Autowired
+    private CardEventJdbcRepository cardEventJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CardEventStore cardEventStore;
+
 
 
     public CreditCardService(CustomerRepository customerRepository,
@@ -51,13 +102,9 @@ public class CreditCardService {
         this.transactionRepository = transactionRepository;
     }
 
-    // ✅ Generate unique card number
-    private String generateUniqueCardNumber() {
-        String cardNumber;
-        do {
-            cardNumber = String.valueOf(1_0000_0000_0000_000L + new Random().nextLong(9_0000_0000_0000_000L));
-        } while (creditCardRepository.existsByCardNumber(cardNumber));
-
+    // ✅ Generate unique card number (BIN of the card type, no DB lookup per card)
+    private String generateUniqueCardNumber(String type) {
+        String cardNumber = cardNumberGenerator.next(type);
         logger.info("Generated unique card number: {}", cardNumber);
         return cardNumber;
     }
@@ -72,11 +119,91 @@ public class CreditCardService {
         dto.setTotalBalance(card.getTotalBalance());
         dto.setIssueDate(card.getIssueDate());
         dto.setExpiryDate(card.getExpiryDate());
+        return withLiveBalance(card.getId(), dto);
+    }
+
+    // ✅ Convert cached card to DTO (a copy, the cached one is shared)
+    private CreditCardDto toDto(AccountCache.CachedCard cached) {
+        CreditCardDto card = cached.card();
+        CreditCardDto dto = new CreditCardDto();
+        dto.setCardHolderName(card.getCardHolderName());
+        dto.setActive(card.isActive());
+        dto.setCardType(card.getCardType());
+        dto.setCardNumber(card.getCardNumber());
+        dto.setTotalBalance(card.getTotalBalance());
+        dto.setIssueDate(card.getIssueDate());
+        dto.setExpiryDate(card.getExpiryDate());
+        return withLiveBalance(cached.cardId(), dto);
+    }
+
+    // Hot ledger holds the latest balance until it is written behind
+    private CreditCardDto withLiveBalance(Long cardId, CreditCardDto dto) {
+        HotLedger.Balance hot = hotLedger.peek(cardId);
+        if (hot != null) {
+            dto.setTotalBalance(hot.totalBalance());
+        }
+        return dto;
+    }
+
+    private AccountCache.CachedCard loadCard(Long cardId) {
+        return creditCardRepository.findById(cardId).map(this::toCached).orElse(null);
+    }
+
+    private CustomerDto loadCustomer(Long customerId) {
+        return customerRepository.findById(customerId).map(CustomerService::toDetailsDto).orElse(null);
+    }
+
+    private AccountCache.CachedCard toCached(CreditCard card) {
+        CreditCardDto dto = new CreditCardDto();
+        dto.setCardHolderName(card.getCardHolderName());
+        dto.setActive(card.isActive());
+        dto.setCardType(card.getCardType());
+        dto.setCardNumber(card.getCardNumber());
+        dto.setTotalBalance(card.getTotalBalance());
+        dto.setIssueDate(card.getIssueDate());
+        dto.setExpiryDate(card.getExpiryDate());
+        return new AccountCache.CachedCard(card.getId(), card.getCustomer().getId(), card.getCustomer().getName(), dto);
+    }
+
+    // ✅ Customer name for the audit log of a failed operation, from the cache; never throws
+    private String customerNameOrUnknown(Long customerId) {
+        if (customerId == null) {
+            return "Unknown";
+        }
+        try {
+            CustomerDto customer = accountCache.getCustomer(customerId, this::loadCustomer);
+            return customer == null ? "Unknown" : customer.getName();
+        } catch (RuntimeException ex) {
+            return "Unknown";
+        }
+    }
+
+    // ✅ Cards of a customer, through the cache (empty for an unknown customer)
+    public List<CreditCardDto> findCardsOfCustomer(Long customerId) {
+        return accountCache.getCustomerCards(customerId,
+                        id -> creditCardRepository.findAllByCustomerId(id).stream().map(this::toCached).toList())
+                .stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    // ✅ Convert hot ledger posting to DTO
+    private CreditCardDto toDto(HotLedger.Posting posting) {
+        HotLedger.CardState card = posting.card();
+        CreditCardDto dto = new CreditCardDto();
+        dto.setCardHolderName(card.getCardHolderName());
+        dto.setActive(card.isActive());
+        dto.setCardType(card.getCardType());
+        dto.setCardNumber(card.getCardNumber());
+        dto.setTotalBalance(posting.balance().totalBalance());
+        dto.setIssueDate(card.getIssueDate());
+        dto.setExpiryDate(card.getExpiryDate());
         return dto;
     }
 
     // ✅ Create card for customer
-    public ResponseEntity<ResponseStructure<CreditCardDto>> createCard(Long customerId, double balance ,String type , boolean isactive) {
+    public ResponseEntity<ResponseStructure<CreditCardDto>> createCard(Long customerId, long balance ,String type , boolean isactive) {
+        String username = "Unknown";
         try {
             // ✅ 1. Validate input
             if (customerId == null || customerId <= 0) {
@@ -93,19 +220,26 @@ public class CreditCardService {
             logger.info("Creating card for customer ID: {}", customerId);
             Customer customer = customerRepository.findById(customerId)
                     .orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+            username = customer.getName();
 
             CreditCard card = new CreditCard();
-            card.setCardNumber(generateUniqueCardNumber());
+            card.setCardNumber(generateUniqueCardNumber(type));
             card.setTotalBalance(balance);
             card.setCardType(type);
             card.setActive(isactive);
             card.setIssueDate(LocalDate.now());
+            card.setDailyResetDate(businessDay.today());
             card.setCardHolderName(customer.getName());
             card.setExpiryDate(LocalDate.now().plusYears(10));
             card.setCustomer(customer);
 
-            customer.getCreditCards().add(card);
-            customerRepository.save(customer);
+            // ✅ Card row and its CardIssued event commit together
+            transactionTemplate.executeWithoutResult(status -> {
+                creditCardRepository.save(card);
+                cardEventJdbcRepository.append(card.getId(), CardEvent.CARD_ISSUED, balance, LocalDateTime.now(),
+                        type + (isactive ? ", active" : ", inactive"));
+            });
+            accountCache.evictCard(null, customerId);
 
             userActionLogService.logAction(customer.getName(), "Create Credit Card", "SUCCESS");
 
@@ -119,9 +253,6 @@ public class CreditCardService {
         } catch (Exception ex) {
             logger.error("Error while creating card for customer ID {}: {}", customerId, ex.getMessage());
 
-            // Try to get customer name only if available
-            Customer customer = customerRepository.findById(customerId).get();
-                  String  username = customer.getName();
             userActionLogService.logAction(username, "Create Credit Card", "FAILED: " + ex.getMessage());
             throw ex; // rethrow for @RestControllerAdvice
         }
@@ -129,6 +260,7 @@ public class CreditCardService {
 
     // ✅ Update card details
     public ResponseEntity<ResponseStructure<CreditCardDto>> updateCard(Long cardId, CreditCardDto cardDto) {
+        String username = "Unknown";
         try {
             logger.info("Updating card ID: {}", cardId);
 
@@ -137,13 +269,16 @@ public class CreditCardService {
                 throw new InvalidInputException("Card holder name cannot be null or empty");
             }
 
-            // Find the card
-            CreditCard card = creditCardRepository.findById(cardId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
-
-            // Update fields
-            card.setCardHolderName(cardDto.getCardHolderName());
-            creditCardRepository.save(card);
+            // Update the row-locked card; its CardUpdated event is appended under the same lock
+            CreditCard card = hotLedger.evict(cardId, () -> transactionTemplate.execute(status -> {
+                CreditCard locked = creditCardRepository.findByIdForUpdate(cardId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
+                locked.setCardHolderName(cardDto.getCardHolderName());
+                cardEventJdbcRepository.append(cardId, CardEvent.CARD_UPDATED, 0, LocalDateTime.now(), "cardHolderName");
+                return locked;
+            }));
+            username = card.getCustomer().getName();
+            accountCache.evictCard(cardId, card.getCustomer().getId());
 
             logger.info("Card ID {} updated successfully", cardId);
 
@@ -165,9 +300,6 @@ public class CreditCardService {
         } catch (Exception ex) {
             logger.error("Error while updating card ID {}: {}", cardId, ex.getMessage());
 
-            // Try to log with username if card exists, otherwise fallback
-            CreditCard card = creditCardRepository.findById(cardId).get();
-            String username = card.getCustomer().getName();
             userActionLogService.logAction(username, "Update Card ID " + cardId, "FAILED: " + ex.getMessage());
 
             throw ex; // rethrow for global exception handler
@@ -176,19 +308,23 @@ public class CreditCardService {
 
     // ✅ Get card by ID
     public ResponseEntity<ResponseStructure<CreditCardDto>> getCardById(Long cardId) {
+        String username = "Unknown";
         try {
             logger.info("Fetching card with ID: {}", cardId);
 
-            // Try to find card
-            CreditCard card = creditCardRepository.findById(cardId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
+            // Try to find card (cached)
+            AccountCache.CachedCard card = accountCache.getCard(cardId, this::loadCard);
+            if (card == null) {
+                throw new ResourceNotFoundException("Card not found");
+            }
+            username = card.ownerName();
 
             // Convert to DTO
             CreditCardDto dto = toDto(card);
 
             // Log success action
             userActionLogService.logAction(
-                    card.getCustomer().getName(),
+                    username,
                     "Get Card By ID " + cardId,
                     "SUCCESS"
             );
@@ -204,11 +340,6 @@ public class CreditCardService {
         } catch (Exception ex) {
             logger.error("Error while fetching card ID {}: {}", cardId, ex.getMessage());
 
-            // Attempt to get username if available
-            CreditCard card = creditCardRepository.findById(cardId).get();
-            String username = card.getCustomer().getName();
-
-
             // Log failure
             userActionLogService.logAction(username, "Get Card By ID " + cardId, "FAILED: " + ex.getMessage());
 
@@ -217,8 +348,51 @@ public class CreditCardService {
         }
     }
 
+    // ✅ Balance of a card as of a point in time (also after the card was deleted)
+    public ResponseEntity<ResponseStructure<CardBalanceDto>> getBalanceAsOf(Long cardId, LocalDateTime asOf) {
+        String username = "Unknown";
+        try {
+            logger.info("Fetching balance of card ID {} as of {}", cardId, asOf);
+
+            AccountCache.CachedCard card = accountCache.getCard(cardId, this::loadCard);
+            if (card != null) {
+                username = card.ownerName();
+            }
+
+            CardEventStore.CardHistoryState state = cardEventStore.stateAt(cardId, asOf);
+            logger.debug("Card ID {} as of {}: snapshot at event {}, {} event(s) replayed",
+                    cardId, asOf, state.snapshotSequenceNo(), state.replayedEvents());
+
+            CardBalanceDto dto = new CardBalanceDto();
+            dto.setCardId(cardId);
+            dto.setAsOf(asOf);
+            dto.setBalance(state.balance());
+            dto.setSequenceNo(state.sequenceNo());
+            dto.setLastEventType(state.lastEventType());
+            dto.setLastEventAt(state.lastEventAt());
+            dto.setDeleted(state.deleted());
+
+            userActionLogService.logAction(username, "Get Balance Of Card ID " + cardId + " As Of " + asOf, "SUCCESS");
+
+            ResponseStructure<CardBalanceDto> structure = new ResponseStructure<>();
+            structure.setMessage("Card balance fetched successfully");
+            structure.setHttpstatus("SUCCESS");
+            structure.setData(dto);
+
+            return ResponseEntity.ok(structure);
+
+        } catch (Exception ex) {
+            logger.error("Error while fetching balance of card ID {} as of {}: {}", cardId, asOf, ex.getMessage());
+
+            userActionLogService.logAction(username, "Get Balance Of Card ID " + cardId + " As Of " + asOf, "FAILED: " + ex.getMessage());
+
+            throw ex;
+        }
+    }
+
     // ✅ Get all cards of a customer
     public ResponseEntity<ResponseStructure<List<CreditCardDto>>> getCardsByCustomer(Long customerId) {
+        String username = "Unknown";
         try {
             logger.info("Fetching all cards for customer ID: {}", customerId);
 
@@ -228,20 +402,20 @@ public class CreditCardService {
             }
 
             // Fetch customer (or throw exception)
-            Customer customer = customerRepository.findById(customerId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID: " + customerId));
+            CustomerDto customer = accountCache.getCustomer(customerId, this::loadCustomer);
+            if (customer == null) {
+                throw new ResourceNotFoundException("Customer not found with ID: " + customerId);
+            }
+            username = customer.getName();
 
             // Fetch all cards for this customer
-            List<CreditCardDto> cards = creditCardRepository.findAllByCustomerId(customerId)
-                    .stream()
-                    .map(this::toDto)
-                    .toList();
+            List<CreditCardDto> cards = findCardsOfCustomer(customerId);
 
             logger.info("Fetched {} cards for customer ID: {}", cards.size(), customerId);
 
             // Log success action
             userActionLogService.logAction(
-                    customer.getName(),
+                    username,
                     "Fetch All Cards for Customer ID " + customerId,
                     "SUCCESS"
             );
@@ -257,9 +431,6 @@ public class CreditCardService {
         } catch (Exception ex) {
             logger.error("Error while fetching cards for customer ID {}: {}", customerId, ex.getMessage());
 
-            // Try to get username if available
-            Customer customer = customerRepository.findById(customerId).get();
-            String username = customer.getName();
             // Log failure action
             userActionLogService.logAction(
                     username,
@@ -274,6 +445,7 @@ public class CreditCardService {
 
     // ✅ Delete card
     public ResponseEntity<ResponseStructure<String>> deleteCard(Long cardId) {
+        String username = "Unknown";
         try {
             logger.warn("Attempting to delete card ID: {}", cardId);
 
@@ -282,12 +454,19 @@ public class CreditCardService {
                 throw new InvalidInputException("Card ID must be a positive number and cannot be null");
             }
 
-            // ✅ Find card or throw exception
-            CreditCard card = creditCardRepository.findById(cardId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Card not found with ID: " + cardId));
-
-            // ✅ Delete the card
-            creditCardRepository.delete(card);
+            // ✅ Delete the row-locked card (hot ledger movements flushed first, posts held off until it is gone)
+            CreditCard card = hotLedger.remove(cardId, () -> transactionTemplate.execute(status -> {
+                // Row lock first: CardDeleted is the last event of the stream
+                CreditCard locked = creditCardRepository.findByIdForUpdate(cardId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Card not found with ID: " + cardId));
+                cardEventJdbcRepository.append(cardId, CardEvent.CARD_DELETED, 0, LocalDateTime.now(), null);
+                aggregateJdbcRepository.deleteForCard(cardId);
+                statementJdbcRepository.deleteForCard(cardId);
+                creditCardRepository.delete(locked);
+                return locked;
+            }));
+            username = card.getCustomer().getName();
+            accountCache.evictCard(cardId, card.getCustomer().getId());
 
             logger.info("Card ID {} deleted successfully", cardId);
 
@@ -309,9 +488,6 @@ public class CreditCardService {
         } catch (Exception ex) {
             logger.error("Error while deleting card ID {}: {}", cardId, ex.getMessage());
 
-            // ✅ Try to log with customer name if possible
-            String username =creditCardRepository.findById(cardId).get().getCustomer().getName();
-
             // ✅ Log failure action
             userActionLogService.logAction(
                     username,
@@ -325,9 +501,9 @@ public class CreditCardService {
     }
 
     // ✅ Debit card
-    public ResponseEntity<ResponseStructure<CreditCardDto>> debitCard(Long customerId, String cardNumber, double amount) {
+    public ResponseEntity<ResponseStructure<CreditCardDto>> debitCard(Long customerId, String cardNumber, long amount) {
         try {
-            logger.info("Debiting ₹{} from card {} for customer ID {}", amount, cardNumber, customerId);
+            logger.info("Debiting ₹{} from card {} for customer ID {}", Money.format(amount), cardNumber, customerId);
 
             // ✅ Input validation
             if (customerId == null || customerId <= 0) {
@@ -340,41 +516,35 @@ public class CreditCardService {
                 throw new InvalidInputException("Amount must be greater than zero");
             }
 
-            // ✅ Find card
-            CreditCard card = creditCardRepository.findByCardNumberAndCustomerId(cardNumber, customerId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Card not found for customer"));
-
-            // ✅ Business validation
-            if (amount > card.getTotalBalance()) {
-                throw new ValidationException("Insufficient balance");
-            }
-            if (amount > card.getMAX_WITHDRAWAL_LIMIT()) {
-                throw new ValidationException("Max withdrawal limit exceeded");
-            }
-            if (card.getDailyDebitedAmount() + amount > card.getDAILY_DEBIT_LIMIT()) {
-                throw new ValidationException("Daily debit limit exceeded");
+            // ✅ Velocity / fraud rules (in memory) before anything is written
+            RiskDecision risk = riskStage.assess(customerId, cardNumber, amount);
+            if (risk.declined()) {
+                throw new ValidationException("Debit declined by risk checks: " + String.join(", ", risk.rules()));
             }
 
-            // ✅ Perform debit
-            card.setTotalBalance(card.getTotalBalance() - amount);
-            card.setDailyDebitedAmount(card.getDailyDebitedAmount() + amount);
-            creditCardRepository.save(card);
-
-            // ✅ Record transaction
-            Transaction transaction = new Transaction();
-            transaction.setAmount(amount);
-            transaction.setTransactionType("DEBIT");
-            transaction.setCardType(card.getCardType());
-            transaction.setDescription("Debited ₹" + amount);
-            transaction.setCreditCard(card);
-            transactionRepository.save(transaction);
+            CreditCardDto dto;
+            String customerName;
+            if (hotLedger.isEnabled()) {
+                // ✅ Hot ledger: in-memory CAS update, persisted write-behind
+                HotLedger.Posting posting = hotLedger.debit(customerId, cardNumber, amount);
+                dto = toDto(posting);
+                customerName = posting.card().getCustomerName();
+            } else {
+                // ✅ Check limits, debit and record the transaction in one DB transaction
+                CardBalanceUpdater.Result result = balanceUpdater.debit(customerId, cardNumber, amount);
+                accountCache.evictCard(result.card().getId(), customerId);
+                dto = toDto(result.card());
+                customerName = result.customerName();
+            }
 
-            logger.info("Debit of ₹{} recorded successfully for card {}", amount, cardNumber);
+            riskStage.record(customerId, cardNumber, amount);
+            transactionMetrics.record("DEBIT", amount);
+            logger.info("Debit of ₹{} recorded successfully for card {}", Money.format(amount), cardNumber);
 
             // ✅ Log user action (SUCCESS)
             userActionLogService.logAction(
-                    card.getCustomer().getName(),
-                    "Debit ₹" + amount + " from Card " + cardNumber + " (Customer ID " + customerId + ")",
+                    customerName,
+                    "Debit ₹" + Money.format(amount) + " from Card " + cardNumber + " (Customer ID " + customerId + ")",
                     "SUCCESS"
             );
 
@@ -382,21 +552,20 @@ public class CreditCardService {
             ResponseStructure<CreditCardDto> structure = new ResponseStructure<>();
             structure.setMessage("Amount debited and transaction recorded successfully");
             structure.setHttpstatus("SUCCESS");
-            structure.setData(toDto(card));
+            structure.setData(dto);
 
             return ResponseEntity.ok(structure);
 
         } catch (Exception ex) {
-            logger.error("Error while debiting ₹{} from card {} for customer ID {}: {}", amount, cardNumber, customerId, ex.getMessage());
+            logger.error("Error while debiting ₹{} from card {} for customer ID {}: {}", Money.format(amount), cardNumber, customerId, ex.getMessage());
 
             // ✅ Determine username for failed log (if possible)
-            String username = customerRepository.findById(customerId).get().getName();
-
+            String username = customerNameOrUnknown(customerId);
 
             // ✅ Log user action (FAILED)
             userActionLogService.logAction(
                     username,
-                    "Debit ₹" + amount + " from Card " + cardNumber + " (Customer ID " + customerId + ")",
+                    "Debit ₹" + Money.format(amount) + " from Card " + cardNumber + " (Customer ID " + customerId + ")",
                     "FAILED: " + ex.getMessage()
             );
 
@@ -406,70 +575,59 @@ public class CreditCardService {
     }
 
     // ✅ Credit card
-    public ResponseEntity<ResponseStructure<CreditCardDto>> creditCard(Long customerId, String cardNumber, double amount) {
-        logger.info("Crediting ₹{} to card {} for customer ID {}", amount, cardNumber, customerId);
+    public ResponseEntity<ResponseStructure<CreditCardDto>> creditCard(Long customerId, String cardNumber, long amount) {
+        logger.info("Crediting ₹{} to card {} for customer ID {}", Money.format(amount), cardNumber, customerId);
 
         try {
-            CreditCard card = creditCardRepository.findByCardNumberAndCustomerId(cardNumber, customerId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Card not found for customer"));
-
-            if (amount > card.getMAX_CREDIT_LIMIT()) {
-                throw new ValidationException("Amount exceeds max credit limit");
+            CreditCardDto dto;
+            String customerName;
+            if (hotLedger.isEnabled()) {
+                // ✅ Hot ledger: in-memory CAS update, persisted write-behind
+                HotLedger.Posting posting = hotLedger.credit(customerId, cardNumber, amount);
+                dto = toDto(posting);
+                customerName = posting.card().getCustomerName();
+            } else {
+                // ✅ Check limits, credit and record the transaction in one DB transaction
+                CardBalanceUpdater.Result result = balanceUpdater.credit(customerId, cardNumber, amount);
+                accountCache.evictCard(result.card().getId(), customerId);
+                dto = toDto(result.card());
+                customerName = result.customerName();
             }
 
-            if (card.getDailyCreditedAmount() + amount > card.getDAILY_CREDIT_LIMIT()) {
-                throw new ValidationException("Daily credit limit exceeded");
-            }
-
-            // ✅ Perform credit operation
-            card.setTotalBalance(card.getTotalBalance() + amount);
-            card.setDailyCreditedAmount(card.getDailyCreditedAmount() + amount);
-            creditCardRepository.save(card);
-
-            // ✅ Save transaction
-            Transaction transaction = new Transaction();
-            transaction.setAmount(amount);
-            transaction.setTransactionType("CREDIT");
-            transaction.setCardType(card.getCardType());
-            transaction.setDescription("Credited ₹" + amount);
-            transaction.setCreditCard(card);
-            transactionRepository.save(transaction);
-
-            logger.info("Credit of ₹{} recorded for card {}", amount, cardNumber);
+            transactionMetrics.record("CREDIT", amount);
+            logger.info("Credit of ₹{} recorded for card {}", Money.format(amount), cardNumber);
 
             // ✅ Log successful action
             userActionLogService.logAction(
-                    card.getCustomer().getName(),
-                    "Credit ₹" + amount + " to Card " + cardNumber + " (Customer ID " + customerId + ")",
+                    customerName,
+                    "Credit ₹" + Money.format(amount) + " to Card " + cardNumber + " (Customer ID " + customerId + ")",
                     "SUCCESS"
             );
 
             ResponseStructure<CreditCardDto> structure = new ResponseStructure<>();
             structure.setMessage("Amount credited and transaction recorded");
             structure.setHttpstatus("SUCCESS");
-            structure.setData(toDto(card));
+            structure.setData(dto);
 
             return ResponseEntity.ok(structure);
 
-        } catch (ValidationException | ResourceNotFoundException ex) {
+        } catch (ValidationException | ResourceNotFoundException | ConflictException ex) {
             logger.error("Credit operation failed for card {}: {}", cardNumber, ex.getMessage());
 
-            Customer customer = customerRepository.findById(customerId).get();
             // ✅ Log failure
             userActionLogService.logAction(
-                    customer.getName(), // or handle properly if you can extract customer name
-                    "Failed Credit ₹" + amount + " to Card " + cardNumber,
+                    customerNameOrUnknown(customerId),
+                    "Failed Credit ₹" + Money.format(amount) + " to Card " + cardNumber,
                     "FAILURE: " + ex.getMessage()
             );
 
             throw ex; // rethrow to be handled by @RestControllerAdvice
         } catch (Exception ex) {
             logger.error("Unexpected error during credit operation: {}", ex.getMessage());
-            Customer customer = customerRepository.findById(customerId).get();
             // ✅ Log unexpected error
             userActionLogService.logAction(
-                    customer.getName(),
-                    "Unexpected error while crediting ₹" + amount + " to Card " + cardNumber,
+                    customerNameOrUnknown(customerId),
+                    "Unexpected error while crediting ₹" + Money.format(amount) + " to Card " + cardNumber,
                     "ERROR: " + ex.getMessage()
             );
 
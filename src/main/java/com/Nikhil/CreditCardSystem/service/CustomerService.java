@@ -3,12 +3,21 @@ package com.Nikhil.CreditCardSystem.service;
 import java.security.Principal;
 
 import com.Nikhil.CreditCardSystem.Entity.Customer;
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
 import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
 import com.Nikhil.CreditCardSystem.dto.CustomerDto;
+import com.Nikhil.CreditCardSystem.dto.CustomerPageDto;
 import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
 import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.ledger.HotLedger;
 import com.Nikhil.CreditCardSystem.model.CustomerModel;
+import com.Nikhil.CreditCardSystem.repo.AggregateJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CustomerPageRepository;
 import com.Nikhil.CreditCardSystem.repo.CustomerRepository;
+import com.Nikhil.CreditCardSystem.repo.OutboxJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.StatementJdbcRepository;
+import com.Nikhil.CreditCardSystem.util.KeysetCursor;
 import com.Nikhil.CreditCardSystem.util.ResponseStructure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,8 +29,13 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CustomerService {
@@ -36,15 +50,47 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
     @Autowired
+    private CustomerPageRepository customerPageRepository;
+    @Autowired
     private CreditCardService cardService;
+    @Autowired
+    private HotLedger hotLedger;
+    @Autowired
+    private AggregateJdbcRepository aggregateJdbcRepository;
+    @Autowired
+    private StatementJdbcRepository statementJdbcRepository;
+    @Autowired
+    private JwtTokenCache tokenCache;
+    @Autowired
+    private AccountCache accountCache;
+    @Autowired
+    private CardEventJdbcRepository cardEventJdbcRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private OutboxJdbcRepository outboxJdbcRepository;
 
 
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
 
-    private CustomerDto toDto(Customer customer) {
+    // ✅ Customer details without cards (what AccountCache holds)
+    static CustomerDto toDetailsDto(Customer customer) {
+        CustomerDto dto = new CustomerDto();
+        dto.setId(customer.getId());
+        dto.setUsername(customer.getUsername());
+        dto.setName(customer.getName());
+        dto.setPhoneNumber(customer.getPhoneNumber());
+        dto.setEmail(customer.getEmail());
+        return dto;
+    }
+
+    public CustomerDto toDto(Customer customer) {
         CustomerDto dto = new CustomerDto();
         dto.setId(customer.getId());
         dto.setUsername(customer.getUsername());
@@ -68,7 +114,14 @@ public class CustomerService {
     public ResponseEntity<ResponseStructure<CustomerDto>> createCustomer(Customer customer) {
         logger.info("Creating new customer with username: {}", customer.getUsername());
         customer.setPassword(encoder.encode(customer.getPassword()));
-        CustomerDto dto = toDto(customerRepository.save(customer));
+        // ✅ Customer row and its outbox message commit together
+        Customer saved = transactionTemplate.execute(status -> {
+            Customer created = customerRepository.save(customer);
+            outboxJdbcRepository.append(OutboxMessage.CUSTOMER, created.getId(), OutboxMessage.CUSTOMER_REGISTERED,
+                    toDetailsDto(created));
+            return created;
+        });
+        CustomerDto dto = toDto(saved);
         logger.info("Customer created successfully with ID: {}", dto.getId());
 
         ResponseStructure<CustomerDto> structure = new ResponseStructure<>();
@@ -83,12 +136,14 @@ public class CustomerService {
     public ResponseEntity<ResponseStructure<CustomerDto>> updateCustomer(Long id, Customer customerDetails) {
         logger.info("Updating customer with ID: {}", id);
 
+        String name = "Unknown";
         try {
             Customer customer = customerRepository.findById(id)
                     .orElseThrow(() -> {
                         logger.error("Customer with ID {} not found", id);
                         return new ResourceNotFoundException("Customer not found");
                     });
+            name = customer.getName();
 
             // ✅ Validate inputs (optional but recommended)
             if (customerDetails.getName() == null || customerDetails.getName().trim().isEmpty()) {
@@ -99,13 +154,20 @@ public class CustomerService {
             }
 
             // ✅ Update details
+            tokenCache.evictUser(customer.getUsername());
             customer.setName(customerDetails.getName());
             customer.setPhoneNumber(customerDetails.getPhoneNumber());
             customer.setEmail(customerDetails.getEmail());
             customer.setUsername(customerDetails.getUsername());
             customer.setPassword(customerDetails.getPassword());
 
-            CustomerDto dto = toDto(customerRepository.save(customer));
+            Customer saved = transactionTemplate.execute(status -> {
+                Customer updated = customerRepository.save(customer);
+                outboxJdbcRepository.append(OutboxMessage.CUSTOMER, id, OutboxMessage.CUSTOMER_UPDATED, toDetailsDto(updated));
+                return updated;
+            });
+            CustomerDto dto = toDto(saved);
+            accountCache.evictCustomer(id);
 
             logger.info("Customer with ID {} updated successfully", id);
 
@@ -126,8 +188,6 @@ public class CustomerService {
         } catch (InvalidInputException | ResourceNotFoundException ex) {
             logger.error("Failed to update customer ID {}: {}", id, ex.getMessage());
 
-            Customer customer = customerRepository.findById(id).get();
-            String name = customer.getName();
             // ✅ Log failure
             userActionLogService.logAction(
                     (customerDetails != null && customerDetails.getUsername() != null)
@@ -144,14 +204,24 @@ public class CustomerService {
     public ResponseEntity<ResponseStructure<CustomerDto>> getCustomerById(Long id) {
         logger.info("Fetching customer by ID: {}", id);
 
+        String name = "Unknown";
         try {
-            Customer customer = customerRepository.findById(id)
-                    .orElseThrow(() -> {
-                        logger.error("Customer with ID {} not found", id);
-                        return new ResourceNotFoundException("Customer not found");
-                    });
+            CustomerDto cached = accountCache.getCustomer(id,
+                    customerId -> customerRepository.findById(customerId).map(CustomerService::toDetailsDto).orElse(null));
+            if (cached == null) {
+                logger.error("Customer with ID {} not found", id);
+                throw new ResourceNotFoundException("Customer not found");
+            }
+            name = cached.getName();
 
-            CustomerDto dto = toDto(customer);
+            // Copy: the cached details are shared
+            CustomerDto dto = new CustomerDto();
+            dto.setId(cached.getId());
+            dto.setUsername(cached.getUsername());
+            dto.setName(cached.getName());
+            dto.setPhoneNumber(cached.getPhoneNumber());
+            dto.setEmail(cached.getEmail());
+            dto.setCreditCards(cardService.findCardsOfCustomer(id));
 
             logger.info("Customer with ID {} fetched successfully", id);
 
@@ -172,8 +242,6 @@ public class CustomerService {
         } catch (ResourceNotFoundException ex) {
             logger.error("Failed to fetch customer ID {}: {}", id, ex.getMessage());
 
-            Customer customer = customerRepository.findById(id).get();
-            String name = customer.getName();
             // ✅ Log FAILURE (known case)
             userActionLogService.logAction(
                     name,
@@ -185,8 +253,11 @@ public class CustomerService {
         }
     }
 
-    public ResponseEntity<ResponseStructure<List<CustomerDto>>> getAllCustomers(Principal principal) {
-        logger.info("Fetching all customers...");
+    // ✅ One page of customers with their cards: two set-based queries per page, whatever the page depth
+    public ResponseEntity<ResponseStructure<CustomerPageDto>> getAllCustomers(Principal principal, String sort,
+                                                                              String direction, String cursor,
+                                                                              Integer size) {
+        logger.info("Fetching customers page (sort={}, direction={})...", sort, direction);
 
         try {
             // Ensure Principal is not null
@@ -194,12 +265,9 @@ public class CustomerService {
                 throw new InvalidInputException("User information is missing (Principal is null)");
             }
 
-            List<CustomerDto> dtoList = customerRepository.findAll()
-                    .stream()
-                    .map(this::toDto)
-                    .toList();
+            CustomerPageDto page = findCustomerPage(sort, direction, cursor, size);
 
-            logger.info("Fetched {} customers successfully", dtoList.size());
+            logger.info("Fetched {} customers successfully", page.getSize());
 
             String username = principal.getName();
 
@@ -210,10 +278,10 @@ public class CustomerService {
                     "SUCCESS"
             );
 
-            ResponseStructure<List<CustomerDto>> structure = new ResponseStructure<>();
+            ResponseStructure<CustomerPageDto> structure = new ResponseStructure<>();
             structure.setMessage("All customers fetched successfully");
             structure.setHttpstatus("SUCCESS");
-            structure.setData(dtoList);
+            structure.setData(page);
 
             return ResponseEntity.ok(structure);
 
@@ -222,7 +290,7 @@ public class CustomerService {
 
             // ✅ Log FAILED
             userActionLogService.logAction(
-                      principal.getName(),
+                    principal == null || principal.getName() == null ? "Unknown" : principal.getName(),
                     "Fetch All Customers",
                     "FAILED: " + ex.getMessage()
             );
@@ -232,6 +300,84 @@ public class CustomerService {
         }
     }
 
+    CustomerPageDto findCustomerPage(String sort, String direction, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        CustomerPageRepository.Sort order = CustomerPageRepository.Sort.parse(sort);
+        boolean descending = parseDescending(direction);
+
+        // Cursor: sort|direction|id|keyIsNull|key of the last row (key last, it may contain '|')
+        Long afterId = null;
+        boolean afterKeyNull = false;
+        String afterKey = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = KeysetCursor.decode(cursor, 5);
+            if (!order.name().equals(parts[0]) || !String.valueOf(descending).equals(parts[1])) {
+                throw new InvalidInputException("Pagination cursor belongs to a different sort order");
+            }
+            try {
+                afterId = Long.valueOf(parts[2]);
+            } catch (NumberFormatException e) {
+                throw new InvalidInputException("Invalid pagination cursor");
+            }
+            afterKeyNull = "1".equals(parts[3]);
+            afterKey = parts[4];
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<CustomerPageRepository.CustomerRow> rows =
+                customerPageRepository.findPage(order, descending, afterKeyNull, afterKey, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<CustomerPageRepository.CustomerRow> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        Map<Long, List<CreditCardDto>> cardsByCustomer = new HashMap<>();
+        List<Long> ids = pageRows.stream().map(CustomerPageRepository.CustomerRow::id).toList();
+        for (CustomerPageRepository.CardRow card : customerPageRepository.findCards(ids)) {
+            CreditCardDto cardDto = new CreditCardDto();
+            cardDto.setCardNumber(card.cardNumber());
+            cardDto.setCardHolderName(card.cardHolderName());
+            cardDto.setTotalBalance(card.totalBalance());
+            cardDto.setCardType(card.cardType());
+            cardDto.setActive(card.active());
+            cardDto.setIssueDate(card.issueDate());
+            cardDto.setExpiryDate(card.expiryDate());
+            cardsByCustomer.computeIfAbsent(card.customerId(), id -> new ArrayList<>()).add(cardDto);
+        }
+
+        CustomerPageDto page = new CustomerPageDto();
+        page.setCustomers(pageRows.stream().map(row -> {
+            CustomerDto dto = new CustomerDto();
+            dto.setId(row.id());
+            dto.setUsername(row.username());
+            dto.setName(row.name());
+            dto.setPhoneNumber(row.phoneNumber());
+            dto.setEmail(row.email());
+            dto.setCreditCards(cardsByCustomer.getOrDefault(row.id(), List.of()));
+            return dto;
+        }).toList());
+        page.setSize(pageRows.size());
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            CustomerPageRepository.CustomerRow last = pageRows.get(pageRows.size() - 1);
+            String key = last.key(order);
+            page.setNextCursor(KeysetCursor.encode(order.name(), descending, last.id(),
+                    key == null ? "1" : "0", key == null ? "" : key));
+        }
+        return page;
+    }
+
+    private static boolean parseDescending(String direction) {
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new InvalidInputException("Unsupported direction: " + direction + " (use asc or desc)");
+    }
+
     public ResponseEntity<ResponseStructure<String>> deleteCustomer(Long id) {
         logger.info("Deleting customer with ID: {}", id);
 
@@ -244,7 +390,16 @@ public class CustomerService {
                     });
 
             // Perform delete
-            customerRepository.delete(customer);
+            tokenCache.evictUser(customer.getUsername());
+            hotLedger.removeCustomer(id, () -> transactionTemplate.executeWithoutResult(status -> {
+                // ✅ A CardDeleted event closes the stream of each card, in the transaction that deletes it
+                cardEventJdbcRepository.appendDeletedForCustomer(id, LocalDateTime.now());
+                outboxJdbcRepository.append(OutboxMessage.CUSTOMER, id, OutboxMessage.CUSTOMER_DELETED, toDetailsDto(customer));
+                aggregateJdbcRepository.deleteForCustomer(id);
+                statementJdbcRepository.deleteForCustomer(id);
+                customerRepository.delete(customer);
+            }));
+            accountCache.evictCustomer(id);
             logger.info("Customer with ID {} deleted successfully", id);
 
             // ✅ Log success
@@ -264,12 +419,10 @@ public class CustomerService {
 
         } catch (ResourceNotFoundException ex) {
 
-            Customer customer = customerRepository.findById(id).get();
-
             // ✅ Log failed due to not found
             logger.error("Delete failed: {}", ex.getMessage());
             userActionLogService.logAction(
-                    customer.getName(),
+                    "Unknown",
                     "Delete Customer ID " + id,
                     "FAILED: " + ex.getMessage()
             );
@@ -0,0 +1,133 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.ledger.BusinessDay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nightly reset of dailyDebitedAmount / dailyCreditedAmount.
+ *
+ * Runs right after midnight in the business time zone on whichever node wins the DB lease, and
+ * zeroes the counters with set-based UPDATEs over primary-key ranges, committing every chunk, so
+ * no entity is loaded and no long transaction holds row locks. Cards already reset today are
+ * skipped, which makes a re-run (or a run after the lazy per-card reset) cheap.
+ */
+@Service
+public class DailyLimitResetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyLimitResetService.class);
+
+    static final String LEASE_NAME = "daily-limit-reset";
+
+    private static final String RESET_CHUNK_SQL =
+            "UPDATE credit_card SET daily_debited_minor = 0, daily_credited_minor = 0, daily_reset_date = ?, "
+                    + "version = version + 1 "
+                    + "WHERE id BETWEEN ? AND ? AND (daily_reset_date IS NULL OR daily_reset_date < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLeaseService leaseService;
+    private final BusinessDay businessDay;
+
+    @Value("${creditcard.daily-reset.chunk-size:50000}")
+    private int chunkSize;
+
+    @Value("${creditcard.daily-reset.lease-ms:300000}")
+    private long leaseMs;
+
+    // Metrics
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedRuns = new AtomicLong();
+    private volatile long lastDurationMs;
+    private volatile long lastRowsReset;
+    private volatile long lastChunks;
+    private volatile LocalDate lastResetDay;
+
+    public DailyLimitResetService(JdbcTemplate jdbcTemplate, SchedulerLeaseService leaseService, BusinessDay businessDay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseService = leaseService;
+        this.businessDay = businessDay;
+    }
+
+    @Scheduled(cron = "${creditcard.daily-reset.cron:0 0 0 * * *}", zone = "${creditcard.daily-reset.zone:Asia/Kolkata}")
+    public void scheduledReset() {
+        resetAll();
+    }
+
+    // ✅ Returns the number of cards reset, or -1 when another node holds the lease
+    public long resetAll() {
+        if (!leaseService.tryAcquire(LEASE_NAME, Duration.ofMillis(leaseMs))) {
+            skippedRuns.incrementAndGet();
+            logger.info("Daily limit reset skipped, lease held by another node");
+            return -1;
+        }
+        try {
+            LocalDate today = businessDay.today();
+            Date sqlToday = Date.valueOf(today);
+            long start = System.nanoTime();
+
+            Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM credit_card");
+            Number minId = (Number) range.get("min_id");
+            Number maxId = (Number) range.get("max_id");
+
+            long rows = 0;
+            long chunks = 0;
+            if (minId != null && maxId != null) {
+                for (long from = minId.longValue(); from <= maxId.longValue(); from += chunkSize) {
+                    // Each statement commits on its own; renew the lease as we go
+                    rows += jdbcTemplate.update(RESET_CHUNK_SQL, sqlToday, from, from + chunkSize - 1, sqlToday);
+                    chunks++;
+                    if (!leaseService.tryAcquire(LEASE_NAME, Duration.ofMillis(leaseMs))) {
+                        logger.warn("Lost the daily limit reset lease after {} chunk(s), stopping", chunks);
+                        break;
+                    }
+                }
+            }
+
+            lastDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastRowsReset = rows;
+            lastChunks = chunks;
+            lastResetDay = today;
+            runs.incrementAndGet();
+            logger.info("Daily limits reset for {} on {} card(s) in {} chunk(s), {} ms",
+                    today, rows, chunks, lastDurationMs);
+            return rows;
+        } finally {
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    public long getRunCount() {
+        return runs.get();
+    }
+
+    public long getSkippedRunCount() {
+        return skippedRuns.get();
+    }
+
+    public long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    public long getLastRowsReset() {
+        return lastRowsReset;
+    }
+
+    public long getLastChunks() {
+        return lastChunks;
+    }
+
+    public LocalDate getLastResetDay() {
+        return lastResetDay;
+    }
+}
@@ -0,0 +1,311 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.IdempotencyRecord;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.repo.IdempotencyRecordRepository;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates debit / credit requests carrying an Idempotency-Key header.
+ *
+ * The first request with a key executes and its successful response is kept for the TTL, in a
+ * bounded in-memory map backed by the idempotency_records table; later requests with the same key
+ * get the stored ResponseStructure back without executing again. Concurrent duplicates inside this
+ * instance wait for the first one instead of running; across instances the primary key of the
+ * claimed row makes sure only one executes.
+ *
+ * A request rejected by its validation, limit or lookup checks (which run before anything is
+ * written) releases its key, so it can be retried. Any other failure may have come after the
+ * balance changed, so the claim stays and the key answers 409 until its TTL runs out: a key is
+ * never executed twice.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int PURGE_EVERY = 1000;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${creditcard.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${creditcard.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${creditcard.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    private final Map<String, Stored> completed = new ConcurrentHashMap<>();
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong claims = new AtomicLong();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository, ObjectMapper objectMapper) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> ResponseEntity<ResponseStructure<T>> execute(String key, String fingerprint,
+                                                            Supplier<ResponseEntity<ResponseStructure<T>>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidInputException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        // ✅ Already completed in this instance
+        Stored stored = lookup(key);
+        if (stored != null) {
+            return replay(key, stored, fingerprint);
+        }
+
+        // ✅ Coalesce concurrent duplicates: only the first caller executes
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return awaitRunning(key, running, fingerprint);
+        }
+
+        try {
+            Stored result = executeOnce(key, fingerprint, action);
+            mine.result().complete(result);
+            return result.replay() ? replay(key, result, fingerprint) : toResponse(result, false);
+        } catch (RuntimeException ex) {
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private <T> Stored executeOnce(String key, String fingerprint, Supplier<ResponseEntity<ResponseStructure<T>>> action) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // ✅ Completed by an earlier request (possibly on another instance)
+        Optional<IdempotencyRecord> existing = recordRepository.findById(key);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            boolean expired = record.getCreatedAt().isBefore(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+            if (expired) {
+                recordRepository.release(key);
+            } else if (record.getHttpStatus() == null) {
+                // Still running, or failed with an unknown outcome: never executed a second time
+                throw new ConflictException("A request with this " + HEADER + " is already being processed "
+                        + "or did not complete; check the card before retrying with a new key");
+            } else {
+                Stored fromDb = new Stored(record.getFingerprint(), record.getHttpStatus(),
+                        deserialize(record.getResponseBody()), expiresAt(record.getCreatedAt()), true);
+                remember(key, fromDb);
+                return fromDb;
+            }
+        }
+
+        try {
+            recordRepository.claim(key, fingerprint, now);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ConflictException("A request with this " + HEADER + " is already being processed");
+        }
+        if (claims.incrementAndGet() % PURGE_EVERY == 0) {
+            purgeExpired();
+        }
+
+        ResponseEntity<ResponseStructure<T>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            if (isRejection(ex)) {
+                recordRepository.release(key);
+            } else {
+                logger.error("{} {} left pending, the request failed after it may have been applied: {}",
+                        HEADER, key, ex.getMessage());
+            }
+            throw ex;
+        }
+        executed.increment();
+
+        Stored result = new Stored(fingerprint, response.getStatusCode().value(), response.getBody(), expiresAt(now), false);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            recordRepository.complete(key, result.httpStatus(), serialize(response.getBody()), LocalDateTime.now());
+            remember(key, result);
+        } else {
+            recordRepository.release(key);
+        }
+        return result;
+    }
+
+    // Thrown by the validation, limit and lookup checks, before the balance is written
+    private static boolean isRejection(RuntimeException ex) {
+        return ex instanceof InvalidInputException
+                || ex instanceof ValidationException
+                || ex instanceof ResourceNotFoundException
+                || ex instanceof ConflictException;
+    }
+
+    private <T> ResponseEntity<ResponseStructure<T>> awaitRunning(String key, InFlight running, String fingerprint) {
+        if (!running.fingerprint().equals(fingerprint)) {
+            throw mismatch();
+        }
+        coalesced.increment();
+        try {
+            Stored result = running.result().get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            return replay(key, result, fingerprint);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ConflictException("A request with this " + HEADER + " is already being processed");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private <T> ResponseEntity<ResponseStructure<T>> replay(String key, Stored stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw mismatch();
+        }
+        replayed.increment();
+        logger.info("Replaying stored response for {} {}", HEADER, key);
+        return toResponse(stored, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<ResponseStructure<T>> toResponse(Stored stored, boolean replay) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.httpStatus());
+        if (replay) {
+            builder.header(REPLAYED_HEADER, "true");
+        }
+        return builder.body((ResponseStructure<T>) stored.body());
+    }
+
+    private Stored lookup(String key) {
+        Stored stored = completed.get(key);
+        if (stored != null && stored.expiresAt() <= System.currentTimeMillis()) {
+            completed.remove(key, stored);
+            return null;
+        }
+        return stored;
+    }
+
+    // Bounded like JwtTokenCache: purge expired when full, skip if still full (the DB row remains)
+    private void remember(String key, Stored stored) {
+        if (completed.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            Iterator<Stored> iterator = completed.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAt() <= now) {
+                    iterator.remove();
+                }
+            }
+            if (completed.size() >= maxEntries) {
+                return;
+            }
+        }
+        completed.put(key, stored);
+    }
+
+    private void purgeExpired() {
+        try {
+            int removed = recordRepository.deleteCreatedBefore(
+                    LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+            if (removed > 0) {
+                logger.info("Purged {} expired idempotency record(s)", removed);
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to purge expired idempotency records: {}", ex.getMessage());
+        }
+    }
+
+    private long expiresAt(LocalDateTime createdAt) {
+        long age = Duration.between(createdAt, LocalDateTime.now()).toMillis();
+        return System.currentTimeMillis() - age + ttlMs;
+    }
+
+    private String serialize(ResponseStructure<?> body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store idempotent response", e);
+        }
+    }
+
+    // Decimals stay BigDecimal so a replayed amount keeps its scale (9850.00, not 9850.0)
+    private ResponseStructure<?> deserialize(String json) {
+        try {
+            return objectMapper.readerFor(ResponseStructure.class)
+                    .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored idempotent response", e);
+        }
+    }
+
+    private static ValidationException mismatch() {
+        return new ValidationException(HEADER + " has already been used for a different request");
+    }
+
+    public int getCachedCount() {
+        return completed.size();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    public long getReplayedCount() {
+        return replayed.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private record Stored(String fingerprint, int httpStatus, ResponseStructure<?> body, long expiresAt, boolean replay) {
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<Stored> result) {
+    }
+}
@@ -14,6 +14,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.io.Decoders;
@@ -24,6 +25,10 @@ public class JWTService {
 
     private String secretkey = "";
 
+    // Built once: decoding the key and building the parser on every call is wasted work
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
     public JWTService()
     {
         try {
@@ -35,6 +40,10 @@ public class JWTService {
             // TODO Auto-generated catch block
             e.printStackTrace();
         }
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretkey));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
 
@@ -54,8 +63,7 @@ public class JWTService {
     }
 
     private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretkey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
 
@@ -70,24 +78,26 @@ public class JWTService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * Verifies the signature and returns all claims, so callers needing several claims
+     * parse the token only once.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateToken(String token, UserDetails userDetails) {
+        return validateToken(extractAllClaims(token), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        final String userName = claims.getSubject();
+        return (userName.equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
 
@@ -97,4 +107,3 @@ public class JWTService {
 
 
 }
-
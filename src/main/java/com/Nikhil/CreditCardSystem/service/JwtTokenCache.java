@@ -0,0 +1,110 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of already verified JWTs to the principal they resolved to.
+ *
+ * Entries are keyed by the SHA-256 of the token (the raw token is never kept), expire together
+ * with the token (capped by max-ttl so role / account changes are picked up) and the cache is
+ * bounded: expired entries are purged when it is full, and new entries are skipped if it is
+ * still full afterwards.
+ */
+@Service
+public class JwtTokenCache {
+
+    @Value("${creditcard.jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${creditcard.jwt.cache.max-ttl-ms:300000}")
+    private long maxTtlMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserDetails get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, Date tokenExpiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(tokenExpiration.getTime(), now + maxTtlMs);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            purgeExpired(now);
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(hash(token), new Entry(userDetails, expiresAt));
+    }
+
+    // ✅ Drop cached principals of a user whose account changed
+    public void evictUser(String username) {
+        if (username == null) {
+            return;
+        }
+        entries.values().removeIf(entry -> username.equals(entry.userDetails().getUsername()));
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() <= now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.CardLimitOverride;
+import com.Nikhil.CreditCardSystem.Entity.CardLimitPolicy;
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.dto.CardLimitsDto;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.ledger.CardLimits;
+import com.Nikhil.CreditCardSystem.ledger.LimitPolicyEngine;
+import com.Nikhil.CreditCardSystem.repo.CardLimitOverrideRepository;
+import com.Nikhil.CreditCardSystem.repo.CardLimitPolicyRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Admin changes to card limit policies and per-card overrides. Every change is followed by a
+ * reload of the {@link LimitPolicyEngine} snapshot, so it applies to the next debit / credit.
+ */
+@Service
+public class LimitPolicyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LimitPolicyService.class);
+
+    private final CardLimitPolicyRepository policyRepository;
+    private final CardLimitOverrideRepository overrideRepository;
+    private final CreditCardRepository creditCardRepository;
+    private final LimitPolicyEngine limitPolicyEngine;
+    private final UserActionLogService userActionLogService;
+
+    public LimitPolicyService(CardLimitPolicyRepository policyRepository,
+                              CardLimitOverrideRepository overrideRepository,
+                              CreditCardRepository creditCardRepository,
+                              LimitPolicyEngine limitPolicyEngine,
+                              UserActionLogService userActionLogService) {
+        this.policyRepository = policyRepository;
+        this.overrideRepository = overrideRepository;
+        this.creditCardRepository = creditCardRepository;
+        this.limitPolicyEngine = limitPolicyEngine;
+        this.userActionLogService = userActionLogService;
+    }
+
+    public List<CardLimitsDto> listPolicies() {
+        return policyRepository.findAll().stream()
+                .sorted(Comparator.comparing(CardLimitPolicy::getCardType))
+                .map(policy -> toDto(policy.getCardType(), null, CardLimits.of(policy)))
+                .toList();
+    }
+
+    // ✅ Create or replace the policy of a card type (DEFAULT for the fallback policy)
+    public CardLimitsDto savePolicy(String cardType, CardLimitsDto request) {
+        String type = LimitPolicyEngine.normalize(cardType);
+        if (type == null || type.isEmpty() || type.length() > 30) {
+            throw new InvalidInputException("Card type must be 1 to 30 characters");
+        }
+        CardLimitPolicy policy = new CardLimitPolicy();
+        policy.setCardType(type);
+        policy.setMaxWithdrawalLimit(required(request.getMaxWithdrawalLimit(), "maxWithdrawalLimit"));
+        policy.setDailyDebitLimit(required(request.getDailyDebitLimit(), "dailyDebitLimit"));
+        policy.setDailyCreditLimit(required(request.getDailyCreditLimit(), "dailyCreditLimit"));
+        policy.setMaxCreditLimit(required(request.getMaxCreditLimit(), "maxCreditLimit"));
+        policy.setUpdatedAt(LocalDateTime.now());
+        policyRepository.save(policy);
+        limitPolicyEngine.reload();
+
+        logger.info("Card limit policy for {} saved", type);
+        userActionLogService.logAction("ADMIN", "Card limit policy for " + type + " saved", "SUCCESS");
+        return toDto(type, null, CardLimits.of(policy));
+    }
+
+    public void deletePolicy(String cardType) {
+        String type = LimitPolicyEngine.normalize(cardType);
+        if (CardLimitPolicy.DEFAULT_TYPE.equals(type)) {
+            throw new ValidationException("The " + CardLimitPolicy.DEFAULT_TYPE + " policy cannot be deleted");
+        }
+        if (type == null || !policyRepository.existsById(type)) {
+            throw new ResourceNotFoundException("No card limit policy for " + cardType);
+        }
+        policyRepository.deleteById(type);
+        limitPolicyEngine.reload();
+        logger.info("Card limit policy for {} deleted", type);
+        userActionLogService.logAction("ADMIN", "Card limit policy for " + type + " deleted", "SUCCESS");
+    }
+
+    // ✅ Effective limits of one card, as the balance path sees them
+    public CardLimitsDto getCardLimits(String cardNumber) {
+        CreditCard card = findCard(cardNumber);
+        return toDto(card.getCardType(), cardNumber, limitPolicyEngine.limitsFor(card.getId(), card.getCardType()));
+    }
+
+    public CardLimitsDto saveOverride(String cardNumber, CardLimitsDto request) {
+        CreditCard card = findCard(cardNumber);
+        CardLimitOverride override = new CardLimitOverride();
+        override.setCardId(card.getId());
+        override.setMaxWithdrawalLimit(optional(request.getMaxWithdrawalLimit(), "maxWithdrawalLimit"));
+        override.setDailyDebitLimit(optional(request.getDailyDebitLimit(), "dailyDebitLimit"));
+        override.setDailyCreditLimit(optional(request.getDailyCreditLimit(), "dailyCreditLimit"));
+        override.setMaxCreditLimit(optional(request.getMaxCreditLimit(), "maxCreditLimit"));
+        override.setUpdatedAt(LocalDateTime.now());
+        overrideRepository.save(override);
+        limitPolicyEngine.reload();
+
+        logger.info("Card limit override for card {} saved", card.getId());
+        userActionLogService.logAction("ADMIN", "Card limit override for card " + card.getId() + " saved", "SUCCESS");
+        return getCardLimits(cardNumber);
+    }
+
+    public void deleteOverride(String cardNumber) {
+        CreditCard card = findCard(cardNumber);
+        if (!overrideRepository.existsById(card.getId())) {
+            throw new ResourceNotFoundException("No card limit override for this card");
+        }
+        overrideRepository.deleteById(card.getId());
+        limitPolicyEngine.reload();
+        logger.info("Card limit override for card {} deleted", card.getId());
+        userActionLogService.logAction("ADMIN", "Card limit override for card " + card.getId() + " deleted", "SUCCESS");
+    }
+
+    private CreditCard findCard(String cardNumber) {
+        return creditCardRepository.findByCardNumber(cardNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardNumber));
+    }
+
+    private static long required(Long limit, String name) {
+        if (limit == null) {
+            throw new InvalidInputException(name + " is required");
+        }
+        return optional(limit, name);
+    }
+
+    private static Long optional(Long limit, String name) {
+        if (limit != null && limit < 0) {
+            throw new InvalidInputException(name + " must not be negative");
+        }
+        return limit;
+    }
+
+    private static CardLimitsDto toDto(String cardType, String cardNumber, CardLimits limits) {
+        CardLimitsDto dto = new CardLimitsDto();
+        dto.setCardType(cardType);
+        dto.setCardNumber(cardNumber);
+        dto.setMaxWithdrawalLimit(limits.maxWithdrawalLimit());
+        dto.setDailyDebitLimit(limits.dailyDebitLimit());
+        dto.setDailyCreditLimit(limits.dailyCreditLimit());
+        dto.setMaxCreditLimit(limits.maxCreditLimit());
+        return dto;
+    }
+}
@@ -0,0 +1,65 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.repo.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DB-backed leases so a background job runs on one node at a time.
+ * A node that dies simply lets its lease expire; the next node to try takes it over.
+ */
+@Service
+public class SchedulerLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeaseService.class);
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final String nodeId;
+
+    public SchedulerLeaseService(SchedulerLeaseRepository leaseRepository) {
+        this.leaseRepository = leaseRepository;
+        this.nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // ✅ Acquire (or extend) the named lease; false when another node holds it
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(duration);
+        if (leaseRepository.acquireOrRenew(name, nodeId, until, now) == 1) {
+            return true;
+        }
+        try {
+            return leaseRepository.insert(name, nodeId, until) == 1;
+        } catch (DataIntegrityViolationException ex) {
+            // Row exists and is held by someone else
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        try {
+            leaseRepository.release(name, nodeId, LocalDateTime.now());
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to release lease {}: {}", name, ex.getMessage());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.CardStatement;
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.Entity.StatementRun;
+import com.Nikhil.CreditCardSystem.dto.StatementDto;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.ledger.BusinessDay;
+import com.Nikhil.CreditCardSystem.repo.CardStatementRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.repo.StatementRunRepository;
+import com.Nikhil.CreditCardSystem.repo.TransactionRepository;
+import com.Nikhil.CreditCardSystem.statement.StatementEngine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Monthly statements: reads for the API, and the nightly / on-demand runs of {@link StatementEngine}.
+ */
+@Service
+public class StatementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementService.class);
+
+    private final StatementEngine statementEngine;
+    private final CardStatementRepository statementRepository;
+    private final StatementRunRepository runRepository;
+    private final CreditCardRepository creditCardRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final BusinessDay businessDay;
+
+    // Admin-triggered runs go to the background; the engine itself allows one run at a time
+    private final ExecutorService runExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "statement-run");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StatementService(StatementEngine statementEngine,
+                            CardStatementRepository statementRepository,
+                            StatementRunRepository runRepository,
+                            CreditCardRepository creditCardRepository,
+                            TransactionRepository transactionRepository,
+                            TransactionService transactionService,
+                            BusinessDay businessDay) {
+        this.statementEngine = statementEngine;
+        this.statementRepository = statementRepository;
+        this.runRepository = runRepository;
+        this.creditCardRepository = creditCardRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.businessDay = businessDay;
+    }
+
+    // ✅ Every night, generate (or finish) last month's statements
+    @Scheduled(cron = "${creditcard.statements.cron:0 30 1 * * *}", zone = "${creditcard.daily-reset.zone:Asia/Kolkata}")
+    public void scheduledRun() {
+        YearMonth month = YearMonth.from(businessDay.today()).minusMonths(1);
+        if (runRepository.findById(month.toString())
+                .map(run -> run.getStatus() == StatementRun.Status.COMPLETED).orElse(false)) {
+            return;
+        }
+        try {
+            statementEngine.generate(month);
+        } catch (ConflictException ex) {
+            logger.info("Statement run for {} skipped: {}", month, ex.getMessage());
+        } catch (RuntimeException ex) {
+            logger.error("Statement run for {} failed, will resume on the next run: {}", month, ex.getMessage());
+        }
+    }
+
+    // ✅ Start a run in the background; progress via getRun
+    public String startRun(String month) {
+        YearMonth statementMonth = parseClosedMonth(month);
+        if (statementEngine.isRunning()) {
+            throw new ConflictException("A statement run is already in progress");
+        }
+        runExecutor.submit(() -> {
+            try {
+                statementEngine.generate(statementMonth);
+            } catch (RuntimeException ex) {
+                logger.error("Statement run for {} failed: {}", statementMonth, ex.getMessage());
+            }
+        });
+        return statementMonth.toString();
+    }
+
+    public StatementRun getRun(String month) {
+        return runRepository.findById(parseMonth(month).toString())
+                .orElseThrow(() -> new ResourceNotFoundException("No statement run for " + month));
+    }
+
+    // ✅ Statement headers of a card, newest first
+    public List<StatementDto> getStatements(Long cardId) {
+        CreditCard card = creditCardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
+        return statementRepository.findByCardIdOrderByStatementMonthDesc(cardId).stream()
+                .map(statement -> toDto(statement, card))
+                .toList();
+    }
+
+    // ✅ One statement with its transactions in dateTime order
+    public StatementDto getStatement(Long cardId, String month) {
+        YearMonth statementMonth = parseMonth(month);
+        CreditCard card = creditCardRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
+        CardStatement statement = statementRepository.findById(new CardStatement.Key(cardId, statementMonth.toString()))
+                .orElseThrow(() -> new ResourceNotFoundException("No statement for card ID " + cardId + " in " + statementMonth));
+        StatementDto dto = toDto(statement, card);
+        dto.setTransactions(transactionRepository.findForPeriod(cardId,
+                        statementMonth.atDay(1).atStartOfDay(), statementMonth.plusMonths(1).atDay(1).atStartOfDay())
+                .stream()
+                .map(transactionService::toDto)
+                .toList());
+        return dto;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runExecutor.shutdownNow();
+    }
+
+    private YearMonth parseClosedMonth(String month) {
+        YearMonth statementMonth = parseMonth(month);
+        if (!statementMonth.isBefore(YearMonth.from(businessDay.today()))) {
+            throw new InvalidInputException("Statements can only be generated for a month that has ended");
+        }
+        return statementMonth;
+    }
+
+    private static YearMonth parseMonth(String month) {
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException | NullPointerException ex) {
+            throw new InvalidInputException("Month must be given as yyyy-MM");
+        }
+    }
+
+    private static StatementDto toDto(CardStatement statement, CreditCard card) {
+        StatementDto dto = new StatementDto();
+        dto.setCardId(statement.getCardId());
+        dto.setCardNumber(card.getCardNumber());
+        dto.setStatementMonth(statement.getStatementMonth());
+        dto.setOpeningBalance(statement.getOpeningBalance());
+        dto.setDebitTotal(statement.getDebitTotal());
+        dto.setDebitCount(statement.getDebitCount());
+        dto.setCreditTotal(statement.getCreditTotal());
+        dto.setCreditCount(statement.getCreditCount());
+        dto.setClosingBalance(statement.getClosingBalance());
+        dto.setGeneratedAt(statement.getGeneratedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,146 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.Transaction;
+import com.Nikhil.CreditCardSystem.dto.TransactionDto;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.repo.TransactionRepository;
+import com.Nikhil.CreditCardSystem.util.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Streams a customer's full transaction history as NDJSON or CSV.
+ *
+ * Rows come from a DB cursor (fetch size 500) and are written to the response one by one and
+ * detached from the persistence context, so memory stays flat however long the history is.
+ */
+@Service
+public class TransactionExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidInputException("Unsupported export format: " + value + " (use ndjson or csv)");
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+    private static final byte[] NEWLINE = {'\n'};
+    private static final String CSV_HEADER = "id,timestamp,transactionType,amount,cardType,cardNumber,description\n";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    TransactionService transactionService,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.entityManager = entityManager;
+        this.jsonWriter = objectMapper.writerFor(TransactionDto.class);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody export(Long customerId, Format format, boolean gzip) {
+        return out -> {
+            long start = System.nanoTime();
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : new BufferedOutputStream(out, 8192);
+            long rows = readOnlyTransaction.execute(status -> {
+                try (Stream<Transaction> stream = transactionRepository.streamByCustomerId(customerId)) {
+                    if (format == Format.CSV) {
+                        target.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+                    }
+                    long count = 0;
+                    for (Transaction tx : (Iterable<Transaction>) stream::iterator) {
+                        writeRow(target, format, transactionService.toDto(tx));
+                        entityManager.detach(tx);
+                        if (++count % FLUSH_EVERY_ROWS == 0) {
+                            target.flush();
+                        }
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            target.flush();
+            LOGGER.info("Exported {} transactions for customer ID {} as {} in {} ms", rows, customerId, format,
+                    (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+
+    private void writeRow(OutputStream out, Format format, TransactionDto dto) throws IOException {
+        if (format == Format.NDJSON) {
+            out.write(jsonWriter.writeValueAsBytes(dto));
+            out.write(NEWLINE);
+            return;
+        }
+        String line = dto.getId() + ","
+                + dto.getTimestamp() + ","
+                + csv(dto.getTransactionType()) + ","
+                + Money.format(dto.getAmount()) + ","
+                + csv(dto.getCardType()) + ","
+                + csv(dto.getCardNumber()) + ","
+                + csv(dto.getDescription()) + "\n";
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
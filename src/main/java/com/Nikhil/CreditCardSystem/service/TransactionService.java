@@ -2,11 +2,31 @@ package com.Nikhil.CreditCardSystem.service;
 
 import com.Nikhil.CreditCardSystem.Entity.Transaction;
 import com.Nikhil.CreditCardSystem.dto.TransactionDto;
+import com.Nikhil.CreditCardSystem.dto.TransactionPageDto;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.repo.TransactionRepository;
+import com.Nikhil.CreditCardSystem.repo.TransactionSpecifications;
+import com.Nikhil.CreditCardSystem.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
 @Service
 public class TransactionService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("dateTime"), Sort.Order.desc("id"));
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
     public TransactionDto toDto(Transaction tx) {
         TransactionDto dto = new TransactionDto();
         dto.setId(tx.getId());
@@ -23,4 +43,57 @@ public class TransactionService {
         return dto;
     }
 
+    /**
+     * One page of a customer's transactions, newest first, filtered by type and date range in SQL.
+     *
+     * @param transactionType "DEBIT", "CREDIT" or null for both
+     * @param from            inclusive lower bound on dateTime, or null
+     * @param to              exclusive upper bound on dateTime, or null
+     * @param cursor          nextCursor of the previous page, or null for the first page
+     */
+    public TransactionPageDto findPageForCustomer(Long customerId, String transactionType,
+                                                  LocalDateTime from, LocalDateTime to,
+                                                  String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        LocalDateTime cursorTime = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = KeysetCursor.decode(cursor, 2);
+            try {
+                cursorTime = LocalDateTime.parse(parts[0]);
+                cursorId = Long.valueOf(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidInputException("Invalid pagination cursor");
+            }
+        }
+
+        Specification<Transaction> spec = Specification.allOf(
+                TransactionSpecifications.forCustomer(customerId),
+                TransactionSpecifications.ofType(transactionType),
+                TransactionSpecifications.from(from),
+                TransactionSpecifications.to(to),
+                TransactionSpecifications.before(cursorTime, cursorId));
+
+        // Fetch one extra row to know whether another page exists
+        List<Transaction> rows = transactionRepository.findBy(spec,
+                query -> query.sortBy(NEWEST_FIRST).limit(pageSize + 1).all());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        TransactionPageDto page = new TransactionPageDto();
+        page.setTransactions(pageRows.stream().map(this::toDto).toList());
+        page.setSize(pageRows.size());
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            Transaction last = pageRows.get(pageRows.size() - 1);
+            page.setNextCursor(KeysetCursor.encode(last.getDateTime(), last.getId()));
+        }
+        return page;
+    }
+
 }
@@ -0,0 +1,230 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.CardAggregate;
+import com.Nikhil.CreditCardSystem.Entity.CardDailyAggregate;
+import com.Nikhil.CreditCardSystem.dto.TransactionSummaryDto;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.repo.AggregateJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CardAggregateRepository;
+import com.Nikhil.CreditCardSystem.repo.CardDailyAggregateRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.repo.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads of the precomputed transaction aggregates, and their rebuild from the transaction table.
+ *
+ * The live totals are maintained by the balance paths (see AggregateJdbcRepository.apply), so a
+ * card summary is one primary-key read and a customer summary one read per card. The rebuild
+ * recomputes them in card-id chunks on a small thread pool; each chunk locks its card rows first,
+ * so balance updates on those cards wait for it instead of being lost or counted twice.
+ */
+@Service
+public class TransactionSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionSummaryService.class);
+
+    static final String LEASE_NAME = "transaction-aggregates-rebuild";
+    private static final int MAX_DAYS = 366;
+
+    private final CardAggregateRepository cardAggregateRepository;
+    private final CardDailyAggregateRepository dailyAggregateRepository;
+    private final CreditCardRepository creditCardRepository;
+    private final CustomerRepository customerRepository;
+    private final AggregateJdbcRepository aggregateJdbcRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeaseService leaseService;
+
+    @Value("${creditcard.aggregates.rebuild.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${creditcard.aggregates.rebuild.parallelism:4}")
+    private int parallelism;
+
+    @Value("${creditcard.aggregates.rebuild.lease-ms:600000}")
+    private long leaseMs;
+
+    @Value("${creditcard.aggregates.rebuild-on-empty:true}")
+    private boolean rebuildOnEmpty;
+
+    public TransactionSummaryService(CardAggregateRepository cardAggregateRepository,
+                                     CardDailyAggregateRepository dailyAggregateRepository,
+                                     CreditCardRepository creditCardRepository,
+                                     CustomerRepository customerRepository,
+                                     AggregateJdbcRepository aggregateJdbcRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     SchedulerLeaseService leaseService) {
+        this.cardAggregateRepository = cardAggregateRepository;
+        this.dailyAggregateRepository = dailyAggregateRepository;
+        this.creditCardRepository = creditCardRepository;
+        this.customerRepository = customerRepository;
+        this.aggregateJdbcRepository = aggregateJdbcRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.leaseService = leaseService;
+    }
+
+    // ✅ Totals of one card
+    public TransactionSummaryDto getCardSummary(Long cardId) {
+        CardAggregate aggregate = cardAggregateRepository.findById(cardId).orElse(null);
+        if (aggregate == null) {
+            if (!creditCardRepository.existsById(cardId)) {
+                throw new ResourceNotFoundException("Card not found");
+            }
+            aggregate = new CardAggregate();
+            aggregate.setCardId(cardId);
+        }
+        return toDto(aggregate);
+    }
+
+    // ✅ Totals of a customer: the sum over their cards, with the per-card totals
+    public TransactionSummaryDto getCustomerSummary(Long customerId) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        TransactionSummaryDto summary = new TransactionSummaryDto();
+        summary.setCustomerId(customerId);
+        List<TransactionSummaryDto> cards = new ArrayList<>();
+        for (CardAggregate aggregate : cardAggregateRepository.findByCustomerId(customerId)) {
+            TransactionSummaryDto card = toDto(aggregate);
+            cards.add(card);
+            summary.setDebitTotal(summary.getDebitTotal() + card.getDebitTotal());
+            summary.setDebitCount(summary.getDebitCount() + card.getDebitCount());
+            summary.setCreditTotal(summary.getCreditTotal() + card.getCreditTotal());
+            summary.setCreditCount(summary.getCreditCount() + card.getCreditCount());
+            if (card.getLastActivityAt() != null && (summary.getLastActivityAt() == null
+                    || card.getLastActivityAt().isAfter(summary.getLastActivityAt()))) {
+                summary.setLastActivityAt(card.getLastActivityAt());
+            }
+        }
+        summary.setCards(cards);
+        return summary;
+    }
+
+    // ✅ Per-day totals of a card, days without activity left out
+    public List<TransactionSummaryDto> getDailySummary(Long cardId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new InvalidInputException("Both from and to dates are required, with from not after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new InvalidInputException("Date range must not exceed " + MAX_DAYS + " days");
+        }
+        if (!creditCardRepository.existsById(cardId)) {
+            throw new ResourceNotFoundException("Card not found");
+        }
+        return dailyAggregateRepository.findByCardIdAndActivityDateBetweenOrderByActivityDate(cardId, from, to)
+                .stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    // First start after the aggregates were introduced: backfill them from existing transactions
+    @EventListener(ApplicationReadyEvent.class)
+    void backfillIfEmpty() {
+        if (!rebuildOnEmpty || cardAggregateRepository.count() > 0
+                || jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM transaction LIMIT 1) t", Integer.class) == 0) {
+            return;
+        }
+        Thread backfill = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                logger.error("Transaction aggregate backfill failed: {}", ex.getMessage());
+            }
+        }, "aggregate-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Recomputes all aggregates from the transaction table. Returns the number of chunks.
+     * Only one node rebuilds at a time.
+     */
+    public long rebuild() {
+        if (!leaseService.tryAcquire(LEASE_NAME, Duration.ofMillis(leaseMs))) {
+            throw new ConflictException("An aggregate rebuild is already running");
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            long start = System.nanoTime();
+            Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM credit_card");
+            Number minId = (Number) range.get("min_id");
+            Number maxId = (Number) range.get("max_id");
+            if (minId == null || maxId == null) {
+                return 0;
+            }
+
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long from = minId.longValue(); from <= maxId.longValue(); from += chunkSize) {
+                long first = from;
+                long last = from + chunkSize - 1;
+                chunks.add(pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                    // Balance paths write the card row in the same transaction as the totals
+                    jdbcTemplate.queryForList("SELECT id FROM credit_card WHERE id BETWEEN ? AND ? ORDER BY id FOR UPDATE",
+                            Long.class, first, last);
+                    aggregateJdbcRepository.rebuild(first, last);
+                })));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+            logger.info("Transaction aggregates rebuilt in {} chunk(s), {} ms", chunks.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return chunks.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Aggregate rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Aggregate rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+            leaseService.release(LEASE_NAME);
+        }
+    }
+
+    private TransactionSummaryDto toDto(CardAggregate aggregate) {
+        TransactionSummaryDto dto = new TransactionSummaryDto();
+        dto.setCardId(aggregate.getCardId());
+        dto.setDebitTotal(aggregate.getDebitTotal());
+        dto.setDebitCount(aggregate.getDebitCount());
+        dto.setCreditTotal(aggregate.getCreditTotal());
+        dto.setCreditCount(aggregate.getCreditCount());
+        dto.setLastActivityAt(aggregate.getLastActivityAt());
+        return dto;
+    }
+
+    private TransactionSummaryDto toDto(CardDailyAggregate aggregate) {
+        TransactionSummaryDto dto = new TransactionSummaryDto();
+        dto.setCardId(aggregate.getCardId());
+        dto.setActivityDate(aggregate.getActivityDate());
+        dto.setDebitTotal(aggregate.getDebitTotal());
+        dto.setDebitCount(aggregate.getDebitCount());
+        dto.setCreditTotal(aggregate.getCreditTotal());
+        dto.setCreditCount(aggregate.getCreditCount());
+        dto.setLastActivityAt(aggregate.getLastActivityAt());
+        return dto;
+    }
+}
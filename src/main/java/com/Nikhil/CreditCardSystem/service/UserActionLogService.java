@@ -2,16 +2,104 @@ package com.Nikhil.CreditCardSystem.service;
 
 
 import com.Nikhil.CreditCardSystem.Entity.UserActionLog;
-import com.Nikhil.CreditCardSystem.repo.UserActionLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Audit trail writer.
+ *
+ * logAction() only enqueues the record into a bounded in-memory buffer; a single background
+ * flusher thread writes the buffered rows to user_action_logs with JDBC batch inserts, either
+ * when a batch is full or when the flush interval elapses. When the buffer is full the
+ * configured backpressure policy decides what happens to the caller:
+ *      - BLOCK : wait until the flusher frees a slot
+ *      - DROP  : discard the record and count it
+ *      - SPILL : append the record to a local spill file, replayed once the buffer drains
+ */
 @Service
 public class UserActionLogService {
 
-    private final UserActionLogRepository logRepository;
+    public enum BackpressurePolicy { BLOCK, DROP, SPILL }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserActionLogService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_action_logs (name, action, status, action_time) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${creditcard.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${creditcard.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${creditcard.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${creditcard.audit.backpressure:BLOCK}")
+    private BackpressurePolicy backpressurePolicy;
+
+    @Value("${creditcard.audit.spill-file:logs/audit-spill.log}")
+    private String spillFile;
+
+    @Value("${creditcard.audit.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<UserActionLog> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private volatile boolean spillPending;
+
+    // Metrics
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
 
-    public UserActionLogService(UserActionLogRepository logRepository) {
-        this.logRepository = logRepository;
+    public UserActionLogService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        spillPending = Files.exists(Paths.get(spillFile));
+        running = true;
+        flusher = new Thread(this::runFlusher, "audit-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        LOGGER.info("Audit log pipeline started (capacity={}, batchSize={}, flushIntervalMs={}, policy={})",
+                queueCapacity, batchSize, flushIntervalMs, backpressurePolicy);
     }
 
     // Single method to save log
@@ -20,6 +108,244 @@ public class UserActionLogService {
         log.setName(username);
         log.setAction(action);
         log.setStatus(status);
-        logRepository.save(log);
+
+        if (!running) {
+            // Pipeline is shut down: fall back to a direct write so nothing is lost
+            writeBatch(List.of(log));
+            return;
+        }
+        if (queue.offer(log)) {
+            return;
+        }
+
+        switch (backpressurePolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(log);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCount.incrementAndGet();
+                }
+            }
+            case DROP -> {
+                long dropped = droppedCount.incrementAndGet();
+                if (dropped % 1000 == 1) {
+                    LOGGER.warn("Audit log buffer full, {} record(s) dropped so far", dropped);
+                }
+            }
+            case SPILL -> spill(List.of(log));
+        }
+    }
+
+    // ✅ Background flusher: drains the buffer in batches by size or time
+    private void runFlusher() {
+        List<UserActionLog> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.nanoTime();
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                UserActionLog next = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (next != null) {
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                boolean due = System.nanoTime() - lastFlush >= intervalNanos;
+                if (batch.size() >= batchSize || (due && !batch.isEmpty())) {
+                    flush(batch);
+                    lastFlush = System.nanoTime();
+                } else if (batch.isEmpty() && spillPending && queue.isEmpty()) {
+                    replaySpill();
+                }
+            } catch (InterruptedException e) {
+                // Keep looping until the buffer is drained
+                Thread.interrupted();
+            } catch (Throwable t) {
+                LOGGER.error("Audit log flusher error: {}", t.getMessage());
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<UserActionLog> batch) {
+        long start = System.nanoTime();
+        try {
+            writeBatch(batch);
+            flushedCount.addAndGet(batch.size());
+        } catch (Exception e) {
+            LOGGER.error("Failed to write {} audit record(s): {}", batch.size(), e.getMessage());
+            if (backpressurePolicy == BackpressurePolicy.SPILL) {
+                spill(batch);
+            } else {
+                droppedCount.addAndGet(batch.size());
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lastFlushNanos = elapsed;
+            if (elapsed > maxFlushNanos) {
+                maxFlushNanos = elapsed;
+            }
+            totalFlushNanos.addAndGet(elapsed);
+            flushCount.incrementAndGet();
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<UserActionLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, log) -> {
+            ps.setString(1, log.getName());
+            ps.setString(2, log.getAction());
+            ps.setString(3, log.getStatus());
+            ps.setTimestamp(4, Timestamp.valueOf(log.getActionTime()));
+        });
+    }
+
+    // ✅ Spill-to-disk: one tab separated record per line
+    private void spill(List<UserActionLog> logs) {
+        spillLock.lock();
+        try {
+            Path path = Paths.get(spillFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (UserActionLog log : logs) {
+                    writer.write(log.getActionTime() + "\t" + escape(log.getName()) + "\t"
+                            + escape(log.getAction()) + "\t" + escape(log.getStatus()));
+                    writer.newLine();
+                }
+            }
+            spilledCount.addAndGet(logs.size());
+            spillPending = true;
+        } catch (IOException e) {
+            LOGGER.error("Failed to spill {} audit record(s) to {}: {}", logs.size(), spillFile, e.getMessage());
+            droppedCount.addAndGet(logs.size());
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    // The .replay file is read from the line after the last committed batch, recorded in .replay.offset,
+    // so a replay that fails halfway (or a restart) never inserts a record twice
+    private void replaySpill() {
+        Path path = Paths.get(spillFile);
+        Path replaying = Paths.get(spillFile + ".replay");
+        Path offsetFile = Paths.get(spillFile + ".replay.offset");
+        spillLock.lock();
+        try {
+            if (!Files.exists(replaying)) {
+                if (!Files.exists(path)) {
+                    spillPending = false;
+                    return;
+                }
+                Files.deleteIfExists(offsetFile);
+                Files.move(path, replaying, StandardCopyOption.REPLACE_EXISTING);
+            }
+            spillPending = Files.exists(path);
+        } catch (IOException e) {
+            LOGGER.error("Failed to prepare audit spill file for replay: {}", e.getMessage());
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+
+        List<UserActionLog> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+            long committedLines = Files.exists(offsetFile) ? Long.parseLong(Files.readString(offsetFile).trim()) : 0;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (++lineNumber <= committedLines) {
+                    continue;
+                }
+                String[] parts = line.split("\t", -1);
+                if (parts.length != 4) {
+                    continue;
+                }
+                UserActionLog log = new UserActionLog();
+                log.setActionTime(LocalDateTime.parse(parts[0]));
+                log.setName(unescape(parts[1]));
+                log.setAction(unescape(parts[2]));
+                log.setStatus(unescape(parts[3]));
+                batch.add(log);
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch);
+                    flushedCount.addAndGet(batch.size());
+                    batch.clear();
+                    Files.writeString(offsetFile, Long.toString(lineNumber));
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                flushedCount.addAndGet(batch.size());
+            }
+            Files.delete(replaying);
+            Files.deleteIfExists(offsetFile);
+            LOGGER.info("Replayed spilled audit records from {}", spillFile);
+        } catch (Exception e) {
+            // Keep the replay file; it is picked up again on the next idle cycle
+            spillPending = true;
+            LOGGER.error("Failed to replay audit spill file: {}", e.getMessage());
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "\\N";
+        }
+        return value.replace("\t", " ").replace("\r", " ").replace("\n", " ");
+    }
+
+    private static String unescape(String value) {
+        return "\\N".equals(value) ? null : value;
+    }
+
+    // ✅ Drain whatever is buffered before the DataSource goes away
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        try {
+            flusher.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive() || !queue.isEmpty()) {
+            LOGGER.warn("Audit log pipeline did not drain within {} ms, {} record(s) left in buffer",
+                    shutdownTimeoutMs, queue.size());
+        } else {
+            LOGGER.info("Audit log pipeline drained ({} record(s) written)", flushedCount.get());
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    public long getMaxFlushNanos() {
+        return maxFlushNanos;
+    }
+
+    public long getAverageFlushNanos() {
+        long flushes = flushCount.get();
+        return flushes == 0 ? 0 : totalFlushNanos.get() / flushes;
     }
 }
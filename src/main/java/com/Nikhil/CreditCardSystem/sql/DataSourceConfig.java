@@ -0,0 +1,70 @@
+package com.Nikhil.CreditCardSystem.sql;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Wraps the application DataSource (the Hikari pool): first in a {@link BulkheadDataSource}
+ * (creditcard.db.bulkhead.*), then in an {@link ObservedDataSource} (creditcard.sql.*), so
+ * statement timings do not include waiting for a connection.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // Static, and the observer looked up lazily, so this post-processor does not pull beans in early
+    @Bean
+    static BeanPostProcessor dataSourceWrappingPostProcessor(ObjectProvider<QueryObserver> queryObserver,
+                                                             Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ObservedDataSource
+                        || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                if (environment.getProperty("creditcard.db.bulkhead.enabled", Boolean.class, true)) {
+                    int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                    dataSource = new BulkheadDataSource(dataSource,
+                            environment.getProperty("creditcard.db.bulkhead.max-concurrent", Integer.class, poolSize),
+                            environment.getProperty("creditcard.db.bulkhead.max-waiting", Integer.class, 1000),
+                            environment.getProperty("creditcard.db.bulkhead.max-wait-ms", Long.class, 2000L));
+                }
+                QueryObserver observer = queryObserver.getObject();
+                return observer.isEnabled() ? new ObservedDataSource(dataSource, observer) : dataSource;
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            BulkheadDataSource bulkhead = bulkheadOf(dataSource);
+            if (bulkhead == null) {
+                return;
+            }
+            Gauge.builder("creditcard.db.bulkhead.in.use", bulkhead, BulkheadDataSource::getInUse).register(registry);
+            Gauge.builder("creditcard.db.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaiting).register(registry);
+            FunctionCounter.builder("creditcard.db.bulkhead.rejected", bulkhead, BulkheadDataSource::getRejectedCount)
+                    .tag("reason", "queue_full").register(registry);
+            FunctionCounter.builder("creditcard.db.bulkhead.rejected", bulkhead, BulkheadDataSource::getTimedOutCount)
+                    .tag("reason", "timeout").register(registry);
+        };
+    }
+
+    private static BulkheadDataSource bulkheadOf(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(BulkheadDataSource.class) ? dataSource.unwrap(BulkheadDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
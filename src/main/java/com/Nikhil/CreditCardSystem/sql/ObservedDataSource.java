@@ -0,0 +1,189 @@
+package com.Nikhil.CreditCardSystem.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource wrapper that times every statement executed through its connections and reports it
+ * to the {@link QueryObserver}. JPA and JdbcTemplate both go through it.
+ *
+ * Connections and statements are JDK proxies over the pooled ones: bind parameters are kept (for
+ * the slow-query log) as they are set, execute* / executeBatch calls are timed, everything else
+ * is passed through. Time spent reading a result set after executeQuery returns is not counted.
+ */
+public class ObservedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final ClassLoader CLASS_LOADER = ObservedDataSource.class.getClassLoader();
+
+    private final QueryObserver observer;
+
+    public ObservedDataSource(DataSource target, QueryObserver observer) {
+        super(target);
+        this.observer = observer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observe(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return observe(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    // The pool is closed through the wrapper on shutdown (destroy method inferred from this bean)
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection observe(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Proxies are compared by identity (pools and Hibernate keep them in hash maps)
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class
+                && ("equals".equals(method.getName()) || "hashCode".equals(method.getName()));
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return "equals".equals(method.getName()) ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = ObservedDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement / prepareCall carry their SQL; createStatement gets it per execute
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{method.getReturnType()},
+                        new StatementHandler(statement, (Connection) proxy, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private final String preparedSql;
+        private final QueryObserver.ShapeStats preparedStats;
+        private Object[] parameters;
+        private int parameterCount;
+        private int batchSize;
+        private String batchSql;
+
+        StatementHandler(Statement target, Connection connection, String preparedSql) {
+            this.target = target;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+            this.preparedStats = preparedSql != null ? observer.statsFor(preparedSql) : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" -> {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    return timed(method, args, sql, 0);
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    int size = batchSize;
+                    batchSize = 0;
+                    return timed(method, args, preparedSql != null ? preparedSql : batchSql, Math.max(size, 1));
+                }
+                case "addBatch" -> {
+                    batchSize++;
+                    if (args != null && args.length == 1 && args[0] instanceof String text) {
+                        batchSql = text;
+                    }
+                }
+                case "clearBatch" -> batchSize = 0;
+                case "clearParameters" -> {
+                    if (parameters != null) {
+                        Arrays.fill(parameters, null);
+                    }
+                    parameterCount = 0;
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "equals", "hashCode" -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                }
+                default -> {
+                    // setXxx(int index, value, ...) on prepared / callable statements
+                    if (args != null && args.length >= 2 && name.startsWith("set") && args[0] instanceof Integer index) {
+                        bind(index, "setNull".equals(name) ? null : args[1]);
+                    }
+                }
+            }
+            return ObservedDataSource.invoke(target, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (parameters == null) {
+                parameters = new Object[Math.max(index, 8)];
+            } else if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private Object timed(Method method, Object[] args, String sql, int batch) throws Throwable {
+            long start = System.nanoTime();
+            Throwable error = null;
+            try {
+                return ObservedDataSource.invoke(target, method, args);
+            } catch (Throwable ex) {
+                error = ex;
+                throw ex;
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (sql != null) {
+                    QueryObserver.ShapeStats stats = sql == preparedSql ? preparedStats : observer.statsFor(sql);
+                    observer.completed(stats, sql, parameters, parameterCount, batch, nanos, error);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.Nikhil.CreditCardSystem.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Timing, slow-query log and per-shape stats of every JDBC statement (see {@link ObservedDataSource}).
+ *
+ * A statement is logged (WARN) when it takes at least slow-threshold-ms, and one in sample-rate
+ * of the others is logged at INFO; nothing is formatted for the rest. Bound parameters are
+ * masked: strings show only their last 4 characters (card numbers come out as ************1111),
+ * other values (ids, amounts, dates) are shown as is.
+ *
+ * Stats are kept per statement shape: the SQL with literals replaced by ? and IN lists folded,
+ * so one Hibernate query is one shape whatever its arguments. At most max-shapes are tracked,
+ * later ones are counted under "(other)".
+ */
+@Component
+public class QueryObserver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryObserver.class);
+
+    static final String OTHER_SHAPE = "(other)";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final int sampleRate;
+    private final int maxShapes;
+
+    // Raw SQL -> stats of its shape, so a shape is computed once per distinct SQL string
+    private final Cache<String, ShapeStats> bySql;
+    private final Map<String, ShapeStats> byShape = new ConcurrentHashMap<>();
+    private final ShapeStats other = new ShapeStats(OTHER_SHAPE);
+
+    private final LongAdder slowLogged = new LongAdder();
+    private final LongAdder sampledLogged = new LongAdder();
+
+    public QueryObserver(@Value("${creditcard.sql.enabled:true}") boolean enabled,
+                         @Value("${creditcard.sql.slow-threshold-ms:200}") long slowThresholdMs,
+                         @Value("${creditcard.sql.sample-rate:0}") int sampleRate,
+                         @Value("${creditcard.sql.max-shapes:500}") int maxShapes) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.sampleRate = Math.max(0, sampleRate);
+        this.maxShapes = maxShapes;
+        this.bySql = Caffeine.newBuilder().maximumSize(Math.max(1000, maxShapes * 20L)).build();
+        LOGGER.info("SQL observation {} (slow threshold {} ms, sample 1 in {})",
+                enabled ? "enabled" : "disabled", slowThresholdMs, sampleRate == 0 ? "never" : sampleRate);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    ShapeStats statsFor(String sql) {
+        return bySql.get(sql, raw -> {
+            String shape = shapeOf(raw);
+            ShapeStats stats = byShape.get(shape);
+            if (stats != null) {
+                return stats;
+            }
+            if (byShape.size() >= maxShapes) {
+                return other;
+            }
+            return byShape.computeIfAbsent(shape, ShapeStats::new);
+        });
+    }
+
+    // ✅ Called after every execution; parameters are only read (up to parameterCount) when logging
+    void completed(ShapeStats stats, String sql, Object[] parameters, int parameterCount, int batchSize, long nanos,
+                   Throwable error) {
+        stats.record(nanos, error != null, nanos >= slowThresholdNanos);
+        if (nanos >= slowThresholdNanos) {
+            slowLogged.increment();
+            LOGGER.warn("Slow SQL ({} ms{}{}): {} | params {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                    batchSize > 0 ? ", batch of " + batchSize : "", error != null ? ", failed" : "",
+                    loggable(sql), maskedParameters(parameters, parameterCount));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            sampledLogged.increment();
+            LOGGER.info("Sampled SQL ({} us{}): {} | params {}", TimeUnit.NANOSECONDS.toMicros(nanos),
+                    batchSize > 0 ? ", batch of " + batchSize : "", loggable(sql), maskedParameters(parameters, parameterCount));
+        }
+    }
+
+    public SqlStatsReport report(int top) {
+        List<ShapeStats> all = new ArrayList<>(byShape.values());
+        if (other.count.sum() > 0) {
+            all.add(other);
+        }
+        long statements = 0;
+        long slow = 0;
+        for (ShapeStats stats : all) {
+            statements += stats.count.sum();
+            slow += stats.slow.sum();
+        }
+        List<SqlStatsReport.Shape> shapes = all.stream()
+                .sorted(Comparator.comparingLong((ShapeStats stats) -> stats.totalNanos.sum()).reversed())
+                .limit(Math.max(1, top))
+                .map(ShapeStats::snapshot)
+                .toList();
+        return new SqlStatsReport(TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos), sampleRate, statements, slow,
+                byShape.size(), shapes);
+    }
+
+    public void reset() {
+        bySql.invalidateAll();
+        byShape.clear();
+        other.clear();
+    }
+
+    public long getSlowLoggedCount() {
+        return slowLogged.sum();
+    }
+
+    public long getSampledLoggedCount() {
+        return sampledLogged.sum();
+    }
+
+    static String shapeOf(String sql) {
+        String shape = flatten(sql);
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("in (?...)");
+    }
+
+    private static String flatten(String sql) {
+        return WHITESPACE.matcher(sql).replaceAll(" ").trim();
+    }
+
+    // One line, with string literals (SQL not using bind parameters) masked like parameters
+    static String loggable(String sql) {
+        return STRING_LITERAL.matcher(flatten(sql)).replaceAll(match -> Matcher.quoteReplacement(
+                mask(match.group().substring(1, match.group().length() - 1))));
+    }
+
+    static String maskedParameters(Object[] parameters, int count) {
+        if (parameters == null || count == 0) {
+            return "[]";
+        }
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(mask(parameters[i]));
+        }
+        return text.append(']').toString();
+    }
+
+    static String mask(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Temporal
+                || value instanceof Date) {
+            return value.toString();
+        }
+        if (value instanceof CharSequence chars) {
+            int length = chars.length();
+            int shown = length >= 8 ? 4 : 0;
+            return "'" + "*".repeat(length - shown) + chars.subSequence(length - shown, length) + "'";
+        }
+        // Streams, blobs, arrays: type only
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    static final class ShapeStats {
+        private final String shape;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        ShapeStats(String shape) {
+            this.shape = shape;
+        }
+
+        void record(long nanos, boolean failed, boolean isSlow) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (failed) {
+                errors.increment();
+            }
+            if (isSlow) {
+                slow.increment();
+            }
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        void clear() {
+            count.reset();
+            totalNanos.reset();
+            slow.reset();
+            errors.reset();
+            maxNanos.set(0);
+        }
+
+        SqlStatsReport.Shape snapshot() {
+            long executions = count.sum();
+            long total = totalNanos.sum();
+            return new SqlStatsReport.Shape(shape, executions, total / 1_000_000.0,
+                    executions == 0 ? 0 : total / 1_000_000.0 / executions, maxNanos.get() / 1_000_000.0,
+                    slow.sum(), errors.sum());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.Nikhil.CreditCardSystem.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/sqlstats[?top=50]: per statement-shape counts and timings, most expensive first.
+ * DELETE /actuator/sqlstats: start counting again. ADMIN only, like the rest of /actuator.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private static final int DEFAULT_TOP = 50;
+
+    private final QueryObserver queryObserver;
+
+    public SqlStatsEndpoint(QueryObserver queryObserver) {
+        this.queryObserver = queryObserver;
+    }
+
+    @ReadOperation
+    public SqlStatsReport stats(@Nullable Integer top) {
+        return queryObserver.report(top == null ? DEFAULT_TOP : top);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryObserver.reset();
+    }
+}
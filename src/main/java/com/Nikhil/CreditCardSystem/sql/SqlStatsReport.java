@@ -0,0 +1,13 @@
+package com.Nikhil.CreditCardSystem.sql;
+
+import java.util.List;
+
+/**
+ * Statement stats since startup (or the last reset), most expensive shapes (total time) first.
+ */
+public record SqlStatsReport(long slowThresholdMs, int sampleRate, long statements, long slowStatements,
+                             int shapesTracked, List<Shape> shapes) {
+
+    public record Shape(String sql, long count, double totalMs, double meanMs, double maxMs, long slow, long errors) {
+    }
+}
@@ -0,0 +1,341 @@
+package com.Nikhil.CreditCardSystem.statement;
+
+import com.Nikhil.CreditCardSystem.Entity.CardStatement;
+import com.Nikhil.CreditCardSystem.Entity.StatementRun;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.repo.StatementJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.StatementRunRepository;
+import com.Nikhil.CreditCardSystem.service.SchedulerLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generates the monthly statements of all cards.
+ *
+ * The card-id space is cut into fixed, aligned chunks; pending chunks are split recursively over
+ * a bounded ForkJoinPool. A chunk is one REPEATABLE READ transaction: it reads the chunk's cards
+ * (with last month's closing balance), streams their transactions of the month in (card, dateTime)
+ * order, folds them into one statement per card, and writes the statements together with the
+ * chunk checkpoint. A re-run only processes chunks without a checkpoint.
+ *
+ * Opening balance is last month's closing balance; for a card's first statement it is derived
+ * from the current balance minus everything that moved since the start of the month.
+ */
+@Component
+public class StatementEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementEngine.class);
+
+    static final String LEASE_NAME = "monthly-statements";
+
+    private final StatementJdbcRepository statementJdbcRepository;
+    private final StatementRunRepository runRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLeaseService leaseService;
+    private final TransactionTemplate snapshotTransaction;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Value("${creditcard.statements.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${creditcard.statements.parallelism:4}")
+    private int parallelism;
+
+    @Value("${creditcard.statements.lease-ms:600000}")
+    private long leaseMs;
+
+    // Metrics
+    private final LongAdder cardsGenerated = new LongAdder();
+    private final LongAdder chunksGenerated = new LongAdder();
+    private final AtomicLong runs = new AtomicLong();
+    private volatile double lastCardsPerSecond;
+    private volatile long lastDurationMs;
+
+    public StatementEngine(StatementJdbcRepository statementJdbcRepository,
+                           StatementRunRepository runRepository,
+                           JdbcTemplate jdbcTemplate,
+                           SchedulerLeaseService leaseService,
+                           PlatformTransactionManager transactionManager) {
+        this.statementJdbcRepository = statementJdbcRepository;
+        this.runRepository = runRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseService = leaseService;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        // Balances and transactions of a chunk are read from one snapshot
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public boolean isRunning() {
+        return runLock.isLocked();
+    }
+
+    // ✅ Generates (or resumes) the statements of a month; returns the run's final state
+    public StatementRun generate(YearMonth month) {
+        if (!runLock.tryLock()) {
+            throw new ConflictException("A statement run is already in progress");
+        }
+        try {
+            if (!leaseService.tryAcquire(LEASE_NAME, Duration.ofMillis(leaseMs))) {
+                throw new ConflictException("A statement run is already in progress on another node");
+            }
+            try {
+                return execute(month);
+            } finally {
+                leaseService.release(LEASE_NAME);
+            }
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private StatementRun execute(YearMonth month) {
+        String key = month.toString();
+        StatementRun run = runRepository.findById(key).orElseGet(() -> {
+            StatementRun created = new StatementRun();
+            created.setStatementMonth(key);
+            created.setChunkSize(chunkSize);
+            return created;
+        });
+        if (run.getStatus() == StatementRun.Status.COMPLETED) {
+            logger.info("Statements for {} already generated", key);
+            return run;
+        }
+        run.setStatus(StatementRun.Status.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        run.setFinishedAt(null);
+        run.setLastError(null);
+        run = runRepository.save(run);
+
+        Progress progress = new Progress(month, run.getChunkSize());
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM credit_card");
+            Number minId = (Number) range.get("min_id");
+            Number maxId = (Number) range.get("max_id");
+
+            List<Long> pending = new ArrayList<>();
+            long total = 0;
+            if (minId != null && maxId != null) {
+                Set<Long> done = statementJdbcRepository.completedChunks(key);
+                long size = run.getChunkSize();
+                for (long from = Math.floorDiv(minId.longValue(), size) * size; from <= maxId.longValue(); from += size) {
+                    total++;
+                    if (!done.contains(from)) {
+                        pending.add(from);
+                    }
+                }
+            }
+            run.setTotalChunks(total);
+            logger.info("Generating statements for {}: {} of {} chunk(s) pending", key, pending.size(), total);
+
+            if (!pending.isEmpty()) {
+                ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+                try {
+                    pool.invoke(new ChunkTask(progress, pending, 0, pending.size()));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            finish(run, progress, start, progress.leaseLost ? "Lease lost, run stopped early" : null);
+            return run;
+        } catch (RuntimeException ex) {
+            finish(run, progress, start, ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private void finish(StatementRun run, Progress progress, long start, String error) {
+        long elapsedNanos = System.nanoTime() - start;
+        long cards = progress.cards.sum();
+        double perSecond = elapsedNanos == 0 ? 0 : cards * 1_000_000_000.0 / elapsedNanos;
+        run.setCompletedChunks(statementJdbcRepository.completedChunks(run.getStatementMonth()).size());
+        run.setCardsProcessed(run.getCardsProcessed() + cards);
+        run.setCardsPerSecond(perSecond);
+        run.setFinishedAt(LocalDateTime.now());
+        run.setStatus(error == null && run.getCompletedChunks() >= run.getTotalChunks()
+                ? StatementRun.Status.COMPLETED : StatementRun.Status.FAILED);
+        run.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 1000)));
+        runRepository.save(run);
+
+        runs.incrementAndGet();
+        lastDurationMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        lastCardsPerSecond = perSecond;
+        logger.info("Statement run for {} {}: {} card(s) in {} chunk(s), {} ms, {} cards/s",
+                run.getStatementMonth(), run.getStatus(), cards, progress.chunks.sum(), lastDurationMs,
+                Math.round(perSecond));
+    }
+
+    // One chunk, one transaction: statements and checkpoint commit together
+    private int processChunk(YearMonth month, long fromCardId, long toCardId) {
+        LocalDateTime periodStart = month.atDay(1).atStartOfDay();
+        LocalDateTime periodEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+        String key = month.toString();
+        Integer count = snapshotTransaction.execute(status -> {
+            List<StatementJdbcRepository.CardRow> cards = statementJdbcRepository.findCards(
+                    fromCardId, toCardId, month.minusMonths(1).toString(), month.plusMonths(1).atDay(1));
+            if (cards.isEmpty()) {
+                statementJdbcRepository.checkpoint(key, fromCardId, 0);
+                return 0;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, CardStatement> statements = new LinkedHashMap<>();
+            List<StatementJdbcRepository.CardRow> firstStatements = new ArrayList<>();
+            for (StatementJdbcRepository.CardRow card : cards) {
+                CardStatement statement = new CardStatement();
+                statement.setCardId(card.cardId());
+                statement.setStatementMonth(key);
+                statement.setGeneratedAt(now);
+                if (card.previousClosing() != null) {
+                    statement.setOpeningBalance(card.previousClosing());
+                } else {
+                    firstStatements.add(card);
+                }
+                statements.put(card.cardId(), statement);
+            }
+            if (!firstStatements.isEmpty()) {
+                Map<Long, Long> net = statementJdbcRepository.netMovementSince(fromCardId, toCardId, periodStart);
+                for (StatementJdbcRepository.CardRow card : firstStatements) {
+                    statements.get(card.cardId()).setOpeningBalance(card.balance() - net.getOrDefault(card.cardId(), 0L));
+                }
+            }
+
+            statementJdbcRepository.streamPeriod(fromCardId, toCardId, periodStart, periodEnd, rs -> {
+                CardStatement statement = statements.get(rs.getLong(1));
+                if (statement == null) {
+                    return;
+                }
+                long amount = rs.getLong(3);
+                if ("CREDIT".equals(rs.getString(2))) {
+                    statement.setCreditTotal(statement.getCreditTotal() + amount);
+                    statement.setCreditCount(statement.getCreditCount() + 1);
+                } else {
+                    statement.setDebitTotal(statement.getDebitTotal() + amount);
+                    statement.setDebitCount(statement.getDebitCount() + 1);
+                }
+            });
+
+            List<CardStatement> rows = new ArrayList<>(statements.values());
+            for (CardStatement statement : rows) {
+                statement.setClosingBalance(statement.getOpeningBalance()
+                        + statement.getCreditTotal() - statement.getDebitTotal());
+            }
+            statementJdbcRepository.insertStatements(rows);
+            statementJdbcRepository.checkpoint(key, fromCardId, rows.size());
+            return rows.size();
+        });
+        return count == null ? 0 : count;
+    }
+
+    public long getRunCount() {
+        return runs.get();
+    }
+
+    public long getCardsGenerated() {
+        return cardsGenerated.sum();
+    }
+
+    public long getChunksGenerated() {
+        return chunksGenerated.sum();
+    }
+
+    public double getLastCardsPerSecond() {
+        return lastCardsPerSecond;
+    }
+
+    public long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    // State shared by the chunk tasks of one run
+    private final class Progress {
+        private final YearMonth month;
+        private final long chunkSize;
+        private final LongAdder cards = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        private volatile boolean stopped;
+        private volatile boolean leaseLost;
+        private volatile long leaseRenewedAt = System.nanoTime();
+
+        Progress(YearMonth month, long chunkSize) {
+            this.month = month;
+            this.chunkSize = chunkSize;
+        }
+
+        void process(long chunkStart) {
+            if (stopped) {
+                return;
+            }
+            try {
+                int count = processChunk(month, chunkStart, chunkStart + chunkSize - 1);
+                cards.add(count);
+                chunks.increment();
+                cardsGenerated.add(count);
+                chunksGenerated.increment();
+            } catch (RuntimeException ex) {
+                stopped = true;
+                throw ex;
+            }
+            renewLease();
+        }
+
+        private void renewLease() {
+            long now = System.nanoTime();
+            if (TimeUnit.NANOSECONDS.toMillis(now - leaseRenewedAt) < leaseMs / 3) {
+                return;
+            }
+            leaseRenewedAt = now;
+            if (!leaseService.tryAcquire(LEASE_NAME, Duration.ofMillis(leaseMs))) {
+                logger.warn("Lost the statement lease after {} chunk(s), stopping", chunks.sum());
+                leaseLost = true;
+                stopped = true;
+            }
+        }
+    }
+
+    // Splits the pending chunk list in halves until a single chunk is left
+    private static final class ChunkTask extends RecursiveAction {
+        private final Progress progress;
+        private final List<Long> chunkStarts;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Progress progress, List<Long> chunkStarts, int from, int to) {
+            this.progress = progress;
+            this.chunkStarts = chunkStarts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                progress.process(chunkStarts.get(from));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(progress, chunkStarts, from, mid), new ChunkTask(progress, chunkStarts, mid, to));
+        }
+    }
+}
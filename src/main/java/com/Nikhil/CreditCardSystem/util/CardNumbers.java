@@ -0,0 +1,60 @@
+package com.Nikhil.CreditCardSystem.util;
+
+/**
+ * Card number arithmetic: Luhn check digit and BIN + account + check digit layout.
+ */
+public final class CardNumbers {
+
+    public static final int LENGTH = 16;
+
+    private CardNumbers() {
+    }
+
+    // ✅ Luhn check digit for a number without its last digit
+    public static int luhnCheckDigit(CharSequence payload) {
+        int sum = 0;
+        boolean doubleIt = true; // rightmost payload digit is doubled once the check digit is appended
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int digit = payload.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Not a digit string: " + payload);
+            }
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isValid(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() < 2 || !cardNumber.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        int last = cardNumber.length() - 1;
+        return luhnCheckDigit(cardNumber.subSequence(0, last)) == cardNumber.charAt(last) - '0';
+    }
+
+    // ✅ BIN + zero padded account number + Luhn digit, always LENGTH digits
+    public static String compose(String bin, long account) {
+        int accountDigits = accountDigits(bin);
+        StringBuilder number = new StringBuilder(LENGTH).append(bin);
+        String digits = Long.toString(account);
+        if (account < 0 || digits.length() > accountDigits) {
+            throw new IllegalArgumentException("Account " + account + " does not fit after BIN " + bin);
+        }
+        for (int i = digits.length(); i < accountDigits; i++) {
+            number.append('0');
+        }
+        number.append(digits);
+        return number.append(luhnCheckDigit(number)).toString();
+    }
+
+    public static int accountDigits(String bin) {
+        return LENGTH - 1 - bin.length();
+    }
+}
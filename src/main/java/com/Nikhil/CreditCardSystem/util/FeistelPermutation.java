@@ -0,0 +1,66 @@
+package com.Nikhil.CreditCardSystem.util;
+
+/**
+ * Keyed bijection of [0, domain) onto itself.
+ *
+ * A balanced Feistel network over the smallest even number of bits covering the domain, with
+ * cycle walking (re-encrypt until the result falls inside the domain). Distinct inputs always
+ * give distinct outputs, so feeding it a sequence yields unique but non-sequential values.
+ */
+public final class FeistelPermutation {
+
+    private static final int ROUNDS = 6;
+
+    private final long domain;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public FeistelPermutation(long domain, long key) {
+        if (domain < 2) {
+            throw new IllegalArgumentException("Domain must contain at least two values");
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(domain - 1);
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        this.domain = domain;
+        long state = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    public long permute(long value) {
+        if (value < 0 || value >= domain) {
+            throw new IllegalArgumentException("Value " + value + " outside [0, " + domain + ")");
+        }
+        long x = value;
+        do {
+            x = encrypt(x);
+        } while (x >= domain);
+        return x;
+    }
+
+    public long getDomain() {
+        return domain;
+    }
+
+    private long encrypt(long x) {
+        long left = x >>> halfBits;
+        long right = x & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,47 @@
+package com.Nikhil.CreditCardSystem.util;
+
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset (seek) pagination.
+ *
+ * The sort key values of the last row of a page are joined and URL-safe Base64 encoded; the
+ * next page is then fetched with "WHERE (key) < (cursor values)" instead of an OFFSET, so the
+ * cost of a page does not grow with how deep the client has paged.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object... values) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(values[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The last value may itself contain the separator (free text such as a name)
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", expectedParts);
+            if (parts.length != expectedParts) {
+                throw new InvalidInputException("Invalid pagination cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.Nikhil.CreditCardSystem.util;
+
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+
+import java.math.BigDecimal;
+
+/**
+ * Money as a primitive long of minor units (paise): ₹1,234.50 is 123450.
+ *
+ * All arithmetic on balances and limits is plain long math (overflow checked), so it is exact and
+ * allocation free. BigDecimal / String only appear at the edges: request parsing and JSON output.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long MINOR_PER_MAJOR = 100;
+
+    private Money() {
+    }
+
+    // ✅ Whole rupees to minor units
+    public static long ofMajor(long major) {
+        return Math.multiplyExact(major, MINOR_PER_MAJOR);
+    }
+
+    // ✅ Boundary conversion: more than 2 decimals or out of range is rejected, never rounded
+    public static long fromMajor(BigDecimal major) {
+        if (major == null) {
+            throw new InvalidInputException("Amount is required");
+        }
+        try {
+            return major.movePointRight(SCALE).setScale(0).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidInputException("Amount must have at most " + SCALE + " decimal places and fit the supported range");
+        }
+    }
+
+    public static long parse(String major) {
+        try {
+            return fromMajor(new BigDecimal(major.trim()));
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Invalid amount: " + major);
+        }
+    }
+
+    // ✅ "-1234.50" style rendering without BigDecimal
+    public static String format(long minor) {
+        StringBuilder text = new StringBuilder(24);
+        long abs = minor;
+        if (minor < 0) {
+            text.append('-');
+            abs = -minor; // Long.MIN_VALUE stays negative; amounts never get near it
+        }
+        long fraction = abs % MINOR_PER_MAJOR;
+        text.append(abs / MINOR_PER_MAJOR).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+
+    public static BigDecimal toMajor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
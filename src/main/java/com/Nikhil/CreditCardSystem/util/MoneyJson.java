@@ -0,0 +1,45 @@
+package com.Nikhil.CreditCardSystem.util;
+
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+
+/**
+ * Jackson binding for {@link Money} minor-unit fields: written as a decimal JSON number
+ * (123450 -> 1234.50) and read back from the exact number text, never through a double.
+ * A bad amount fails as a Jackson input error, which the web layer answers with 400.
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    public static class Serializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long minor, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(Money.format(minor));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String text = p.getText();
+            if (text == null || text.isBlank()) {
+                throw InvalidFormatException.from(p, "Amount is required", text, Long.class);
+            }
+            try {
+                return Money.parse(text);
+            } catch (InvalidInputException ex) {
+                throw InvalidFormatException.from(p, ex.getMessage(), text, Long.class);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.model.CustomerModel;
+import com.Nikhil.CreditCardSystem.service.CustomerService;
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Login for the reactive stack. Tokens are signed with a per-instance key, so an instance running
+ * the reactive profile has to issue its own. Registration stays on the servlet stack.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveAuthController.class);
+
+    private final CustomerService customerService;
+    private final UserActionLogService userActionLogService;
+
+    public ReactiveAuthController(CustomerService customerService, UserActionLogService userActionLogService) {
+        this.customerService = customerService;
+        this.userActionLogService = userActionLogService;
+    }
+
+    /**
+     * 🔐 API: Login existing customer
+     *
+     * Endpoint: POST /api/auth/login
+     * Description: Authenticates a customer based on username and password.
+     * Request Body: CustomerModel (username, password)
+     * Response: Returns the JWT if valid credentials, otherwise error.
+     */
+    @Operation(
+            summary = "Login a registered customer",
+            description = "Validates customer credentials (username and password) and returns authentication status."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Login successful"),
+            @ApiResponse(responseCode = "401", description = "Invalid username or password"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/login")
+    public Mono<ResponseEntity<ResponseStructure<String>>> loginCustomer(@RequestBody CustomerModel customerModel) {
+        LOGGER.info("Login attempt for username: {}", customerModel.getUsername());
+        // ✅ BCrypt check and customer lookup are blocking: keep them off the event loop
+        return Mono.fromCallable(() -> customerService.verify(customerModel))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnSuccess(response -> userActionLogService.logAction(customerModel.getUsername(), "Login attempt", "SUCCESS"))
+                .doOnError(ex -> userActionLogService.logAction(customerModel.getUsername(), "Login attempt", "FAILED"));
+    }
+}
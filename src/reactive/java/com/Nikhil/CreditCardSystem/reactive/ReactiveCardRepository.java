@@ -0,0 +1,291 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.Entity.CardEvent;
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+import com.Nikhil.CreditCardSystem.ledger.CardLimits;
+import com.Nikhil.CreditCardSystem.repo.OutboxJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * R2DBC access to credit_card and its aggregates for the reactive stack.
+ *
+ * Balances change only through debitIfAllowed / creditIfAllowed: one conditional UPDATE that
+ * checks the balance and the limits and writes in the same statement (the ATOMIC strategy of
+ * CardBalanceUpdater, same SQL as LedgerJdbcRepository), so nothing has to be held between a
+ * read and a write. Aggregate upserts, card events and outbox messages mirror AggregateJdbcRepository,
+ * CardEventJdbcRepository and OutboxJdbcRepository for a single movement.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCardRepository {
+
+    private static final String SELECT_CARD =
+            "SELECT c.id, c.customer_id, cu.name AS customer_name, c.card_number, c.card_holder_name, c.card_type, "
+                    + "c.is_active, c.issue_date, c.expiry_date, c.total_balance_minor, c.daily_debited_minor, "
+                    + "c.daily_credited_minor, c.daily_reset_date "
+                    + "FROM credit_card c JOIN customer cu ON cu.id = c.customer_id ";
+
+    // Counters from an earlier business day count as zero, exactly like BusinessDay.rollOver
+    private static final String DEBIT_IF_ALLOWED_SQL =
+            "UPDATE credit_card SET total_balance_minor = total_balance_minor - :amount, "
+                    + "daily_debited_minor = (CASE WHEN daily_reset_date = :today THEN daily_debited_minor ELSE 0 END) + :amount, "
+                    + "daily_credited_minor = CASE WHEN daily_reset_date = :today THEN daily_credited_minor ELSE 0 END, "
+                    + "daily_reset_date = :today, version = version + 1 "
+                    + "WHERE id = :cardId AND total_balance_minor >= :amount AND :amount <= :maxWithdrawal "
+                    + "AND :amount <= :dailyLimit - (CASE WHEN daily_reset_date = :today THEN daily_debited_minor ELSE 0 END)";
+
+    private static final String CREDIT_IF_ALLOWED_SQL =
+            "UPDATE credit_card SET total_balance_minor = total_balance_minor + :amount, "
+                    + "daily_credited_minor = (CASE WHEN daily_reset_date = :today THEN daily_credited_minor ELSE 0 END) + :amount, "
+                    + "daily_debited_minor = CASE WHEN daily_reset_date = :today THEN daily_debited_minor ELSE 0 END, "
+                    + "daily_reset_date = :today, version = version + 1 "
+                    + "WHERE id = :cardId AND :amount <= :maxCredit "
+                    + "AND :amount <= :dailyLimit - (CASE WHEN daily_reset_date = :today THEN daily_credited_minor ELSE 0 END)";
+
+    private static final String TOTALS_SET =
+            "debit_total_minor = debit_total_minor + :debitTotal, debit_count = debit_count + :debitCount, "
+                    + "credit_total_minor = credit_total_minor + :creditTotal, credit_count = credit_count + :creditCount, "
+                    + "last_activity_at = CASE WHEN last_activity_at IS NULL OR last_activity_at < :at THEN :at ELSE last_activity_at END ";
+
+    private static final String UPDATE_CARD_TOTALS_SQL =
+            "UPDATE card_aggregates SET " + TOTALS_SET + "WHERE card_id = :cardId";
+
+    private static final String INSERT_CARD_TOTALS_SQL =
+            "INSERT INTO card_aggregates (debit_total_minor, debit_count, credit_total_minor, credit_count, "
+                    + "last_activity_at, card_id) VALUES (:debitTotal, :debitCount, :creditTotal, :creditCount, :at, :cardId) "
+                    + "ON CONFLICT DO NOTHING";
+
+    private static final String UPDATE_DAY_TOTALS_SQL =
+            "UPDATE card_daily_aggregates SET " + TOTALS_SET + "WHERE card_id = :cardId AND activity_date = :day";
+
+    private static final String INSERT_DAY_TOTALS_SQL =
+            "INSERT INTO card_daily_aggregates (debit_total_minor, debit_count, credit_total_minor, credit_count, "
+                    + "last_activity_at, card_id, activity_date) "
+                    + "VALUES (:debitTotal, :debitCount, :creditTotal, :creditCount, :at, :cardId, :day) ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO card_events (card_id, sequence_no, event_type, amount_minor, occurred_at, details) "
+                    + "VALUES (:cardId, :sequence, :eventType, :amount, :at, :details)";
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO outbox_messages (aggregate_type, aggregate_id, event_type, payload, created_at) "
+                    + "VALUES (:aggregateType, :aggregateId, :eventType, :payload, :createdAt)";
+
+    private static final String PREVIOUS_SNAPSHOT_SQL =
+            "SELECT sequence_no, balance_minor, taken_at FROM card_snapshots "
+                    + "WHERE card_id = :cardId AND sequence_no < :sequence ORDER BY sequence_no DESC LIMIT 1";
+
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT INTO card_snapshots (card_id, sequence_no, balance_minor, taken_at) "
+                    + "SELECT card_id, MAX(sequence_no), :balance + SUM(amount_minor), "
+                    + "CASE WHEN MAX(occurred_at) < :takenAt THEN :takenAt ELSE MAX(occurred_at) END "
+                    + "FROM card_events WHERE card_id = :cardId AND sequence_no > :fromSequence AND sequence_no <= :sequence "
+                    + "GROUP BY card_id";
+
+    // Lower bound of taken_at for a card's first snapshot
+    private static final LocalDateTime FIRST_SNAPSHOT_FLOOR = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${creditcard.events.snapshot-every:100}")
+    private int snapshotEvery;
+
+    @Value("${creditcard.outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    public ReactiveCardRepository(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<CardRow> findById(Long cardId) {
+        return databaseClient.sql(SELECT_CARD + "WHERE c.id = :cardId")
+                .bind("cardId", cardId)
+                .map(ReactiveCardRepository::toCard)
+                .one();
+    }
+
+    public Mono<CardRow> findByNumberAndCustomer(String cardNumber, Long customerId) {
+        return databaseClient.sql(SELECT_CARD + "WHERE c.card_number = :cardNumber AND c.customer_id = :customerId")
+                .bind("cardNumber", cardNumber)
+                .bind("customerId", customerId)
+                .map(ReactiveCardRepository::toCard)
+                .one();
+    }
+
+    public Flux<CardRow> findAllByCustomer(Long customerId) {
+        return databaseClient.sql(SELECT_CARD + "WHERE c.customer_id = :customerId ORDER BY c.id")
+                .bind("customerId", customerId)
+                .map(ReactiveCardRepository::toCard)
+                .all();
+    }
+
+    public Mono<String> findCustomerName(Long customerId) {
+        return databaseClient.sql("SELECT name FROM customer WHERE id = :customerId")
+                .bind("customerId", customerId)
+                .map(row -> row.get("name", String.class))
+                .one();
+    }
+
+    // ✅ Check and apply a debit in one statement; 0 when a rule fails
+    public Mono<Long> debitIfAllowed(Long cardId, long amount, LocalDate today, CardLimits limits) {
+        return databaseClient.sql(DEBIT_IF_ALLOWED_SQL)
+                .bind("amount", amount)
+                .bind("today", today)
+                .bind("cardId", cardId)
+                .bind("maxWithdrawal", limits.maxWithdrawalLimit())
+                .bind("dailyLimit", limits.dailyDebitLimit())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> creditIfAllowed(Long cardId, long amount, LocalDate today, CardLimits limits) {
+        return databaseClient.sql(CREDIT_IF_ALLOWED_SQL)
+                .bind("amount", amount)
+                .bind("today", today)
+                .bind("cardId", cardId)
+                .bind("maxCredit", limits.maxCreditLimit())
+                .bind("dailyLimit", limits.dailyCreditLimit())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // ✅ Add one movement to the card and card-day totals (same transaction as the movement)
+    public Mono<Void> applyToAggregates(Long cardId, String transactionType, long amount, LocalDateTime at) {
+        boolean debit = "DEBIT".equals(transactionType);
+        Totals totals = new Totals(debit ? amount : 0, debit ? 1 : 0, debit ? 0 : amount, debit ? 0 : 1, at);
+        return upsert(UPDATE_CARD_TOTALS_SQL, INSERT_CARD_TOTALS_SQL, totals, cardId, null)
+                .then(upsert(UPDATE_DAY_TOTALS_SQL, INSERT_DAY_TOTALS_SQL, totals, cardId, at.toLocalDate()));
+    }
+
+    // ✅ Debited / Credited event of one movement and its outbox message (same transaction, after the card row UPDATE)
+    public Mono<Void> appendEvent(Long cardId, String transactionType, long amount, String description, LocalDateTime at) {
+        boolean debit = "DEBIT".equals(transactionType);
+        String eventType = debit ? CardEvent.DEBITED : CardEvent.CREDITED;
+        long signedAmount = debit ? -amount : amount;
+        return databaseClient.sql("SELECT MAX(sequence_no) AS head FROM card_events WHERE card_id = :cardId")
+                .bind("cardId", cardId)
+                .map(row -> Optional.ofNullable(row.get("head", Long.class)).orElse(0L))
+                .one()
+                .flatMap(head -> {
+                    // Streams of cards from before the event log are built at startup (CardEventStore)
+                    if (head == 0) {
+                        return Mono.error(new IllegalStateException("Card " + cardId + " has no event stream"));
+                    }
+                    long sequence = head + 1;
+                    Mono<Long> inserted = databaseClient.sql(INSERT_EVENT_SQL)
+                            .bind("cardId", cardId)
+                            .bind("sequence", sequence)
+                            .bind("eventType", eventType)
+                            .bind("amount", signedAmount)
+                            .bind("at", at)
+                            .bind("details", description)
+                            .fetch()
+                            .rowsUpdated();
+                    Mono<Void> appended = sequence % snapshotEvery == 0 ? inserted.then(snapshot(cardId, sequence)) : inserted.then();
+                    return appended.then(outbox(cardId, OutboxJdbcRepository.cardEventPayload(cardId, sequence, eventType,
+                            signedAmount, at, description), eventType));
+                });
+    }
+
+    private Mono<Void> outbox(Long cardId, Object payload, String eventType) {
+        if (!outboxEnabled) {
+            return Mono.empty();
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            return Mono.error(new IllegalStateException("Outbox payload not serializable: " + ex.getMessage(), ex));
+        }
+        return databaseClient.sql(INSERT_OUTBOX_SQL)
+                .bind("aggregateType", OutboxMessage.CARD)
+                .bind("aggregateId", cardId)
+                .bind("eventType", eventType)
+                .bind("payload", json)
+                .bind("createdAt", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private Mono<Void> snapshot(Long cardId, long sequence) {
+        return databaseClient.sql(PREVIOUS_SNAPSHOT_SQL)
+                .bind("cardId", cardId)
+                .bind("sequence", sequence)
+                .map(row -> new Object[]{row.get("sequence_no", Long.class), row.get("balance_minor", Long.class),
+                        row.get("taken_at", LocalDateTime.class)})
+                .one()
+                .defaultIfEmpty(new Object[]{0L, 0L, FIRST_SNAPSHOT_FLOOR})
+                .flatMap(previous -> databaseClient.sql(INSERT_SNAPSHOT_SQL)
+                        .bind("cardId", cardId)
+                        .bind("sequence", sequence)
+                        .bind("fromSequence", previous[0])
+                        .bind("balance", previous[1])
+                        .bind("takenAt", previous[2])
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+
+    // UPDATE first; INSERT the first time the row is seen; a lost insert race falls back to the UPDATE
+    private Mono<Void> upsert(String updateSql, String insertSql, Totals totals, Long cardId, LocalDate day) {
+        return execute(updateSql, totals, cardId, day)
+                .flatMap(updated -> updated > 0 ? Mono.just(updated) : execute(insertSql, totals, cardId, day))
+                .flatMap(written -> written > 0 ? Mono.just(written) : execute(updateSql, totals, cardId, day))
+                .then();
+    }
+
+    private Mono<Long> execute(String sql, Totals totals, Long cardId, LocalDate day) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("debitTotal", totals.debitTotal())
+                .bind("debitCount", totals.debitCount())
+                .bind("creditTotal", totals.creditTotal())
+                .bind("creditCount", totals.creditCount())
+                .bind("at", totals.at())
+                .bind("cardId", cardId);
+        if (day != null) {
+            spec = spec.bind("day", day);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static CardRow toCard(Readable row) {
+        return new CardRow(
+                row.get("id", Long.class),
+                row.get("customer_id", Long.class),
+                row.get("customer_name", String.class),
+                row.get("card_number", String.class),
+                row.get("card_holder_name", String.class),
+                row.get("card_type", String.class),
+                Boolean.TRUE.equals(row.get("is_active", Boolean.class)),
+                row.get("issue_date", LocalDate.class),
+                row.get("expiry_date", LocalDate.class),
+                row.get("total_balance_minor", Long.class),
+                row.get("daily_debited_minor", Long.class),
+                row.get("daily_credited_minor", Long.class),
+                row.get("daily_reset_date", LocalDate.class));
+    }
+
+    public record CardRow(Long id, Long customerId, String customerName, String cardNumber, String cardHolderName,
+                          String cardType, boolean active, LocalDate issueDate, LocalDate expiryDate,
+                          long totalBalance, long dailyDebitedAmount, long dailyCreditedAmount,
+                          LocalDate dailyResetDate) {
+    }
+
+    private record Totals(long debitTotal, long debitCount, long creditTotal, long creditCount, LocalDateTime at) {
+    }
+}
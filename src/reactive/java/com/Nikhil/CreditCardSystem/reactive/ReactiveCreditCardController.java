@@ -0,0 +1,181 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.service.IdempotencyService;
+import com.Nikhil.CreditCardSystem.util.Money;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reactive counterpart of CreditCardController (Spring profile "reactive"): card reads, debit and
+ * credit on the same paths, parameters and ResponseStructure bodies. Card creation, updates,
+ * deletion and the batch API stay on the servlet stack.
+ */
+@RestController
+@RequestMapping("/api/creditcards")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCreditCardController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveCreditCardController.class);
+
+    private final ReactiveCreditCardService cardService;
+    private final IdempotencyService idempotencyService;
+
+    public ReactiveCreditCardController(ReactiveCreditCardService cardService, IdempotencyService idempotencyService) {
+        this.cardService = cardService;
+        this.idempotencyService = idempotencyService;
+    }
+
+    /**
+     * 🔍 API: Get credit card details by ID
+     *
+     * Endpoint: GET /api/creditcards/{cardId}
+     * Response: Returns CreditCardDto for the given card ID.
+     */
+
+    // 🔍 GET CREDIT CARD BY ID
+    @Operation(
+            summary = "Get credit card by ID",
+            description = "Fetches the details of a specific credit card using its unique ID."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Credit card details fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "Credit card not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/{cardId}")
+    public Mono<ResponseEntity<ResponseStructure<CreditCardDto>>> getCreditCardById(
+            @Parameter(description = "Unique ID of the credit card") @PathVariable Long cardId) {
+
+        LOGGER.info("Fetching credit card with cardId: {}", cardId);
+        return cardService.getCardById(cardId);
+    }
+
+    /**
+     * 📋 API: Get all credit cards for a specific customer
+     *
+     * Endpoint: GET /api/creditcards/customer/{customerId}
+     * Response: Returns a list of CreditCardDto objects.
+     */
+
+    // 📋 GET ALL CARDS FOR A CUSTOMER
+    @Operation(
+            summary = "Get all credit cards for a specific customer",
+            description = "Retrieves all credit cards associated with a given customer ID."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Credit cards fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "Customer not found or no cards available"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @GetMapping("/customer/{customerId}")
+    public Mono<ResponseEntity<ResponseStructure<List<CreditCardDto>>>> getCreditCardsByCustomer(
+            @Parameter(description = "Customer ID for which to retrieve credit cards") @PathVariable Long customerId) {
+
+        LOGGER.info("Fetching all credit cards for customerId: {}", customerId);
+        return cardService.getCardsByCustomer(customerId);
+    }
+
+    /**
+     * 💸 API: Debit an amount from a credit card
+     *
+     * Endpoint: POST /api/creditcards/debit?customerId={customerId}&cardNumber={cardNumber}&amount={amount}
+     * Header: Idempotency-Key (optional) - a retry with the same key returns the stored response
+     *         instead of applying the amount again
+     * Response: Returns updated CreditCardDto with new balance.
+     */
+
+    // 💸 DEBIT CREDIT CARD
+    @Operation(
+            summary = "Debit an amount from a credit card",
+            description = "Deducts a specific amount from a customer's credit card balance."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Amount debited successfully"),
+            @ApiResponse(responseCode = "400", description = "Insufficient balance or invalid amount"),
+            @ApiResponse(responseCode = "404", description = "Credit card not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/debit")
+    public Mono<ResponseEntity<ResponseStructure<CreditCardDto>>> debitCreditCard(
+            @Parameter(description = "ID of the customer performing the transaction") @RequestParam Long customerId,
+            @Parameter(description = "Credit card number from which to debit the amount") @RequestParam String cardNumber,
+            @Parameter(description = "Amount to be debited, in rupees (at most 2 decimals)") @RequestParam BigDecimal amount,
+            @Parameter(description = "Client generated key to make retries safe")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+
+        LOGGER.info("Debiting ₹{} from cardNumber: {}, for customerId: {}", amount, cardNumber, customerId);
+        long minor = Money.fromMajor(amount);
+        return idempotent(idempotencyKey, "DEBIT|" + customerId + "|" + cardNumber + "|" + minor,
+                () -> cardService.debitCard(customerId, cardNumber, minor));
+    }
+
+    /**
+     * 💰 API: Credit an amount to a credit card
+     *
+     * Endpoint: POST /api/creditcards/credit?customerId={customerId}&cardNumber={cardNumber}&amount={amount}
+     * Header: Idempotency-Key (optional), as for debit
+     * Response: Returns updated CreditCardDto with new balance.
+     */
+
+    // 💰 CREDIT CREDIT CARD
+    @Operation(
+            summary = "Credit an amount to a credit card",
+            description = "Adds a specific amount to a customer's credit card balance."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Amount credited successfully"),
+            @ApiResponse(responseCode = "404", description = "Credit card not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/credit")
+    public Mono<ResponseEntity<ResponseStructure<CreditCardDto>>> creditCreditCard(
+            @Parameter(description = "ID of the customer performing the transaction") @RequestParam Long customerId,
+            @Parameter(description = "Credit card number to which the amount will be credited") @RequestParam String cardNumber,
+            @Parameter(description = "Amount to be credited, in rupees (at most 2 decimals)") @RequestParam BigDecimal amount,
+            @Parameter(description = "Client generated key to make retries safe")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+
+        LOGGER.info("Crediting ₹{} to cardNumber: {}, for customerId: {}", amount, cardNumber, customerId);
+        long minor = Money.fromMajor(amount);
+        return idempotent(idempotencyKey, "CREDIT|" + customerId + "|" + cardNumber + "|" + minor,
+                () -> cardService.creditCard(customerId, cardNumber, minor));
+    }
+
+    // Requests without a key stay on the event loop; keyed ones go through IdempotencyService, which
+    // blocks (DB claim, waiting for an in-flight duplicate), so it runs on the bounded elastic pool
+    private <T> Mono<ResponseEntity<ResponseStructure<T>>> idempotent(
+            String key, String fingerprint, Supplier<Mono<ResponseEntity<ResponseStructure<T>>>> operation) {
+        if (key == null || key.isBlank()) {
+            return operation.get();
+        }
+        return Mono.fromCallable(() -> idempotencyService.execute(key, fingerprint, () -> operation.get().block()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
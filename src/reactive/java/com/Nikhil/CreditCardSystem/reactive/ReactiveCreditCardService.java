@@ -0,0 +1,265 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.dto.CustomerDto;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.ledger.BalanceRules;
+import com.Nikhil.CreditCardSystem.ledger.BusinessDay;
+import com.Nikhil.CreditCardSystem.ledger.CardLimits;
+import com.Nikhil.CreditCardSystem.ledger.LimitPolicyEngine;
+import com.Nikhil.CreditCardSystem.metrics.TransactionMetrics;
+import com.Nikhil.CreditCardSystem.risk.RiskDecision;
+import com.Nikhil.CreditCardSystem.risk.RiskStage;
+import com.Nikhil.CreditCardSystem.service.AccountCache;
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import com.Nikhil.CreditCardSystem.util.Money;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reactive counterpart of CreditCardService for card reads, debits and credits.
+ *
+ * Every step is non-blocking: R2DBC for the database, and only the in-memory components (risk
+ * stage, limit policy snapshot, business day, metrics, audit buffer) from the blocking side. A
+ * debit / credit is one R2DBC transaction: conditional UPDATE of the card row, re-read, INSERT of
+ * the transaction, the aggregate upserts, the card event and its outbox message; the rules and
+ * messages are those of BalanceRules.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCreditCardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCreditCardService.class);
+
+    private final ReactiveCardRepository cardRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final LimitPolicyEngine limitPolicyEngine;
+    private final BusinessDay businessDay;
+    private final RiskStage riskStage;
+    private final AccountCache accountCache;
+    private final TransactionMetrics transactionMetrics;
+    private final UserActionLogService userActionLogService;
+
+    public ReactiveCreditCardService(ReactiveCardRepository cardRepository,
+                                     ReactiveTransactionRepository transactionRepository,
+                                     TransactionalOperator transactionalOperator,
+                                     LimitPolicyEngine limitPolicyEngine,
+                                     BusinessDay businessDay,
+                                     RiskStage riskStage,
+                                     AccountCache accountCache,
+                                     TransactionMetrics transactionMetrics,
+                                     UserActionLogService userActionLogService) {
+        this.cardRepository = cardRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.limitPolicyEngine = limitPolicyEngine;
+        this.businessDay = businessDay;
+        this.riskStage = riskStage;
+        this.accountCache = accountCache;
+        this.transactionMetrics = transactionMetrics;
+        this.userActionLogService = userActionLogService;
+    }
+
+    // ✅ Get card by ID
+    public Mono<ResponseEntity<ResponseStructure<CreditCardDto>>> getCardById(Long cardId) {
+        String action = "Get Card By ID " + cardId;
+        return cardRepository.findById(cardId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Card not found")))
+                .map(card -> {
+                    userActionLogService.logAction(card.customerName(), action, "SUCCESS");
+                    return ok("Credit card fetched successfully", toDto(card));
+                })
+                .doOnError(ex -> {
+                    logger.error("Error while fetching card ID {}: {}", cardId, ex.getMessage());
+                    userActionLogService.logAction("Unknown", action, "FAILED: " + ex.getMessage());
+                });
+    }
+
+    // ✅ Get all cards of a customer
+    public Mono<ResponseEntity<ResponseStructure<List<CreditCardDto>>>> getCardsByCustomer(Long customerId) {
+        String action = "Fetch All Cards for Customer ID " + customerId;
+        return Mono.defer(() -> {
+                    if (customerId == null || customerId <= 0) {
+                        throw new InvalidInputException("Customer ID must be a positive number and cannot be null");
+                    }
+                    return cardRepository.findCustomerName(customerId);
+                })
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Customer not found with ID: " + customerId)))
+                .flatMap(customerName -> cardRepository.findAllByCustomer(customerId)
+                        .map(this::toDto)
+                        .collectList()
+                        .map(cards -> {
+                            logger.info("Fetched {} cards for customer ID: {}", cards.size(), customerId);
+                            userActionLogService.logAction(customerName, action, "SUCCESS");
+                            return ok("All cards for customer fetched successfully", cards);
+                        }))
+                .onErrorResume(ex -> customerNameOrUnknown(customerId)
+                        .doOnNext(name -> {
+                            logger.error("Error while fetching cards for customer ID {}: {}", customerId, ex.getMessage());
+                            userActionLogService.logAction(name, action, "FAILED: " + ex.getMessage());
+                        })
+                        .then(Mono.error(ex)));
+    }
+
+    // ✅ Debit card
+    public Mono<ResponseEntity<ResponseStructure<CreditCardDto>>> debitCard(Long customerId, String cardNumber, long amount) {
+        String action = "Debit ₹" + Money.format(amount) + " from Card " + cardNumber + " (Customer ID " + customerId + ")";
+        return Mono.defer(() -> {
+                    logger.info("Debiting ₹{} from card {} for customer ID {}", Money.format(amount), cardNumber, customerId);
+                    validate(customerId, cardNumber, amount);
+
+                    // ✅ Velocity / fraud rules (in memory) before anything is written
+                    RiskDecision risk = riskStage.assess(customerId, cardNumber, amount);
+                    if (risk.declined()) {
+                        throw new ValidationException("Debit declined by risk checks: " + String.join(", ", risk.rules()));
+                    }
+                    return apply(customerId, cardNumber, amount, true);
+                })
+                .map(card -> {
+                    riskStage.record(customerId, cardNumber, amount);
+                    transactionMetrics.record("DEBIT", amount);
+                    logger.info("Debit of ₹{} recorded successfully for card {}", Money.format(amount), cardNumber);
+                    userActionLogService.logAction(card.customerName(), action, "SUCCESS");
+                    return ok("Amount debited and transaction recorded successfully", toDto(card));
+                })
+                .onErrorResume(ex -> customerNameOrUnknown(customerId)
+                        .doOnNext(name -> {
+                            logger.error("Error while debiting ₹{} from card {} for customer ID {}: {}",
+                                    Money.format(amount), cardNumber, customerId, ex.getMessage());
+                            userActionLogService.logAction(name, action, "FAILED: " + ex.getMessage());
+                        })
+                        .then(Mono.error(ex)));
+    }
+
+    // ✅ Credit card
+    public Mono<ResponseEntity<ResponseStructure<CreditCardDto>>> creditCard(Long customerId, String cardNumber, long amount) {
+        return Mono.defer(() -> {
+                    logger.info("Crediting ₹{} to card {} for customer ID {}", Money.format(amount), cardNumber, customerId);
+                    validate(customerId, cardNumber, amount);
+                    return apply(customerId, cardNumber, amount, false);
+                })
+                .map(card -> {
+                    transactionMetrics.record("CREDIT", amount);
+                    logger.info("Credit of ₹{} recorded for card {}", Money.format(amount), cardNumber);
+                    userActionLogService.logAction(card.customerName(),
+                            "Credit ₹" + Money.format(amount) + " to Card " + cardNumber + " (Customer ID " + customerId + ")",
+                            "SUCCESS");
+                    return ok("Amount credited and transaction recorded", toDto(card));
+                })
+                .onErrorResume(ex -> customerNameOrUnknown(customerId)
+                        .doOnNext(name -> {
+                            logger.error("Credit operation failed for card {}: {}", cardNumber, ex.getMessage());
+                            userActionLogService.logAction(name,
+                                    "Failed Credit ₹" + Money.format(amount) + " to Card " + cardNumber,
+                                    "FAILURE: " + ex.getMessage());
+                        })
+                        .then(Mono.error(ex)));
+    }
+
+    // ✅ Conditional UPDATE, re-read, record the movement: one R2DBC transaction
+    private Mono<ReactiveCardRepository.CardRow> apply(Long customerId, String cardNumber, long amount, boolean debit) {
+        LocalDate today = businessDay.today();
+        Mono<ReactiveCardRepository.CardRow> movement = cardRepository.findByNumberAndCustomer(cardNumber, customerId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Card not found for customer")))
+                .flatMap(card -> {
+                    CardLimits limits = limitPolicyEngine.limitsFor(card.id(), card.cardType());
+                    Mono<Long> updated = debit
+                            ? cardRepository.debitIfAllowed(card.id(), amount, today, limits)
+                            : cardRepository.creditIfAllowed(card.id(), amount, today, limits);
+                    // The row was read before the UPDATE; re-read it for the response and the rule re-check
+                    return updated.flatMap(count -> cardRepository.findById(card.id())
+                            .flatMap(current -> count == 0
+                                    ? rejected(current, amount, debit, today, limits)
+                                    : record(current, amount, debit)));
+                });
+        return transactionalOperator.transactional(movement)
+                .doOnNext(card -> accountCache.evictCard(card.id(), customerId));
+    }
+
+    // Rejected: re-run the rules on the current row to report why
+    private Mono<ReactiveCardRepository.CardRow> rejected(ReactiveCardRepository.CardRow card, long amount, boolean debit,
+                                                          LocalDate today, CardLimits limits) {
+        return Mono.fromCallable(() -> {
+            boolean sameDay = today.equals(card.dailyResetDate());
+            if (debit) {
+                BalanceRules.checkDebit(card.totalBalance(), sameDay ? card.dailyDebitedAmount() : 0, amount,
+                        limits.maxWithdrawalLimit(), limits.dailyDebitLimit());
+            } else {
+                BalanceRules.checkCredit(sameDay ? card.dailyCreditedAmount() : 0, amount,
+                        limits.maxCreditLimit(), limits.dailyCreditLimit());
+            }
+            // The row changed between the UPDATE and the read; let the client retry
+            throw new ConflictException("Card is being updated concurrently, please retry");
+        });
+    }
+
+    private Mono<ReactiveCardRepository.CardRow> record(ReactiveCardRepository.CardRow card, long amount, boolean debit) {
+        String type = debit ? "DEBIT" : "CREDIT";
+        String description = (debit ? "Debited ₹" : "Credited ₹") + Money.format(amount);
+        LocalDateTime now = LocalDateTime.now();
+        return transactionRepository.insert(card.id(), type, card.cardType(), amount, description, now)
+                .then(cardRepository.applyToAggregates(card.id(), type, amount, now))
+                .then(cardRepository.appendEvent(card.id(), type, amount, description, now))
+                .thenReturn(card);
+    }
+
+    private static void validate(Long customerId, String cardNumber, long amount) {
+        if (customerId == null || customerId <= 0) {
+            throw new InvalidInputException("Customer ID must be valid and greater than zero");
+        }
+        if (cardNumber == null || cardNumber.trim().isEmpty()) {
+            throw new InvalidInputException("Card number cannot be null or empty");
+        }
+        if (amount <= 0) {
+            throw new InvalidInputException("Amount must be greater than zero");
+        }
+    }
+
+    // ✅ Customer name for the audit log of a failed operation: cache first, then the DB; never fails
+    private Mono<String> customerNameOrUnknown(Long customerId) {
+        if (customerId == null) {
+            return Mono.just("Unknown");
+        }
+        CustomerDto cached = accountCache.getCustomer(customerId, id -> null);
+        if (cached != null) {
+            return Mono.just(cached.getName());
+        }
+        return cardRepository.findCustomerName(customerId)
+                .defaultIfEmpty("Unknown")
+                .onErrorReturn("Unknown");
+    }
+
+    private CreditCardDto toDto(ReactiveCardRepository.CardRow card) {
+        CreditCardDto dto = new CreditCardDto();
+        dto.setCardHolderName(card.cardHolderName());
+        dto.setActive(card.active());
+        dto.setCardType(card.cardType());
+        dto.setCardNumber(card.cardNumber());
+        dto.setTotalBalance(card.totalBalance());
+        dto.setIssueDate(card.issueDate());
+        dto.setExpiryDate(card.expiryDate());
+        return dto;
+    }
+
+    private static <T> ResponseEntity<ResponseStructure<T>> ok(String message, T data) {
+        ResponseStructure<T> structure = new ResponseStructure<>();
+        structure.setMessage(message);
+        structure.setHttpstatus("SUCCESS");
+        structure.setData(data);
+        return ResponseEntity.ok(structure);
+    }
+}
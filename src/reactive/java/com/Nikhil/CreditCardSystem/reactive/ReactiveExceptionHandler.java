@@ -0,0 +1,131 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import io.r2dbc.spi.R2dbcTransientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.pool.PoolAcquirePendingLimitException;
+import reactor.pool.PoolAcquireTimeoutException;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * GlobalExceptionHandler for the reactive stack: same statuses and ResponseStructure bodies.
+ * A connection that cannot be acquired in time (R2DBC pool or the JDBC bulkhead behind the
+ * blocking services) is a 503 with Retry-After, as on the servlet stack.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    private final UserActionLogService userActionLogService;
+
+    public ReactiveExceptionHandler(UserActionLogService userActionLogService) {
+        this.userActionLogService = userActionLogService;
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ResponseStructure<String>> handleValidationException(ValidationException ex) {
+        LOGGER.error("Validation error: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Validation failed", "ERROR", ex.getMessage());
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ResponseStructure<String>> handleNotFound(ResourceNotFoundException ex) {
+        LOGGER.warn("Resource not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Resource not found", "ERROR", ex.getMessage());
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ResponseStructure<String>> handleConflict(ConflictException ex) {
+        LOGGER.warn("Conflict: {}", ex.getMessage());
+        return error(HttpStatus.CONFLICT, "Conflict", "ERROR", ex.getMessage());
+    }
+
+    // ✅ @PreAuthorize failures (AuthorizationDeniedException is a subclass)
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ResponseStructure<String>> handleAccessDenied(AccessDeniedException ex) {
+        return error(HttpStatus.FORBIDDEN, "Access Denied", "ERROR", "You don’t have permission to access this resource.");
+    }
+
+    @ExceptionHandler(InvalidInputException.class)
+    public ResponseEntity<ResponseStructure<String>> handleInvalidInputException(InvalidInputException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), "FAILED", "Invalid input data");
+    }
+
+    // ✅ Missing or unconvertible request parameters (400)
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ResponseStructure<String>> handleInputErrors(ServerWebInputException ex, ServerHttpRequest request) {
+        userActionLogService.logAction(
+                "UNKNOWN_USER",
+                "Validation failed on URL: " + request.getPath().value(),
+                "FAILED"
+        );
+        return error(HttpStatus.BAD_REQUEST, "Validation error: " + ex.getReason(), "FAILED",
+                "Validation failed for request on URL: " + request.getPath().value());
+    }
+
+    // Catch all other errors (500, etc.)
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ResponseStructure<String>> handleAllExceptions(Exception ex, ServerHttpRequest request) {
+        String path = request.getPath().value();
+        // ✅ No DB connection available: 503 so clients back off and retry
+        if (isDatabaseBusy(ex)) {
+            LOGGER.warn("Database busy on URL {}: {}", path, ex.getMessage());
+            ResponseStructure<String> structure = body("Service busy, please retry", "FAILED", "The database is at capacity.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(structure);
+        }
+
+        LOGGER.error("Error on URL {}", path, ex);
+        userActionLogService.logAction(
+                "UNKNOWN_USER",
+                "Error on URL: " + path + " - " + ex.getMessage(),
+                "FAILED"
+        );
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred: " + ex.getMessage(), "FAILED",
+                "An unexpected error occurred while processing the request.");
+    }
+
+    private static boolean isDatabaseBusy(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException
+                    || cause instanceof R2dbcTransientException
+                    || cause instanceof PoolAcquireTimeoutException
+                    || cause instanceof PoolAcquirePendingLimitException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<ResponseStructure<String>> error(HttpStatus status, String message,
+                                                                   String httpStatus, String data) {
+        return ResponseEntity.status(status).body(body(message, httpStatus, data));
+    }
+
+    private static ResponseStructure<String> body(String message, String httpStatus, String data) {
+        ResponseStructure<String> structure = new ResponseStructure<>();
+        structure.setMessage(message);
+        structure.setHttpstatus(httpStatus);
+        structure.setData(data);
+        return structure;
+    }
+}
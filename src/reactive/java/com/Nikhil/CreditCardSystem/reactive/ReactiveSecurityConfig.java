@@ -0,0 +1,146 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.service.JWTService;
+import com.Nikhil.CreditCardSystem.service.JwtTokenCache;
+import com.Nikhil.CreditCardSystem.service.MyUserDetailsService;
+import io.jsonwebtoken.Claims;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * SecurityConfig and JwtFilter for the reactive stack: same path rules, stateless, JWT bearer
+ * tokens (through the same JwtTokenCache) and HTTP basic as a fallback. User lookups still go
+ * through the JPA-backed MyUserDetailsService, on the bounded elastic pool.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    private final JWTService jwtService;
+    private final JwtTokenCache tokenCache;
+    private final MyUserDetailsService userDetailsService;
+
+    public ReactiveSecurityConfig(JWTService jwtService, JwtTokenCache tokenCache, MyUserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.tokenCache = tokenCache;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/api/auth/login",
+                                "/swagger-ui.html",
+                                "/swagger-ui/**",
+                                "/v3/api-docs/**",
+                                "/favicon.ico",
+                                "/webjars/**")
+                        .permitAll()
+                        .pathMatchers("/actuator/health").permitAll()                          // ✅ load balancer probe
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")                        // ✅ metrics / prometheus scrape
+                        .pathMatchers("/api/creditcards/**").hasAnyRole("USER", "ADMIN")
+                        .anyExchange().authenticated())
+                .httpBasic(Customizer.withDefaults())
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())   // ✅ stateless
+                .addFilterAt(jwtAuthenticationFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    // ✅ Used by httpBasic
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService() {
+        return username -> Mono.fromCallable(() -> userDetailsService.loadUserByUsername(username))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder(12);
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailsService reactiveUserDetailsService,
+                                                                       PasswordEncoder passwordEncoder) {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUserDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        manager.setScheduler(Schedulers.boundedElastic());
+        return manager;
+    }
+
+    // ✅ CustomerService.verify (login) authenticates through the blocking manager
+    @Bean
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+        return new ProviderManager(provider);
+    }
+
+    // Bearer token -> authentication, the JwtFilter logic; a bad token just leaves the request anonymous
+    private AuthenticationWebFilter jwtAuthenticationFilter() {
+        ReactiveAuthenticationManager jwtManager = Mono::just;
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(jwtManager);
+        ServerAuthenticationConverter converter = exchange -> {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return Mono.empty();
+            }
+            return authenticate(authHeader.substring(7));
+        };
+        filter.setServerAuthenticationConverter(converter);
+        filter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+        return filter;
+    }
+
+    private Mono<Authentication> authenticate(String token) {
+        // Already verified token: no signature check, no DB lookup
+        UserDetails cached = tokenCache.get(token);
+        if (cached != null) {
+            return Mono.just(authentication(cached));
+        }
+        return Mono.fromCallable(() -> {
+                    Claims claims = jwtService.parseClaims(token);
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                    if (!jwtService.validateToken(claims, userDetails)) {
+                        return null;
+                    }
+                    tokenCache.put(token, userDetails, claims.getExpiration());
+                    return authentication(userDetails);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(ex -> Mono.empty());
+    }
+
+    private static Authentication authentication(UserDetails userDetails) {
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+}
@@ -0,0 +1,273 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.dto.TransactionDto;
+import com.Nikhil.CreditCardSystem.dto.TransactionPageDto;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reactive counterpart of TransactionController (Spring profile "reactive"): the history reads on
+ * the same paths and bodies, plus /stream variants that send the history as NDJSON (one
+ * TransactionDto per line) straight from the R2DBC cursor, at the pace the client reads it.
+ * Export, summaries and the aggregate rebuild stay on the servlet stack.
+ */
+@RestController
+@RequestMapping("/api/transactions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveTransactionController.class);
+
+    private final ReactiveTransactionService transactionService;
+    private final UserActionLogService userActionLogService;
+
+    public ReactiveTransactionController(ReactiveTransactionService transactionService,
+                                         UserActionLogService userActionLogService) {
+        this.transactionService = transactionService;
+        this.userActionLogService = userActionLogService;
+    }
+
+    /**
+     * 📄 API: Get all transactions for a specific user (across all their credit cards)
+     *
+     * Endpoint: GET /api/transactions/user/{userId}?from=&to=&cursor=&size=
+     * Response: TransactionPageDto (transactions, hasMore, nextCursor), newest first.
+     */
+
+    // ✅ 1️⃣ Get all transactions for a user
+    @Operation(
+            summary = "Get all transactions for a specific user",
+            description = "Retrieves transactions made by a user across all their credit cards, newest first, with cursor pagination."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Transactions fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<ResponseStructure<TransactionPageDto>>> getAllTransactionsByUser(
+            @Parameter(description = "User ID for which to fetch transactions", example = "1")
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        LOGGER.info("Fetching all transactions for user ID: {}", userId);
+        return fetchUserTransactions(userId, null, "", from, to, cursor, size);
+    }
+
+    /**
+     * 📄 API: Get all CREDIT transactions for a specific user
+     *
+     * Endpoint: GET /api/transactions/user/{userId}/credits?from=&to=&cursor=&size=
+     * Response: TransactionPageDto filtered by type "CREDIT".
+     */
+
+    // ✅ 2️⃣ Get all CREDIT transactions for a user
+    @Operation(summary = "Get all CREDIT transactions for a user")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Credit transactions fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/user/{userId}/credits")
+    public Mono<ResponseEntity<ResponseStructure<TransactionPageDto>>> getAllCreditTransactionsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        LOGGER.info("Fetching all CREDIT transactions for user ID: {}", userId);
+        return fetchUserTransactions(userId, "CREDIT", "credit ", from, to, cursor, size);
+    }
+
+    /**
+     * 📄 API: Get all DEBIT transactions for a specific user
+     *
+     * Endpoint: GET /api/transactions/user/{userId}/debits?from=&to=&cursor=&size=
+     * Response: TransactionPageDto filtered by type "DEBIT".
+     */
+
+    // ✅ 3️⃣ Get all DEBIT transactions for a user
+    @Operation(summary = "Get all DEBIT transactions for a user")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Debit transactions fetched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/user/{userId}/debits")
+    public Mono<ResponseEntity<ResponseStructure<TransactionPageDto>>> getAllDebitTransactionsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        LOGGER.info("Fetching all DEBIT transactions for user ID: {}", userId);
+        return fetchUserTransactions(userId, "DEBIT", "debit ", from, to, cursor, size);
+    }
+
+    /**
+     * 🌊 API: Stream the transactions of a user
+     *
+     * Endpoint: GET /api/transactions/user/{userId}/stream?type=&from=&to=
+     * Description: The whole (filtered) history, newest first, as NDJSON. Rows are read from the
+     *              database only as fast as the client consumes the response.
+     * Request Parameters (optional):
+     *      - type (String): DEBIT or CREDIT
+     *      - from / to (ISO date-time): date range, from inclusive, to exclusive
+     */
+
+    // ✅ 4️⃣ Stream transactions of a user
+    @Operation(summary = "Stream the transactions of a user",
+            description = "Streams the filtered transaction history of a user as NDJSON, newest first, with backpressure.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream started"),
+            @ApiResponse(responseCode = "400", description = "Unknown transaction type"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TransactionDto> streamTransactionsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        LOGGER.info("Streaming transactions for user ID: {}", userId);
+        String action = "Stream transactions for userId " + userId;
+        return Mono.fromCallable(() -> transactionType(type))
+                .flatMap(transactionType -> transactionService.customerName(userId)
+                        .doOnNext(name -> userActionLogService.logAction(name, action, "SUCCESS"))
+                        .thenReturn(transactionType))
+                .flatMapMany(transactionType -> transactionService.streamForCustomer(
+                        userId, transactionType.isEmpty() ? null : transactionType, from, to))
+                .doOnError(ex -> userActionLogService.logAction("Unknown", action, "FAILED"));
+    }
+
+    /**
+     * 📄 API: Get all transactions for a specific credit card
+     *
+     * Endpoint: GET /api/transactions/card/{cardId}
+     * Response: List of TransactionDto objects.
+     */
+
+    // ✅ 5️⃣ Get all transactions for a credit card
+    @Operation(
+            summary = "Get all transactions for a specific credit card",
+            description = "Retrieves all transactions linked to a specific credit card."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Transactions fetched successfully"),
+            @ApiResponse(responseCode = "404", description = "Credit card not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/card/{cardId}")
+    public Mono<ResponseEntity<ResponseStructure<List<TransactionDto>>>> getTransactionsByCard(
+            @Parameter(description = "Credit card ID to fetch transactions for", example = "101")
+            @PathVariable Long cardId) {
+
+        LOGGER.info("Fetching transactions for card ID: {}", cardId);
+        String action = "Fetch transactions for cardId " + cardId;
+        return transactionService.cardOwner(cardId)
+                .flatMap(owner -> transactionService.streamForCard(cardId)
+                        .collectList()
+                        .map(transactions -> {
+                            userActionLogService.logAction(owner, action, "SUCCESS");
+                            String message = transactions.isEmpty()
+                                    ? "No transactions found for card ID: " + cardId
+                                    : "Found " + transactions.size() + " transactions for card ID: " + cardId;
+                            return response(message, transactions);
+                        }));
+    }
+
+    /**
+     * 🌊 API: Stream the transactions of a credit card
+     *
+     * Endpoint: GET /api/transactions/card/{cardId}/stream
+     * Description: Every transaction of the card, oldest first, as NDJSON with backpressure.
+     */
+
+    // ✅ 6️⃣ Stream transactions of a credit card
+    @Operation(summary = "Stream the transactions of a credit card",
+            description = "Streams every transaction of the card as NDJSON, oldest first, with backpressure.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream started"),
+            @ApiResponse(responseCode = "404", description = "Credit card not found")
+    })
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping(value = "/card/{cardId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TransactionDto> streamTransactionsByCard(@PathVariable Long cardId) {
+        LOGGER.info("Streaming transactions for card ID: {}", cardId);
+        String action = "Stream transactions for cardId " + cardId;
+        return transactionService.cardOwner(cardId)
+                .doOnNext(owner -> userActionLogService.logAction(owner, action, "SUCCESS"))
+                .flatMapMany(owner -> transactionService.streamForCard(cardId));
+    }
+
+    // Optional type filter of the user stream; "" means both types
+    private static String transactionType(String type) {
+        if (type == null || type.isBlank()) {
+            return "";
+        }
+        String normalized = type.trim().toUpperCase();
+        if (!"DEBIT".equals(normalized) && !"CREDIT".equals(normalized)) {
+            throw new InvalidInputException("Transaction type must be DEBIT or CREDIT");
+        }
+        return normalized;
+    }
+
+    private Mono<ResponseEntity<ResponseStructure<TransactionPageDto>>> fetchUserTransactions(
+            Long userId, String type, String label, LocalDateTime from, LocalDateTime to, String cursor, Integer size) {
+
+        String action = type == null
+                ? "Fetch all transactions for userId " + userId
+                : "Fetch " + type + " transactions for userId " + userId;
+        return transactionService.customerName(userId)
+                .flatMap(username -> transactionService.findPageForCustomer(userId, type, from, to, cursor, size)
+                        .map(page -> {
+                            userActionLogService.logAction(username, action, "SUCCESS");
+                            String message = page.getSize() == 0
+                                    ? "No " + label + "transactions found for user ID: " + userId
+                                    : "Found " + page.getSize() + " " + label + "transactions for user ID: " + userId;
+                            return response(message, page);
+                        })
+                        .doOnError(ex -> userActionLogService.logAction(username, action, "FAILED")))
+                .doOnError(ex -> LOGGER.warn("{} failed: {}", action, ex.getMessage()));
+    }
+
+    private static <T> ResponseEntity<ResponseStructure<T>> response(String message, T data) {
+        ResponseStructure<T> response = new ResponseStructure<>();
+        response.setMessage(message);
+        response.setHttpstatus("SUCCESS");
+        response.setData(data);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,121 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.dto.TransactionDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * R2DBC reads and writes of the transaction table for the reactive stack.
+ *
+ * History queries are plain keyset SQL (same predicates as TransactionSpecifications) and are
+ * returned as a Flux read with a fetch size, so rows are pulled from the database as the
+ * subscriber (the HTTP response) asks for them instead of being loaded all at once.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transaction (amount_minor, transaction_type, card_type, description, date_time, card_id) "
+                    + "VALUES (:amount, :type, :cardType, :description, :dateTime, :cardId)";
+
+    private static final String SELECT_TRANSACTION =
+            "SELECT t.id, t.amount_minor, t.transaction_type, t.card_type, t.description, t.date_time, c.card_number "
+                    + "FROM transaction t JOIN credit_card c ON c.id = t.card_id ";
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${creditcard.reactive.fetch-size:500}")
+    private int fetchSize;
+
+    public ReactiveTransactionRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Void> insert(Long cardId, String transactionType, String cardType, long amount,
+                             String description, LocalDateTime dateTime) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT_SQL)
+                .bind("amount", amount)
+                .bind("type", transactionType)
+                .bind("description", description)
+                .bind("dateTime", dateTime)
+                .bind("cardId", cardId);
+        spec = cardType == null ? spec.bindNull("cardType", String.class) : spec.bind("cardType", cardType);
+        return spec.then();
+    }
+
+    public Flux<TransactionDto> findByCard(Long cardId) {
+        return databaseClient.sql(SELECT_TRANSACTION + "WHERE t.card_id = :cardId ORDER BY t.date_time, t.id")
+                .bind("cardId", cardId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveTransactionRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Transactions of a customer, newest first, filtered in SQL.
+     *
+     * @param transactionType "DEBIT", "CREDIT" or null for both
+     * @param from            inclusive lower bound on date_time, or null
+     * @param to              exclusive upper bound on date_time, or null
+     * @param cursorTime      keyset position (date_time, id) of the last row already seen, or null
+     * @param limit           maximum number of rows, or 0 for all of them
+     */
+    public Flux<TransactionDto> findByCustomer(Long customerId, String transactionType,
+                                               LocalDateTime from, LocalDateTime to,
+                                               LocalDateTime cursorTime, Long cursorId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_TRANSACTION).append("WHERE c.customer_id = :customerId");
+        Map<String, Object> binds = new LinkedHashMap<>();
+        binds.put("customerId", customerId);
+        if (transactionType != null) {
+            sql.append(" AND t.transaction_type = :type");
+            binds.put("type", transactionType);
+        }
+        if (from != null) {
+            sql.append(" AND t.date_time >= :from");
+            binds.put("from", from);
+        }
+        if (to != null) {
+            sql.append(" AND t.date_time < :to");
+            binds.put("to", to);
+        }
+        if (cursorTime != null) {
+            sql.append(" AND (t.date_time < :cursorTime OR (t.date_time = :cursorTime AND t.id < :cursorId))");
+            binds.put("cursorTime", cursorTime);
+            binds.put("cursorId", cursorId);
+        }
+        sql.append(" ORDER BY t.date_time DESC, t.id DESC");
+        if (limit > 0) {
+            sql.append(" LIMIT ").append(limit);
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> bind : binds.entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+        return spec.filter(statement -> statement.fetchSize(limit > 0 ? Math.min(limit, fetchSize) : fetchSize))
+                .map(ReactiveTransactionRepository::toDto)
+                .all();
+    }
+
+    private static TransactionDto toDto(Readable row) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(row.get("id", Long.class));
+        dto.setAmount(row.get("amount_minor", Long.class));
+        dto.setTransactionType(row.get("transaction_type", String.class));
+        dto.setCardType(row.get("card_type", String.class));
+        dto.setDescription(row.get("description", String.class));
+        dto.setTimestamp(row.get("date_time", LocalDateTime.class));
+        dto.setCardNumber(row.get("card_number", String.class));
+        return dto;
+    }
+}
@@ -0,0 +1,103 @@
+package com.Nikhil.CreditCardSystem.reactive;
+
+import com.Nikhil.CreditCardSystem.dto.TransactionDto;
+import com.Nikhil.CreditCardSystem.dto.TransactionPageDto;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.service.TransactionService;
+import com.Nikhil.CreditCardSystem.util.KeysetCursor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Reactive counterpart of TransactionService: the same keyset pages (same cursor format, so a
+ * cursor from either stack works on the other), plus unpaged streams of the history.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTransactionService {
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveCardRepository cardRepository;
+
+    public ReactiveTransactionService(ReactiveTransactionRepository transactionRepository,
+                                      ReactiveCardRepository cardRepository) {
+        this.transactionRepository = transactionRepository;
+        this.cardRepository = cardRepository;
+    }
+
+    // ✅ Owner name of an existing card (404 otherwise)
+    public Mono<String> cardOwner(Long cardId) {
+        return cardRepository.findById(cardId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Card not found")))
+                .map(ReactiveCardRepository.CardRow::customerName);
+    }
+
+    // ✅ Name of an existing customer (404 otherwise)
+    public Mono<String> customerName(Long customerId) {
+        return cardRepository.findCustomerName(customerId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found")));
+    }
+
+    public Flux<TransactionDto> streamForCard(Long cardId) {
+        return transactionRepository.findByCard(cardId);
+    }
+
+    public Flux<TransactionDto> streamForCustomer(Long customerId, String transactionType,
+                                                  LocalDateTime from, LocalDateTime to) {
+        return transactionRepository.findByCustomer(customerId, transactionType, from, to, null, null, 0);
+    }
+
+    /**
+     * One page of a customer's transactions, newest first; see TransactionService.findPageForCustomer.
+     */
+    public Mono<TransactionPageDto> findPageForCustomer(Long customerId, String transactionType,
+                                                       LocalDateTime from, LocalDateTime to,
+                                                       String cursor, Integer size) {
+        return Mono.defer(() -> {
+            int pageSize = size == null ? TransactionService.DEFAULT_PAGE_SIZE : size;
+            if (pageSize <= 0 || pageSize > TransactionService.MAX_PAGE_SIZE) {
+                throw new InvalidInputException("Page size must be between 1 and " + TransactionService.MAX_PAGE_SIZE);
+            }
+
+            LocalDateTime cursorTime = null;
+            Long cursorId = null;
+            if (cursor != null && !cursor.isBlank()) {
+                String[] parts = KeysetCursor.decode(cursor, 2);
+                try {
+                    cursorTime = LocalDateTime.parse(parts[0]);
+                    cursorId = Long.valueOf(parts[1]);
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    throw new InvalidInputException("Invalid pagination cursor");
+                }
+            }
+
+            // Fetch one extra row to know whether another page exists
+            return transactionRepository
+                    .findByCustomer(customerId, transactionType, from, to, cursorTime, cursorId, pageSize + 1)
+                    .collectList()
+                    .map(rows -> toPage(rows, pageSize));
+        });
+    }
+
+    private static TransactionPageDto toPage(List<TransactionDto> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionDto> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        TransactionPageDto page = new TransactionPageDto();
+        page.setTransactions(pageRows);
+        page.setSize(pageRows.size());
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            TransactionDto last = pageRows.get(pageRows.size() - 1);
+            page.setNextCursor(KeysetCursor.encode(last.getTimestamp(), last.getId()));
+        }
+        return page;
+    }
+}
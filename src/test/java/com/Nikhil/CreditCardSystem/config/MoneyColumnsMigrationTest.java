@@ -0,0 +1,61 @@
+package com.Nikhil.CreditCardSystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyColumnsMigrationTest {
+
+	@Test
+	void copiesLegacyRupeesToPaiseAndDropsTheOldColumns() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:money-migration;DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+		// Schema as ddl-auto=update leaves it: new *_minor columns added next to the legacy double ones
+		jdbcTemplate.execute("CREATE TABLE credit_card (id BIGINT PRIMARY KEY, "
+				+ "total_balance DOUBLE PRECISION, daily_debited_amount DOUBLE PRECISION, daily_credited_amount DOUBLE PRECISION, "
+				+ "max_withdrawal_limit DOUBLE PRECISION, daily_debit_limit DOUBLE PRECISION, "
+				+ "daily_credit_limit DOUBLE PRECISION, max_credit_limit DOUBLE PRECISION, "
+				+ "total_balance_minor BIGINT DEFAULT 0 NOT NULL, daily_debited_minor BIGINT DEFAULT 0 NOT NULL, "
+				+ "daily_credited_minor BIGINT DEFAULT 0 NOT NULL)");
+		jdbcTemplate.execute("CREATE TABLE transaction (id BIGINT PRIMARY KEY, card_id BIGINT, "
+				+ "amount DOUBLE PRECISION, amount_minor BIGINT DEFAULT 0 NOT NULL)");
+		jdbcTemplate.update("INSERT INTO credit_card (id, total_balance, daily_debited_amount, daily_credited_amount, "
+				+ "max_withdrawal_limit, daily_debit_limit, daily_credit_limit, max_credit_limit) "
+				+ "VALUES (1, 98765.43, 19.99, 0.07, 50000, 20000, 50000, 50000)");
+		jdbcTemplate.update("INSERT INTO credit_card (id, total_balance, daily_debited_amount, daily_credited_amount) "
+				+ "VALUES (2, 0.1, NULL, 1234.5)");
+		jdbcTemplate.update("INSERT INTO transaction (id, card_id, amount) VALUES (10, 1, 19.99), (11, 2, 1234.5), (12, 2, NULL)");
+
+		MoneyColumnsMigration migration = new MoneyColumnsMigration(null, jdbcTemplate,
+				new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+		migration.migrate();
+
+		// 19.99 * 100 is 1998.9999999999998 as a double: rounded, not truncated
+		assertEquals(List.of(
+						Map.of("ID", 1L, "TOTAL_BALANCE_MINOR", 9_876_543L, "DAILY_DEBITED_MINOR", 1_999L, "DAILY_CREDITED_MINOR", 7L),
+						Map.of("ID", 2L, "TOTAL_BALANCE_MINOR", 10L, "DAILY_DEBITED_MINOR", 0L, "DAILY_CREDITED_MINOR", 123_450L)),
+				jdbcTemplate.queryForList("SELECT * FROM credit_card ORDER BY id"));
+		assertEquals(List.of(1_999L, 123_450L, 0L),
+				jdbcTemplate.queryForList("SELECT amount_minor FROM transaction ORDER BY id", Long.class));
+		assertEquals(List.of("ID", "TOTAL_BALANCE_MINOR", "DAILY_DEBITED_MINOR", "DAILY_CREDITED_MINOR"), columns("CREDIT_CARD", jdbcTemplate));
+		assertEquals(List.of("ID", "CARD_ID", "AMOUNT_MINOR"), columns("TRANSACTION", jdbcTemplate));
+
+		// Second start: nothing left to migrate, the paise values stay as they are
+		migration.migrate();
+		assertEquals(9_876_543L, jdbcTemplate.queryForObject("SELECT total_balance_minor FROM credit_card WHERE id = 1", Long.class));
+	}
+
+	private static List<String> columns(String table, JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForList("SELECT column_name FROM information_schema.columns WHERE table_name = ? "
+				+ "ORDER BY ordinal_position", String.class, table);
+	}
+}
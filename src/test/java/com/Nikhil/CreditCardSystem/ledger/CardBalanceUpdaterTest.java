@@ -0,0 +1,149 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.Entity.CardEvent;
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.Entity.Customer;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.repo.CustomerRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class CardBalanceUpdaterTest {
+
+	private static final int THREADS = 8;
+	private static final int DEBITS_PER_THREAD = 25;
+	private static final long AMOUNT = 1_000;
+	private static final long OPENING_BALANCE = 100 * AMOUNT;
+
+	@Autowired
+	private CardBalanceUpdater balanceUpdater;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private CreditCardRepository creditCardRepository;
+
+	@Autowired
+	private CardEventJdbcRepository cardEventJdbcRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@ParameterizedTest
+	@EnumSource(CardBalanceUpdater.Mode.class)
+	void concurrentDebitsNeverOverdrawOrLoseAnUpdate(CardBalanceUpdater.Mode mode) throws Exception {
+		ReflectionTestUtils.setField(balanceUpdater, "mode", mode);
+		// No backoff: conflicting OPTIMISTIC attempts retry at once
+		ReflectionTestUtils.setField(balanceUpdater, "backoffMs", 0L);
+		ReflectionTestUtils.setField(balanceUpdater, "maxAttempts", 50);
+		CreditCard card = issueCard("4111110000" + (100000 + mode.ordinal()));
+
+		// Twice as many debits as the balance covers: exactly half of them may go through
+		AtomicInteger debited = new AtomicInteger();
+		AtomicInteger insufficient = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(pool.submit(() -> {
+				go.await();
+				for (int i = 0; i < DEBITS_PER_THREAD; i++) {
+					try {
+						CardBalanceUpdater.Result result = balanceUpdater.debit(card.getCustomer().getId(), card.getCardNumber(), AMOUNT);
+						assertTrue(result.card().getTotalBalance() >= 0);
+						debited.incrementAndGet();
+					} catch (ValidationException e) {
+						assertEquals("Insufficient balance", e.getMessage());
+						insufficient.incrementAndGet();
+					} catch (ConflictException e) {
+						conflicts.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		go.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertEquals(100, debited.get(), mode + ": " + conflicts.get() + " conflict(s)");
+		assertEquals(THREADS * DEBITS_PER_THREAD - 100, insufficient.get() + conflicts.get());
+		CreditCard after = creditCardRepository.findById(card.getId()).orElseThrow();
+		assertEquals(0, after.getTotalBalance());
+		assertEquals(OPENING_BALANCE, after.getDailyDebitedAmount());
+		assertEquals(100L, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM transaction WHERE card_id = ? AND transaction_type = 'DEBIT'", Long.class, card.getId()));
+		// CardIssued plus one Debited event per movement, without gaps
+		assertEquals(101, cardEventJdbcRepository.head(card.getId()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(CardBalanceUpdater.Mode.class)
+	void debitReturnsTheNewBalanceAndRejectsBeyondTheLimits(CardBalanceUpdater.Mode mode) {
+		ReflectionTestUtils.setField(balanceUpdater, "mode", mode);
+		CreditCard card = issueCard("5100000000" + (200000 + mode.ordinal()));
+		Long customerId = card.getCustomer().getId();
+
+		CardBalanceUpdater.Result result = balanceUpdater.debit(customerId, card.getCardNumber(), 2_500);
+		assertEquals(OPENING_BALANCE - 2_500, result.card().getTotalBalance());
+		assertEquals(2_500, result.card().getDailyDebitedAmount());
+		assertEquals("Asha", result.customerName());
+
+		result = balanceUpdater.credit(customerId, card.getCardNumber(), 500);
+		assertEquals(OPENING_BALANCE - 2_000, result.card().getTotalBalance());
+		assertEquals(500, result.card().getDailyCreditedAmount());
+		assertEquals(2_500, result.card().getDailyDebitedAmount());
+
+		ValidationException ex = assertThrows(ValidationException.class,
+				() -> balanceUpdater.debit(customerId, card.getCardNumber(), OPENING_BALANCE));
+		assertEquals("Insufficient balance", ex.getMessage());
+		assertEquals(OPENING_BALANCE - 2_000, creditCardRepository.findById(card.getId()).orElseThrow().getTotalBalance());
+	}
+
+	private CreditCard issueCard(String cardNumber) {
+		Customer customer = new Customer();
+		customer.setName("Asha");
+		customer.setUsername("asha-" + cardNumber);
+		customer.setRole("USER");
+		customerRepository.save(customer);
+
+		CreditCard card = new CreditCard();
+		card.setCardNumber(cardNumber);
+		card.setCardHolderName("Asha");
+		card.setCardType("VISA");
+		card.setIssueDate(LocalDate.now());
+		card.setExpiryDate(LocalDate.now().plusYears(5));
+		card.setTotalBalance(OPENING_BALANCE);
+		card.setCustomer(customer);
+		creditCardRepository.save(card);
+		cardEventJdbcRepository.append(card.getId(), CardEvent.CARD_ISSUED, OPENING_BALANCE, LocalDateTime.now(), null);
+		return card;
+	}
+}
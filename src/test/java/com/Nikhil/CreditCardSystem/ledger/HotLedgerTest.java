@@ -0,0 +1,223 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import com.Nikhil.CreditCardSystem.Entity.CreditCard;
+import com.Nikhil.CreditCardSystem.Entity.Customer;
+import com.Nikhil.CreditCardSystem.exception.ResourceNotFoundException;
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.repo.AggregateJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CardEventJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.CreditCardRepository;
+import com.Nikhil.CreditCardSystem.repo.JournalCheckpointRepository;
+import com.Nikhil.CreditCardSystem.repo.LedgerJdbcRepository;
+import com.Nikhil.CreditCardSystem.repo.LedgerJdbcRepository.CardBalanceRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HotLedgerTest {
+
+	private static final Long CUSTOMER_ID = 7L;
+	private static final Long CARD_ID = 42L;
+	private static final String NUMBER = "4111110000000042";
+	private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+	private final CreditCardRepository creditCardRepository = mock(CreditCardRepository.class);
+	private final LedgerJdbcRepository ledgerJdbcRepository = mock(LedgerJdbcRepository.class);
+	private final BusinessDay businessDay = mock(BusinessDay.class);
+	private final LimitPolicyEngine limitPolicyEngine = mock(LimitPolicyEngine.class);
+
+	// The card row as the DB currently has it
+	private final AtomicReference<CreditCard> row = new AtomicReference<>();
+	private final List<LedgerEntry> written = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicReference<CardBalanceRow> lastBalance = new AtomicReference<>();
+
+	private HotLedger ledger;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(creditCardRepository.findByCardNumberAndCustomerId(NUMBER, CUSTOMER_ID))
+				.thenAnswer(invocation -> Optional.ofNullable(row.get()));
+		when(creditCardRepository.findById(CARD_ID)).thenAnswer(invocation -> Optional.ofNullable(row.get()));
+		when(businessDay.today()).thenReturn(TODAY);
+		when(limitPolicyEngine.limitsFor(eq(CARD_ID), anyString()))
+				.thenReturn(new CardLimits(20_000, 50_000, 50_000, 50_000));
+		doAnswer(invocation -> written.addAll(invocation.getArgument(0)))
+				.when(ledgerJdbcRepository).insertTransactions(anyList());
+		doAnswer(invocation -> {
+			List<CardBalanceRow> rows = invocation.getArgument(0);
+			rows.forEach(lastBalance::set);
+			return null;
+		}).when(ledgerJdbcRepository).updateBalances(anyList());
+
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+
+		ledger = new HotLedger(creditCardRepository, ledgerJdbcRepository, mock(AggregateJdbcRepository.class),
+				mock(CardEventJdbcRepository.class), transactionTemplate, businessDay, limitPolicyEngine,
+				new TransactionJournal(), mock(JournalCheckpointRepository.class));
+		ReflectionTestUtils.setField(ledger, "enabled", true);
+		ReflectionTestUtils.setField(ledger, "queueCapacity", 1000);
+		ReflectionTestUtils.setField(ledger, "batchSize", 50);
+		ReflectionTestUtils.setField(ledger, "flushIntervalMs", 10L);
+		ledger.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		ledger.shutdown();
+	}
+
+	@Test
+	void concurrentDebitsStopExactlyAtTheDailyLimit() throws Exception {
+		row.set(card(100_000, TODAY));
+		int threads = 8;
+		int perThread = 100;
+		AtomicInteger rejected = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				go.await();
+				for (int i = 0; i < perThread; i++) {
+					try {
+						ledger.debit(CUSTOMER_ID, NUMBER, 100);
+					} catch (ValidationException e) {
+						assertEquals("Daily debit limit exceeded", e.getMessage());
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		go.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+		ledger.flushNow();
+
+		// 500 debits of 100 fill the daily limit of 50_000; no lost update lets a 501st through
+		assertEquals(threads * perThread - 500, rejected.get());
+		assertEquals(new HotLedger.Balance(50_000, 50_000, 0, TODAY), ledger.peek(CARD_ID));
+		assertEquals(500, written.size());
+		assertEquals(50_000, written.stream().mapToLong(LedgerEntry::amount).sum());
+		assertEquals(new CardBalanceRow(CARD_ID, 50_000, 50_000, 0, TODAY), lastBalance.get());
+	}
+
+	@Test
+	void removeWaitsForAnInFlightPostAndFlushesItBeforeTheDelete() throws Exception {
+		// No reset date yet: the first post rolls the counters over, which is where it is held
+		row.set(card(100_000, null));
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			entered.countDown();
+			release.await();
+			return null;
+		}).when(businessDay).countLazyReset();
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<HotLedger.Posting> inFlight = pool.submit(() -> ledger.debit(CUSTOMER_ID, NUMBER, 1_000));
+		assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+		AtomicBoolean deleted = new AtomicBoolean();
+		AtomicInteger writtenBeforeDelete = new AtomicInteger(-1);
+		Thread remover = new Thread(() -> ledger.remove(CARD_ID, () -> {
+			writtenBeforeDelete.set(written.size());
+			deleted.set(true);
+			return null;
+		}));
+		remover.setDaemon(true);
+		remover.start();
+		awaitBlocked(remover);
+		assertFalse(deleted.get());
+
+		release.countDown();
+		assertEquals(99_000, inFlight.get(5, TimeUnit.SECONDS).balance().totalBalance());
+		remover.join(5_000);
+		pool.shutdown();
+		assertTrue(deleted.get());
+		assertEquals(1, writtenBeforeDelete.get());
+
+		// The row is still readable (e.g. a replica lagging behind the delete), yet the card is gone
+		ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
+				() -> ledger.debit(CUSTOMER_ID, NUMBER, 1_000));
+		assertEquals("Card not found for customer", ex.getMessage());
+		assertNull(ledger.peek(CARD_ID));
+		ledger.flushNow();
+		assertEquals(1, written.size());
+	}
+
+	@Test
+	void evictFlushesRunsTheChangeAndReloadsTheChangedRow() {
+		row.set(card(100_000, TODAY));
+		assertEquals(99_000, ledger.debit(CUSTOMER_ID, NUMBER, 1_000).balance().totalBalance());
+		assertEquals(1, ledger.getCardCount());
+
+		CreditCard changed = ledger.evict(CARD_ID, () -> {
+			assertEquals(1, written.size());
+			assertEquals(99_000, lastBalance.get().totalBalance());
+			CreditCard updated = card(250_000, TODAY);
+			updated.setDailyDebitedAmount(1_000);
+			row.set(updated);
+			return updated;
+		});
+
+		assertSame(row.get(), changed);
+		assertEquals(0, ledger.getCardCount());
+		assertNull(ledger.peek(CARD_ID));
+		HotLedger.Posting posting = ledger.debit(CUSTOMER_ID, NUMBER, 1_000);
+		assertEquals(new HotLedger.Balance(249_000, 2_000, 0, TODAY), posting.balance());
+		assertEquals(1, ledger.getCardCount());
+	}
+
+	private static void awaitBlocked(Thread thread) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(Thread.State.WAITING, thread.getState());
+	}
+
+	private static CreditCard card(long totalBalance, LocalDate dailyResetDate) {
+		Customer customer = new Customer();
+		customer.setId(CUSTOMER_ID);
+		customer.setName("Asha");
+		CreditCard card = new CreditCard();
+		card.setId(CARD_ID);
+		card.setCardNumber(NUMBER);
+		card.setCardHolderName("Asha");
+		card.setCardType("VISA");
+		card.setCustomer(customer);
+		card.setTotalBalance(totalBalance);
+		card.setDailyResetDate(dailyResetDate);
+		return card;
+	}
+}
@@ -0,0 +1,92 @@
+package com.Nikhil.CreditCardSystem.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+
+	private static final int SIZE = TransactionJournal.RECORD_SIZE;
+	private static final LocalDateTime AT = LocalDateTime.of(2026, 10, 17, 9, 30, 15, 123_456_000);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void recoverReplaysFromTheCheckpointAndStopsAtATornRecord() throws IOException {
+		TransactionJournal journal = open();
+		assertEquals(0, journal.recover(0, 10, batch -> fail("empty journal replayed " + batch)));
+		long end = 0;
+		for (int i = 1; i <= 5; i++) {
+			end = journal.append((long) i, i % 2 == 0 ? "CREDIT" : "DEBIT", i * 100L, AT.plusSeconds(i), balance(i));
+		}
+		assertEquals(5 * SIZE, end);
+		journal.awaitDurable(end);
+		journal.close();
+
+		// The last append was torn: its amount no longer matches the checksum
+		corrupt(4L * SIZE + 16);
+
+		List<List<TransactionJournal.Record>> batches = new ArrayList<>();
+		TransactionJournal reopened = open();
+		long next = reopened.recover(SIZE, 2, batch -> batches.add(List.copyOf(batch)));
+
+		assertEquals(4 * SIZE, next);
+		assertEquals(List.of(2, 1), batches.stream().map(List::size).toList());
+		List<TransactionJournal.Record> replayed = batches.stream().flatMap(List::stream).toList();
+		for (int k = 0; k < replayed.size(); k++) {
+			int i = k + 2;
+			TransactionJournal.Record record = replayed.get(k);
+			assertEquals((long) (i - 1) * SIZE, record.position());
+			assertEquals((long) i, record.cardId());
+			assertEquals(i % 2 == 0 ? "CREDIT" : "DEBIT", record.transactionType());
+			assertEquals(i * 100L, record.amount());
+			assertEquals(AT.plusSeconds(i), record.dateTime());
+			assertEquals(balance(i), record.after());
+		}
+
+		// The torn slot was wiped: the next append takes its place and reads back
+		assertEquals(5 * SIZE, reopened.append(9L, "DEBIT", 900, AT, balance(9)));
+		reopened.awaitDurable(5 * SIZE);
+		reopened.close();
+
+		List<TransactionJournal.Record> all = new ArrayList<>();
+		TransactionJournal again = open();
+		assertEquals(5 * SIZE, again.recover(0, 10, all::addAll));
+		again.close();
+		assertEquals(List.of(1L, 2L, 3L, 4L, 9L), all.stream().map(TransactionJournal.Record::cardId).toList());
+		assertEquals(balance(9), all.get(4).after());
+	}
+
+	private TransactionJournal open() {
+		TransactionJournal journal = new TransactionJournal();
+		ReflectionTestUtils.setField(journal, "enabled", true);
+		ReflectionTestUtils.setField(journal, "directory", dir.toString());
+		ReflectionTestUtils.setField(journal, "segmentSizeMb", 1);
+		ReflectionTestUtils.setField(journal, "fsync", TransactionJournal.FsyncPolicy.GROUP);
+		ReflectionTestUtils.setField(journal, "fsyncIntervalMs", 10L);
+		return journal;
+	}
+
+	private static HotLedger.Balance balance(int i) {
+		return new HotLedger.Balance(100_000L - i, i, 2L * i, i % 2 == 0 ? null : LocalDate.of(2026, 10, i));
+	}
+
+	private void corrupt(long offset) throws IOException {
+		try (FileChannel channel = FileChannel.open(dir.resolve("journal-0000000000.seg"), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[]{0x5A}), offset);
+		}
+	}
+}
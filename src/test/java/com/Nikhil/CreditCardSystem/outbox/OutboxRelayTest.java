@@ -0,0 +1,184 @@
+package com.Nikhil.CreditCardSystem.outbox;
+
+import com.Nikhil.CreditCardSystem.Entity.OutboxMessage;
+import com.Nikhil.CreditCardSystem.repo.OutboxJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRelayTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private OutboxJdbcRepository outboxRepository;
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL", "sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE outbox_messages (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+				+ "aggregate_type VARCHAR(20) NOT NULL, aggregate_id BIGINT NOT NULL, event_type VARCHAR(30) NOT NULL, "
+				+ "payload VARCHAR(4000) NOT NULL, created_at TIMESTAMP NOT NULL)");
+		outboxRepository = new OutboxJdbcRepository(jdbcTemplate, new ObjectMapper());
+		ReflectionTestUtils.setField(outboxRepository, "enabled", true);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+	@Test
+	void secondRelayDefersAnAggregateWhoseOlderMessageIsHeldByTheFirst() throws Exception {
+		append(OutboxMessage.CARD, 1L, "Debited");        // 1
+		append(OutboxMessage.CARD, 1L, "Debited");        // 2
+		append(OutboxMessage.CARD, 2L, "Credited");       // 3
+		append(OutboxMessage.CARD, 1L, "Credited");       // 4
+		append(OutboxMessage.CUSTOMER, 1L, OutboxMessage.CUSTOMER_UPDATED);   // 5: another aggregate with id 1
+
+		// Relay A (another node) locks ids 1 and 2 and is still publishing them
+		CountDownLatch publishing = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		RecordingSink sinkA = new RecordingSink() {
+			@Override
+			public void publish(List<OutboxMessage> messages) throws Exception {
+				super.publish(messages);
+				publishing.countDown();
+				assertTrue(finish.await(10, TimeUnit.SECONDS));
+			}
+		};
+		OutboxRelay relayA = relay(2, sinkA);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<Integer> batchA = pool.submit(relayA::relayOnce);
+		assertTrue(publishing.await(10, TimeUnit.SECONDS));
+
+		// Relay B skips the locked rows; card 1's id 4 must wait for ids 1 and 2
+		RecordingSink sinkB = new RecordingSink();
+		OutboxRelay relayB = relay(10, sinkB);
+		assertEquals(2, relayB.relayOnce());
+		assertEquals(List.of(3L, 5L), sinkB.ids());
+		assertEquals(1, relayB.getDeferredCount());
+
+		finish.countDown();
+		assertEquals(2, batchA.get(10, TimeUnit.SECONDS));
+		pool.shutdown();
+		assertEquals(List.of(1L, 2L), sinkA.ids());
+
+		assertEquals(1, relayB.relayOnce());
+		assertEquals(List.of(3L, 5L, 4L), sinkB.ids());
+		assertEquals(0, pending());
+		assertEquals(0, relayB.relayOnce());
+	}
+
+	@Test
+	void failingSinkRollsTheBatchBackForRedelivery() throws Exception {
+		append(OutboxMessage.CARD, 1L, "Debited");
+		append(OutboxMessage.CARD, 2L, "Debited");
+		append(OutboxMessage.CUSTOMER, 3L, OutboxMessage.CUSTOMER_REGISTERED);
+		RecordingSink first = new RecordingSink();
+		FlakySink second = new FlakySink();
+		OutboxRelay relay = relay(10, first, second);
+
+		IllegalStateException ex = assertThrows(IllegalStateException.class, relay::relayOnce);
+		assertEquals("sink flaky failed: broker unavailable", ex.getMessage());
+		assertEquals(3, pending());
+		assertEquals(0, relay.getPublishedCount());
+
+		// Retried as a whole: the first sink sees the batch again (at least once)
+		second.healthy = true;
+		assertEquals(3, relay.relayOnce());
+		assertEquals(List.of(1L, 2L, 3L, 1L, 2L, 3L), first.ids());
+		assertEquals(List.of(1L, 2L, 3L), second.delivered);
+		assertEquals(0, pending());
+		assertEquals(3, relay.getPublishedCount());
+	}
+
+	@Test
+	void batchesKeepWriteOrderPerAggregate() throws Exception {
+		for (int i = 0; i < 30; i++) {
+			append(OutboxMessage.CARD, (long) (i % 3), "Debited");
+		}
+		RecordingSink sink = new RecordingSink();
+		OutboxRelay relay = relay(7, sink);
+
+		int published = 0;
+		for (int n; (n = relay.relayOnce()) > 0; ) {
+			published += n;
+		}
+
+		assertEquals(30, published);
+		assertEquals(5, relay.getBatchCount());
+		List<Long> ids = sink.ids();
+		List<Long> sorted = new ArrayList<>(ids);
+		Collections.sort(sorted);
+		assertEquals(sorted, ids);
+		assertEquals(0, relay.getDeferredCount());
+	}
+
+	private OutboxRelay relay(int batchSize, OutboxSink... sinks) {
+		OutboxRelay relay = new OutboxRelay(outboxRepository, transactionTemplate, List.of(sinks), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(relay, "sinks", List.of(sinks));
+		ReflectionTestUtils.setField(relay, "batchSize", batchSize);
+		return relay;
+	}
+
+	private void append(String aggregateType, Long aggregateId, String eventType) {
+		outboxRepository.append(aggregateType, aggregateId, eventType, Map.of("aggregateId", aggregateId));
+	}
+
+	private long pending() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_messages", Long.class);
+	}
+
+	private static class RecordingSink implements OutboxSink {
+		private final List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public String name() {
+			return "recording";
+		}
+
+		@Override
+		public void publish(List<OutboxMessage> messages) throws Exception {
+			messages.forEach(message -> delivered.add(message.getId()));
+		}
+
+		List<Long> ids() {
+			return List.copyOf(delivered);
+		}
+	}
+
+	private static class FlakySink implements OutboxSink {
+		private final List<Long> delivered = new ArrayList<>();
+		private volatile boolean healthy;
+
+		@Override
+		public String name() {
+			return "flaky";
+		}
+
+		@Override
+		public void publish(List<OutboxMessage> messages) {
+			if (!healthy) {
+				throw new IllegalStateException("broker unavailable");
+			}
+			messages.forEach(message -> delivered.add(message.getId()));
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.Nikhil.CreditCardSystem.risk;
+
+import com.Nikhil.CreditCardSystem.service.UserActionLogService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class VelocityRiskStageTest {
+
+	private static final Long CUSTOMER_ID = 7L;
+	private static final String CARD = "4111110000000042";
+
+	private final UserActionLogService auditLog = mock(UserActionLogService.class);
+
+	@Test
+	void declineRuleRefusesTheDebitThatWouldExceedIt() {
+		VelocityRiskStage stage = new VelocityRiskStage(auditLog, true,
+				"card-burst=CARD.COUNT.1m>2:DECLINE;card-hourly-amount=CARD.AMOUNT.1h>50000:FLAG");
+
+		for (int i = 0; i < 2; i++) {
+			RiskDecision decision = stage.assess(CUSTOMER_ID, CARD, 100_00);
+			assertEquals(RiskDecision.Action.APPROVE, decision.action());
+			stage.record(CUSTOMER_ID, CARD, 100_00);
+		}
+		RiskDecision third = stage.assess(CUSTOMER_ID, CARD, 100_00);
+
+		assertTrue(third.declined());
+		assertEquals(List.of("card-burst"), third.rules());
+		assertEquals(150, third.score());
+		assertEquals(1, stage.getDeclinedCount());
+		assertEquals(2, stage.getApprovedCount());
+		verify(auditLog).logAction(eq("RISK_ENGINE"), contains("rules [card-burst]"), eq("DECLINED"));
+		// Another card of the customer is not affected by this card's burst
+		assertEquals(RiskDecision.Action.APPROVE, stage.assess(CUSTOMER_ID, "4111110000000043", 100_00).action());
+	}
+
+	@Test
+	void flagRuleLetsTheDebitThroughAndAuditsIt() {
+		VelocityRiskStage stage = new VelocityRiskStage(auditLog, true,
+				"card-hourly-amount=CARD.AMOUNT.1h>1000:FLAG;customer-daily-count=CUSTOMER.COUNT.24h>100:FLAG");
+
+		assertEquals(RiskDecision.Action.APPROVE, stage.assess(CUSTOMER_ID, CARD, 600_00).action());
+		stage.record(CUSTOMER_ID, CARD, 600_00);
+		RiskDecision second = stage.assess(CUSTOMER_ID, CARD, 600_00);
+
+		assertEquals(RiskDecision.Action.FLAG, second.action());
+		assertFalse(second.declined());
+		assertEquals(List.of("card-hourly-amount"), second.rules());
+		assertEquals(120, second.score());
+		assertEquals(1, stage.getFlaggedCount());
+		verify(auditLog).logAction(eq("RISK_ENGINE"), contains("₹600.00"), eq("FLAGGED"));
+	}
+
+	@Test
+	void decliningAndFlaggingRulesBothExceededDecline() {
+		VelocityRiskStage stage = new VelocityRiskStage(auditLog, true,
+				"card-hourly-amount=CARD.AMOUNT.1h>100:FLAG;customer-burst=CUSTOMER.COUNT.1m>1:DECLINE");
+		stage.record(CUSTOMER_ID, CARD, 200_00);
+
+		RiskDecision decision = stage.assess(CUSTOMER_ID, CARD, 200_00);
+
+		assertTrue(decision.declined());
+		assertEquals(List.of("card-hourly-amount", "customer-burst"), decision.rules());
+	}
+
+	@Test
+	void shippedRulesOnlyFlag() {
+		VelocityRiskStage stage = new VelocityRiskStage(auditLog, true, VelocityRiskStage.DEFAULT_RULES);
+
+		for (int i = 1; i <= 10; i++) {
+			RiskDecision decision = stage.assess(CUSTOMER_ID, CARD, 100_00);
+			assertFalse(decision.declined(), "debit " + i);
+			assertEquals(i > 5 ? RiskDecision.Action.FLAG : RiskDecision.Action.APPROVE, decision.action(), "debit " + i);
+			stage.record(CUSTOMER_ID, CARD, 100_00);
+		}
+		assertEquals(0, stage.getDeclinedCount());
+		assertEquals(5, stage.getFlaggedCount());
+	}
+
+	@Test
+	void disabledStageApprovesWithoutCounting() {
+		VelocityRiskStage stage = new VelocityRiskStage(auditLog, false, "card-burst=CARD.COUNT.1m>0:DECLINE");
+		stage.record(CUSTOMER_ID, CARD, 100_00);
+
+		assertSame(RiskDecision.APPROVED, stage.assess(CUSTOMER_ID, CARD, 100_00));
+		assertEquals(0, stage.getTrackedCardCount());
+		verifyNoInteractions(auditLog);
+	}
+}
@@ -0,0 +1,245 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.IdempotencyRecord;
+import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.exception.ConflictException;
+import com.Nikhil.CreditCardSystem.exception.ValidationException;
+import com.Nikhil.CreditCardSystem.repo.IdempotencyRecordRepository;
+import com.Nikhil.CreditCardSystem.util.ResponseStructure;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+	private static final String KEY = "order-1";
+	private static final String FINGERPRINT = "DEBIT|7|4111110000000042|150000";
+
+	private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+	private final AtomicInteger executions = new AtomicInteger();
+
+	@Test
+	void claimsExecutesCompletesAndReplaysFromMemory() {
+		IdempotencyService service = service();
+
+		ResponseEntity<ResponseStructure<CreditCardDto>> first = service.execute(KEY, FINGERPRINT, debited(985_000));
+		ResponseEntity<ResponseStructure<CreditCardDto>> second = service.execute(KEY, FINGERPRINT, debited(970_000));
+
+		assertEquals(1, executions.get());
+		verify(repository).claim(eq(KEY), eq(FINGERPRINT), any());
+		verify(repository).complete(eq(KEY), eq(200), anyString(), any());
+		verify(repository, never()).release(any());
+		verify(repository, times(1)).findById(KEY);
+		assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+		assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+		assertSame(first.getBody(), second.getBody());
+		assertEquals(1, service.getReplayedCount());
+	}
+
+	@Test
+	void replayFromTheDatabaseReturnsTheOriginalBody() throws Exception {
+		ResponseEntity<ResponseStructure<CreditCardDto>> original = service().execute(KEY, FINGERPRINT, debited(985_000));
+		ArgumentCaptor<String> storedBody = ArgumentCaptor.forClass(String.class);
+		verify(repository).complete(eq(KEY), eq(200), storedBody.capture(), any());
+
+		// Another instance (or this one after a restart) only has the completed row
+		IdempotencyRecord record = record(LocalDateTime.now().minusMinutes(5));
+		record.setHttpStatus(200);
+		record.setResponseBody(storedBody.getValue());
+		when(repository.findById(KEY)).thenReturn(Optional.of(record));
+
+		ResponseEntity<ResponseStructure<CreditCardDto>> replayed = service().execute(KEY, FINGERPRINT, debited(970_000));
+
+		assertEquals(1, executions.get());
+		assertEquals(HttpStatus.OK, replayed.getStatusCode());
+		assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+		assertEquals(objectMapper.writeValueAsString(original.getBody()), objectMapper.writeValueAsString(replayed.getBody()));
+		assertTrue(objectMapper.writeValueAsString(replayed.getBody()).contains("\"totalBalance\":9850.00,"));
+	}
+
+	@Test
+	void rejectionReleasesTheKeySoItCanBeRetried() {
+		IdempotencyService service = service();
+
+		ValidationException ex = assertThrows(ValidationException.class, () -> service.execute(KEY, FINGERPRINT, () -> {
+			executions.incrementAndGet();
+			throw new ValidationException("Daily debit limit exceeded");
+		}));
+		assertEquals("Daily debit limit exceeded", ex.getMessage());
+		verify(repository).release(KEY);
+		verify(repository, never()).complete(any(), anyInt(), any(), any());
+
+		service.execute(KEY, FINGERPRINT, debited(985_000));
+		assertEquals(2, executions.get());
+		verify(repository, times(2)).claim(eq(KEY), eq(FINGERPRINT), any());
+	}
+
+	@Test
+	void failureWithUnknownOutcomeLeavesTheKeyPending() {
+		IdempotencyService service = service();
+
+		assertThrows(QueryTimeoutException.class, () -> service.execute(KEY, FINGERPRINT, () -> {
+			executions.incrementAndGet();
+			throw new QueryTimeoutException("commit timed out");
+		}));
+		verify(repository, never()).release(any());
+		verify(repository, never()).complete(any(), anyInt(), any(), any());
+
+		// The claimed row stays without a response: the retry is answered 409 instead of debiting again
+		when(repository.findById(KEY)).thenReturn(Optional.of(record(LocalDateTime.now())));
+		ConflictException conflict = assertThrows(ConflictException.class,
+				() -> service.execute(KEY, FINGERPRINT, debited(985_000)));
+		assertTrue(conflict.getMessage().contains("did not complete"));
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void keyClaimedByAnotherInstanceAnswersConflict() {
+		doThrow(new DataIntegrityViolationException("duplicate key")).when(repository).claim(eq(KEY), any(), any());
+
+		assertThrows(ConflictException.class, () -> service().execute(KEY, FINGERPRINT, debited(985_000)));
+		assertEquals(0, executions.get());
+		verify(repository, never()).release(any());
+	}
+
+	@Test
+	void concurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+		IdempotencyService service = service();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		Future<ResponseEntity<ResponseStructure<CreditCardDto>>> first = pool.submit(() -> service.execute(KEY, FINGERPRINT, () -> {
+			started.countDown();
+			try {
+				finish.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return debited(985_000).get();
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// A different request reusing the key is refused right away, a duplicate waits
+		assertThrows(ValidationException.class, () -> service.execute(KEY, "DEBIT|7|4111110000000042|1", debited(0)));
+		Future<ResponseEntity<ResponseStructure<CreditCardDto>>> duplicate = pool.submit(() -> service.execute(KEY, FINGERPRINT, debited(970_000)));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (service.getCoalescedCount() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(1, service.getCoalescedCount());
+		assertFalse(duplicate.isDone());
+
+		finish.countDown();
+		assertSame(first.get(5, TimeUnit.SECONDS).getBody(), duplicate.get(5, TimeUnit.SECONDS).getBody());
+		assertEquals("true", duplicate.get().getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+		assertEquals(1, executions.get());
+		assertEquals(0, service.getInFlightCount());
+		pool.shutdown();
+	}
+
+	@Test
+	void storedResponseIsNotReplayedForADifferentRequest() {
+		IdempotencyService service = service();
+		service.execute(KEY, FINGERPRINT, debited(985_000));
+
+		ValidationException ex = assertThrows(ValidationException.class,
+				() -> service.execute(KEY, "CREDIT|7|4111110000000042|150000", debited(0)));
+		assertEquals(IdempotencyService.HEADER + " has already been used for a different request", ex.getMessage());
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void expiredRecordIsReleasedAndTheKeyExecutesAgain() {
+		IdempotencyRecord record = record(LocalDateTime.now().minusDays(2));
+		record.setHttpStatus(200);
+		record.setResponseBody("{}");
+		when(repository.findById(KEY)).thenReturn(Optional.of(record));
+
+		ResponseEntity<ResponseStructure<CreditCardDto>> response = service().execute(KEY, FINGERPRINT, debited(985_000));
+
+		assertEquals(1, executions.get());
+		assertNull(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+		var order = inOrder(repository);
+		order.verify(repository).release(KEY);
+		order.verify(repository).claim(eq(KEY), eq(FINGERPRINT), any());
+		order.verify(repository).complete(eq(KEY), eq(200), anyString(), any());
+	}
+
+	@Test
+	void unsuccessfulResponseIsNotStored() {
+		IdempotencyService service = service();
+		Supplier<ResponseEntity<ResponseStructure<CreditCardDto>>> failed = () -> {
+			executions.incrementAndGet();
+			ResponseStructure<CreditCardDto> body = new ResponseStructure<>();
+			body.setMessage("Card is blocked");
+			body.setHttpstatus("FAILED");
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+		};
+
+		assertEquals(HttpStatus.BAD_REQUEST, service.execute(KEY, FINGERPRINT, failed).getStatusCode());
+		verify(repository).release(KEY);
+		verify(repository, never()).complete(any(), anyInt(), any(), any());
+		service.execute(KEY, FINGERPRINT, failed);
+		assertEquals(2, executions.get());
+	}
+
+	private IdempotencyService service() {
+		IdempotencyService service = new IdempotencyService(repository, objectMapper);
+		ReflectionTestUtils.setField(service, "ttlMs", 86_400_000L);
+		ReflectionTestUtils.setField(service, "maxEntries", 100);
+		ReflectionTestUtils.setField(service, "waitTimeoutMs", 5_000L);
+		return service;
+	}
+
+	private Supplier<ResponseEntity<ResponseStructure<CreditCardDto>>> debited(long totalBalance) {
+		return () -> {
+			executions.incrementAndGet();
+			CreditCardDto dto = new CreditCardDto();
+			dto.setCardNumber("4111110000000042");
+			dto.setCardHolderName("Asha");
+			dto.setCardType("VISA");
+			dto.setActive(true);
+			dto.setTotalBalance(totalBalance);
+			dto.setIssueDate(LocalDate.of(2025, 1, 10));
+			dto.setExpiryDate(LocalDate.of(2030, 1, 10));
+			ResponseStructure<CreditCardDto> body = new ResponseStructure<>();
+			body.setMessage("Amount debited successfully");
+			body.setHttpstatus("SUCCESS");
+			body.setData(dto);
+			return ResponseEntity.ok(body);
+		};
+	}
+
+	private static IdempotencyRecord record(LocalDateTime createdAt) {
+		IdempotencyRecord record = new IdempotencyRecord();
+		record.setIdempotencyKey(KEY);
+		record.setFingerprint(FINGERPRINT);
+		record.setCreatedAt(createdAt);
+		return record;
+	}
+}
@@ -0,0 +1,66 @@
+package com.Nikhil.CreditCardSystem.service;
+
+import com.Nikhil.CreditCardSystem.Entity.UserActionLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserActionLogServiceTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void replayResumesAfterTheLastCommittedBatch() throws IOException {
+		Path spill = dir.resolve("audit-spill.log");
+		List<String> lines = new ArrayList<>();
+		for (String name : List.of("a", "b", "c", "d", "e")) {
+			lines.add(LocalDateTime.of(2026, 10, 17, 9, 0) + "\t" + name + "\tLOGIN\tSUCCESS");
+		}
+		Files.write(spill, lines);
+
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		List<String> inserted = new ArrayList<>();
+		int[] calls = {0};
+		when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+				.thenAnswer(invocation -> {
+					// The second batch fails once, after the first one was committed
+					if (++calls[0] == 2) {
+						throw new DataAccessResourceFailureException("connection reset");
+					}
+					Collection<UserActionLog> batch = invocation.getArgument(1);
+					batch.forEach(log -> inserted.add(log.getName()));
+					return new int[0][];
+				});
+
+		UserActionLogService service = new UserActionLogService(jdbcTemplate);
+		ReflectionTestUtils.setField(service, "batchSize", 2);
+		ReflectionTestUtils.setField(service, "spillFile", spill.toString());
+
+		ReflectionTestUtils.invokeMethod(service, "replaySpill");
+		assertEquals(List.of("a", "b"), inserted);
+		assertTrue(Files.exists(dir.resolve("audit-spill.log.replay")));
+
+		ReflectionTestUtils.invokeMethod(service, "replaySpill");
+		assertEquals(List.of("a", "b", "c", "d", "e"), inserted);
+		assertEquals(5, service.getFlushedCount());
+		assertFalse(Files.exists(dir.resolve("audit-spill.log.replay")));
+		assertFalse(Files.exists(dir.resolve("audit-spill.log.replay.offset")));
+	}
+}
@@ -0,0 +1,41 @@
+package com.Nikhil.CreditCardSystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardNumbersTest {
+
+	@Test
+	void luhnCheckDigitMatchesKnownNumbers() {
+		assertEquals(3, CardNumbers.luhnCheckDigit("7992739871"));
+		assertTrue(CardNumbers.isValid("4111111111111111"));
+		assertTrue(CardNumbers.isValid("5105105105105100"));
+		assertFalse(CardNumbers.isValid("4111111111111112"));
+	}
+
+	@Test
+	void composeKeepsBinAndLength() {
+		String number = CardNumbers.compose("411111", 42);
+		assertEquals(16, number.length());
+		assertTrue(number.startsWith("411111000000042"));
+		assertTrue(CardNumbers.isValid(number));
+		assertThrows(IllegalArgumentException.class, () -> CardNumbers.compose("411111", 1_000_000_000L));
+	}
+
+	@Test
+	void feistelPermutationIsABijection() {
+		int domain = 100_000;
+		FeistelPermutation permutation = new FeistelPermutation(domain, 12345L);
+		BitSet seen = new BitSet(domain);
+		for (int i = 0; i < domain; i++) {
+			long value = permutation.permute(i);
+			assertTrue(value >= 0 && value < domain);
+			assertFalse(seen.get((int) value), "duplicate output " + value);
+			seen.set((int) value);
+		}
+		assertNotEquals(1, permutation.permute(0) - permutation.permute(1));
+	}
+}
@@ -0,0 +1,57 @@
+package com.Nikhil.CreditCardSystem.util;
+
+import com.Nikhil.CreditCardSystem.dto.CreditCardDto;
+import com.Nikhil.CreditCardSystem.exception.InvalidInputException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+	@Test
+	void convertsBetweenMajorAndMinorUnitsExactly() {
+		assertEquals(123450, Money.fromMajor(new BigDecimal("1234.5")));
+		assertEquals(1, Money.parse("0.01"));
+		assertEquals(5_000_000, Money.ofMajor(50_000));
+		assertEquals(new BigDecimal("1234.50"), Money.toMajor(123450));
+	}
+
+	@Test
+	void rejectsSubMinorPrecision() {
+		assertThrows(InvalidInputException.class, () -> Money.parse("10.005"));
+		assertThrows(InvalidInputException.class, () -> Money.parse("abc"));
+	}
+
+	@Test
+	void formatsWithTwoDecimals() {
+		assertEquals("1234.50", Money.format(123450));
+		assertEquals("0.07", Money.format(7));
+		assertEquals("-3.10", Money.format(-310));
+	}
+
+	@Test
+	void repeatedCentsDoNotDrift() {
+		long balance = 0;
+		for (int i = 0; i < 1000; i++) {
+			balance += Money.parse("0.10");
+		}
+		assertEquals(Money.ofMajor(100), balance);
+	}
+
+	@Test
+	void jsonAmountsBindExactlyAndFailAsJsonInputErrors() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		CreditCardDto dto = mapper.readValue("{\"totalBalance\": 1234.5}", CreditCardDto.class);
+		assertEquals(123450, dto.getTotalBalance());
+		assertTrue(mapper.writeValueAsString(dto).contains("\"totalBalance\":1234.50"));
+
+		InvalidFormatException ex = assertThrows(InvalidFormatException.class,
+				() -> mapper.readValue("{\"totalBalance\": 10.005}", CreditCardDto.class));
+		assertEquals("totalBalance", ex.getPath().get(0).getFieldName());
+		assertThrows(InvalidFormatException.class, () -> mapper.readValue("{\"totalBalance\": \"abc\"}", CreditCardDto.class));
+	}
+}